@@ -3,6 +3,8 @@ CREATE CONSTRAINT component_name IF NOT EXISTS FOR (c:Component) REQUIRE c.name
 CREATE CONSTRAINT file_path IF NOT EXISTS FOR (f:File) REQUIRE f.path IS UNIQUE;
 CREATE CONSTRAINT class_unique IF NOT EXISTS FOR (c:Class) REQUIRE c.fullName IS UNIQUE;
 CREATE CONSTRAINT method_unique IF NOT EXISTS FOR (m:Method) REQUIRE m.fullSignature IS UNIQUE;
+CREATE CONSTRAINT code_summary_name IF NOT EXISTS FOR (s:CodeSummary) REQUIRE s.name IS UNIQUE;
+CREATE CONSTRAINT language_summary_language IF NOT EXISTS FOR (s:LanguageSummary) REQUIRE s.language IS UNIQUE;
 
 // Create indexes for performance
 CREATE INDEX file_language IF NOT EXISTS FOR (f:File) ON (f.language);
@@ -14,3 +16,8 @@ CREATE INDEX component_cohesion IF NOT EXISTS FOR (c:Component) ON (c.cohesion);
 CREATE INDEX component_coupling IF NOT EXISTS FOR (c:Component) ON (c.coupling);
 CREATE INDEX class_complexity IF NOT EXISTS FOR (c:Class) ON (c.complexity);
 CREATE INDEX method_complexity IF NOT EXISTS FOR (m:Method) ON (m.complexity);
+CREATE INDEX method_line_count IF NOT EXISTS FOR (m:Method) ON (m.lineCount);
+CREATE INDEX file_package_name IF NOT EXISTS FOR (f:File) ON (f.packageName);
+
+// Create indexes for incremental ingest
+CREATE INDEX file_unit_id IF NOT EXISTS FOR (f:File) ON (f.unitId);
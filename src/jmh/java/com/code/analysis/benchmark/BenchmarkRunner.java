@@ -0,0 +1,29 @@
+package com.code.analysis.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks with the GC profiler enabled, so every result reports
+ * allocation rate ({@code gc.alloc.rate.norm}, bytes per operation) next to
+ * throughput. Accepts the standard JMH command line, e.g. a benchmark name
+ * pattern or {@code -p size=HUGE}.
+ */
+public final class BenchmarkRunner {
+
+  private BenchmarkRunner() {
+    // Prevent instantiation
+  }
+
+  public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+    var options = new OptionsBuilder()
+      .parent(new CommandLineOptions(args))
+      .addProfiler(GCProfiler.class)
+      .build();
+    new Runner(options).run();
+  }
+}
@@ -0,0 +1,67 @@
+package com.code.analysis.benchmark;
+
+import com.code.analysis.core.AnalysisLevel;
+import com.code.analysis.core.model.CodeUnit;
+import com.code.analysis.java.JavaAnalyzer;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * End-to-end cost of {@link JavaAnalyzer#parseFile(Path)}, reading, parsing and
+ * converting one file, with and without symbol resolution.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JavaAnalyzerBenchmark {
+
+  @Param({ "SMALL", "MEDIUM", "HUGE" })
+  private SourceSize size;
+
+  @Param({ "SYNTAX_ONLY", "RESOLVED" })
+  private AnalysisLevel level;
+
+  private Path sourceRoot;
+  private Path file;
+  private JavaAnalyzer analyzer;
+
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    sourceRoot = Files.createTempDirectory("analyzer-bench");
+    Path packageDir = Files.createDirectories(sourceRoot.resolve("com/example/bench"));
+    file = Files.writeString(packageDir.resolve("Fixture.java"), size.source());
+    analyzer = new JavaAnalyzer(sourceRoot, level);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    Files.deleteIfExists(file);
+    Files.deleteIfExists(file.getParent());
+    Files.deleteIfExists(file.getParent().getParent());
+    Files.deleteIfExists(file.getParent().getParent().getParent());
+    Files.deleteIfExists(sourceRoot);
+  }
+
+  @Benchmark
+  public CodeUnit parseFile() throws IOException {
+    return analyzer.parseFile(file);
+  }
+}
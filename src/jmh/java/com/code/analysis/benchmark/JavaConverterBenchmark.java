@@ -0,0 +1,52 @@
+package com.code.analysis.benchmark;
+
+import com.code.analysis.core.model.CodeUnit;
+import com.code.analysis.java.converter.JavaConverter;
+import com.github.javaparser.JavaParser;
+import com.github.javaparser.ParserConfiguration;
+import com.github.javaparser.ast.CompilationUnit;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of {@link JavaConverter#convert(CompilationUnit)} alone, on compilation
+ * units parsed once up front.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JavaConverterBenchmark {
+
+  @Param({ "SMALL", "MEDIUM", "HUGE" })
+  private SourceSize size;
+
+  private CompilationUnit compilationUnit;
+  private JavaConverter converter;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    var config = new ParserConfiguration()
+      .setLanguageLevel(ParserConfiguration.LanguageLevel.JAVA_17);
+    compilationUnit = new JavaParser(config).parse(size.source()).getResult().orElseThrow();
+    converter = new JavaConverter();
+  }
+
+  @Benchmark
+  public CodeUnit convert() {
+    return converter.convert(compilationUnit);
+  }
+}
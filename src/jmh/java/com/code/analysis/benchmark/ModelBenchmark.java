@@ -0,0 +1,81 @@
+package com.code.analysis.benchmark;
+
+import com.code.analysis.core.model.CodeUnit;
+import com.code.analysis.core.model.Definition;
+import com.code.analysis.core.model.DefinitionKind;
+import com.code.analysis.core.model.UnitType;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Cost of building the language-agnostic model: {@link Definition} instances
+ * with typical method metadata and a {@link CodeUnit} holding them.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ModelBenchmark {
+
+  @Param({ "10", "1000" })
+  private int definitionCount;
+
+  private List<Definition> definitions;
+  private Map<String, Object> metadata;
+
+  @Setup(Level.Trial)
+  public void setUp() {
+    metadata = Map.of(
+      "returnType", "int",
+      "parameters", List.of("items", "limit"),
+      "isStatic", false,
+      "declaringType", "com.example.bench.Fixture",
+      "signature", "com.example.bench.Fixture.compute(List<String>, int)"
+    );
+    definitions = new ArrayList<>(definitionCount);
+    for (int i = 0; i < definitionCount; i++) {
+      definitions.add(definition(i));
+    }
+  }
+
+  @Benchmark
+  public Definition definition() {
+    return definition(0);
+  }
+
+  @Benchmark
+  public CodeUnit codeUnit() {
+    return CodeUnit.builder()
+      .id("unit")
+      .name("Fixture.java")
+      .type(UnitType.FILE)
+      .definitions(definitions)
+      .metadata(Map.of("language", "Java", "path", "com/example/bench/Fixture.java"))
+      .build();
+  }
+
+  private Definition definition(int index) {
+    return Definition.builder()
+      .id("definition-" + index)
+      .name("compute")
+      .kind(DefinitionKind.FUNCTION)
+      .metadata(metadata)
+      .build();
+  }
+}
@@ -0,0 +1,83 @@
+package com.code.analysis.benchmark;
+
+/**
+ * Synthetic compilation units of increasing size, shaped like ordinary
+ * application code: documented classes with fields, constructors and methods
+ * containing branches and loops.
+ */
+public enum SourceSize {
+  /** One class with a handful of methods, e.g. a DTO or small service. */
+  SMALL(1, 5),
+
+  /** A few classes with a few dozen methods each. */
+  MEDIUM(4, 30),
+
+  /** A generated-code sized file with thousands of methods. */
+  HUGE(20, 150);
+
+  private final int types;
+  private final int methodsPerType;
+
+  SourceSize(int types, int methodsPerType) {
+    this.types = types;
+    this.methodsPerType = methodsPerType;
+  }
+
+  /**
+   * @return the source of a compilation unit named {@code Fixture} in the
+   *         {@code com.example.bench} package
+   */
+  public String source() {
+    var source = new StringBuilder()
+      .append("package com.example.bench;\n\n")
+      .append("import java.util.ArrayList;\n")
+      .append("import java.util.List;\n")
+      .append("import java.util.Map;\n\n")
+      .append("/** Benchmark fixture. */\n")
+      .append("public class Fixture {\n");
+    for (int type = 0; type < types; type++) {
+      appendType(source, type);
+    }
+    return source.append("}\n").toString();
+  }
+
+  private void appendType(StringBuilder source, int type) {
+    source
+      .append("  /**\n   * Nested type ")
+      .append(type)
+      .append(".\n   * @author bench\n   */\n")
+      .append("  public static class Type")
+      .append(type)
+      .append(" extends ArrayList<String> implements Runnable {\n")
+      .append("    private final Map<String, Integer> counts;\n\n")
+      .append("    public Type")
+      .append(type)
+      .append("(Map<String, Integer> counts) {\n      this.counts = counts;\n    }\n\n")
+      .append("    public void run() {}\n\n");
+    for (int method = 0; method < methodsPerType; method++) {
+      appendMethod(source, method);
+    }
+    source.append("  }\n\n");
+  }
+
+  private static void appendMethod(StringBuilder source, int method) {
+    source
+      .append("    /**\n     * Computes value ")
+      .append(method)
+      .append(".\n     * @param items the items\n     * @param limit the limit\n")
+      .append("     * @return the computed value\n     */\n")
+      .append("    public int compute")
+      .append(method)
+      .append("(List<String> items, int limit) {\n")
+      .append("      int total = 0;\n")
+      .append("      for (String item : items) {\n")
+      .append("        if (item.length() > limit && counts.containsKey(item)) {\n")
+      .append("          total += counts.get(item);\n")
+      .append("        } else {\n")
+      .append("          total--;\n")
+      .append("        }\n")
+      .append("      }\n")
+      .append("      return total;\n")
+      .append("    }\n\n");
+  }
+}
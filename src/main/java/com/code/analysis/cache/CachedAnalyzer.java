@@ -0,0 +1,117 @@
+package com.code.analysis.cache;
+
+import com.code.analysis.core.AnalysisLevel;
+import com.code.analysis.core.CodeAnalyzer;
+import com.code.analysis.core.model.CodeUnit;
+import com.code.analysis.core.model.Definition;
+import com.code.analysis.core.model.Documentation;
+import com.code.analysis.core.model.ModelValidator;
+import com.code.analysis.index.FileFingerprint;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Decorates a {@link CodeAnalyzer} with a {@link UnitCache}: a file whose
+ * content has been analyzed before is decoded from the cache instead of being
+ * parsed again, and freshly analyzed files are added to it.
+ *
+ * The cache key combines the analysis level, the content hash and the path
+ * of the file relative to the source root, because the converted unit's id
+ * and {@code path} metadata are derived from that path: identical files in
+ * different directories, or a file moved without edits, are distinct units.
+ * Without a source root, or for a file outside it, the absolute path is used.
+ * At {@link AnalysisLevel#RESOLVED} a unit also depends on the other
+ * files its references resolve against, which the key does not capture: a
+ * cached unit keeps the references resolved when it was converted until its
+ * own content changes. Clear the cache after changes that move or rename
+ * types, or cache at {@link AnalysisLevel#SYNTAX_ONLY} only, where units
+ * depend on nothing but their own file.
+ *
+ * The cache only ever saves work: a unit that cannot be stored is still
+ * returned.
+ *
+ * Example usage:
+ *
+ * <pre>
+ * factory.registerConverter(
+ *   "java",
+ *   root -> new CachedAnalyzer(new JavaAnalyzer(root, level), cache, level, root)
+ * );
+ * </pre>
+ */
+public class CachedAnalyzer implements CodeAnalyzer {
+
+  private final CodeAnalyzer delegate;
+  private final UnitCache cache;
+  private final AnalysisLevel level;
+  private final Path sourceRoot;
+
+  /**
+   * Creates a cached analyzer keying files by their absolute path.
+   *
+   * @param delegate The analyzer producing units on a cache miss
+   * @param cache    The cache to read and fill
+   * @param level    The level the delegate analyzes at
+   */
+  public CachedAnalyzer(CodeAnalyzer delegate, UnitCache cache, AnalysisLevel level) {
+    this(delegate, cache, level, null);
+  }
+
+  /**
+   * @param delegate   The analyzer producing units on a cache miss
+   * @param cache      The cache to read and fill
+   * @param level      The level the delegate analyzes at
+   * @param sourceRoot The root the delegate identifies files relative to, or
+   *                   null if it has none
+   */
+  public CachedAnalyzer(
+    CodeAnalyzer delegate,
+    UnitCache cache,
+    AnalysisLevel level,
+    Path sourceRoot
+  ) {
+    ModelValidator.validateNotNull(delegate, "Analyzer");
+    ModelValidator.validateNotNull(cache, "Unit cache");
+    ModelValidator.validateNotNull(level, "Analysis level");
+    this.delegate = delegate;
+    this.cache = cache;
+    this.level = level;
+    this.sourceRoot = sourceRoot != null ? sourceRoot.toAbsolutePath().normalize() : null;
+  }
+
+  @Override
+  public CodeUnit parseFile(Path path) throws IOException {
+    String key =
+      level.name() + "/" + FileFingerprint.of(path).contentHash() + "/" + keyPath(path);
+    var cached = cache.get(key);
+    if (cached.isPresent()) {
+      return cached.get();
+    }
+    CodeUnit unit = delegate.parseFile(path);
+    try {
+      cache.put(key, unit);
+    } catch (IOException | RuntimeException e) {
+      // A cache that cannot be written to only costs the next run a miss
+    }
+    return unit;
+  }
+
+  private String keyPath(Path path) {
+    Path file = path.toAbsolutePath().normalize();
+    if (sourceRoot != null && file.startsWith(sourceRoot) && !file.equals(sourceRoot)) {
+      return sourceRoot.relativize(file).toString().replace('\\', '/');
+    }
+    return file.toString();
+  }
+
+  @Override
+  public List<Definition> extractDefinitions(CodeUnit unit) {
+    return delegate.extractDefinitions(unit);
+  }
+
+  @Override
+  public List<Documentation> extractDocumentation(CodeUnit unit) {
+    return delegate.extractDocumentation(unit);
+  }
+}
@@ -0,0 +1,470 @@
+package com.code.analysis.cache;
+
+import com.code.analysis.core.model.CodeUnit;
+import com.code.analysis.core.model.Definition;
+import com.code.analysis.core.model.DefinitionKind;
+import com.code.analysis.core.model.Documentation;
+import com.code.analysis.core.model.DocumentationFormat;
+import com.code.analysis.core.model.DocumentationTag;
+import com.code.analysis.core.model.IntArrayList;
+import com.code.analysis.core.model.ModelValidator;
+import com.code.analysis.core.model.Position;
+import com.code.analysis.core.model.Reference;
+import com.code.analysis.core.model.ReferenceKind;
+import com.code.analysis.core.model.Scope;
+import com.code.analysis.core.model.ScopeLevel;
+import com.code.analysis.core.model.UnitType;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact binary encoding of a {@link CodeUnit} and everything it contains.
+ *
+ * Every distinct string - names, ids, metadata keys and values - is stored
+ * once in a string table at the start of the record and referenced by index
+ * afterwards; integers are written as variable-length quantities. Decoding is
+ * a single forward pass with no reflection and no parsing.
+ *
+ * Metadata values may be strings, booleans, integers, longs, floating point
+ * numbers, lists and string-keyed maps of those. Floats are decoded as
+ * doubles. An {@link IntArrayList} is stored as four bytes per element and
+ * decoded as one.
+ */
+public final class CodeUnitCodec {
+
+  private static final int FORMAT_VERSION = 5;
+
+  private static final int VALUE_NULL = 0;
+  private static final int VALUE_STRING = 1;
+  private static final int VALUE_TRUE = 2;
+  private static final int VALUE_FALSE = 3;
+  private static final int VALUE_INT = 4;
+  private static final int VALUE_LONG = 5;
+  private static final int VALUE_DOUBLE = 6;
+  private static final int VALUE_LIST = 7;
+  private static final int VALUE_MAP = 8;
+  private static final int VALUE_INT_ARRAY = 9;
+
+  private CodeUnitCodec() {
+    // Prevent instantiation
+  }
+
+  /**
+   * @param unit The unit to encode
+   * @return the encoded unit
+   * @throws IllegalArgumentException if unit is null or holds metadata of an
+   *         unsupported type
+   */
+  public static byte[] encode(CodeUnit unit) {
+    ModelValidator.validateNotNull(unit, "Code unit");
+    var body = new Encoder();
+    body.unit(unit);
+
+    var out = new Output();
+    out.varint(FORMAT_VERSION);
+    out.varint(body.strings.size());
+    for (String string : body.strings.keySet()) {
+      byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+      out.varint(bytes.length);
+      out.bytes(bytes, bytes.length);
+    }
+    out.bytes(body.out.buffer, body.out.size);
+    return out.toByteArray();
+  }
+
+  /**
+   * @param bytes A buffer positioned at an encoded unit; its position is
+   *              advanced past the unit
+   * @return the decoded unit
+   * @throws IllegalArgumentException if the buffer does not hold a unit in a
+   *         supported format
+   */
+  public static CodeUnit decode(ByteBuffer bytes) {
+    ModelValidator.validateNotNull(bytes, "Buffer");
+    int version = varint(bytes);
+    if (version != FORMAT_VERSION) {
+      throw new IllegalArgumentException("Unsupported code unit format version: " + version);
+    }
+    String[] strings = new String[varint(bytes)];
+    for (int i = 0; i < strings.length; i++) {
+      byte[] utf8 = new byte[varint(bytes)];
+      bytes.get(utf8);
+      strings[i] = new String(utf8, StandardCharsets.UTF_8);
+    }
+    return new Decoder(bytes, strings).unit();
+  }
+
+  /**
+   * Writes the structure of a unit, collecting its strings as it goes.
+   */
+  private static final class Encoder {
+
+    private final Map<String, Integer> strings = new LinkedHashMap<>();
+    private final Output out = new Output();
+
+    void unit(CodeUnit unit) {
+      string(unit.id());
+      string(unit.name());
+      enumValue(unit.type());
+      out.varint(unit.definitions().size());
+      unit.definitions().forEach(this::definition);
+      out.varint(unit.dependencies().size());
+      unit.dependencies().forEach(this::unit);
+      documentation(unit.documentation());
+      metadata(unit.metadata());
+    }
+
+    private void definition(Definition definition) {
+      string(definition.id());
+      string(definition.name());
+      enumValue(definition.kind());
+      scope(definition.scope());
+      position(definition.position());
+      documentation(definition.documentation());
+      metadata(definition.metadata());
+      out.varint(definition.references().size());
+      definition.references().forEach(reference -> {
+        enumValue(reference.kind());
+        string(reference.targetName());
+      });
+    }
+
+    private void scope(Scope scope) {
+      out.varint(scope == null ? 0 : 1);
+      if (scope != null) {
+        enumValue(scope.level());
+        position(scope.start());
+        position(scope.end());
+        out.varint(scope.children().size());
+        scope.children().forEach(this::scope);
+        metadata(scope.metadata());
+      }
+    }
+
+    private void documentation(Documentation documentation) {
+      out.varint(documentation == null ? 0 : 1);
+      if (documentation != null) {
+        string(documentation.id());
+        string(documentation.description());
+        enumValue(documentation.format());
+        position(documentation.position());
+        out.varint(documentation.tags().size());
+        documentation.tags().forEach(tag -> {
+          string(tag.id());
+          string(tag.name());
+          string(tag.value());
+          metadata(tag.metadata());
+        });
+        metadata(documentation.metadata());
+      }
+    }
+
+    private void position(Position position) {
+      out.varint(position == null ? 0 : 1);
+      if (position != null) {
+        out.zigzag(position.line());
+        out.zigzag(position.column());
+        out.zigzag(position.offset());
+      }
+    }
+
+    private void metadata(Map<String, ?> metadata) {
+      out.varint(metadata.size());
+      metadata.forEach((key, value) -> {
+        string(key);
+        value(value);
+      });
+    }
+
+    private void value(Object value) {
+      if (value == null) {
+        out.varint(VALUE_NULL);
+      } else if (value instanceof String text) {
+        out.varint(VALUE_STRING);
+        string(text);
+      } else if (value instanceof Boolean bool) {
+        out.varint(bool ? VALUE_TRUE : VALUE_FALSE);
+      } else if (value instanceof Integer number) {
+        out.varint(VALUE_INT);
+        out.zigzag(number);
+      } else if (value instanceof Long number) {
+        out.varint(VALUE_LONG);
+        out.zigzag(number);
+      } else if (value instanceof Double || value instanceof Float) {
+        out.varint(VALUE_DOUBLE);
+        out.fixed64(Double.doubleToRawLongBits(((Number) value).doubleValue()));
+      } else if (value instanceof IntArrayList list) {
+        out.varint(VALUE_INT_ARRAY);
+        out.varint(list.size());
+        for (int i = 0; i < list.size(); i++) {
+          out.fixed32(list.getInt(i));
+        }
+      } else if (value instanceof List<?> list) {
+        out.varint(VALUE_LIST);
+        out.varint(list.size());
+        list.forEach(this::value);
+      } else if (value instanceof Map<?, ?> map) {
+        out.varint(VALUE_MAP);
+        out.varint(map.size());
+        map.forEach((key, entry) -> {
+          string(String.valueOf(key));
+          value(entry);
+        });
+      } else {
+        throw new IllegalArgumentException(
+          "Unsupported metadata value type: " + value.getClass().getName()
+        );
+      }
+    }
+
+    private void enumValue(Enum<?> value) {
+      out.varint(value == null ? 0 : value.ordinal() + 1);
+    }
+
+    private void string(String value) {
+      if (value == null) {
+        out.varint(0);
+        return;
+      }
+      Integer index = strings.putIfAbsent(value, strings.size());
+      out.varint((index != null ? index : strings.size() - 1) + 1);
+    }
+  }
+
+  /**
+   * Reads the structure written by {@link Encoder}.
+   */
+  private static final class Decoder {
+
+    private static final UnitType[] UNIT_TYPES = UnitType.values();
+    private static final DefinitionKind[] DEFINITION_KINDS = DefinitionKind.values();
+    private static final ReferenceKind[] REFERENCE_KINDS = ReferenceKind.values();
+    private static final ScopeLevel[] SCOPE_LEVELS = ScopeLevel.values();
+    private static final DocumentationFormat[] DOCUMENTATION_FORMATS = DocumentationFormat.values();
+
+    private final ByteBuffer in;
+    private final String[] strings;
+
+    Decoder(ByteBuffer in, String[] strings) {
+      this.in = in;
+      this.strings = strings;
+    }
+
+    CodeUnit unit() {
+      var builder = CodeUnit.builder().id(string()).name(string()).type(enumValue(UNIT_TYPES));
+      int definitionCount = varint(in);
+      List<Definition> definitions = new ArrayList<>(definitionCount);
+      for (int i = 0; i < definitionCount; i++) {
+        definitions.add(definition());
+      }
+      int dependencyCount = varint(in);
+      List<CodeUnit> dependencies = new ArrayList<>(dependencyCount);
+      for (int i = 0; i < dependencyCount; i++) {
+        dependencies.add(unit());
+      }
+      return builder
+        .definitions(definitions)
+        .dependencies(dependencies)
+        .documentation(documentation())
+        .metadata(metadata())
+        .build();
+    }
+
+    private Definition definition() {
+      var definition = Definition.builder()
+        .id(string())
+        .name(string())
+        .kind(enumValue(DEFINITION_KINDS))
+        .scope(scope())
+        .position(position())
+        .documentation(documentation())
+        .metadata(metadata())
+        .build();
+      for (int i = varint(in); i > 0; i--) {
+        definition.addReference(new Reference(enumValue(REFERENCE_KINDS), string()));
+      }
+      return definition;
+    }
+
+    private Scope scope() {
+      if (varint(in) == 0) {
+        return null;
+      }
+      var builder = Scope.builder()
+        .level(enumValue(SCOPE_LEVELS))
+        .start(position())
+        .end(position());
+      int count = varint(in);
+      List<Scope> children = new ArrayList<>(count);
+      for (int i = 0; i < count; i++) {
+        children.add(scope());
+      }
+      return builder.children(children).metadata(metadata()).build();
+    }
+
+    private Documentation documentation() {
+      if (varint(in) == 0) {
+        return null;
+      }
+      var builder = Documentation.builder()
+        .id(string())
+        .description(string())
+        .format(enumValue(DOCUMENTATION_FORMATS))
+        .position(position());
+      int count = varint(in);
+      List<DocumentationTag> tags = new ArrayList<>(count);
+      for (int i = 0; i < count; i++) {
+        tags.add(
+          DocumentationTag.builder()
+            .id(string())
+            .name(string())
+            .value(string())
+            .metadata(metadata())
+            .build()
+        );
+      }
+      return builder.tags(tags).metadata(metadata()).build();
+    }
+
+    private Position position() {
+      if (varint(in) == 0) {
+        return null;
+      }
+      return new Position((int) zigzag(in), (int) zigzag(in), (int) zigzag(in));
+    }
+
+    private Map<String, Object> metadata() {
+      int count = varint(in);
+      Map<String, Object> metadata = new HashMap<>(count * 2);
+      for (int i = 0; i < count; i++) {
+        metadata.put(string(), value());
+      }
+      return metadata;
+    }
+
+    private Object value() {
+      int tag = varint(in);
+      return switch (tag) {
+        case VALUE_NULL -> null;
+        case VALUE_STRING -> string();
+        case VALUE_TRUE -> Boolean.TRUE;
+        case VALUE_FALSE -> Boolean.FALSE;
+        case VALUE_INT -> (int) zigzag(in);
+        case VALUE_LONG -> zigzag(in);
+        case VALUE_DOUBLE -> Double.longBitsToDouble(in.getLong());
+        case VALUE_LIST -> {
+          int count = varint(in);
+          List<Object> list = new ArrayList<>(count);
+          for (int i = 0; i < count; i++) {
+            list.add(value());
+          }
+          yield list;
+        }
+        case VALUE_MAP -> metadata();
+        case VALUE_INT_ARRAY -> {
+          int[] values = new int[varint(in)];
+          for (int i = 0; i < values.length; i++) {
+            values[i] = in.getInt();
+          }
+          yield IntArrayList.of(values);
+        }
+        default -> throw new IllegalArgumentException("Unknown metadata value tag: " + tag);
+      };
+    }
+
+    private <E extends Enum<E>> E enumValue(E[] values) {
+      int ordinal = varint(in);
+      return ordinal == 0 ? null : values[ordinal - 1];
+    }
+
+    private String string() {
+      int index = varint(in);
+      return index == 0 ? null : strings[index - 1];
+    }
+  }
+
+  /**
+   * Growable byte buffer with variable-length integer encoding.
+   */
+  private static final class Output {
+
+    private byte[] buffer = new byte[256];
+    private int size;
+
+    void varint(long value) {
+      while ((value & ~0x7FL) != 0) {
+        write((int) ((value & 0x7F) | 0x80));
+        value >>>= 7;
+      }
+      write((int) value);
+    }
+
+    void zigzag(long value) {
+      varint((value << 1) ^ (value >> 63));
+    }
+
+    void fixed32(int value) {
+      for (int shift = 24; shift >= 0; shift -= 8) {
+        write(value >>> shift);
+      }
+    }
+
+    void fixed64(long value) {
+      for (int shift = 56; shift >= 0; shift -= 8) {
+        write((int) (value >>> shift));
+      }
+    }
+
+    void bytes(byte[] source, int length) {
+      ensureCapacity(length);
+      System.arraycopy(source, 0, buffer, size, length);
+      size += length;
+    }
+
+    byte[] toByteArray() {
+      return Arrays.copyOf(buffer, size);
+    }
+
+    private void write(int b) {
+      ensureCapacity(1);
+      buffer[size++] = (byte) b;
+    }
+
+    private void ensureCapacity(int extra) {
+      if (size + extra > buffer.length) {
+        buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, size + extra));
+      }
+    }
+  }
+
+  private static int varint(ByteBuffer in) {
+    long value = varlong(in);
+    if (value > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("Corrupt code unit: count out of range");
+    }
+    return (int) value;
+  }
+
+  private static long zigzag(ByteBuffer in) {
+    long encoded = varlong(in);
+    return (encoded >>> 1) ^ -(encoded & 1);
+  }
+
+  private static long varlong(ByteBuffer in) {
+    long value = 0;
+    for (int shift = 0; shift < 64; shift += 7) {
+      byte b = in.get();
+      value |= (long) (b & 0x7F) << shift;
+      if ((b & 0x80) == 0) {
+        return value;
+      }
+    }
+    throw new IllegalArgumentException("Corrupt code unit: malformed varint");
+  }
+}
@@ -0,0 +1,291 @@
+package com.code.analysis.cache;
+
+import com.code.analysis.core.model.CodeUnit;
+import com.code.analysis.core.model.ModelValidator;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Persistent cache of converted code units, keyed by the content hash of the
+ * source file they were converted from.
+ *
+ * Units are appended to a single segment file in the {@link CodeUnitCodec}
+ * encoding and read back through a read-only memory mapping of that file, so a
+ * lookup costs a hash map probe plus a sequential decode of a few kilobytes,
+ * with no parsing. The key index is rebuilt by one sequential scan when the
+ * cache is opened; a partially written entry left behind by a crash is
+ * truncated away.
+ *
+ * A cache must only be shared by analyzers with the same configuration, since
+ * the key does not capture how the unit was produced. Entries written in an
+ * older encoding are treated as misses and superseded by the next
+ * {@link #put(String, CodeUnit)}.
+ *
+ * A segment holds at most 2 GB. When an entry no longer fits, the segment
+ * rolls over: it is replaced by an empty one and the cache refills from
+ * there, so a full cache costs one round of misses instead of failing every
+ * new file. The mapping grows geometrically ahead of the appended entries,
+ * so appending does not remap the segment each time.
+ *
+ * Example usage:
+ *
+ * <pre>
+ * try (var cache = UnitCache.open(cacheDir.resolve("units.seg"))) {
+ *     CodeUnit unit = cache.get(hash).orElseGet(() -> convertAndPut(hash));
+ * }
+ * </pre>
+ */
+public class UnitCache implements AutoCloseable {
+
+  private static final int MAGIC = 0x434D5543; // "CMUC"
+  private static final int SEGMENT_VERSION = 1;
+  private static final int HEADER_SIZE = 2 * Integer.BYTES;
+  private static final long MAX_SEGMENT_SIZE = Integer.MAX_VALUE;
+
+  private final Path file;
+  private final long maxSegmentSize;
+  private final Map<String, Slot> index = new HashMap<>();
+  private FileChannel channel;
+  private MappedByteBuffer mapped;
+  private long size;
+
+  private UnitCache(Path file, FileChannel channel, long maxSegmentSize) {
+    this.file = file;
+    this.channel = channel;
+    this.maxSegmentSize = maxSegmentSize;
+  }
+
+  /**
+   * Opens the segment file, creating it if it does not exist.
+   *
+   * @param file The segment file
+   * @return The opened cache
+   * @throws IOException if the file cannot be opened or is not a unit cache
+   */
+  public static UnitCache open(Path file) throws IOException {
+    return open(file, MAX_SEGMENT_SIZE);
+  }
+
+  static UnitCache open(Path file, long maxSegmentSize) throws IOException {
+    ModelValidator.validateNotNull(file, "Cache file");
+    FileChannel channel = FileChannel.open(
+      file,
+      StandardOpenOption.CREATE,
+      StandardOpenOption.READ,
+      StandardOpenOption.WRITE
+    );
+    var cache = new UnitCache(file, channel, maxSegmentSize);
+    try {
+      cache.load();
+    } catch (IOException | RuntimeException e) {
+      channel.close();
+      throw e;
+    }
+    return cache;
+  }
+
+  /**
+   * @param contentHash The content hash of the source file
+   * @return the cached unit, or empty if none is stored under the hash
+   */
+  public Optional<CodeUnit> get(String contentHash) {
+    ModelValidator.validateNotEmpty(contentHash, "Content hash");
+    ByteBuffer bytes;
+    synchronized (this) {
+      Slot slot = index.get(contentHash);
+      if (slot == null) {
+        return Optional.empty();
+      }
+      bytes = mapped().slice((int) slot.offset(), slot.length());
+    }
+    try {
+      return Optional.of(CodeUnitCodec.decode(bytes));
+    } catch (IllegalArgumentException e) {
+      // Written in an older format: treat as a miss so the unit is stored again
+      synchronized (this) {
+        index.remove(contentHash);
+      }
+      return Optional.empty();
+    }
+  }
+
+  /**
+   * Stores a unit unless one is already cached under the same hash, rolling
+   * the segment over if it is full. A unit too large for an empty segment is
+   * not stored.
+   *
+   * @param contentHash The content hash of the source file
+   * @param unit        The unit converted from that file
+   * @throws IOException if the unit cannot be appended to the segment
+   */
+  public void put(String contentHash, CodeUnit unit) throws IOException {
+    ModelValidator.validateNotEmpty(contentHash, "Content hash");
+    byte[] payload = CodeUnitCodec.encode(unit);
+    byte[] key = contentHash.getBytes(StandardCharsets.UTF_8);
+    synchronized (this) {
+      if (index.containsKey(contentHash)) {
+        return;
+      }
+      long entrySize = (long) Integer.BYTES + key.length + Integer.BYTES + payload.length;
+      if (HEADER_SIZE + entrySize > maxSegmentSize) {
+        return;
+      }
+      if (size + entrySize > maxSegmentSize) {
+        rollOver();
+      }
+      ByteBuffer entry = ByteBuffer.allocate((int) entrySize);
+      entry.putInt(key.length).put(key).putInt(payload.length).put(payload).flip();
+      writeFully(channel, entry, size);
+      index.put(contentHash, new Slot(size + entrySize - payload.length, payload.length));
+      size += entrySize;
+    }
+  }
+
+  /**
+   * @return true if a unit is cached under the hash
+   */
+  public synchronized boolean contains(String contentHash) {
+    return index.containsKey(contentHash);
+  }
+
+  /**
+   * @return the number of cached units
+   */
+  public synchronized int size() {
+    return index.size();
+  }
+
+  @Override
+  public synchronized void close() throws IOException {
+    mapped = null;
+    try {
+      // Drop the zeroed tail the mapping grew into
+      channel.truncate(size);
+    } finally {
+      channel.close();
+    }
+  }
+
+  private void load() throws IOException {
+    size = channel.size();
+    if (size == 0) {
+      writeFully(channel, header(), 0);
+      size = HEADER_SIZE;
+      return;
+    }
+    if (size < HEADER_SIZE || size > MAX_SEGMENT_SIZE) {
+      throw new IOException("Not a unit cache segment: " + file);
+    }
+    ByteBuffer segment = mapped();
+    if (segment.getInt(0) != MAGIC || segment.getInt(Integer.BYTES) != SEGMENT_VERSION) {
+      throw new IOException("Not a unit cache segment, or an unsupported version: " + file);
+    }
+    long end = scan(segment.position(HEADER_SIZE));
+    if (end < size) {
+      channel.truncate(end);
+      size = end;
+      mapped = null;
+    }
+  }
+
+  /**
+   * Replaces the segment with an empty one. The old file is moved out of the
+   * way rather than truncated, so units being decoded from its mapping stay
+   * readable.
+   */
+  private void rollOver() throws IOException {
+    Path fresh = file.resolveSibling(file.getFileName() + ".tmp");
+    FileChannel next = FileChannel.open(
+      fresh,
+      StandardOpenOption.CREATE,
+      StandardOpenOption.TRUNCATE_EXISTING,
+      StandardOpenOption.READ,
+      StandardOpenOption.WRITE
+    );
+    try {
+      writeFully(next, header(), 0);
+      Files.move(fresh, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    } catch (IOException | RuntimeException e) {
+      next.close();
+      Files.deleteIfExists(fresh);
+      throw e;
+    }
+    channel.close();
+    channel = next;
+    mapped = null;
+    index.clear();
+    size = HEADER_SIZE;
+  }
+
+  /**
+   * Indexes every complete entry. Keys are never empty, so a zero key length
+   * marks the zeroed tail left by a mapping that grew past the last entry.
+   *
+   * @return the offset just past the last complete entry
+   */
+  private long scan(ByteBuffer segment) {
+    while (segment.remaining() >= Integer.BYTES) {
+      int start = segment.position();
+      int keyLength = segment.getInt();
+      if (keyLength <= 0 || segment.remaining() < keyLength + Integer.BYTES) {
+        return start;
+      }
+      byte[] key = new byte[keyLength];
+      segment.get(key);
+      int payloadLength = segment.getInt();
+      if (payloadLength < 0 || segment.remaining() < payloadLength) {
+        return start;
+      }
+      index.put(
+        new String(key, StandardCharsets.UTF_8),
+        new Slot(segment.position(), payloadLength)
+      );
+      segment.position(segment.position() + payloadLength);
+    }
+    return segment.position();
+  }
+
+  /**
+   * @return a mapping covering every entry; once entries are appended it is
+   *         remapped at twice its capacity, extending the file with zeros
+   */
+  private MappedByteBuffer mapped() {
+    if (mapped == null || mapped.capacity() < size) {
+      long capacity = mapped == null
+        ? size
+        : Math.min(maxSegmentSize, Math.max(size, 2L * mapped.capacity()));
+      try {
+        mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, capacity);
+      } catch (IOException e) {
+        throw new IllegalStateException("Failed to map unit cache segment " + file, e);
+      }
+    }
+    return mapped;
+  }
+
+  private static ByteBuffer header() {
+    return ByteBuffer.allocate(HEADER_SIZE).putInt(MAGIC).putInt(SEGMENT_VERSION).flip();
+  }
+
+  private static void writeFully(FileChannel target, ByteBuffer bytes, long position)
+    throws IOException {
+    while (bytes.hasRemaining()) {
+      position += target.write(bytes, position);
+    }
+  }
+
+  /**
+   * Location of an encoded unit within the segment.
+   */
+  private record Slot(long offset, int length) {}
+}
@@ -0,0 +1,20 @@
+package com.code.analysis.core;
+
+/**
+ * How deeply an analyzer examines source files.
+ */
+public enum AnalysisLevel {
+  /**
+   * Structure only: names, modifiers, signatures and documentation as written
+   * in the source. No type solver is created, so files are analyzed in
+   * isolation and as fast as they can be parsed.
+   */
+  SYNTAX_ONLY,
+
+  /**
+   * Structure plus symbol resolution. References to other types are resolved
+   * to qualified names where the type can be found, falling back to the name
+   * as written otherwise.
+   */
+  RESOLVED,
+}
@@ -1,25 +1,57 @@
 package com.code.analysis.core;
 
+import com.code.analysis.core.model.ModelValidator;
 import java.nio.file.Path;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Factory for creating language-specific code converters.
  * This factory manages the creation of converters for different programming
  * languages,
  * allowing easy extension to support new languages.
+ *
+ * Converters requested for a source root are created once and shared by every
+ * file under that root, so caches built up during symbol resolution survive
+ * between files. Converters registered with this factory must therefore be
+ * safe to use from multiple threads.
+ *
+ * The factory's {@link AnalysisLevel} decides how deeply the built-in
+ * converters analyze files; structural indexing can use
+ * {@link AnalysisLevel#SYNTAX_ONLY} to skip symbol resolution entirely.
  */
 public class LanguageConverterFactory {
 
   private final Map<String, ConverterSupplier> converterSuppliers;
+  private final Map<SharedConverterKey, CodeAnalyzer> sharedConverters;
+  private final AnalysisLevel level;
 
   public LanguageConverterFactory() {
+    this(AnalysisLevel.RESOLVED);
+  }
+
+  /**
+   * Creates a factory whose built-in converters analyze at the given level.
+   *
+   * @param level How deeply files are analyzed
+   */
+  public LanguageConverterFactory(AnalysisLevel level) {
+    ModelValidator.validateNotNull(level, "Analysis level");
+    this.level = level;
     this.converterSuppliers = new HashMap<>();
+    this.sharedConverters = new ConcurrentHashMap<>();
     registerDefaultConverters();
   }
 
+  /**
+   * @return how deeply the built-in converters analyze files
+   */
+  public AnalysisLevel level() {
+    return level;
+  }
+
   /**
    * Gets a converter for the specified file based on its extension.
    *
@@ -34,6 +66,26 @@ public class LanguageConverterFactory {
     );
   }
 
+  /**
+   * Gets the shared converter for the specified file, resolving symbols against
+   * the given source root rather than the file itself. Every file with the same
+   * extension under the same source root receives the same converter instance.
+   *
+   * @param path       The path to the file to analyze
+   * @param sourceRoot The root directory the file belongs to
+   * @return An Optional containing the appropriate converter, or empty if no
+   *         converter exists
+   */
+  public Optional<CodeAnalyzer> getConverter(Path path, Path sourceRoot) {
+    String extension = getFileExtension(path);
+    ConverterSupplier supplier = converterSuppliers.get(extension);
+    if (supplier == null) {
+      return Optional.empty();
+    }
+    var key = new SharedConverterKey(extension, sourceRoot.toAbsolutePath().normalize());
+    return Optional.of(sharedConverters.computeIfAbsent(key, k -> supplier.create(sourceRoot)));
+  }
+
   /**
    * Registers a new converter for a specific file extension.
    *
@@ -41,12 +93,14 @@ public class LanguageConverterFactory {
    * @param supplier  A supplier that creates a new converter instance
    */
   public void registerConverter(String extension, ConverterSupplier supplier) {
-    converterSuppliers.put(extension.toLowerCase(), supplier);
+    String normalized = extension.toLowerCase();
+    converterSuppliers.put(normalized, supplier);
+    sharedConverters.keySet().removeIf(key -> key.extension().equals(normalized));
   }
 
   private void registerDefaultConverters() {
     // Register Java converter by default
-    registerConverter("java", path -> new com.code.analysis.java.JavaAnalyzer(path));
+    registerConverter("java", path -> new com.code.analysis.java.JavaAnalyzer(path, level));
   }
 
   private String getFileExtension(Path path) {
@@ -55,6 +109,8 @@ public class LanguageConverterFactory {
     return lastDotIndex > 0 ? fileName.substring(lastDotIndex + 1).toLowerCase() : "";
   }
 
+  private record SharedConverterKey(String extension, Path sourceRoot) {}
+
   /**
    * Functional interface for creating converter instances.
    * This allows different converters to have different constructor parameters.
@@ -0,0 +1,37 @@
+package com.code.analysis.core;
+
+import com.code.analysis.core.model.CodeUnit;
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * A {@link CodeAnalyzer} whose work splits into a parse step producing a
+ * language-specific syntax tree and a conversion step turning that tree into
+ * a {@link CodeUnit}. Exposing both steps lets the two run on separate worker
+ * pools, as the indexing pipeline does.
+ *
+ * @param <T> The syntax tree type produced by the parser
+ */
+public interface StagedAnalyzer<T> extends CodeAnalyzer {
+  /**
+   * Parses a file into its syntax tree.
+   *
+   * @param path The file to parse
+   * @return The parsed syntax tree
+   * @throws IOException if the file cannot be read or parsed
+   */
+  T parse(Path path) throws IOException;
+
+  /**
+   * Converts a previously parsed syntax tree into a code unit.
+   *
+   * @param tree The syntax tree returned by {@link #parse(Path)}
+   * @return The converted code unit
+   */
+  CodeUnit convert(T tree);
+
+  @Override
+  default CodeUnit parseFile(Path path) throws IOException {
+    return convert(parse(path));
+  }
+}
@@ -0,0 +1,90 @@
+package com.code.analysis.core.model;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Thread-safe map holding at most a fixed number of entries, evicting the
+ * least recently used ones in bulk.
+ *
+ * Entries live in two generations of half the capacity each. New entries go
+ * into the current generation; when it is full it becomes the previous
+ * generation and the old previous one is dropped whole. A hit in the previous
+ * generation moves the entry back into the current one, so entries used
+ * within the last generation's worth of insertions survive. Eviction is a
+ * reference swap: its cost does not depend on how full the cache is or how
+ * often it has been evicted from, and lookups never lock.
+ *
+ * @param <K> key type
+ * @param <V> value type
+ */
+public final class BoundedCache<K, V> {
+
+  private final int generationSize;
+  private final boolean keepsPrevious;
+  private volatile Map<K, V> current = new ConcurrentHashMap<>();
+  private volatile Map<K, V> previous = new ConcurrentHashMap<>();
+
+  /**
+   * @param maxEntries Maximum number of entries held
+   * @throws IllegalArgumentException if maxEntries is not positive
+   */
+  public BoundedCache(int maxEntries) {
+    if (maxEntries <= 0) {
+      throw new IllegalArgumentException("maxEntries must be positive");
+    }
+    this.keepsPrevious = maxEntries > 1;
+    this.generationSize = keepsPrevious ? maxEntries / 2 : 1;
+  }
+
+  /**
+   * @return the value cached under key, or null if there is none
+   */
+  public V get(K key) {
+    V value = current.get(key);
+    if (value != null) {
+      return value;
+    }
+    Map<K, V> older = previous;
+    value = older.get(key);
+    if (value != null) {
+      V promoted = insert(key, value);
+      older.remove(key, value);
+      return promoted != null ? promoted : value;
+    }
+    return null;
+  }
+
+  /**
+   * Caches a value unless one is already cached under its key.
+   *
+   * @return the value already cached under key, or null if value was added
+   */
+  public V putIfAbsent(K key, V value) {
+    V cached = get(key);
+    return cached != null ? cached : insert(key, value);
+  }
+
+  /**
+   * @return the number of entries held
+   */
+  public int size() {
+    return current.size() + previous.size();
+  }
+
+  private V insert(K key, V value) {
+    Map<K, V> generation = current;
+    if (generation.size() >= generationSize) {
+      generation = rotate();
+    }
+    return generation.putIfAbsent(key, value);
+  }
+
+  private synchronized Map<K, V> rotate() {
+    if (current.size() >= generationSize) {
+      previous = keepsPrevious ? current : new ConcurrentHashMap<>();
+      current = new ConcurrentHashMap<>();
+    }
+    return current;
+  }
+}
@@ -1,8 +1,5 @@
 package com.code.analysis.core.model;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import lombok.Builder;
@@ -22,14 +19,8 @@ public record CodeUnit(
   Map<String, Object> metadata
 ) {
   public CodeUnit {
-    definitions = Collections.unmodifiableList(
-      new ArrayList<>(definitions != null ? definitions : Collections.emptyList())
-    );
-    dependencies = Collections.unmodifiableList(
-      new ArrayList<>(dependencies != null ? dependencies : Collections.emptyList())
-    );
-    metadata = Collections.unmodifiableMap(
-      new HashMap<>(metadata != null ? metadata : Collections.emptyMap())
-    );
+    definitions = ModelCollections.list(definitions);
+    dependencies = ModelCollections.list(dependencies);
+    metadata = ModelCollections.map(metadata);
   }
 }
@@ -0,0 +1,110 @@
+package com.code.analysis.core.model;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/**
+ * Immutable map backed by a single array of alternating keys and values.
+ *
+ * Model metadata holds a handful of entries, for which a linear scan is as
+ * fast as hashing while the whole map costs one object and one array instead
+ * of a hash table with a node per entry. Null values are allowed, null keys
+ * are not.
+ */
+final class CompactMap extends AbstractMap<String, Object> {
+
+  static final CompactMap EMPTY = new CompactMap(new Object[0]);
+
+  private final Object[] entries;
+  private Set<Map.Entry<String, Object>> entrySet;
+
+  private CompactMap(Object[] entries) {
+    this.entries = entries;
+  }
+
+  static CompactMap copyOf(Map<String, ?> source) {
+    if (source instanceof CompactMap compact) {
+      return compact;
+    }
+    if (source == null || source.isEmpty()) {
+      return EMPTY;
+    }
+    Object[] entries = new Object[source.size() * 2];
+    int i = 0;
+    for (Map.Entry<String, ?> entry : source.entrySet()) {
+      if (entry.getKey() == null) {
+        throw new IllegalArgumentException("Metadata key cannot be null");
+      }
+      entries[i++] = entry.getKey();
+      entries[i++] = entry.getValue();
+    }
+    return new CompactMap(entries);
+  }
+
+  @Override
+  public int size() {
+    return entries.length / 2;
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return indexOf(key) >= 0;
+  }
+
+  @Override
+  public Object get(Object key) {
+    int index = indexOf(key);
+    return index >= 0 ? entries[index + 1] : null;
+  }
+
+  @Override
+  public Set<Map.Entry<String, Object>> entrySet() {
+    if (entrySet == null) {
+      entrySet = new EntrySet();
+    }
+    return entrySet;
+  }
+
+  private int indexOf(Object key) {
+    for (int i = 0; i < entries.length; i += 2) {
+      if (entries[i].equals(key)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private final class EntrySet extends AbstractSet<Map.Entry<String, Object>> {
+
+    @Override
+    public int size() {
+      return CompactMap.this.size();
+    }
+
+    @Override
+    public Iterator<Map.Entry<String, Object>> iterator() {
+      return new Iterator<>() {
+        private int next;
+
+        @Override
+        public boolean hasNext() {
+          return next < entries.length;
+        }
+
+        @Override
+        public Map.Entry<String, Object> next() {
+          if (!hasNext()) {
+            throw new NoSuchElementException();
+          }
+          var entry = new SimpleImmutableEntry<>((String) entries[next], entries[next + 1]);
+          next += 2;
+          return entry;
+        }
+      };
+    }
+  }
+}
@@ -1,36 +1,73 @@
 package com.code.analysis.core.model;
 
+import lombok.AccessLevel;
+import lombok.Builder;
 import lombok.Data;
 import lombok.NonNull;
+import lombok.Setter;
+import lombok.experimental.Accessors;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+/**
+ * A named declaration within a code unit, optionally carrying the
+ * documentation attached to it.
+ *
+ * Metadata is held in a compact immutable map, and the reference list is only
+ * allocated once the first reference is added, since most definitions have
+ * none.
+ */
 @Data
+@Accessors(fluent = true)
 public class Definition {
+    private final String id;
     private final @NonNull String name;
     private final @NonNull DefinitionKind kind;
+    private final Scope scope;
+    private final Position position;
+    private final Documentation documentation;
     private final Map<String, Object> metadata;
-    private final List<Reference> references;
+    @Setter(AccessLevel.NONE)
+    private List<Reference> references;
 
     public Definition(@NonNull String name, @NonNull DefinitionKind kind, Map<String, Object> metadata) {
+        this(null, name, kind, null, null, null, metadata);
+    }
+
+    @Builder
+    public Definition(
+        String id,
+        @NonNull String name,
+        @NonNull DefinitionKind kind,
+        Scope scope,
+        Position position,
+        Documentation documentation,
+        Map<String, Object> metadata
+    ) {
+        this.id = id;
         this.name = name;
         this.kind = kind;
-        this.metadata = new HashMap<>(metadata);
-        this.references = new ArrayList<>();
+        this.scope = scope;
+        this.position = position;
+        this.documentation = documentation;
+        this.metadata = ModelCollections.map(metadata);
+        this.references = List.of();
     }
 
     public Map<String, Object> metadata() {
-        return Collections.unmodifiableMap(metadata);
+        return metadata;
     }
 
     public List<Reference> references() {
-        return Collections.unmodifiableList(references);
+        return references.isEmpty() ? references : Collections.unmodifiableList(references);
     }
 
     public void addReference(@NonNull Reference reference) {
+        if (references.isEmpty()) {
+            references = new ArrayList<>(2);
+        }
         references.add(reference);
     }
 }
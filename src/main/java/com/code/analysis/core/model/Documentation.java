@@ -1,8 +1,5 @@
 package com.code.analysis.core.model;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import lombok.Builder;
@@ -21,11 +18,7 @@ public record Documentation(
   Map<String, Object> metadata
 ) {
   public Documentation {
-    tags = Collections.unmodifiableList(
-      new ArrayList<>(tags != null ? tags : Collections.emptyList())
-    );
-    metadata = Collections.unmodifiableMap(
-      new HashMap<>(metadata != null ? metadata : Collections.emptyMap())
-    );
+    tags = ModelCollections.list(tags);
+    metadata = ModelCollections.map(metadata);
   }
 }
@@ -1,7 +1,5 @@
 package com.code.analysis.core.model;
 
-import java.util.Collections;
-import java.util.HashMap;
 import java.util.Map;
 import lombok.Builder;
 
@@ -12,8 +10,6 @@ import lombok.Builder;
 @Builder
 public record DocumentationTag(String id, String name, String value, Map<String, Object> metadata) {
   public DocumentationTag {
-    metadata = Collections.unmodifiableMap(
-      new HashMap<>(metadata != null ? metadata : Collections.emptyMap())
-    );
+    metadata = ModelCollections.map(metadata);
   }
 }
@@ -0,0 +1,69 @@
+package com.code.analysis.core.model;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+
+/**
+ * Immutable list of integers backed by a primitive array.
+ *
+ * Long numeric metadata values, such as MinHash signatures, take four bytes
+ * per element this way instead of a reference and a boxed {@code Integer}
+ * each. The list compares equal to any other list of the same integers, and
+ * {@code CodeUnitCodec} stores it packed and decodes it as an
+ * {@code IntArrayList} again.
+ */
+public final class IntArrayList extends AbstractList<Integer> implements RandomAccess {
+
+  private final int[] values;
+
+  private IntArrayList(int[] values) {
+    this.values = values;
+  }
+
+  /**
+   * @param values The elements; the array is copied
+   * @return a list of the elements
+   */
+  public static IntArrayList of(int... values) {
+    ModelValidator.validateNotNull(values, "Values");
+    return new IntArrayList(values.clone());
+  }
+
+  @Override
+  public Integer get(int index) {
+    return values[index];
+  }
+
+  /**
+   * @return the element at index, without boxing it
+   */
+  public int getInt(int index) {
+    return values[index];
+  }
+
+  @Override
+  public int size() {
+    return values.length;
+  }
+
+  /**
+   * @return a copy of the elements
+   */
+  public int[] toIntArray() {
+    return values.clone();
+  }
+
+  @Override
+  public boolean equals(Object other) {
+    if (other instanceof IntArrayList list) {
+      return Arrays.equals(values, list.values);
+    }
+    return super.equals(other);
+  }
+
+  @Override
+  public int hashCode() {
+    return Arrays.hashCode(values);
+  }
+}
@@ -0,0 +1,37 @@
+package com.code.analysis.core.model;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable collections for the model classes.
+ *
+ * Empty inputs map to shared empty instances and inputs that are already
+ * immutable are used as they are, so a value passed from one model object to
+ * another, or from a builder that already produced an immutable list, is
+ * never copied twice.
+ */
+public final class ModelCollections {
+
+  private ModelCollections() {
+    // Prevent instantiation
+  }
+
+  /**
+   * @param source The elements, or null for none
+   * @return an immutable list of the elements
+   * @throws NullPointerException if an element is null
+   */
+  public static <T> List<T> list(List<? extends T> source) {
+    return source == null ? List.of() : List.copyOf(source);
+  }
+
+  /**
+   * @param source The entries, or null for none; values may be null
+   * @return an immutable, compact map of the entries
+   * @throws IllegalArgumentException if a key is null
+   */
+  public static Map<String, Object> map(Map<String, ?> source) {
+    return CompactMap.copyOf(source);
+  }
+}
@@ -10,6 +10,9 @@ public enum ReferenceKind {
   /** Direct usage/call of a definition */
   USE,
 
+  /** Invocation of a function or method */
+  CALL,
+
   /** Modification of a definition */
   MODIFY,
 
@@ -1,8 +1,5 @@
 package com.code.analysis.core.model;
 
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import lombok.Builder;
@@ -20,11 +17,7 @@ public record Scope(
   Map<String, Object> metadata
 ) {
   public Scope {
-    children = Collections.unmodifiableList(
-      new ArrayList<>(children != null ? children : Collections.emptyList())
-    );
-    metadata = Collections.unmodifiableMap(
-      new HashMap<>(metadata != null ? metadata : Collections.emptyMap())
-    );
+    children = ModelCollections.list(children);
+    metadata = ModelCollections.map(metadata);
   }
 }
@@ -0,0 +1,110 @@
+package com.code.analysis.core.model;
+
+import java.nio.charset.StandardCharsets;
+import java.util.UUID;
+
+/**
+ * Derives deterministic, content-addressed identifiers for model elements.
+ *
+ * The same inputs (for example a file path, a qualified name and a signature)
+ * always yield the same id, so re-ingesting an unchanged element produces an
+ * idempotent upsert and two elements claiming the same identity are
+ * detectable as duplicates. Ids are 128-bit MurmurHash3 digests rendered in
+ * UUID form, which keeps them interchangeable with the random ids used before
+ * and avoids the contention of the shared {@code SecureRandom} behind
+ * {@link UUID#randomUUID()}.
+ */
+public final class StableId {
+
+  private static final char PART_SEPARATOR = '\u001f';
+  private static final long C1 = 0x87c37b91114253d5L;
+  private static final long C2 = 0x4cf5ad432745937fL;
+
+  private StableId() {
+    // Prevent instantiation
+  }
+
+  /**
+   * Creates an id from the given identity parts. Parts are joined with a
+   * separator that cannot appear in source identifiers, so ("a.b", "c") and
+   * ("a", "b.c") produce different ids.
+   *
+   * @param parts The values that together identify an element
+   * @return A deterministic id in UUID form
+   * @throws IllegalArgumentException if no parts are given or a part is null
+   */
+  public static String of(String... parts) {
+    if (parts == null || parts.length == 0) {
+      throw new IllegalArgumentException("At least one id part is required");
+    }
+    var joined = new StringBuilder();
+    for (String part : parts) {
+      ModelValidator.validateNotNull(part, "Id part");
+      joined.append(part).append(PART_SEPARATOR);
+    }
+    byte[] bytes = joined.toString().getBytes(StandardCharsets.UTF_8);
+    long[] hash = murmur3x64x128(bytes);
+    return new UUID(hash[0], hash[1]).toString();
+  }
+
+  private static long[] murmur3x64x128(byte[] data) {
+    long h1 = 0;
+    long h2 = 0;
+    int blocks = data.length / 16;
+    for (int i = 0; i < blocks; i++) {
+      long k1 = readLong(data, i * 16);
+      long k2 = readLong(data, i * 16 + 8);
+      h1 ^= mixK1(k1);
+      h1 = (Long.rotateLeft(h1, 27) + h2) * 5 + 0x52dce729;
+      h2 ^= mixK2(k2);
+      h2 = (Long.rotateLeft(h2, 31) + h1) * 5 + 0x38495ab5;
+    }
+
+    long k1 = 0;
+    long k2 = 0;
+    int tail = blocks * 16;
+    for (int i = data.length - tail - 1; i >= 8; i--) {
+      k2 = (k2 << 8) | (data[tail + i] & 0xffL);
+    }
+    for (int i = Math.min(data.length - tail, 8) - 1; i >= 0; i--) {
+      k1 = (k1 << 8) | (data[tail + i] & 0xffL);
+    }
+    h1 ^= mixK1(k1);
+    h2 ^= mixK2(k2);
+
+    h1 ^= data.length;
+    h2 ^= data.length;
+    h1 += h2;
+    h2 += h1;
+    h1 = fmix64(h1);
+    h2 = fmix64(h2);
+    h1 += h2;
+    h2 += h1;
+    return new long[] { h1, h2 };
+  }
+
+  private static long readLong(byte[] data, int offset) {
+    long value = 0;
+    for (int i = 7; i >= 0; i--) {
+      value = (value << 8) | (data[offset + i] & 0xffL);
+    }
+    return value;
+  }
+
+  private static long mixK1(long k1) {
+    return Long.rotateLeft(k1 * C1, 31) * C2;
+  }
+
+  private static long mixK2(long k2) {
+    return Long.rotateLeft(k2 * C2, 33) * C1;
+  }
+
+  private static long fmix64(long k) {
+    k ^= k >>> 33;
+    k *= 0xff51afd7ed558ccdL;
+    k ^= k >>> 33;
+    k *= 0xc4ceb9fe1a85ec53L;
+    k ^= k >>> 33;
+    return k;
+  }
+}
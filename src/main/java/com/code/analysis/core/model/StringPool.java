@@ -0,0 +1,82 @@
+package com.code.analysis.core.model;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread-safe, bounded pool that deduplicates the strings held by model
+ * objects, such as type names, reference targets, imports and tag names.
+ *
+ * Converters pass every repetitive string through {@link #intern(String)} and
+ * store the returned instance, so equal strings produced from different files
+ * share one copy for as long as the model is retained. Unlike
+ * {@link String#intern()} the pool is bounded and private to its owner: it is a
+ * {@link BoundedCache}, so when it is full the least recently used strings are
+ * evicted in bulk, which only costs a duplicate copy of such a string the next
+ * time it is seen. A miss costs the same however full the pool is.
+ *
+ * Strings that are unique by nature - ids, signatures, documentation text -
+ * should not be pooled, since they would only displace useful entries.
+ */
+public class StringPool {
+
+  public static final int DEFAULT_MAX_ENTRIES = 200_000;
+
+  private final BoundedCache<String, String> pool;
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+
+  public StringPool() {
+    this(DEFAULT_MAX_ENTRIES);
+  }
+
+  /**
+   * @param maxEntries Maximum number of distinct strings retained
+   * @throws IllegalArgumentException if maxEntries is not positive
+   */
+  public StringPool(int maxEntries) {
+    if (maxEntries <= 0) {
+      throw new IllegalArgumentException("maxEntries must be positive");
+    }
+    this.pool = new BoundedCache<>(maxEntries);
+  }
+
+  /**
+   * @param value The string to deduplicate, may be null
+   * @return the pooled instance equal to value, or null if value is null
+   */
+  public String intern(String value) {
+    if (value == null) {
+      return null;
+    }
+    String pooled = pool.get(value);
+    if (pooled != null) {
+      hits.increment();
+      return pooled;
+    }
+    misses.increment();
+    pooled = pool.putIfAbsent(value, value);
+    return pooled != null ? pooled : value;
+  }
+
+  public long hitCount() {
+    return hits.sum();
+  }
+
+  public long missCount() {
+    return misses.sum();
+  }
+
+  /**
+   * @return the fraction of lookups served from the pool, or 0 before the
+   *         first lookup
+   */
+  public double hitRate() {
+    long hitCount = hitCount();
+    long total = hitCount + missCount();
+    return total > 0 ? (double) hitCount / total : 0.0;
+  }
+
+  public int size() {
+    return pool.size();
+  }
+}
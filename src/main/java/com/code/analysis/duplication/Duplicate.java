@@ -0,0 +1,10 @@
+package com.code.analysis.duplication;
+
+/**
+ * Two methods found to be near-duplicates of each other.
+ *
+ * @param first      full signature of the method ordered first
+ * @param second     full signature of the other method
+ * @param similarity estimated Jaccard similarity of their bodies' shingles
+ */
+public record Duplicate(String first, String second, double similarity) {}
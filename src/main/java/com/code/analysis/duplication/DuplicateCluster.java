@@ -0,0 +1,12 @@
+package com.code.analysis.duplication;
+
+import java.util.List;
+
+/**
+ * Methods connected by near-duplicate pairs. Similarity is not transitive,
+ * so two methods of a cluster may be linked only through others.
+ *
+ * @param methods    full signatures of the methods, in order
+ * @param duplicates the pairs connecting them
+ */
+public record DuplicateCluster(List<String> methods, List<Duplicate> duplicates) {}
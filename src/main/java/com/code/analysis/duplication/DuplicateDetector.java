@@ -0,0 +1,202 @@
+package com.code.analysis.duplication;
+
+import com.code.analysis.core.model.CodeUnit;
+import com.code.analysis.core.model.Definition;
+import com.code.analysis.core.model.DefinitionKind;
+import com.code.analysis.core.model.IntArrayList;
+import com.code.analysis.core.model.ModelValidator;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Finds clusters of near-duplicate methods from the MinHash signatures their
+ * bodies were given during conversion, without comparing every pair.
+ *
+ * Locality-sensitive hashing splits each signature into bands; methods whose
+ * signatures agree on every hash of some band land in the same bucket of that
+ * band and become candidates. Within a bucket every method is compared with
+ * the first {@value #MAX_BUCKET_COMPARISONS} methods in it, so the work grows
+ * with the number of methods times the number of bands rather than with the
+ * number of pairs. Small buckets are therefore compared exhaustively. In a
+ * larger bucket, a method that is similar to a later member but not to any of
+ * the first ones is missed in that band. It is still found through another
+ * band it shares with that member. A group of {@code n} copies yields at most
+ * {@value #MAX_BUCKET_COMPARISONS} pairs per member instead of all of them. A
+ * candidate pair whose signatures agree on at least
+ * {@link DuplicationSettings#threshold()} of their hashes is a duplicate, and
+ * clusters are the groups of methods connected by duplicates. Pairs sharing
+ * several bands are simply compared again in each; only the duplicates found
+ * are remembered, so that each is reported once.
+ *
+ * Example usage:
+ *
+ * <pre>
+ * List&lt;DuplicateCluster&gt; clusters = new DuplicateDetector().detect(units);
+ * new Neo4jDuplicatesWriter(sessions, GraphWriterSettings.defaults(), generation).write(clusters);
+ * </pre>
+ */
+public class DuplicateDetector {
+
+  private static final int MAX_BUCKET_COMPARISONS = 8;
+
+  private final DuplicationSettings settings;
+
+  public DuplicateDetector() {
+    this(DuplicationSettings.defaults());
+  }
+
+  public DuplicateDetector(DuplicationSettings settings) {
+    ModelValidator.validateNotNull(settings, "Duplication settings");
+    this.settings = settings;
+  }
+
+  /**
+   * Finds the near-duplicate methods among a set of units. Methods without a
+   * signature, or with fewer body tokens than
+   * {@link DuplicationSettings#minTokens()}, are left out.
+   *
+   * @param units The units to search
+   * @return The clusters of duplicates, ordered by their first method
+   */
+  public List<DuplicateCluster> detect(Collection<CodeUnit> units) {
+    ModelValidator.validateNotNull(units, "Units");
+    Map<String, int[]> signed = new TreeMap<>();
+    for (CodeUnit unit : units) {
+      for (Definition definition : unit.definitions()) {
+        if (definition.kind() == DefinitionKind.FUNCTION) {
+          addSignature(definition, signed);
+        }
+      }
+    }
+    List<String> methods = List.copyOf(signed.keySet());
+    int[][] signatures = signed.values().toArray(int[][]::new);
+
+    var components = new DisjointSets(methods.size());
+    List<Duplicate> duplicates = new ArrayList<>();
+    Set<Long> found = new HashSet<>();
+    int rows = settings.rows();
+    for (int band = 0; band < settings.bands(); band++) {
+      Map<Long, List<Integer>> buckets = new HashMap<>();
+      for (int method = 0; method < signatures.length; method++) {
+        List<Integer> members = buckets.computeIfAbsent(
+          bucket(signatures[method], band, rows),
+          key -> new ArrayList<>(1)
+        );
+        for (int member : members) {
+          double similarity = MinHash.similarity(signatures[member], signatures[method]);
+          if (similarity >= settings.threshold() && found.add(((long) member << 32) | method)) {
+            duplicates.add(new Duplicate(methods.get(member), methods.get(method), similarity));
+            components.union(member, method);
+          }
+        }
+        if (members.size() < MAX_BUCKET_COMPARISONS) {
+          members.add(method);
+        }
+      }
+    }
+    return clusters(methods, duplicates, components);
+  }
+
+  private void addSignature(Definition definition, Map<String, int[]> signed) {
+    Map<String, Object> metadata = definition.metadata();
+    if (
+      metadata.get("signature") instanceof String signature &&
+      metadata.get(MinHash.TOKEN_COUNT_KEY) instanceof Integer tokenCount &&
+      tokenCount >= settings.minTokens() &&
+      metadata.get(MinHash.METADATA_KEY) instanceof List<?> hashes &&
+      hashes.size() == MinHash.SIGNATURE_LENGTH
+    ) {
+      signed.putIfAbsent(signature, toIntArray(hashes));
+    }
+  }
+
+  private static int[] toIntArray(List<?> hashes) {
+    if (hashes instanceof IntArrayList packed) {
+      return packed.toIntArray();
+    }
+    return hashes.stream().mapToInt(hash -> ((Number) hash).intValue()).toArray();
+  }
+
+  private static long bucket(int[] signature, int band, int rows) {
+    long key = band;
+    for (int i = band * rows; i < (band + 1) * rows; i++) {
+      key = key * 0x100000001B3L + signature[i];
+    }
+    return key;
+  }
+
+  private static List<DuplicateCluster> clusters(
+    List<String> methods,
+    List<Duplicate> duplicates,
+    DisjointSets components
+  ) {
+    Map<Integer, List<Duplicate>> byComponent = new LinkedHashMap<>();
+    Map<Integer, Set<String>> members = new HashMap<>();
+    Map<String, Integer> indexes = new HashMap<>();
+    for (int i = 0; i < methods.size(); i++) {
+      indexes.put(methods.get(i), i);
+    }
+    for (Duplicate duplicate : duplicates) {
+      int root = components.find(indexes.get(duplicate.first()));
+      byComponent.computeIfAbsent(root, key -> new ArrayList<>()).add(duplicate);
+      Set<String> names = members.computeIfAbsent(root, key -> new HashSet<>());
+      names.add(duplicate.first());
+      names.add(duplicate.second());
+    }
+    return byComponent
+      .entrySet()
+      .stream()
+      .map(entry ->
+        new DuplicateCluster(
+          members.get(entry.getKey()).stream().sorted().toList(),
+          entry
+            .getValue()
+            .stream()
+            .sorted(Comparator.comparing(Duplicate::first).thenComparing(Duplicate::second))
+            .toList()
+        )
+      )
+      .sorted(Comparator.comparing(cluster -> cluster.methods().get(0)))
+      .toList();
+  }
+
+  /**
+   * Union-find over method indexes, with path halving.
+   */
+  private static final class DisjointSets {
+
+    private final int[] parents;
+
+    DisjointSets(int size) {
+      parents = new int[size];
+      for (int i = 0; i < size; i++) {
+        parents[i] = i;
+      }
+    }
+
+    int find(int element) {
+      int current = element;
+      while (parents[current] != current) {
+        parents[current] = parents[parents[current]];
+        current = parents[current];
+      }
+      return current;
+    }
+
+    void union(int first, int second) {
+      int firstRoot = find(first);
+      int secondRoot = find(second);
+      if (firstRoot != secondRoot) {
+        parents[Math.max(firstRoot, secondRoot)] = Math.min(firstRoot, secondRoot);
+      }
+    }
+  }
+}
@@ -0,0 +1,50 @@
+package com.code.analysis.duplication;
+
+import lombok.Builder;
+
+/**
+ * Tuning knobs for {@link DuplicateDetector}.
+ *
+ * Signatures are split into {@code bands} bands of
+ * {@code MinHash.SIGNATURE_LENGTH / bands} hashes each. More bands catch
+ * pairs of lower similarity at the cost of more candidates to verify; with
+ * the default 16 bands of 4, a pair of similarity 0.8 becomes a candidate
+ * with probability above 0.999 and a pair of similarity 0.3 with about 0.12.
+ *
+ * @param bands      number of LSH bands; must divide the signature length
+ * @param threshold  estimated similarity from which two methods are
+ *                   duplicates, between 0 and 1
+ * @param minTokens  methods with fewer body tokens are not compared, so
+ *                   trivial accessors are not reported
+ */
+@Builder
+public record DuplicationSettings(int bands, double threshold, int minTokens) {
+  private static final int DEFAULT_BANDS = 16;
+  private static final double DEFAULT_THRESHOLD = 0.8;
+  private static final int DEFAULT_MIN_TOKENS = 50;
+
+  public DuplicationSettings {
+    bands = bands > 0 ? bands : DEFAULT_BANDS;
+    threshold = threshold > 0 ? threshold : DEFAULT_THRESHOLD;
+    minTokens = minTokens > 0 ? minTokens : DEFAULT_MIN_TOKENS;
+    if (MinHash.SIGNATURE_LENGTH % bands != 0) {
+      throw new IllegalArgumentException(
+        "Band count must divide the signature length " + MinHash.SIGNATURE_LENGTH
+      );
+    }
+    if (threshold > 1) {
+      throw new IllegalArgumentException("Threshold must not exceed 1");
+    }
+  }
+
+  /**
+   * @return settings reporting methods that are at least 80% alike
+   */
+  public static DuplicationSettings defaults() {
+    return DuplicationSettings.builder().build();
+  }
+
+  int rows() {
+    return MinHash.SIGNATURE_LENGTH / bands;
+  }
+}
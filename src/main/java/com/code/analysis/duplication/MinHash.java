@@ -0,0 +1,106 @@
+package com.code.analysis.duplication;
+
+import com.code.analysis.core.model.IntArrayList;
+import com.code.analysis.core.model.ModelValidator;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * MinHash signatures of token sequences, whose agreement estimates the
+ * Jaccard similarity of their shingle sets.
+ *
+ * A sequence is cut into overlapping shingles of {@link #SHINGLE_SIZE}
+ * tokens, each reduced to a 64-bit hash. Every position of the signature
+ * applies a differently seeded mix to the shingle hashes and keeps the
+ * smallest; two sequences agree on a position with probability equal to the
+ * Jaccard similarity of their shingles, so the fraction of agreeing positions
+ * estimates it within about {@code 1 / sqrt(SIGNATURE_LENGTH)}.
+ *
+ * Signatures are computed while methods are converted and kept in their
+ * definition's metadata under {@link #METADATA_KEY}, with the number of
+ * tokens under {@link #TOKEN_COUNT_KEY}. They are packed into an
+ * {@link IntArrayList}, so a signature costs its 256 bytes of hashes in
+ * memory and in the unit cache rather than 64 boxed integers.
+ */
+public final class MinHash {
+
+  /** Metadata key of a method's signature, an {@link IntArrayList}. */
+  public static final String METADATA_KEY = "minHash";
+
+  /** Metadata key of the number of tokens in a method's body. */
+  public static final String TOKEN_COUNT_KEY = "tokenCount";
+
+  /** Number of hashes in a signature. */
+  public static final int SIGNATURE_LENGTH = 64;
+
+  /** Number of consecutive tokens in a shingle. */
+  public static final int SHINGLE_SIZE = 5;
+
+  private static final long[] SEEDS = new long[SIGNATURE_LENGTH];
+
+  static {
+    long state = 0x5DEECE66DL;
+    for (int i = 0; i < SIGNATURE_LENGTH; i++) {
+      state += 0x9E3779B97F4A7C15L;
+      SEEDS[i] = mix(state);
+    }
+  }
+
+  private MinHash() {
+    // Prevent instantiation
+  }
+
+  /**
+   * @param tokens The normalized tokens of a body
+   * @return the signature of the tokens, or empty if there are fewer than a
+   *         shingle's worth
+   */
+  public static Optional<IntArrayList> of(List<String> tokens) {
+    ModelValidator.validateNotNull(tokens, "Tokens");
+    if (tokens.size() < SHINGLE_SIZE) {
+      return Optional.empty();
+    }
+    long[] tokenHashes = tokens.stream().mapToLong(token -> mix(token.hashCode())).toArray();
+    long[] minimums = new long[SIGNATURE_LENGTH];
+    Arrays.fill(minimums, Long.MAX_VALUE);
+    for (int start = 0; start + SHINGLE_SIZE <= tokenHashes.length; start++) {
+      long shingle = 0;
+      for (int i = start; i < start + SHINGLE_SIZE; i++) {
+        shingle = Long.rotateLeft(shingle, 7) ^ tokenHashes[i];
+      }
+      for (int i = 0; i < SIGNATURE_LENGTH; i++) {
+        minimums[i] = Math.min(minimums[i], mix(shingle ^ SEEDS[i]));
+      }
+    }
+    int[] signature = new int[SIGNATURE_LENGTH];
+    for (int i = 0; i < SIGNATURE_LENGTH; i++) {
+      signature[i] = (int) (minimums[i] >>> 32);
+    }
+    return Optional.of(IntArrayList.of(signature));
+  }
+
+  /**
+   * @return the fraction of positions two signatures of the same length agree
+   *         on, an estimate of the similarity of what they were computed from
+   */
+  static double similarity(int[] first, int[] second) {
+    int agreeing = 0;
+    for (int i = 0; i < first.length; i++) {
+      if (first[i] == second[i]) {
+        agreeing++;
+      }
+    }
+    return (double) agreeing / first.length;
+  }
+
+  /**
+   * The SplitMix64 finalizer, a fast bijective mix of all 64 bits.
+   */
+  private static long mix(long value) {
+    long z = value;
+    z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+    z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+    return z ^ (z >>> 31);
+  }
+}
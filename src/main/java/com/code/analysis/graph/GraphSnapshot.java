@@ -0,0 +1,430 @@
+package com.code.analysis.graph;
+
+import com.code.analysis.core.model.CodeUnit;
+import com.code.analysis.core.model.Definition;
+import com.code.analysis.core.model.DefinitionKind;
+import com.code.analysis.core.model.ModelValidator;
+import com.code.analysis.core.model.Reference;
+import com.code.analysis.core.model.ReferenceKind;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalInt;
+import java.util.Set;
+import java.util.function.IntPredicate;
+
+/**
+ * Read-only, in-memory copy of the code graph for answering transitive
+ * questions - everything reachable from a class, the full hierarchy of a type,
+ * all transitive callers of a method - without a round trip per hop.
+ *
+ * Nodes are numbered densely from 0 and identified by their label and the key
+ * the graph schema uses ({@code Component.name}, {@code File.path},
+ * {@code Class.fullName}, {@code Method.fullSignature}). Relationships are
+ * held per type in compressed sparse row form - an offsets array indexed by
+ * node and one flat array of neighbour ids - in both directions, so a
+ * traversal touches nothing but primitive arrays. A snapshot is immutable and
+ * safe to share between threads; refresh it by building a new one, for
+ * example through {@link RefreshingSnapshot}.
+ *
+ * Example usage:
+ *
+ * <pre>
+ * var builder = GraphSnapshot.builder();
+ * units.forEach(builder::add);
+ * GraphSnapshot snapshot = builder.build();
+ * int type = snapshot.find(Label.CLASS, "com.example.Base").orElseThrow();
+ * int[] subtypes = snapshot.reachable(type, Direction.INCOMING, EnumSet.of(EdgeType.EXTENDS));
+ * </pre>
+ */
+public final class GraphSnapshot {
+
+  /** Node labels of the graph schema. */
+  public enum Label {
+    COMPONENT,
+    FILE,
+    CLASS,
+    METHOD,
+  }
+
+  /** Relationship types held by a snapshot. */
+  public enum EdgeType {
+    CONTAINS,
+    EXTENDS,
+    IMPLEMENTS,
+    CALLS,
+  }
+
+  /** Which way relationships are followed. */
+  public enum Direction {
+    OUTGOING,
+    INCOMING,
+  }
+
+  private static final Label[] LABELS = Label.values();
+
+  private static final Set<DefinitionKind> CLASS_KINDS = EnumSet.of(
+    DefinitionKind.TYPE,
+    DefinitionKind.INTERFACE,
+    DefinitionKind.ENUM
+  );
+
+  private final String[] keys;
+  private final byte[] labels;
+  private final Map<Label, Map<String, Integer>> ids;
+  private final Adjacency[] outgoing;
+  private final Adjacency[] incoming;
+
+  private GraphSnapshot(
+    String[] keys,
+    byte[] labels,
+    Map<Label, Map<String, Integer>> ids,
+    Adjacency[] outgoing,
+    Adjacency[] incoming
+  ) {
+    this.keys = keys;
+    this.labels = labels;
+    this.ids = ids;
+    this.outgoing = outgoing;
+    this.incoming = incoming;
+  }
+
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  public int nodeCount() {
+    return keys.length;
+  }
+
+  /**
+   * @return the number of relationships of the given type
+   */
+  public int edgeCount(EdgeType type) {
+    return outgoing[type.ordinal()].targets.length;
+  }
+
+  /**
+   * @return the id of the node with the given label and key, if present
+   */
+  public OptionalInt find(Label label, String key) {
+    Integer id = ids.get(label).get(key);
+    return id == null ? OptionalInt.empty() : OptionalInt.of(id);
+  }
+
+  public String key(int node) {
+    return keys[node];
+  }
+
+  public Label label(int node) {
+    return LABELS[labels[node]];
+  }
+
+  /**
+   * @return the direct neighbours of a node over one relationship type
+   */
+  public int[] neighbours(int node, EdgeType type, Direction direction) {
+    Adjacency adjacency = adjacency(type, direction);
+    return Arrays.copyOfRange(
+      adjacency.targets,
+      adjacency.offsets[node],
+      adjacency.offsets[node + 1]
+    );
+  }
+
+  /**
+   * Breadth-first search from a node.
+   *
+   * @return every node reachable from start over the given relationship types,
+   *         in breadth-first order, excluding start itself
+   */
+  public int[] reachable(int start, Direction direction, Set<EdgeType> types) {
+    return reachable(start, direction, types, Integer.MAX_VALUE);
+  }
+
+  /**
+   * Breadth-first search from a node, up to a maximum number of hops.
+   *
+   * @return every node within maxDepth hops of start, in breadth-first order,
+   *         excluding start itself
+   */
+  public int[] reachable(int start, Direction direction, Set<EdgeType> types, int maxDepth) {
+    checkNode(start);
+    Adjacency[] adjacencies = adjacencies(types, direction);
+    BitSet visited = new BitSet(keys.length);
+    visited.set(start);
+    int[] queue = new int[16];
+    queue[0] = start;
+    int head = 0;
+    int tail = 1;
+    int depth = 0;
+    int levelEnd = tail;
+    while (head < tail && depth < maxDepth) {
+      int node = queue[head++];
+      for (Adjacency adjacency : adjacencies) {
+        for (int i = adjacency.offsets[node]; i < adjacency.offsets[node + 1]; i++) {
+          int next = adjacency.targets[i];
+          if (!visited.get(next)) {
+            visited.set(next);
+            if (tail == queue.length) {
+              queue = Arrays.copyOf(queue, queue.length * 2);
+            }
+            queue[tail++] = next;
+          }
+        }
+      }
+      if (head == levelEnd) {
+        depth++;
+        levelEnd = tail;
+      }
+    }
+    return Arrays.copyOfRange(queue, 1, tail);
+  }
+
+  /**
+   * @return whether target can be reached from start over the given
+   *         relationship types; the search stops as soon as it is found
+   */
+  public boolean isReachable(int start, int target, Direction direction, Set<EdgeType> types) {
+    checkNode(target);
+    boolean[] found = { start == target };
+    if (!found[0]) {
+      depthFirst(start, direction, types, node -> {
+        found[0] |= node == target;
+        return !found[0];
+      });
+    }
+    return found[0];
+  }
+
+  /**
+   * Depth-first search from a node. The visitor is called once for every
+   * reachable node except start, following each branch to its end before
+   * the next; returning false from it stops the search.
+   */
+  public void depthFirst(int start, Direction direction, Set<EdgeType> types, IntPredicate visitor) {
+    checkNode(start);
+    Adjacency[] adjacencies = adjacencies(types, direction);
+    BitSet visited = new BitSet(keys.length);
+    visited.set(start);
+    int[] stack = new int[16];
+    stack[0] = start;
+    int size = 1;
+    while (size > 0) {
+      int node = stack[--size];
+      if (node != start && !visitor.test(node)) {
+        return;
+      }
+      // Push in reverse so neighbours are visited in stored order
+      for (int a = adjacencies.length - 1; a >= 0; a--) {
+        Adjacency adjacency = adjacencies[a];
+        for (int i = adjacency.offsets[node + 1] - 1; i >= adjacency.offsets[node]; i--) {
+          int next = adjacency.targets[i];
+          if (!visited.get(next)) {
+            visited.set(next);
+            if (size == stack.length) {
+              stack = Arrays.copyOf(stack, stack.length * 2);
+            }
+            stack[size++] = next;
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * @return the keys of the given nodes, in order
+   */
+  public List<String> keys(int[] nodes) {
+    List<String> result = new ArrayList<>(nodes.length);
+    for (int node : nodes) {
+      result.add(keys[node]);
+    }
+    return result;
+  }
+
+  private Adjacency adjacency(EdgeType type, Direction direction) {
+    return (direction == Direction.OUTGOING ? outgoing : incoming)[type.ordinal()];
+  }
+
+  private Adjacency[] adjacencies(Set<EdgeType> types, Direction direction) {
+    ModelValidator.validateNotNull(types, "Edge types");
+    ModelValidator.validateNotNull(direction, "Direction");
+    return types.stream().map(type -> adjacency(type, direction)).toArray(Adjacency[]::new);
+  }
+
+  private void checkNode(int node) {
+    if (node < 0 || node >= keys.length) {
+      throw new IllegalArgumentException("Unknown node: " + node);
+    }
+  }
+
+  /**
+   * Relationships of one type in compressed sparse row form: the neighbours
+   * of node n are {@code targets[offsets[n]]} to {@code targets[offsets[n + 1] - 1]}.
+   */
+  private record Adjacency(int[] offsets, int[] targets) {
+    static Adjacency of(int nodeCount, int[] from, int[] to, int edgeCount) {
+      int[] offsets = new int[nodeCount + 1];
+      for (int i = 0; i < edgeCount; i++) {
+        offsets[from[i] + 1]++;
+      }
+      for (int n = 0; n < nodeCount; n++) {
+        offsets[n + 1] += offsets[n];
+      }
+      int[] next = Arrays.copyOf(offsets, nodeCount);
+      int[] targets = new int[edgeCount];
+      for (int i = 0; i < edgeCount; i++) {
+        targets[next[from[i]]++] = to[i];
+      }
+      return new Adjacency(offsets, targets);
+    }
+  }
+
+  /**
+   * Collects nodes and relationships, either from converted code units or
+   * from any other source such as an existing graph database. Not thread-safe.
+   */
+  public static final class Builder {
+
+    private final List<String> keys = new ArrayList<>();
+    private byte[] labels = new byte[64];
+    private final Map<Label, Map<String, Integer>> ids = new EnumMap<>(Label.class);
+    private final EdgeList[] edges = new EdgeList[EdgeType.values().length];
+
+    private Builder() {
+      for (Label label : LABELS) {
+        ids.put(label, new HashMap<>());
+      }
+      for (int i = 0; i < edges.length; i++) {
+        edges[i] = new EdgeList();
+      }
+    }
+
+    /**
+     * @return the id of the node with the given label and key, added if new
+     */
+    public int node(Label label, String key) {
+      ModelValidator.validateNotNull(label, "Label");
+      ModelValidator.validateNotNull(key, "Key");
+      return ids
+        .get(label)
+        .computeIfAbsent(key, k -> {
+          int id = keys.size();
+          keys.add(k);
+          if (id == labels.length) {
+            labels = Arrays.copyOf(labels, labels.length * 2);
+          }
+          labels[id] = (byte) label.ordinal();
+          return id;
+        });
+    }
+
+    /**
+     * Adds a relationship between two nodes returned by {@link #node}.
+     */
+    public Builder edge(EdgeType type, int from, int to) {
+      ModelValidator.validateNotNull(type, "Edge type");
+      if (from < 0 || from >= keys.size() || to < 0 || to >= keys.size()) {
+        throw new IllegalArgumentException("Unknown node in edge " + from + " -> " + to);
+      }
+      edges[type.ordinal()].add(from, to);
+      return this;
+    }
+
+    /**
+     * Adds a unit the way {@code Neo4jGraphWriter} stores it: a file
+     * containing its types, types containing their methods, supertype
+     * references as {@code EXTENDS} and {@code IMPLEMENTS}, and calls to
+     * methods of the analyzed sources as {@code CALLS}.
+     */
+    public Builder add(CodeUnit unit) {
+      ModelValidator.validateNotNull(unit, "Code unit");
+      String path = (String) unit.metadata().getOrDefault("path", unit.name());
+      int file = node(Label.FILE, path);
+      for (Definition definition : unit.definitions()) {
+        if (isType(definition)) {
+          int type = node(Label.CLASS, qualifiedName(definition));
+          edge(EdgeType.CONTAINS, file, type);
+          for (Reference reference : definition.references()) {
+            if (reference.kind() == ReferenceKind.EXTEND) {
+              edge(EdgeType.EXTENDS, type, node(Label.CLASS, reference.targetName()));
+            } else if (reference.kind() == ReferenceKind.IMPLEMENT) {
+              edge(EdgeType.IMPLEMENTS, type, node(Label.CLASS, reference.targetName()));
+            }
+          }
+        } else if (definition.kind() == DefinitionKind.FUNCTION) {
+          addMethod(definition);
+        }
+      }
+      return this;
+    }
+
+    public GraphSnapshot build() {
+      int nodeCount = keys.size();
+      Adjacency[] outgoing = new Adjacency[edges.length];
+      Adjacency[] incoming = new Adjacency[edges.length];
+      for (int i = 0; i < edges.length; i++) {
+        EdgeList list = edges[i];
+        outgoing[i] = Adjacency.of(nodeCount, list.from, list.to, list.size);
+        incoming[i] = Adjacency.of(nodeCount, list.to, list.from, list.size);
+      }
+      Map<Label, Map<String, Integer>> index = new EnumMap<>(Label.class);
+      ids.forEach((label, byKey) -> index.put(label, Map.copyOf(byKey)));
+      return new GraphSnapshot(
+        keys.toArray(String[]::new),
+        Arrays.copyOf(labels, nodeCount),
+        index,
+        outgoing,
+        incoming
+      );
+    }
+
+    private void addMethod(Definition definition) {
+      if (
+        !(definition.metadata().get("declaringType") instanceof String declaringType) ||
+        !(definition.metadata().get("signature") instanceof String signature)
+      ) {
+        return;
+      }
+      int method = node(Label.METHOD, signature);
+      edge(EdgeType.CONTAINS, node(Label.CLASS, declaringType), method);
+      for (Reference reference : definition.references()) {
+        if (reference.kind() == ReferenceKind.CALL && reference.targetName().indexOf('(') > 0) {
+          edge(EdgeType.CALLS, method, node(Label.METHOD, reference.targetName()));
+        }
+      }
+    }
+
+    private static boolean isType(Definition definition) {
+      return CLASS_KINDS.contains(definition.kind());
+    }
+
+    private static String qualifiedName(Definition definition) {
+      return (String) definition.metadata().getOrDefault("qualifiedName", definition.name());
+    }
+  }
+
+  /** A growable pair of primitive arrays holding relationship endpoints. */
+  private static final class EdgeList {
+
+    private int[] from = new int[16];
+    private int[] to = new int[16];
+    private int size;
+
+    void add(int source, int target) {
+      if (size == from.length) {
+        from = Arrays.copyOf(from, size * 2);
+        to = Arrays.copyOf(to, size * 2);
+      }
+      from[size] = source;
+      to[size] = target;
+      size++;
+    }
+  }
+}
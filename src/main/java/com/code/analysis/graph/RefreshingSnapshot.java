@@ -0,0 +1,74 @@
+package com.code.analysis.graph;
+
+import com.code.analysis.core.model.ModelValidator;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Keeps a {@link GraphSnapshot} in step with the ingest generation of the
+ * graph it was built from, such as {@code Neo4jGraphWriter#generation()}.
+ *
+ * {@link #get()} returns the current snapshot as long as the generation is
+ * unchanged. When a new generation lands, the first caller rebuilds the
+ * snapshot; callers arriving while it does keep using the previous one
+ * rather than waiting, so traversals never stall behind a reload.
+ */
+public class RefreshingSnapshot {
+
+  private final LongSupplier generation;
+  private final Supplier<GraphSnapshot> loader;
+  private final ReentrantLock reloading = new ReentrantLock();
+  private volatile Loaded loaded;
+
+  /**
+   * @param generation Supplies the current ingest generation
+   * @param loader     Builds a snapshot of the current graph
+   */
+  public RefreshingSnapshot(LongSupplier generation, Supplier<GraphSnapshot> loader) {
+    ModelValidator.validateNotNull(generation, "Generation");
+    ModelValidator.validateNotNull(loader, "Loader");
+    this.generation = generation;
+    this.loader = loader;
+  }
+
+  /**
+   * @return the snapshot of the current generation, or of the previous one
+   *         while another thread is rebuilding it
+   */
+  public GraphSnapshot get() {
+    long current = generation.getAsLong();
+    Loaded snapshot = loaded;
+    if (snapshot != null && snapshot.generation() == current) {
+      return snapshot.snapshot();
+    }
+    if (snapshot != null && !reloading.tryLock()) {
+      return snapshot.snapshot();
+    }
+    if (snapshot == null) {
+      reloading.lock();
+    }
+    try {
+      snapshot = loaded;
+      if (snapshot == null || snapshot.generation() != generation.getAsLong()) {
+        // Read the generation first so changes made while loading trigger another reload
+        long loading = generation.getAsLong();
+        snapshot = new Loaded(loading, loader.get());
+        loaded = snapshot;
+      }
+      return snapshot.snapshot();
+    } finally {
+      reloading.unlock();
+    }
+  }
+
+  /**
+   * @return the generation of the last loaded snapshot, or -1 if none was loaded
+   */
+  public long generation() {
+    Loaded snapshot = loaded;
+    return snapshot == null ? -1 : snapshot.generation();
+  }
+
+  private record Loaded(long generation, GraphSnapshot snapshot) {}
+}
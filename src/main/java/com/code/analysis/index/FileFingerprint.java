@@ -0,0 +1,84 @@
+package com.code.analysis.index;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Identifies the content of a source file.
+ *
+ * Size and modification time are cheap to read and are compared first; the
+ * content hash is only computed when they differ from the recorded values,
+ * which keeps an incremental run over an untouched tree free of file reads.
+ * The attributes are read before the content is hashed and checked again
+ * afterwards, so a file written to while it is hashed is never recorded with
+ * attributes newer than its hash.
+ *
+ * @param contentHash  hex-encoded SHA-256 of the file content
+ * @param size         file size in bytes
+ * @param lastModified last modification time in epoch milliseconds
+ */
+public record FileFingerprint(String contentHash, long size, long lastModified) {
+  private static final String HASH_ALGORITHM = "SHA-256";
+  private static final int BUFFER_SIZE = 8192;
+  private static final int MAX_ATTEMPTS = 3;
+
+  /**
+   * Computes the full fingerprint of a file, including its content hash. If
+   * the file changes while it is hashed, it is hashed again, up to
+   * {@value #MAX_ATTEMPTS} times; a file that keeps changing gets the
+   * attributes read before its last hash, so the next run sees them differ
+   * and hashes it again.
+   *
+   * @param file The file to fingerprint
+   * @return The fingerprint
+   * @throws IOException if the file cannot be read
+   */
+  public static FileFingerprint of(Path file) throws IOException {
+    FileFingerprint fingerprint;
+    int attempts = 0;
+    do {
+      BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+      fingerprint = new FileFingerprint(
+        hash(file),
+        attributes.size(),
+        attributes.lastModifiedTime().toMillis()
+      );
+      attempts++;
+    } while (attempts < MAX_ATTEMPTS && !fingerprint.matchesAttributesOf(file));
+    return fingerprint;
+  }
+
+  /**
+   * @return true if the file's size and modification time still match this fingerprint
+   * @throws IOException if the file attributes cannot be read
+   */
+  public boolean matchesAttributesOf(Path file) throws IOException {
+    return size == Files.size(file) && lastModified == Files.getLastModifiedTime(file).toMillis();
+  }
+
+  private static String hash(Path file) throws IOException {
+    MessageDigest digest = newDigest();
+    try (InputStream in = new DigestInputStream(Files.newInputStream(file), digest)) {
+      byte[] buffer = new byte[BUFFER_SIZE];
+      while (in.read(buffer) != -1) {
+        // reading drives the digest
+      }
+    }
+    return HexFormat.of().formatHex(digest.digest());
+  }
+
+  private static MessageDigest newDigest() {
+    try {
+      return MessageDigest.getInstance(HASH_ALGORITHM);
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException(HASH_ALGORITHM + " is not available", e);
+    }
+  }
+}
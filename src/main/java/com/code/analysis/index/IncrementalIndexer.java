@@ -0,0 +1,137 @@
+package com.code.analysis.index;
+
+import com.code.analysis.core.model.CodeUnit;
+import com.code.analysis.core.model.ModelValidator;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Re-indexes only the files that changed since the previous run.
+ *
+ * Every supported file is compared against the {@link IndexManifest}; files
+ * whose fingerprint is unchanged are never parsed. Changed and new files are
+ * converted through the wrapped {@link RepositoryIndexer} and reported to the
+ * {@link IndexChangeListener}, as are files that disappeared from the tree.
+ * The manifest is updated in place; persisting it is left to the caller so it
+ * can be saved only after the downstream store has committed the changes.
+ *
+ * Files that fail to convert keep their previous manifest entry and are
+ * therefore retried on the next run.
+ */
+public class IncrementalIndexer {
+
+  private final RepositoryIndexer indexer;
+
+  public IncrementalIndexer(RepositoryIndexer indexer) {
+    ModelValidator.validateNotNull(indexer, "Repository indexer");
+    this.indexer = indexer;
+  }
+
+  /**
+   * Indexes the changes below the source root relative to the manifest.
+   *
+   * @param sourceRoot The root directory to index
+   * @param manifest   What was indexed during the previous run; updated in place
+   * @param listener   Receives changed and deleted files
+   * @return A summary of the run
+   * @throws IOException if the source root cannot be walked
+   * @throws UncheckedIOException if a file's attributes or content cannot be read
+   */
+  public IncrementalSummary index(
+    Path sourceRoot,
+    IndexManifest manifest,
+    IndexChangeListener listener
+  ) throws IOException {
+    ModelValidator.validateNotNull(manifest, "Manifest");
+    ModelValidator.validateNotNull(listener, "Change listener");
+
+    var run = new IncrementalRun(sourceRoot, manifest, listener);
+    IndexSummary indexing = indexer.index(sourceRoot, run::hasChanged, run::changed);
+    List<String> deleted = run.removeDeleted();
+    return new IncrementalSummary(indexing, run.unchanged, deleted);
+  }
+
+  /**
+   * State of a single incremental run. Only touched by the calling thread.
+   */
+  private static final class IncrementalRun {
+
+    private final Path sourceRoot;
+    private final IndexManifest manifest;
+    private final IndexChangeListener listener;
+    private final Set<String> seen = new HashSet<>();
+    private final Map<Path, FileFingerprint> pending = new HashMap<>();
+    private long unchanged;
+
+    IncrementalRun(Path sourceRoot, IndexManifest manifest, IndexChangeListener listener) {
+      this.sourceRoot = sourceRoot;
+      this.manifest = manifest;
+      this.listener = listener;
+    }
+
+    boolean hasChanged(Path file) {
+      String key = relativeKey(file);
+      seen.add(key);
+      try {
+        Optional<IndexManifest.Entry> previous = manifest.get(key);
+        if (previous.isPresent() && previous.get().fingerprint().matchesAttributesOf(file)) {
+          unchanged++;
+          return false;
+        }
+        return hasContentChanged(file, key, previous);
+      } catch (IOException e) {
+        throw new UncheckedIOException("Failed to fingerprint " + file, e);
+      }
+    }
+
+    void changed(Path file, CodeUnit unit) {
+      String key = relativeKey(file);
+      var entry = new IndexManifest.Entry(pending.remove(file), unit.id());
+      Optional<String> previousUnitId = manifest.put(key, entry).map(IndexManifest.Entry::unitId);
+      listener.onChanged(key, unit, previousUnitId);
+    }
+
+    List<String> removeDeleted() {
+      List<String> deleted = new ArrayList<>();
+      for (String key : manifest.paths()) {
+        if (!seen.contains(key)) {
+          manifest.remove(key).ifPresent(entry -> listener.onDeleted(key, entry.unitId()));
+          deleted.add(key);
+        }
+      }
+      return deleted;
+    }
+
+    private boolean hasContentChanged(
+      Path file,
+      String key,
+      Optional<IndexManifest.Entry> previous
+    ) throws IOException {
+      var fingerprint = FileFingerprint.of(file);
+      if (previous.isPresent() && isSameContent(previous.get(), fingerprint)) {
+        // Touched but not modified: remember the new attributes so the next run skips hashing
+        manifest.put(key, new IndexManifest.Entry(fingerprint, previous.get().unitId()));
+        unchanged++;
+        return false;
+      }
+      pending.put(file, fingerprint);
+      return true;
+    }
+
+    private boolean isSameContent(IndexManifest.Entry entry, FileFingerprint fingerprint) {
+      return entry.fingerprint().contentHash().equals(fingerprint.contentHash());
+    }
+
+    private String relativeKey(Path file) {
+      return sourceRoot.relativize(file).toString().replace('\\', '/');
+    }
+  }
+}
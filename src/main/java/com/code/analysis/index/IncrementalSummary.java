@@ -0,0 +1,16 @@
+package com.code.analysis.index;
+
+import java.util.List;
+
+/**
+ * Outcome of an incremental indexing run.
+ *
+ * @param indexing  summary of the files that were re-converted
+ * @param unchanged number of files skipped because their content was unchanged
+ * @param deleted   relative paths of files removed since the previous run
+ */
+public record IncrementalSummary(IndexSummary indexing, long unchanged, List<String> deleted) {
+  public IncrementalSummary {
+    deleted = List.copyOf(deleted);
+  }
+}
@@ -0,0 +1,27 @@
+package com.code.analysis.index;
+
+import com.code.analysis.core.model.CodeUnit;
+import java.util.Optional;
+
+/**
+ * Receives the changes detected by an {@link IncrementalIndexer} so they can be
+ * applied to a downstream store. Invoked on the thread driving the indexer.
+ */
+public interface IndexChangeListener {
+  /**
+   * Called for a file that is new or whose content changed since the last run.
+   *
+   * @param relativePath   path of the file relative to the source root
+   * @param unit           the freshly converted unit
+   * @param previousUnitId id of the unit emitted for the file last time, if any
+   */
+  void onChanged(String relativePath, CodeUnit unit, Optional<String> previousUnitId);
+
+  /**
+   * Called for a file that was indexed last time but no longer exists.
+   *
+   * @param relativePath path of the file relative to the source root
+   * @param unitId       id of the unit emitted for the file last time
+   */
+  void onDeleted(String relativePath, String unitId);
+}
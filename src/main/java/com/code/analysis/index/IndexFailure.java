@@ -0,0 +1,12 @@
+package com.code.analysis.index;
+
+import java.nio.file.Path;
+
+/**
+ * Records a file that could not be indexed together with the reason.
+ *
+ * @param path  the file that failed
+ * @param cause the exception or error, such as a {@link StackOverflowError} on
+ *              a deeply nested file, raised while parsing or converting it
+ */
+public record IndexFailure(Path path, Throwable cause) {}
@@ -0,0 +1,139 @@
+package com.code.analysis.index;
+
+import com.code.analysis.core.model.ModelValidator;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Persistent record of what was indexed during the previous run: for every
+ * source file, the fingerprint of its content and the id of the code unit it
+ * produced.
+ *
+ * Keys are paths relative to the source root using forward slashes, so a
+ * manifest stays valid when the repository is checked out elsewhere. The
+ * manifest is stored as a tab-separated text file and written atomically.
+ * Instances are not thread-safe.
+ */
+public class IndexManifest {
+
+  private static final String HEADER = "# code-mcp index manifest v1";
+  private static final String SEPARATOR = "\t";
+  private static final int FIELD_COUNT = 5;
+
+  private final Map<String, Entry> entries;
+
+  public IndexManifest() {
+    this.entries = new HashMap<>();
+  }
+
+  /**
+   * Loads a manifest from disk, or returns an empty one if the file does not exist.
+   *
+   * @param file The manifest file
+   * @return The loaded manifest
+   * @throws IOException if the file exists but cannot be read
+   * @throws IllegalStateException if the file is not a valid manifest
+   */
+  public static IndexManifest load(Path file) throws IOException {
+    ModelValidator.validateNotNull(file, "Manifest file");
+    var manifest = new IndexManifest();
+    if (!Files.exists(file)) {
+      return manifest;
+    }
+    List<String> lines = Files.readAllLines(file);
+    if (lines.isEmpty() || !HEADER.equals(lines.get(0))) {
+      throw new IllegalStateException("Not an index manifest: " + file);
+    }
+    lines.stream().skip(1).filter(line -> !line.isBlank()).forEach(manifest::parseLine);
+    return manifest;
+  }
+
+  /**
+   * Writes the manifest to disk, replacing any previous version atomically.
+   *
+   * @param file The manifest file
+   * @throws IOException if the manifest cannot be written
+   */
+  public void save(Path file) throws IOException {
+    ModelValidator.validateNotNull(file, "Manifest file");
+    Path absolute = file.toAbsolutePath();
+    Path temp = Files.createTempFile(absolute.getParent(), absolute.getFileName().toString(), ".tmp");
+    try (BufferedWriter writer = Files.newBufferedWriter(temp)) {
+      writer.write(HEADER);
+      writer.newLine();
+      for (var mapping : entries.entrySet()) {
+        writer.write(formatLine(mapping.getKey(), mapping.getValue()));
+        writer.newLine();
+      }
+    }
+    Files.move(temp, absolute, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+  }
+
+  public Optional<Entry> get(String relativePath) {
+    return Optional.ofNullable(entries.get(relativePath));
+  }
+
+  public Optional<Entry> put(String relativePath, Entry entry) {
+    ModelValidator.validateNotEmpty(relativePath, "Relative path");
+    ModelValidator.validateNotNull(entry, "Manifest entry");
+    return Optional.ofNullable(entries.put(relativePath, entry));
+  }
+
+  public Optional<Entry> remove(String relativePath) {
+    return Optional.ofNullable(entries.remove(relativePath));
+  }
+
+  public Set<String> paths() {
+    return Set.copyOf(entries.keySet());
+  }
+
+  public int size() {
+    return entries.size();
+  }
+
+  private void parseLine(String line) {
+    String[] fields = line.split(SEPARATOR, FIELD_COUNT);
+    if (fields.length != FIELD_COUNT) {
+      throw new IllegalStateException("Malformed manifest line: " + line);
+    }
+    var fingerprint = new FileFingerprint(
+      fields[0],
+      Long.parseLong(fields[1]),
+      Long.parseLong(fields[2])
+    );
+    entries.put(fields[4], new Entry(fingerprint, fields[3]));
+  }
+
+  private static String formatLine(String relativePath, Entry entry) {
+    var fingerprint = entry.fingerprint();
+    return String.join(
+      SEPARATOR,
+      fingerprint.contentHash(),
+      Long.toString(fingerprint.size()),
+      Long.toString(fingerprint.lastModified()),
+      entry.unitId(),
+      relativePath
+    );
+  }
+
+  /**
+   * What the manifest remembers about one file.
+   *
+   * @param fingerprint content fingerprint at the time the file was indexed
+   * @param unitId      id of the code unit emitted for the file
+   */
+  public record Entry(FileFingerprint fingerprint, String unitId) {
+    public Entry {
+      ModelValidator.validateNotNull(fingerprint, "Fingerprint");
+      ModelValidator.validateNotEmpty(unitId, "Unit id");
+    }
+  }
+}
@@ -0,0 +1,247 @@
+package com.code.analysis.index;
+
+import com.code.analysis.core.CodeAnalyzer;
+import com.code.analysis.core.LanguageConverterFactory;
+import com.code.analysis.core.StagedAnalyzer;
+import com.code.analysis.core.model.CodeUnit;
+import com.code.analysis.core.model.ModelValidator;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Indexes a repository as a streaming pipeline of three stages, each served by
+ * its own worker pool: parse (file to syntax tree), convert (syntax tree to
+ * {@link CodeUnit}) and persist (unit to sink). Stages hand items over through
+ * bounded queues, so a slow stage - typically persistence when Neo4j falls
+ * behind - blocks the stages feeding it instead of letting parsed trees pile
+ * up. Peak memory is therefore bounded by the queue capacities and worker
+ * counts, not by the size of the repository.
+ *
+ * Analyzers implementing {@link StagedAnalyzer} are split across the parse and
+ * convert stages; any other analyzer does all of its work in the parse stage.
+ * Files that fail to parse or convert are recorded and skipped. A sink failure
+ * aborts the run.
+ *
+ * Per-stage throughput and queue depth are available through
+ * {@link #metrics()} while a run is in progress and in the returned summary.
+ *
+ * Example usage:
+ *
+ * <pre>
+ * try (var writer = new Neo4jGraphWriter(driver, executor, "core", GraphWriterSettings.defaults())) {
+ *     var pipeline = new IndexPipeline(factory, PipelineSettings.defaults());
+ *     PipelineSummary summary = pipeline.index(sourceRoot, (file, unit) -> writer.add(unit));
+ * }
+ * </pre>
+ */
+public class IndexPipeline {
+
+  private final LanguageConverterFactory converterFactory;
+  private final PipelineSettings settings;
+  private volatile Run current;
+
+  public IndexPipeline(LanguageConverterFactory converterFactory, PipelineSettings settings) {
+    ModelValidator.validateNotNull(converterFactory, "Converter factory");
+    ModelValidator.validateNotNull(settings, "Pipeline settings");
+    this.converterFactory = converterFactory;
+    this.settings = settings;
+  }
+
+  /**
+   * Streams every supported file below the source root through the pipeline.
+   *
+   * @param sourceRoot The root directory to index
+   * @param sink       Receives each converted unit on a persist worker thread
+   * @return A summary with final stage counters and the files that failed
+   * @throws IOException if the source root cannot be walked
+   * @throws IllegalStateException if the sink fails or the run is interrupted
+   */
+  public PipelineSummary index(Path sourceRoot, IndexSink sink) throws IOException {
+    return index(sourceRoot, file -> true, sink);
+  }
+
+  /**
+   * Streams every supported file accepted by the selector through the
+   * pipeline. The selector is invoked on the calling thread.
+   *
+   * @param sourceRoot The root directory to index
+   * @param selector   Decides which supported files need to be converted
+   * @param sink       Receives each converted unit on a persist worker thread
+   * @return A summary with final stage counters and the files that failed
+   * @throws IOException if the source root cannot be walked
+   * @throws IllegalStateException if the sink fails or the run is interrupted
+   */
+  public PipelineSummary index(Path sourceRoot, Predicate<Path> selector, IndexSink sink)
+    throws IOException {
+    ModelValidator.validateNotNull(sourceRoot, "Source root");
+    ModelValidator.validateNotNull(selector, "Selector");
+    ModelValidator.validateNotNull(sink, "Sink");
+    if (!Files.isDirectory(sourceRoot)) {
+      throw new IllegalArgumentException("Source root must be a directory: " + sourceRoot);
+    }
+
+    var run = new Run(sourceRoot, sink);
+    current = run;
+    run.execute(selector);
+    return new PipelineSummary(run.metrics(), List.copyOf(run.failures));
+  }
+
+  /**
+   * @return the current stage counters of the running, or last, run; empty if
+   *         nothing has been indexed yet
+   */
+  public List<StageMetrics> metrics() {
+    Run run = current;
+    return run != null ? run.metrics() : List.of();
+  }
+
+  private record SourceFile(Path path, CodeAnalyzer analyzer) {}
+
+  /**
+   * A parsed file together with the deferred conversion of its syntax tree.
+   */
+  private record ParsedFile(Path path, Conversion conversion) {}
+
+  private record ConvertedFile(Path path, CodeUnit unit) {}
+
+  @FunctionalInterface
+  private interface Conversion {
+    CodeUnit convert() throws Exception;
+  }
+
+  /**
+   * State of a single pipeline run.
+   */
+  private final class Run {
+
+    private final Path sourceRoot;
+    private final IndexSink sink;
+    private final PipelineStage<SourceFile> parse;
+    private final PipelineStage<ParsedFile> convert;
+    private final PipelineStage<ConvertedFile> persist;
+    private final Queue<IndexFailure> failures = new ConcurrentLinkedQueue<>();
+    private final AtomicReference<Throwable> sinkFailure = new AtomicReference<>();
+    private final CountDownLatch done = new CountDownLatch(1);
+    private final long startNanos = System.nanoTime();
+
+    Run(Path sourceRoot, IndexSink sink) {
+      this.sourceRoot = sourceRoot;
+      this.sink = sink;
+      this.parse = new PipelineStage<>("parse", settings.parseWorkers(), settings.queueCapacity());
+      this.convert = new PipelineStage<>(
+        "convert",
+        settings.convertWorkers(),
+        settings.queueCapacity()
+      );
+      this.persist = new PipelineStage<>(
+        "persist",
+        settings.persistWorkers(),
+        settings.queueCapacity()
+      );
+    }
+
+    void execute(Predicate<Path> selector) throws IOException {
+      parse.start(this::parse, this::recordFailure, convert::finish);
+      convert.start(this::convert, this::recordFailure, persist::finish);
+      persist.start(this::persist, (file, e) -> sinkFailure.compareAndSet(null, e), done::countDown);
+      try {
+        feed(selector);
+        parse.finish();
+        done.await();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IllegalStateException("Indexing of " + sourceRoot + " was interrupted", e);
+      } finally {
+        if (done.getCount() > 0) {
+          cancel();
+        }
+      }
+      Throwable cause = sinkFailure.get();
+      if (cause != null) {
+        throw new IllegalStateException("Failed to persist units from " + sourceRoot, cause);
+      }
+    }
+
+    List<StageMetrics> metrics() {
+      Duration elapsed = Duration.ofNanos(System.nanoTime() - startNanos);
+      return List.of(parse.metrics(elapsed), convert.metrics(elapsed), persist.metrics(elapsed));
+    }
+
+    private void feed(Predicate<Path> selector) throws IOException, InterruptedException {
+      try (Stream<Path> files = Files.walk(sourceRoot)) {
+        Iterator<Path> paths = files.filter(Files::isRegularFile).iterator();
+        while (paths.hasNext() && !aborted()) {
+          Path file = paths.next();
+          var analyzer = converterFactory.getConverter(file, sourceRoot);
+          if (analyzer.isPresent() && selector.test(file)) {
+            parse.put(new SourceFile(file, analyzer.get()));
+          }
+        }
+      } catch (UncheckedIOException e) {
+        throw e.getCause();
+      }
+    }
+
+    private void parse(SourceFile file) throws Exception {
+      if (aborted()) {
+        return;
+      }
+      convert.put(new ParsedFile(file.path(), parseWith(file.analyzer(), file.path())));
+    }
+
+    private void convert(ParsedFile file) throws Exception {
+      if (aborted()) {
+        return;
+      }
+      persist.put(new ConvertedFile(file.path(), file.conversion().convert()));
+    }
+
+    private void persist(ConvertedFile file) {
+      if (!aborted()) {
+        sink.accept(file.path(), file.unit());
+      }
+    }
+
+    private void recordFailure(SourceFile file, Throwable cause) {
+      failures.add(new IndexFailure(file.path(), cause));
+    }
+
+    private void recordFailure(ParsedFile file, Throwable cause) {
+      failures.add(new IndexFailure(file.path(), cause));
+    }
+
+    private boolean aborted() {
+      return sinkFailure.get() != null;
+    }
+
+    private void cancel() {
+      parse.cancel();
+      convert.cancel();
+      persist.cancel();
+    }
+  }
+
+  private static Conversion parseWith(CodeAnalyzer analyzer, Path file) throws IOException {
+    if (analyzer instanceof StagedAnalyzer<?> staged) {
+      return stage(staged, file);
+    }
+    CodeUnit unit = analyzer.parseFile(file);
+    return () -> unit;
+  }
+
+  private static <T> Conversion stage(StagedAnalyzer<T> analyzer, Path file) throws IOException {
+    T tree = analyzer.parse(file);
+    return () -> analyzer.convert(tree);
+  }
+}
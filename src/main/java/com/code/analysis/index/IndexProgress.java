@@ -0,0 +1,27 @@
+package com.code.analysis.index;
+
+import java.time.Duration;
+
+/**
+ * Snapshot of how far a repository indexing run has progressed.
+ *
+ * @param filesIndexed number of files successfully parsed and converted
+ * @param filesFailed  number of files that could not be parsed or converted
+ * @param elapsed      wall-clock time since the run started
+ */
+public record IndexProgress(long filesIndexed, long filesFailed, Duration elapsed) {
+  /**
+   * @return total number of files processed, successful or not
+   */
+  public long filesProcessed() {
+    return filesIndexed + filesFailed;
+  }
+
+  /**
+   * @return processing throughput in files per second
+   */
+  public double filesPerSecond() {
+    double seconds = elapsed.toNanos() / 1_000_000_000.0;
+    return seconds > 0 ? filesProcessed() / seconds : 0.0;
+  }
+}
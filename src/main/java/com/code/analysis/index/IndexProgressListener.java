@@ -0,0 +1,11 @@
+package com.code.analysis.index;
+
+/**
+ * Receives periodic progress reports from a {@link RepositoryIndexer}.
+ * Reports are delivered on the thread that called
+ * {@link RepositoryIndexer#index}, so implementations need not be thread-safe.
+ */
+@FunctionalInterface
+public interface IndexProgressListener {
+  void onProgress(IndexProgress progress);
+}
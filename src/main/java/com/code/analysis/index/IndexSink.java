@@ -0,0 +1,13 @@
+package com.code.analysis.index;
+
+import com.code.analysis.core.model.CodeUnit;
+import java.nio.file.Path;
+
+/**
+ * Receives converted units from a {@link RepositoryIndexer} together with the
+ * file they were converted from. Invoked on the thread driving the indexer.
+ */
+@FunctionalInterface
+public interface IndexSink {
+  void accept(Path file, CodeUnit unit);
+}
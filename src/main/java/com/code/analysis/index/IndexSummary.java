@@ -0,0 +1,15 @@
+package com.code.analysis.index;
+
+import java.util.List;
+
+/**
+ * Outcome of a complete repository indexing run.
+ *
+ * @param progress final progress counters for the run
+ * @param failures files that could not be indexed
+ */
+public record IndexSummary(IndexProgress progress, List<IndexFailure> failures) {
+  public IndexSummary {
+    failures = List.copyOf(failures);
+  }
+}
@@ -0,0 +1,30 @@
+package com.code.analysis.index;
+
+import lombok.Builder;
+
+/**
+ * Tuning knobs for {@link RepositoryIndexer}.
+ *
+ * @param maxInFlight      maximum number of files submitted to the executor but
+ *                         not yet consumed; bounds the number of converted units
+ *                         held in memory at once
+ * @param progressInterval number of processed files between progress reports
+ */
+@Builder
+public record IndexerSettings(int maxInFlight, int progressInterval) {
+  private static final int DEFAULT_PROGRESS_INTERVAL = 500;
+
+  public IndexerSettings {
+    maxInFlight = maxInFlight > 0
+      ? maxInFlight
+      : Runtime.getRuntime().availableProcessors() * 4;
+    progressInterval = progressInterval > 0 ? progressInterval : DEFAULT_PROGRESS_INTERVAL;
+  }
+
+  /**
+   * @return settings sized for the current machine
+   */
+  public static IndexerSettings defaults() {
+    return IndexerSettings.builder().build();
+  }
+}
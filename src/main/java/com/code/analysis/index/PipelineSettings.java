@@ -0,0 +1,39 @@
+package com.code.analysis.index;
+
+import lombok.Builder;
+
+/**
+ * Tuning knobs for {@link IndexPipeline}.
+ *
+ * @param parseWorkers   number of threads parsing files into syntax trees
+ * @param convertWorkers number of threads converting syntax trees into units
+ * @param persistWorkers number of threads handing units to the sink; with more
+ *                       than one the sink must be thread-safe
+ * @param queueCapacity  capacity of each hand-off queue between stages; a full
+ *                       queue blocks the stage feeding it
+ */
+@Builder
+public record PipelineSettings(
+  int parseWorkers,
+  int convertWorkers,
+  int persistWorkers,
+  int queueCapacity
+) {
+  private static final int DEFAULT_PERSIST_WORKERS = 1;
+  private static final int DEFAULT_QUEUE_CAPACITY = 256;
+
+  public PipelineSettings {
+    int cores = Runtime.getRuntime().availableProcessors();
+    parseWorkers = parseWorkers > 0 ? parseWorkers : cores;
+    convertWorkers = convertWorkers > 0 ? convertWorkers : cores;
+    persistWorkers = persistWorkers > 0 ? persistWorkers : DEFAULT_PERSIST_WORKERS;
+    queueCapacity = queueCapacity > 0 ? queueCapacity : DEFAULT_QUEUE_CAPACITY;
+  }
+
+  /**
+   * @return settings sized for the current machine
+   */
+  public static PipelineSettings defaults() {
+    return PipelineSettings.builder().build();
+  }
+}
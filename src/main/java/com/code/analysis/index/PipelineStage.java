@@ -0,0 +1,157 @@
+package com.code.analysis.index;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * One stage of an {@link IndexPipeline}: a bounded input queue drained by a
+ * fixed pool of worker threads. Producers block in {@link #put(Object)} while
+ * the queue is full, which is how backpressure travels upstream.
+ *
+ * @param <I> The type of item the stage consumes
+ */
+final class PipelineStage<I> {
+
+  private static final Object END = new Object();
+
+  /**
+   * Processes one item, typically handing its result to the next stage.
+   */
+  @FunctionalInterface
+  interface Worker<I> {
+    void process(I item) throws Exception;
+  }
+
+  /**
+   * Runs once the stage has drained its input, typically finishing the next
+   * stage.
+   */
+  @FunctionalInterface
+  interface Completion {
+    void run() throws InterruptedException;
+  }
+
+  /**
+   * Decides what a failure on a single item means for the run. Errors such as
+   * a {@link StackOverflowError} on a deeply nested file are item failures
+   * too, so that a worker never dies with items left in its queue.
+   */
+  @FunctionalInterface
+  interface FailureHandler<I> {
+    void onFailure(I item, Throwable cause);
+  }
+
+  private final String name;
+  private final int workerCount;
+  private final int capacity;
+  private final BlockingQueue<Object> queue;
+  private final ExecutorService pool;
+  private final AtomicInteger activeWorkers;
+  private final LongAdder processed = new LongAdder();
+  private final LongAdder failed = new LongAdder();
+
+  PipelineStage(String name, int workerCount, int capacity) {
+    this.name = name;
+    this.workerCount = workerCount;
+    this.capacity = capacity;
+    this.queue = new ArrayBlockingQueue<>(capacity);
+    this.pool = Executors.newFixedThreadPool(
+      workerCount,
+      Thread.ofPlatform().name("index-" + name + "-", 0).daemon().factory()
+    );
+    this.activeWorkers = new AtomicInteger(workerCount);
+  }
+
+  /**
+   * Starts the workers.
+   *
+   * @param worker     Processes each item
+   * @param onFailure  Invoked on the worker thread when an item fails
+   * @param onComplete Invoked once, by the last worker to finish, after the
+   *                   end of input has been reached
+   */
+  void start(Worker<I> worker, FailureHandler<I> onFailure, Completion onComplete) {
+    for (int i = 0; i < workerCount; i++) {
+      pool.execute(() -> run(worker, onFailure, onComplete));
+    }
+  }
+
+  /**
+   * Queues an item, blocking while the stage is saturated.
+   */
+  void put(I item) throws InterruptedException {
+    queue.put(item);
+  }
+
+  /**
+   * Signals that no more items will be queued.
+   */
+  void finish() throws InterruptedException {
+    for (int i = 0; i < workerCount; i++) {
+      queue.put(END);
+    }
+  }
+
+  /**
+   * Interrupts the workers without waiting for queued items.
+   */
+  void cancel() {
+    pool.shutdownNow();
+  }
+
+  StageMetrics metrics(Duration elapsed) {
+    return new StageMetrics(
+      name,
+      workerCount,
+      processed.sum(),
+      failed.sum(),
+      queue.size(),
+      capacity,
+      elapsed
+    );
+  }
+
+  @SuppressWarnings("unchecked")
+  private void run(Worker<I> worker, FailureHandler<I> onFailure, Completion onComplete) {
+    boolean interrupted = false;
+    try {
+      for (Object next = queue.take(); next != END; next = queue.take()) {
+        I item = (I) next;
+        try {
+          worker.process(item);
+          processed.increment();
+        } catch (InterruptedException e) {
+          throw e;
+        } catch (Throwable e) {
+          failed.increment();
+          onFailure.onFailure(item, e);
+        }
+      }
+    } catch (InterruptedException e) {
+      interrupted = true;
+    } finally {
+      // The last worker out completes the stage however it got there, so that
+      // downstream stages and the run waiting on them are never left hanging
+      if (activeWorkers.decrementAndGet() == 0 && !interrupted) {
+        complete(onComplete);
+      }
+      if (interrupted) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  private void complete(Completion onComplete) {
+    pool.shutdown();
+    try {
+      onComplete.run();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+}
@@ -0,0 +1,16 @@
+package com.code.analysis.index;
+
+import java.util.List;
+
+/**
+ * Outcome of a complete {@link IndexPipeline} run.
+ *
+ * @param stages   final counters of each stage, in pipeline order
+ * @param failures files that could not be parsed or converted
+ */
+public record PipelineSummary(List<StageMetrics> stages, List<IndexFailure> failures) {
+  public PipelineSummary {
+    stages = List.copyOf(stages);
+    failures = List.copyOf(failures);
+  }
+}
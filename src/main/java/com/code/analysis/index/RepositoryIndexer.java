@@ -0,0 +1,209 @@
+package com.code.analysis.index;
+
+import com.code.analysis.core.CodeAnalyzer;
+import com.code.analysis.core.LanguageConverterFactory;
+import com.code.analysis.core.model.CodeUnit;
+import com.code.analysis.core.model.ModelValidator;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+
+/**
+ * Indexes every supported source file below a root directory, parsing and
+ * converting files in parallel on a caller-supplied executor.
+ *
+ * Files are matched to analyzers through {@link LanguageConverterFactory};
+ * files without a registered converter are skipped. Converted units are handed
+ * to the sink on the calling thread in completion order, so the sink does not
+ * need to be thread-safe. At most {@link IndexerSettings#maxInFlight()} files
+ * are pending at any time, which keeps memory bounded on large repositories.
+ * Files that fail to convert are recorded and skipped. That includes files
+ * nested deeply enough to overflow the parser's stack, which only unwinds the
+ * worker's own stack. Any other {@link Error} aborts the run.
+ *
+ * The executor is owned by the caller. A {@code ForkJoinPool} sized to the
+ * number of cores suits CPU-bound parsing; a virtual-thread executor suits
+ * repositories on slow or network storage.
+ *
+ * Example usage:
+ *
+ * <pre>
+ * try (var executor = Executors.newVirtualThreadPerTaskExecutor()) {
+ *     var indexer = new RepositoryIndexer(factory, executor, IndexerSettings.defaults(),
+ *         progress -> System.out.printf("%.0f files/sec%n", progress.filesPerSecond()));
+ *     IndexSummary summary = indexer.index(sourceRoot, unit -> store(unit));
+ * }
+ * </pre>
+ */
+public class RepositoryIndexer {
+
+  private final LanguageConverterFactory converterFactory;
+  private final ExecutorService executor;
+  private final IndexerSettings settings;
+  private final IndexProgressListener progressListener;
+
+  public RepositoryIndexer(
+    LanguageConverterFactory converterFactory,
+    ExecutorService executor,
+    IndexerSettings settings,
+    IndexProgressListener progressListener
+  ) {
+    ModelValidator.validateNotNull(converterFactory, "Converter factory");
+    ModelValidator.validateNotNull(executor, "Executor");
+    ModelValidator.validateNotNull(settings, "Indexer settings");
+    ModelValidator.validateNotNull(progressListener, "Progress listener");
+    this.converterFactory = converterFactory;
+    this.executor = executor;
+    this.settings = settings;
+    this.progressListener = progressListener;
+  }
+
+  public RepositoryIndexer(LanguageConverterFactory converterFactory, ExecutorService executor) {
+    this(converterFactory, executor, IndexerSettings.defaults(), progress -> {});
+  }
+
+  /**
+   * Walks the source root and converts every supported file.
+   *
+   * @param sourceRoot The root directory to index
+   * @param sink       Receives each converted unit as soon as it is available
+   * @return A summary with final counters and the files that failed
+   * @throws IOException if the source root cannot be walked
+   * @throws IllegalArgumentException if sourceRoot is not a directory or sink is null
+   */
+  public IndexSummary index(Path sourceRoot, Consumer<CodeUnit> sink) throws IOException {
+    ModelValidator.validateNotNull(sink, "Sink");
+    return index(sourceRoot, file -> true, (file, unit) -> sink.accept(unit));
+  }
+
+  /**
+   * Walks the source root and converts every supported file accepted by the
+   * selector. The selector and the sink are both invoked on the calling thread.
+   *
+   * @param sourceRoot The root directory to index
+   * @param selector   Decides which supported files need to be converted
+   * @param sink       Receives each converted unit with the file it came from
+   * @return A summary with final counters and the files that failed
+   * @throws IOException if the source root cannot be walked
+   * @throws IllegalArgumentException if sourceRoot is not a directory or an argument is null
+   */
+  public IndexSummary index(Path sourceRoot, Predicate<Path> selector, IndexSink sink)
+    throws IOException {
+    ModelValidator.validateNotNull(sourceRoot, "Source root");
+    ModelValidator.validateNotNull(selector, "Selector");
+    ModelValidator.validateNotNull(sink, "Sink");
+    if (!Files.isDirectory(sourceRoot)) {
+      throw new IllegalArgumentException("Source root must be a directory: " + sourceRoot);
+    }
+
+    var run = new IndexRun(sourceRoot, sink);
+    try (Stream<Path> files = Files.walk(sourceRoot)) {
+      files.filter(Files::isRegularFile).forEach(file -> run.submit(file, selector));
+    }
+    run.drainAll();
+    return run.summary();
+  }
+
+  /**
+   * Result of converting a single file; exactly one of unit or failure is set.
+   */
+  private record FileOutcome(Path path, CodeUnit unit, Throwable failure) {}
+
+  /**
+   * Mutable state of a single indexing run. Only touched by the calling thread.
+   */
+  private final class IndexRun {
+
+    private final Path sourceRoot;
+    private final IndexSink sink;
+    private final CompletionService<FileOutcome> completionService;
+    private final List<IndexFailure> failures = new ArrayList<>();
+    private final long startNanos = System.nanoTime();
+    private int inFlight;
+    private long indexed;
+
+    IndexRun(Path sourceRoot, IndexSink sink) {
+      this.sourceRoot = sourceRoot;
+      this.sink = sink;
+      this.completionService = new ExecutorCompletionService<>(executor);
+    }
+
+    void submit(Path file, Predicate<Path> selector) {
+      converterFactory
+        .getConverter(file, sourceRoot)
+        .filter(analyzer -> selector.test(file))
+        .ifPresent(analyzer -> {
+          while (inFlight >= settings.maxInFlight()) {
+            drainOne();
+          }
+          completionService.submit(() -> convert(file, analyzer));
+          inFlight++;
+        });
+    }
+
+    void drainAll() {
+      while (inFlight > 0) {
+        drainOne();
+      }
+      progressListener.onProgress(progress());
+    }
+
+    IndexSummary summary() {
+      return new IndexSummary(progress(), failures);
+    }
+
+    private FileOutcome convert(Path file, CodeAnalyzer analyzer) {
+      try {
+        return new FileOutcome(file, analyzer.parseFile(file), null);
+      } catch (Exception | StackOverflowError e) {
+        return new FileOutcome(file, null, e);
+      }
+    }
+
+    private void drainOne() {
+      record(takeNext());
+      inFlight--;
+      if (progress().filesProcessed() % settings.progressInterval() == 0) {
+        progressListener.onProgress(progress());
+      }
+    }
+
+    private void record(FileOutcome outcome) {
+      if (outcome.failure() != null) {
+        failures.add(new IndexFailure(outcome.path(), outcome.failure()));
+      } else {
+        indexed++;
+        sink.accept(outcome.path(), outcome.unit());
+      }
+    }
+
+    private FileOutcome takeNext() {
+      try {
+        return completionService.take().get();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        throw new IllegalStateException("Indexing of " + sourceRoot + " was interrupted", e);
+      } catch (ExecutionException e) {
+        throw new IllegalStateException("Indexing of " + sourceRoot + " failed", e.getCause());
+      }
+    }
+
+    private IndexProgress progress() {
+      return new IndexProgress(
+        indexed,
+        failures.size(),
+        Duration.ofNanos(System.nanoTime() - startNanos)
+      );
+    }
+  }
+}
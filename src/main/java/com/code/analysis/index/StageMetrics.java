@@ -0,0 +1,33 @@
+package com.code.analysis.index;
+
+import java.time.Duration;
+
+/**
+ * Snapshot of one stage of an {@link IndexPipeline}.
+ *
+ * @param stage         the stage name: {@code parse}, {@code convert} or
+ *                      {@code persist}
+ * @param workers       number of threads serving the stage
+ * @param processed     number of items the stage completed
+ * @param failed        number of items the stage failed on
+ * @param queueDepth    number of items waiting in the stage's input queue
+ * @param queueCapacity capacity of the stage's input queue
+ * @param elapsed       wall-clock time since the run started
+ */
+public record StageMetrics(
+  String stage,
+  int workers,
+  long processed,
+  long failed,
+  int queueDepth,
+  int queueCapacity,
+  Duration elapsed
+) {
+  /**
+   * @return the stage's throughput in items per second
+   */
+  public double itemsPerSecond() {
+    double seconds = elapsed.toNanos() / 1_000_000_000.0;
+    return seconds > 0 ? (processed + failed) / seconds : 0.0;
+  }
+}
@@ -0,0 +1,92 @@
+package com.code.analysis.java;
+
+import com.code.analysis.core.model.BoundedCache;
+import com.code.analysis.core.model.ModelValidator;
+import com.github.javaparser.resolution.TypeSolver;
+import com.github.javaparser.resolution.declarations.ResolvedReferenceTypeDeclaration;
+import com.github.javaparser.resolution.model.SymbolReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Thread-safe type solver that memoizes resolution results in a bounded cache
+ * shared by every file and thread analyzing the same source root.
+ *
+ * This solver becomes the root of the delegate chain: cache hits are served
+ * lock-free, while misses (including nested lookups the delegate makes through
+ * {@link #getRoot()}) are serialized on the delegate, so delegates need not be
+ * reentrant. Unsolved lookups are cached as well, so repeatedly missing types
+ * are only searched for once.
+ *
+ * Only the lookup itself is made safe. Declarations of project types resolved
+ * from source still point into syntax trees that JavaParser's facade writes
+ * onto while resolving, so they must not be shared between threads; see
+ * {@link SourceSymbolSolvers}. Library types from reflection are safe to share.
+ *
+ * The cache is a {@link BoundedCache}: when it is full, the names not looked
+ * up recently are evicted in bulk. Type lookups are heavily skewed towards a
+ * small set of hot names, which therefore stay cached.
+ */
+public class ConcurrentTypeSolver implements TypeSolver {
+
+  private final TypeSolver delegate;
+  private final BoundedCache<String, SymbolReference<ResolvedReferenceTypeDeclaration>> cache;
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+
+  /**
+   * @param delegate   The solver doing the actual resolution; must not have a parent yet
+   * @param maxEntries Maximum number of cached type names
+   * @throws IllegalArgumentException if delegate is null or maxEntries is not positive
+   */
+  public ConcurrentTypeSolver(TypeSolver delegate, int maxEntries) {
+    ModelValidator.validateNotNull(delegate, "Delegate type solver");
+    if (maxEntries <= 0) {
+      throw new IllegalArgumentException("maxEntries must be positive");
+    }
+    this.delegate = delegate;
+    this.cache = new BoundedCache<>(maxEntries);
+    delegate.setParent(this);
+  }
+
+  @Override
+  public SymbolReference<ResolvedReferenceTypeDeclaration> tryToSolveType(String name) {
+    var cached = cache.get(name);
+    if (cached != null) {
+      hits.increment();
+      return cached;
+    }
+    misses.increment();
+    var resolved = solveUncached(name);
+    cache.putIfAbsent(name, resolved);
+    return resolved;
+  }
+
+  @Override
+  public TypeSolver getParent() {
+    return null;
+  }
+
+  @Override
+  public void setParent(TypeSolver parent) {
+    throw new UnsupportedOperationException("ConcurrentTypeSolver must be the root solver");
+  }
+
+  public long hitCount() {
+    return hits.sum();
+  }
+
+  public long missCount() {
+    return misses.sum();
+  }
+
+  public int size() {
+    return cache.size();
+  }
+
+  private SymbolReference<ResolvedReferenceTypeDeclaration> solveUncached(String name) {
+    synchronized (delegate) {
+      var cached = cache.get(name);
+      return cached != null ? cached : delegate.tryToSolveType(name);
+    }
+  }
+}
@@ -1,61 +1,170 @@
 package com.code.analysis.java;
 
+import com.code.analysis.core.AnalysisLevel;
 import com.code.analysis.core.CodeAnalyzer;
+import com.code.analysis.core.StagedAnalyzer;
 import com.code.analysis.core.model.CodeUnit;
 import com.code.analysis.core.model.Definition;
 import com.code.analysis.core.model.Documentation;
+import com.code.analysis.core.model.ModelValidator;
+import com.code.analysis.core.model.StringPool;
 import com.code.analysis.java.converter.JavaConverter;
 import com.github.javaparser.JavaParser;
 import com.github.javaparser.ParserConfiguration;
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.resolution.TypeSolver;
 import com.github.javaparser.symbolsolver.JavaSymbolSolver;
-import com.github.javaparser.symbolsolver.resolution.typesolvers.CombinedTypeSolver;
-import com.github.javaparser.symbolsolver.resolution.typesolvers.JavaParserTypeSolver;
 import com.github.javaparser.symbolsolver.resolution.typesolvers.ReflectionTypeSolver;
 import java.io.IOException;
 import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 
-public class JavaAnalyzer implements CodeAnalyzer {
+/**
+ * Java implementation of {@link CodeAnalyzer}, staged into parsing and
+ * conversion of JavaParser compilation units.
+ *
+ * A single instance is safe to share between threads: each parse uses its own
+ * {@link JavaParser}. Library types are resolved through one
+ * {@link ConcurrentTypeSolver}, so they are reused across files, while each
+ * conversion against a source root borrows a symbol solver of its own from
+ * {@link SourceSymbolSolvers}, since resolving project types writes onto their
+ * cached syntax trees.
+ *
+ * At {@link AnalysisLevel#SYNTAX_ONLY} no type solver is built and no symbol
+ * resolver is attached to the parser. At {@link AnalysisLevel#RESOLVED} types
+ * are resolved on demand, for the supertype references of classes and
+ * interfaces and for the method calls and field accesses in method and
+ * constructor bodies.
+ *
+ * Repetitive strings in the converted units are deduplicated through one
+ * {@link StringPool} per analyzer, so units from files under the same source
+ * root share them.
+ */
+public class JavaAnalyzer implements StagedAnalyzer<CompilationUnit> {
 
-  private final JavaParser parser;
+  static final int DEFAULT_TYPE_CACHE_SIZE = 50_000;
+  static final int DEFAULT_SOURCE_CACHE_SIZE = 5_000;
+
+  private final ParserConfiguration config;
+  private final SourceSymbolSolvers sourceSolvers;
   private final JavaConverter converter;
+  private final AnalysisLevel level;
+  private final StringPool strings;
 
   public JavaAnalyzer(Path sourceRoot) {
-    var typeSolver = new CombinedTypeSolver(
-      new ReflectionTypeSolver(),
-      new JavaParserTypeSolver(sourceRoot)
-    );
-    var symbolSolver = new JavaSymbolSolver(typeSolver);
-    var config = new ParserConfiguration()
-      .setSymbolResolver(symbolSolver)
-      .setLanguageLevel(ParserConfiguration.LanguageLevel.JAVA_17);
+    this(sourceRoot, AnalysisLevel.RESOLVED);
+  }
 
-    this.parser = new JavaParser(config);
-    this.converter = new JavaConverter();
+  /**
+   * Creates an analyzer for the given source root at the given level. Units
+   * are identified by the path of their file relative to the root.
+   *
+   * @param sourceRoot The root directory types are resolved against
+   * @param level      How deeply files are analyzed
+   */
+  public JavaAnalyzer(Path sourceRoot, AnalysisLevel level) {
+    this(
+      level,
+      null,
+      level == AnalysisLevel.RESOLVED ? sourceRootSolvers(sourceRoot) : null,
+      sourceRoot
+    );
   }
 
   public JavaAnalyzer() {
-    var config = new ParserConfiguration()
-      .setSymbolResolver(new JavaSymbolSolver(new ReflectionTypeSolver()))
-      .setLanguageLevel(ParserConfiguration.LanguageLevel.JAVA_17);
+    this(libraryTypeSolver());
+  }
 
-    this.parser = new JavaParser(config);
-    this.converter = new JavaConverter();
+  /**
+   * Creates an analyzer resolving symbols through the given solver.
+   *
+   * @param typeSolver A thread-safe type solver, typically shared per source root
+   */
+  public JavaAnalyzer(TypeSolver typeSolver) {
+    this(AnalysisLevel.RESOLVED, requireSolver(typeSolver), null, null);
+  }
+
+  private JavaAnalyzer(
+    AnalysisLevel level,
+    TypeSolver typeSolver,
+    SourceSymbolSolvers sourceSolvers,
+    Path sourceRoot
+  ) {
+    ModelValidator.validateNotNull(level, "Analysis level");
+    this.level = level;
+    this.config = parserConfiguration();
+    if (typeSolver != null) {
+      config.setSymbolResolver(new JavaSymbolSolver(typeSolver));
+    }
+    this.sourceSolvers = sourceSolvers;
+    this.strings = new StringPool();
+    this.converter = new JavaConverter(level, strings, sourceRoot);
+  }
+
+  /**
+   * @return the pool deduplicating strings across every file this analyzer
+   *         converts, for monitoring its hit rate
+   */
+  public StringPool stringPool() {
+    return strings;
+  }
+
+  /**
+   * @return how deeply this analyzer examines files
+   */
+  public AnalysisLevel level() {
+    return level;
   }
 
   @Override
-  public CodeUnit parseFile(Path path) throws IOException {
-    var parseResult = parser.parse(path);
+  public CompilationUnit parse(Path path) throws IOException {
+    var parseResult = new JavaParser(config).parse(path);
     if (!parseResult.isSuccessful()) {
       throw new IOException("Failed to parse Java file: " + parseResult.getProblems());
     }
 
-    var compilationUnit = parseResult
+    return parseResult
       .getResult()
       .orElseThrow(() -> new IOException("Failed to get compilation unit"));
+  }
 
-    return converter.convert(compilationUnit);
+  @Override
+  public CodeUnit convert(CompilationUnit compilationUnit) {
+    if (sourceSolvers == null) {
+      return converter.convert(compilationUnit);
+    }
+    var solver = sourceSolvers.borrow();
+    solver.inject(compilationUnit);
+    try {
+      return converter.convert(compilationUnit);
+    } finally {
+      compilationUnit.removeData(Node.SYMBOL_RESOLVER_KEY);
+      sourceSolvers.release(solver);
+    }
+  }
+
+  private static ParserConfiguration parserConfiguration() {
+    return new ParserConfiguration().setLanguageLevel(ParserConfiguration.LanguageLevel.JAVA_17);
+  }
+
+  private static ConcurrentTypeSolver libraryTypeSolver() {
+    return new ConcurrentTypeSolver(new ReflectionTypeSolver(), DEFAULT_TYPE_CACHE_SIZE);
+  }
+
+  private static SourceSymbolSolvers sourceRootSolvers(Path sourceRoot) {
+    return new SourceSymbolSolvers(
+      sourceRoot,
+      parserConfiguration(),
+      DEFAULT_SOURCE_CACHE_SIZE,
+      libraryTypeSolver()
+    );
+  }
+
+  private static TypeSolver requireSolver(TypeSolver typeSolver) {
+    ModelValidator.validateNotNull(typeSolver, "Type solver");
+    return typeSolver;
   }
 
   @Override
@@ -65,6 +174,16 @@ public class JavaAnalyzer implements CodeAnalyzer {
 
   @Override
   public List<Documentation> extractDocumentation(CodeUnit codeUnit) {
-    return codeUnit.documentation() != null ? List.of(codeUnit.documentation()) : List.of();
+    List<Documentation> documentation = new ArrayList<>();
+    if (codeUnit.documentation() != null) {
+      documentation.add(codeUnit.documentation());
+    }
+    codeUnit
+      .definitions()
+      .stream()
+      .map(Definition::documentation)
+      .filter(doc -> doc != null && !doc.equals(codeUnit.documentation()))
+      .forEach(documentation::add);
+    return documentation;
   }
 }
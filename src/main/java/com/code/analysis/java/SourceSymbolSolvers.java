@@ -0,0 +1,111 @@
+package com.code.analysis.java;
+
+import com.code.analysis.core.model.ModelValidator;
+import com.github.javaparser.ParserConfiguration;
+import com.github.javaparser.resolution.TypeSolver;
+import com.github.javaparser.resolution.declarations.ResolvedReferenceTypeDeclaration;
+import com.github.javaparser.resolution.model.SymbolReference;
+import com.github.javaparser.symbolsolver.JavaSymbolSolver;
+import com.github.javaparser.symbolsolver.resolution.typesolvers.CombinedTypeSolver;
+import com.github.javaparser.symbolsolver.resolution.typesolvers.JavaParserTypeSolver;
+import java.nio.file.Path;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Pool of symbol solvers for one source root, each with its own copy of the
+ * project sources.
+ *
+ * Resolving against a project type walks the syntax tree of its source file,
+ * which {@link JavaParserTypeSolver} parses once and caches, and JavaParser's
+ * facade records what it resolved on those trees through the unsynchronized
+ * {@code Node.setData}. A solver and the trees it cached can therefore only
+ * be used by one thread at a time. Conversions borrow a solver for their
+ * duration and return it afterwards, so the pool grows to the number of
+ * conversions running at once, typically one per pipeline worker.
+ *
+ * Library types hold no syntax trees and are shared: every solver looks them
+ * up through the same {@link ConcurrentTypeSolver}.
+ */
+final class SourceSymbolSolvers {
+
+  private final Path sourceRoot;
+  private final ParserConfiguration sourceConfig;
+  private final int sourceCacheSize;
+  private final ConcurrentTypeSolver libraryTypes;
+  private final Queue<JavaSymbolSolver> idle = new ConcurrentLinkedQueue<>();
+
+  /**
+   * @param sourceRoot      The root directory project types are parsed from
+   * @param sourceConfig    Configuration for parsing project sources
+   * @param sourceCacheSize Maximum number of parsed source files each solver keeps
+   * @param libraryTypes    The solver for library types, shared by every solver
+   */
+  SourceSymbolSolvers(
+    Path sourceRoot,
+    ParserConfiguration sourceConfig,
+    int sourceCacheSize,
+    ConcurrentTypeSolver libraryTypes
+  ) {
+    ModelValidator.validateNotNull(sourceRoot, "Source root");
+    ModelValidator.validateNotNull(sourceConfig, "Source parser configuration");
+    ModelValidator.validateNotNull(libraryTypes, "Library type solver");
+    this.sourceRoot = sourceRoot;
+    this.sourceConfig = sourceConfig;
+    this.sourceCacheSize = sourceCacheSize;
+    this.libraryTypes = libraryTypes;
+  }
+
+  /**
+   * @return a solver no other thread uses until it is released
+   */
+  JavaSymbolSolver borrow() {
+    var solver = idle.poll();
+    return solver != null ? solver : create();
+  }
+
+  /**
+   * @param solver A solver obtained from {@link #borrow()}, no longer in use
+   */
+  void release(JavaSymbolSolver solver) {
+    idle.offer(solver);
+  }
+
+  private JavaSymbolSolver create() {
+    return new JavaSymbolSolver(
+      new CombinedTypeSolver(
+        new LibraryTypes(libraryTypes),
+        new JavaParserTypeSolver(sourceRoot, sourceConfig, sourceCacheSize)
+      )
+    );
+  }
+
+  /**
+   * Per-solver handle on the shared library solver, which has to stay the
+   * root of its own chain and so cannot take a parent itself.
+   */
+  private static final class LibraryTypes implements TypeSolver {
+
+    private final TypeSolver shared;
+    private TypeSolver parent;
+
+    LibraryTypes(TypeSolver shared) {
+      this.shared = shared;
+    }
+
+    @Override
+    public SymbolReference<ResolvedReferenceTypeDeclaration> tryToSolveType(String name) {
+      return shared.tryToSolveType(name);
+    }
+
+    @Override
+    public TypeSolver getParent() {
+      return parent;
+    }
+
+    @Override
+    public void setParent(TypeSolver parent) {
+      this.parent = parent;
+    }
+  }
+}
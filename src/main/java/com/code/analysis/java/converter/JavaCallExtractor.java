@@ -0,0 +1,458 @@
+package com.code.analysis.java.converter;
+
+import com.code.analysis.core.model.BoundedCache;
+import com.code.analysis.core.model.Definition;
+import com.code.analysis.core.model.Reference;
+import com.code.analysis.core.model.ReferenceKind;
+import com.code.analysis.core.model.StringPool;
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.ImportDeclaration;
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.body.CallableDeclaration;
+import com.github.javaparser.ast.body.FieldDeclaration;
+import com.github.javaparser.ast.body.Parameter;
+import com.github.javaparser.ast.body.TypeDeclaration;
+import com.github.javaparser.ast.body.VariableDeclarator;
+import com.github.javaparser.ast.expr.Expression;
+import com.github.javaparser.ast.expr.FieldAccessExpr;
+import com.github.javaparser.ast.expr.MethodCallExpr;
+import com.github.javaparser.ast.expr.NameExpr;
+import com.github.javaparser.ast.expr.PatternExpr;
+import com.github.javaparser.ast.expr.ThisExpr;
+import com.github.javaparser.ast.stmt.LocalClassDeclarationStmt;
+import com.github.javaparser.ast.stmt.LocalRecordDeclarationStmt;
+import com.github.javaparser.ast.type.Type;
+import com.github.javaparser.resolution.declarations.ResolvedMethodDeclaration;
+import com.github.javaparser.resolution.declarations.ResolvedValueDeclaration;
+import com.github.javaparser.resolution.types.ResolvedType;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Extracts the method calls and field accesses in the body of a method or
+ * constructor as references of the declaring definition, resolved through the
+ * symbol resolver of its compilation unit.
+ *
+ * Call targets take one of three forms:
+ * <ul>
+ * <li>{@code com.example.Service.run(String)} - a method declared in the
+ *     analyzed sources, identified by the same signature as its definition</li>
+ * <li>{@code org.slf4j.Logger.info} - a method of a library type, named by the
+ *     static type of the call's scope without overload resolution</li>
+ * <li>{@code info} - a call that could not be resolved, by name only</li>
+ * </ul>
+ * Field accesses become {@link ReferenceKind#USE} references named
+ * {@code com.example.Service.name}; only fields declared in the analyzed
+ * sources are recorded.
+ *
+ * Resolving the type of a call's scope is the expensive part of resolution, and
+ * a handful of scopes - loggers, {@code System.out}, constants holders - account
+ * for most calls. Scopes that mean the same in every member of a type (fields
+ * and type names, as opposed to anything declared in the member: parameters,
+ * variables, pattern variables and local types) are therefore memoized per
+ * declaring type. Scopes naming a type through a single-type import, and
+ * fields declared with such a type or a fully qualified one, are memoized by
+ * that type instead, so a logger field is only resolved once however many
+ * classes declare one. Calls on library types skip overload resolution
+ * altogether, and calls on source types are memoized by type and method name
+ * when the type has no other method of that name. The memos are
+ * {@link BoundedCache}s shared by every file converted through the same
+ * converter.
+ */
+final class JavaCallExtractor {
+
+  static final int DEFAULT_MAX_ENTRIES = 100_000;
+
+  /** Declaring type of scope keys that mean the same in every type */
+  private static final String ANY_TYPE = "";
+
+  private final StringPool strings;
+  private final BoundedCache<ScopeKey, ScopeType> scopeTypes;
+  private final BoundedCache<CallKey, String> callTargets;
+  private final LongAdder hits = new LongAdder();
+  private final LongAdder misses = new LongAdder();
+
+  JavaCallExtractor(StringPool strings) {
+    this(strings, DEFAULT_MAX_ENTRIES);
+  }
+
+  JavaCallExtractor(StringPool strings, int maxEntries) {
+    if (maxEntries <= 0) {
+      throw new IllegalArgumentException("Maximum entries must be positive");
+    }
+    this.strings = strings;
+    this.scopeTypes = new BoundedCache<>(maxEntries);
+    this.callTargets = new BoundedCache<>(maxEntries);
+  }
+
+  /**
+   * Adds a reference to the definition for every distinct call and field access
+   * in the callable. Members of local classes are left to their own
+   * definitions; anonymous classes are attributed to the enclosing callable.
+   */
+  void addReferences(CallableDeclaration<?> callable, Definition definition) {
+    Set<String> locals = new HashSet<>();
+    List<Expression> uses = scan(callable, locals);
+    var member = new Member(
+      JavaQualifiedNames.declaringTypeOf(callable),
+      callable.findCompilationUnit().orElse(null),
+      locals,
+      fieldTypes(callable)
+    );
+    Set<Reference> references = new LinkedHashSet<>();
+    for (Expression use : uses) {
+      if (use instanceof MethodCallExpr call) {
+        references.add(
+          new Reference(ReferenceKind.CALL, strings.intern(callTarget(call, member)))
+        );
+      } else if (use instanceof FieldAccessExpr access) {
+        fieldTarget(access, member).ifPresent(target ->
+          references.add(new Reference(ReferenceKind.USE, strings.intern(target)))
+        );
+      } else if (use instanceof NameExpr name && isOwnField(name, member)) {
+        references.add(
+          new Reference(
+            ReferenceKind.USE,
+            strings.intern(member.declaringType() + "." + name.getNameAsString())
+          )
+        );
+      }
+    }
+    references.forEach(definition::addReference);
+  }
+
+  /**
+   * @return the number of scope types and call targets found in the memos
+   */
+  long hitCount() {
+    return hits.sum();
+  }
+
+  /**
+   * @return the number of scope types and call targets that had to be resolved
+   */
+  long missCount() {
+    return misses.sum();
+  }
+
+  private String callTarget(MethodCallExpr call, Member member) {
+    String name = call.getNameAsString();
+    ScopeKey key = call.getScope().map(scope -> scopeKey(scope, member)).orElse(null);
+    try {
+      ScopeType scopeType = null;
+      if (key != null) {
+        scopeType = scopeType(key, call.getScope().orElseThrow());
+        if (scopeType != null && !scopeType.inSources()) {
+          return scopeType.name() + "." + name;
+        }
+        if (scopeType != null) {
+          String cached = callTargets.get(new CallKey(scopeType.name(), name));
+          if (cached != null) {
+            hits.increment();
+            return cached;
+          }
+          misses.increment();
+        }
+      }
+      ResolvedMethodDeclaration method = call.resolve();
+      if (key != null && scopeType == null && method.isStatic()) {
+        // A type name scope: remember which side of the sources it lies on
+        scopeType = new ScopeType(
+          strings.intern(method.declaringType().getQualifiedName()),
+          method.toAst().isPresent()
+        );
+        scopeTypes.putIfAbsent(key, scopeType);
+      }
+      String target = methodTarget(method);
+      if (scopeType != null && scopeType.inSources() && isOnlyMethodNamed(method, scopeType)) {
+        callTargets.putIfAbsent(new CallKey(scopeType.name(), name), strings.intern(target));
+      }
+      return target;
+    } catch (RuntimeException e) {
+      // Missing dependencies or unsupported constructs degrade to the bare name
+      return name;
+    }
+  }
+
+  private Optional<String> fieldTarget(FieldAccessExpr access, Member member) {
+    Expression scope = access.getScope();
+    if (scope instanceof ThisExpr thisExpr && thisExpr.getTypeName().isEmpty()) {
+      return member.fields().containsKey(access.getNameAsString())
+        ? Optional.of(member.declaringType() + "." + access.getNameAsString())
+        : Optional.empty();
+    }
+    try {
+      ScopeKey key = scopeKey(scope, member);
+      if (key != null) {
+        ScopeType scopeType = scopeType(key, scope);
+        if (scopeType != null && !scopeType.inSources()) {
+          return Optional.empty();
+        }
+      }
+      ResolvedValueDeclaration value = access.resolve();
+      if (!value.isField() || value.toAst().isEmpty()) {
+        return Optional.empty();
+      }
+      return Optional.of(
+        JavaQualifiedNames.declaringTypeOf(value.toAst().get()) + "." + value.getName()
+      );
+    } catch (RuntimeException e) {
+      // Package qualifiers and unresolvable accesses are not field uses
+      return Optional.empty();
+    }
+  }
+
+  /**
+   * @return the type of the scope, or null if the scope is not a value (such
+   *         as a type name)
+   */
+  private ScopeType scopeType(ScopeKey key, Expression scope) {
+    ScopeType cached = scopeTypes.get(key);
+    if (cached != null) {
+      hits.increment();
+      return cached;
+    }
+    misses.increment();
+    ScopeType resolved = resolveScopeType(scope);
+    if (resolved != null) {
+      scopeTypes.putIfAbsent(key, resolved);
+    }
+    return resolved;
+  }
+
+  private ScopeType resolveScopeType(Expression scope) {
+    ResolvedType type;
+    try {
+      type = scope.calculateResolvedType();
+    } catch (RuntimeException e) {
+      // Type names and packages have no value type
+      return null;
+    }
+    if (!type.isReferenceType()) {
+      return null;
+    }
+    var referenceType = type.asReferenceType();
+    boolean inSources = referenceType
+      .getTypeDeclaration()
+      .map(declaration -> declaration.toAst().isPresent())
+      .orElse(false);
+    return new ScopeType(strings.intern(referenceType.getQualifiedName()), inSources);
+  }
+
+  private static String methodTarget(ResolvedMethodDeclaration method) {
+    return method
+      .toAst()
+      .filter(node -> node instanceof CallableDeclaration<?>)
+      .map(node -> JavaQualifiedNames.of((CallableDeclaration<?>) node))
+      .orElseGet(() -> method.declaringType().getQualifiedName() + "." + method.getName());
+  }
+
+  /**
+   * A call's target only depends on the scope type and method name when the
+   * method is declared by the scope type itself and no other method of that
+   * name, declared or inherited, could be chosen instead.
+   */
+  private static boolean isOnlyMethodNamed(ResolvedMethodDeclaration method, ScopeType scopeType) {
+    try {
+      var type = method.declaringType();
+      return (
+        type.getQualifiedName().equals(scopeType.name()) &&
+        type
+          .getAllMethods()
+          .stream()
+          .filter(usage -> usage.getName().equals(method.getName()))
+          .limit(2)
+          .count() ==
+        1
+      );
+    } catch (RuntimeException e) {
+      // Unresolvable supertypes could hide overloads
+      return false;
+    }
+  }
+
+  /**
+   * @return the memo key of the scope, or null if its meaning depends on the
+   *         member it appears in
+   */
+  private static ScopeKey scopeKey(Expression scope, Member member) {
+    if (!isMemoizable(scope, member.locals())) {
+      return null;
+    }
+    String type = importedScope(scope, member);
+    return type != null
+      ? new ScopeKey(ANY_TYPE, type)
+      : new ScopeKey(member.declaringType(), scope.toString());
+  }
+
+  /**
+   * A scope means the same throughout its declaring type when it is a chain of
+   * field accesses rooted in {@code this} or in a name that is not a local
+   * variable or parameter.
+   */
+  private static boolean isMemoizable(Expression scope, Set<String> locals) {
+    Expression root = scope;
+    while (root instanceof FieldAccessExpr access) {
+      root = access.getScope();
+    }
+    if (root instanceof ThisExpr thisExpr) {
+      return thisExpr.getTypeName().isEmpty();
+    }
+    return root instanceof NameExpr name && !locals.contains(name.getNameAsString());
+  }
+
+  /**
+   * @return the scope named after the qualified type it stands for, when that
+   *         type is known without resolution: an own field declared with an
+   *         imported or fully qualified type, or a chain rooted in an imported
+   *         type name; null otherwise
+   */
+  private static String importedScope(Expression scope, Member member) {
+    String field = null;
+    if (scope instanceof NameExpr name) {
+      field = name.getNameAsString();
+    } else if (
+      scope instanceof FieldAccessExpr access &&
+      access.getScope() instanceof ThisExpr thisExpr &&
+      thisExpr.getTypeName().isEmpty()
+    ) {
+      field = access.getNameAsString();
+    }
+    if (field != null && member.fields().containsKey(field)) {
+      Type type = member.fields().get(field);
+      return type.isClassOrInterfaceType()
+        ? qualifiedTypeName(type.asClassOrInterfaceType().getNameWithScope(), member.unit())
+        : null;
+    }
+    Expression root = scope;
+    while (root instanceof FieldAccessExpr access) {
+      root = access.getScope();
+    }
+    if (root instanceof NameExpr name && !member.fields().containsKey(name.getNameAsString())) {
+      String imported = importedType(member.unit(), name.getNameAsString());
+      if (imported != null) {
+        return imported + scope.toString().substring(name.getNameAsString().length());
+      }
+    }
+    return null;
+  }
+
+  /**
+   * @return the qualified name of a type written in the unit, if it is
+   *         imported by a single-type import or already fully qualified
+   */
+  private static String qualifiedTypeName(String typeName, CompilationUnit unit) {
+    int dot = typeName.indexOf('.');
+    String head = dot < 0 ? typeName : typeName.substring(0, dot);
+    String imported = importedType(unit, head);
+    if (imported != null) {
+      return imported + typeName.substring(head.length());
+    }
+    // Type names start with a package only when fully qualified
+    return dot > 0 && Character.isLowerCase(head.charAt(0)) ? typeName : null;
+  }
+
+  private static String importedType(CompilationUnit unit, String simpleName) {
+    if (unit == null) {
+      return null;
+    }
+    for (ImportDeclaration declaration : unit.getImports()) {
+      if (
+        !declaration.isStatic() &&
+        !declaration.isAsterisk() &&
+        declaration.getName().getIdentifier().equals(simpleName)
+      ) {
+        return declaration.getNameAsString();
+      }
+    }
+    return null;
+  }
+
+  private static boolean isOwnField(NameExpr name, Member member) {
+    String identifier = name.getNameAsString();
+    return member.fields().containsKey(identifier) && !member.locals().contains(identifier);
+  }
+
+  /**
+   * Walks the callable once, collecting every name declared in it, which may
+   * shadow a field or type of the same name: parameters (including those of
+   * lambdas and catch clauses), variables, pattern variables and local types.
+   *
+   * @return the expressions that may be calls or field uses, in walk order,
+   *         leaving out those inside local types
+   */
+  private static List<Expression> scan(CallableDeclaration<?> callable, Set<String> locals) {
+    List<Expression> uses = new ArrayList<>();
+    Deque<Visit> pending = new ArrayDeque<>();
+    pending.push(new Visit(callable, false));
+    while (!pending.isEmpty()) {
+      Visit visit = pending.pop();
+      Node node = visit.node();
+      if (node instanceof Parameter parameter) {
+        locals.add(parameter.getNameAsString());
+      } else if (node instanceof VariableDeclarator variable) {
+        locals.add(variable.getNameAsString());
+      } else if (node instanceof PatternExpr pattern) {
+        locals.add(pattern.getNameAsString());
+      } else if (node instanceof TypeDeclaration<?> type) {
+        locals.add(type.getNameAsString());
+      } else if (
+        !visit.inLocalType() &&
+        (node instanceof MethodCallExpr ||
+          node instanceof FieldAccessExpr ||
+          node instanceof NameExpr)
+      ) {
+        uses.add((Expression) node);
+      }
+      boolean inLocalType =
+        visit.inLocalType() ||
+        node instanceof LocalClassDeclarationStmt ||
+        node instanceof LocalRecordDeclarationStmt;
+      List<Node> children = node.getChildNodes();
+      for (int i = children.size() - 1; i >= 0; i--) {
+        pending.push(new Visit(children.get(i), inLocalType));
+      }
+    }
+    return uses;
+  }
+
+  private static Map<String, Type> fieldTypes(CallableDeclaration<?> callable) {
+    Map<String, Type> types = new HashMap<>();
+    callable
+      .getParentNode()
+      .filter(parent -> parent instanceof TypeDeclaration<?>)
+      .ifPresent(parent ->
+        ((TypeDeclaration<?>) parent).getFields()
+          .stream()
+          .map(FieldDeclaration::getVariables)
+          .forEach(variables -> variables.forEach(v -> types.put(v.getNameAsString(), v.getType())))
+      );
+    return types;
+  }
+
+  /** The names a callable's body is resolved against */
+  private record Member(
+    String declaringType,
+    CompilationUnit unit,
+    Set<String> locals,
+    Map<String, Type> fields
+  ) {}
+
+  private record Visit(Node node, boolean inLocalType) {}
+
+  private record ScopeKey(String declaringType, String scope) {}
+
+  /** The static type of a scope, and whether it is declared in the analyzed sources */
+  private record ScopeType(String name, boolean inSources) {}
+
+  private record CallKey(String type, String method) {}
+}
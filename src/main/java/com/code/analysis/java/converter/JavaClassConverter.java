@@ -1,34 +1,64 @@
 package com.code.analysis.java.converter;
 
+import com.code.analysis.core.AnalysisLevel;
 import com.code.analysis.core.model.Definition;
 import com.code.analysis.core.model.DefinitionKind;
 import com.code.analysis.core.model.Reference;
 import com.code.analysis.core.model.ReferenceKind;
+import com.code.analysis.core.model.StableId;
+import com.code.analysis.core.model.StringPool;
+import com.github.javaparser.ast.body.AnnotationDeclaration;
 import com.github.javaparser.ast.body.ClassOrInterfaceDeclaration;
-import com.github.javaparser.ast.body.FieldDeclaration;
-import com.github.javaparser.ast.body.MethodDeclaration;
-import java.util.ArrayList;
+import com.github.javaparser.ast.body.EnumDeclaration;
+import com.github.javaparser.ast.body.RecordDeclaration;
+import com.github.javaparser.ast.body.TypeDeclaration;
+import com.github.javaparser.ast.type.ClassOrInterfaceType;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 
+/**
+ * Converts Java type declarations - classes, interfaces, enums, records and
+ * annotation types, top-level or nested - into language-agnostic definitions.
+ */
 public class JavaClassConverter {
 
+  private final AnalysisLevel level;
+  private final StringPool strings;
+  private final JavaDocumentationConverter documentationConverter;
+
+  public JavaClassConverter() {
+    this(AnalysisLevel.SYNTAX_ONLY, new StringPool());
+  }
+
+  /**
+   * @param level   At {@link AnalysisLevel#RESOLVED}, supertype references are
+   *                resolved to qualified names where possible
+   * @param strings Pool deduplicating names and reference targets
+   */
+  public JavaClassConverter(AnalysisLevel level, StringPool strings) {
+    this(level, strings, new JavaDocumentationConverter(strings));
+  }
+
+  JavaClassConverter(
+      AnalysisLevel level,
+      StringPool strings,
+      JavaDocumentationConverter documentationConverter
+  ) {
+    this.level = level;
+    this.strings = strings;
+    this.documentationConverter = documentationConverter;
+  }
+
   public Definition convert(ClassOrInterfaceDeclaration classDecl) {
-    Map<String, Object> metadata = new HashMap<>();
-    metadata.put("visibility", getVisibility(classDecl));
-    metadata.put("isAbstract", classDecl.isAbstract());
-    metadata.put("isInterface", classDecl.isInterface());
+    return classDecl.isInterface() ? convertInterface(classDecl) : convertClass(classDecl);
+  }
 
-    Definition classDef = new Definition(
-        classDecl.getNameAsString(),
-        DefinitionKind.TYPE,
-        metadata
-    );
+  public Definition convertClass(ClassOrInterfaceDeclaration classDecl) {
+    Definition classDef = buildDefinition(classDecl, DefinitionKind.TYPE, classMetadata(classDecl));
 
     // Handle superclass
     if (classDecl.getExtendedTypes().isNonEmpty()) {
-      String superClassName = classDecl.getExtendedTypes().get(0).getNameAsString();
+      String superClassName = targetName(classDecl.getExtendedTypes().get(0));
       classDef.addReference(new Reference(
           ReferenceKind.EXTEND,
           superClassName
@@ -39,21 +69,87 @@ public class JavaClassConverter {
     classDecl.getImplementedTypes().forEach(impl -> {
       classDef.addReference(new Reference(
           ReferenceKind.IMPLEMENT,
-          impl.getNameAsString()
+          targetName(impl)
       ));
     });
 
     return classDef;
   }
 
-  private String getVisibility(ClassOrInterfaceDeclaration classDecl) {
-    if (classDecl.isPublic()) {
-      return "public";
-    } else if (classDecl.isProtected()) {
-      return "protected";
-    } else if (classDecl.isPrivate()) {
-      return "private";
+  public Definition convertInterface(ClassOrInterfaceDeclaration interfaceDecl) {
+    Definition interfaceDef = buildDefinition(
+        interfaceDecl,
+        DefinitionKind.INTERFACE,
+        classMetadata(interfaceDecl)
+    );
+
+    // Interfaces may extend any number of other interfaces
+    interfaceDecl.getExtendedTypes().forEach(ext -> {
+      interfaceDef.addReference(new Reference(
+          ReferenceKind.EXTEND,
+          targetName(ext)
+      ));
+    });
+
+    return interfaceDef;
+  }
+
+  public Definition convertEnum(EnumDeclaration enumDecl) {
+    Definition enumDef = buildDefinition(enumDecl, DefinitionKind.ENUM, new HashMap<>());
+    enumDecl.getImplementedTypes().forEach(impl -> {
+      enumDef.addReference(new Reference(ReferenceKind.IMPLEMENT, targetName(impl)));
+    });
+    return enumDef;
+  }
+
+  public Definition convertRecord(RecordDeclaration recordDecl) {
+    Map<String, Object> metadata = new HashMap<>();
+    metadata.put("isRecord", true);
+    Definition recordDef = buildDefinition(recordDecl, DefinitionKind.TYPE, metadata);
+    recordDecl.getImplementedTypes().forEach(impl -> {
+      recordDef.addReference(new Reference(ReferenceKind.IMPLEMENT, targetName(impl)));
+    });
+    return recordDef;
+  }
+
+  public Definition convertAnnotation(AnnotationDeclaration annotationDecl) {
+    Map<String, Object> metadata = new HashMap<>();
+    metadata.put("isAnnotation", true);
+    return buildDefinition(annotationDecl, DefinitionKind.INTERFACE, metadata);
+  }
+
+  private String targetName(ClassOrInterfaceType type) {
+    if (level == AnalysisLevel.RESOLVED) {
+      return strings.intern(JavaQualifiedNames.resolve(type).orElse(type.getNameAsString()));
     }
-    return "package-private";
+    return strings.intern(type.getNameAsString());
+  }
+
+  private Definition buildDefinition(
+      TypeDeclaration<?> typeDecl,
+      DefinitionKind kind,
+      Map<String, Object> metadata
+  ) {
+    String qualifiedName = strings.intern(JavaQualifiedNames.of(typeDecl));
+    metadata.put("qualifiedName", qualifiedName);
+    metadata.put("visibility", JavaModifiers.visibility(typeDecl));
+    metadata.put("lineCount", JavaMetrics.lineCount(typeDecl));
+    if (typeDecl.isNestedType()) {
+      metadata.put("declaringType", strings.intern(JavaQualifiedNames.declaringTypeOf(typeDecl)));
+    }
+    return Definition.builder()
+        .id(StableId.of(kind.name(), qualifiedName))
+        .name(strings.intern(typeDecl.getNameAsString()))
+        .kind(kind)
+        .documentation(documentationConverter.convertAttached(typeDecl))
+        .metadata(metadata)
+        .build();
+  }
+
+  private Map<String, Object> classMetadata(ClassOrInterfaceDeclaration classDecl) {
+    Map<String, Object> metadata = new HashMap<>();
+    metadata.put("isAbstract", classDecl.isAbstract());
+    metadata.put("isInterface", classDecl.isInterface());
+    return metadata;
   }
 }
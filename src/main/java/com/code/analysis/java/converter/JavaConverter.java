@@ -1,19 +1,22 @@
 package com.code.analysis.java.converter;
 
+import com.code.analysis.core.AnalysisLevel;
 import com.code.analysis.core.model.CodeUnit;
 import com.code.analysis.core.model.Definition;
 import com.code.analysis.core.model.Documentation;
 import com.code.analysis.core.model.ModelValidator;
+import com.code.analysis.core.model.StableId;
+import com.code.analysis.core.model.StringPool;
 import com.code.analysis.core.model.UnitType;
 import com.github.javaparser.ast.CompilationUnit;
-import com.github.javaparser.ast.body.ClassOrInterfaceDeclaration;
 import com.github.javaparser.ast.comments.JavadocComment;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.UUID;
-import java.util.stream.Collectors;
+import java.util.Objects;
 
 /**
  * Converts Java source code into language-agnostic model classes using specialized converters
@@ -21,21 +24,75 @@ import java.util.stream.Collectors;
  */
 public class JavaConverter {
 
-  private final JavaClassConverter classConverter;
-  private final JavaMethodConverter methodConverter;
+  private static final String LANGUAGE = "Java";
+
+  private final JavaDeclarationVisitor declarationVisitor;
   private final JavaDocumentationConverter documentationConverter;
+  private final StringPool strings;
+  private final Path sourceRoot;
 
   public JavaConverter() {
-    this.classConverter = new JavaClassConverter();
-    this.methodConverter = new JavaMethodConverter();
-    this.documentationConverter = new JavaDocumentationConverter();
+    this(AnalysisLevel.SYNTAX_ONLY);
+  }
+
+  /**
+   * Creates a converter that resolves supertype references, and extracts the
+   * calls and field accesses of every method, when the level is
+   * {@link AnalysisLevel#RESOLVED}; the compilation units it converts must then
+   * have been parsed with a symbol resolver.
+   *
+   * @param level How deeply compilation units are analyzed
+   */
+  public JavaConverter(AnalysisLevel level) {
+    this(level, new StringPool());
+  }
+
+  /**
+   * Creates a converter that deduplicates repetitive strings - names, types,
+   * imports, reference targets and tag names - through the given pool. Share
+   * one pool between all converters working on the same repository.
+   *
+   * @param level   How deeply compilation units are analyzed
+   * @param strings The pool to deduplicate strings through
+   */
+  public JavaConverter(AnalysisLevel level, StringPool strings) {
+    this(level, strings, null);
+  }
+
+  /**
+   * Creates a converter that identifies each file by its path relative to the
+   * source root, so that files with the same package and name in different
+   * modules of the root stay apart. Files outside the root, and every file
+   * when no root is given, are identified by their package and name instead.
+   *
+   * @param level      How deeply compilation units are analyzed
+   * @param strings    The pool to deduplicate strings through
+   * @param sourceRoot The root directory files are analyzed under, or null
+   */
+  public JavaConverter(AnalysisLevel level, StringPool strings, Path sourceRoot) {
+    ModelValidator.validateNotNull(level, "Analysis level");
+    ModelValidator.validateNotNull(strings, "String pool");
+    this.sourceRoot = sourceRoot != null ? sourceRoot.toAbsolutePath().normalize() : null;
+    this.documentationConverter = new JavaDocumentationConverter(strings, this.sourceRoot);
+    this.declarationVisitor = new JavaDeclarationVisitor(
+      new JavaClassConverter(level, strings, documentationConverter),
+      new JavaMethodConverter(
+        strings,
+        documentationConverter,
+        level == AnalysisLevel.RESOLVED ? new JavaCallExtractor(strings) : null
+      ),
+      new JavaFieldConverter(strings, documentationConverter)
+    );
+    this.strings = strings;
   }
 
   /**
    * Converts a Java compilation unit into a language-agnostic code unit model.
-   * This method processes the entire compilation unit, including:
-   * - Classes and interfaces with their methods and constructors
-   * - File-level documentation (Javadoc comments)
+   * This method processes the entire compilation unit in one walk, including:
+   * - Classes, interfaces, enums, records and annotation types, nested or not
+   * - Their methods, constructors, fields, enum constants and record components
+   * - The Javadoc attached to each declaration
+   * - File-level documentation (the first Javadoc comment of the file)
    * - Package and import information
    *
    * @param compilationUnit The Java compilation unit to convert
@@ -48,7 +105,7 @@ public class JavaConverter {
 
     try {
       List<Definition> definitions = convertDefinitions(compilationUnit);
-      Documentation documentation = extractFileDocumentation(compilationUnit);
+      Documentation documentation = extractFileDocumentation(compilationUnit, definitions);
       Map<String, Object> metadata = buildFileMetadata(compilationUnit);
 
       return buildCodeUnit(compilationUnit, definitions, documentation, metadata);
@@ -62,56 +119,50 @@ public class JavaConverter {
 
   private List<Definition> convertDefinitions(final CompilationUnit compilationUnit) {
     List<Definition> definitions = new ArrayList<>();
-    compilationUnit
-      .findAll(ClassOrInterfaceDeclaration.class)
-      .forEach(declaration -> {
-        if (declaration.isInterface()) {
-          definitions.add(classConverter.convertInterface(declaration));
-        } else {
-          definitions.add(classConverter.convertClass(declaration));
-          convertClassMembers(declaration, definitions);
-        }
-      });
+    compilationUnit.accept(declarationVisitor, definitions);
     return definitions;
   }
 
-  private void convertClassMembers(
-    final ClassOrInterfaceDeclaration declaration,
+  /**
+   * The file is documented by a Javadoc comment on the package declaration,
+   * or else by the earliest documented declaration.
+   */
+  private Documentation extractFileDocumentation(
+    final CompilationUnit compilationUnit,
     final List<Definition> definitions
   ) {
-    declaration
-      .getMethods()
-      .forEach(method -> definitions.add(methodConverter.convertMethod(method)));
-    declaration
-      .getConstructors()
-      .forEach(constructor ->
-        definitions.add(methodConverter.convertConstructor(constructor))
-      );
-  }
-
-  private Documentation extractFileDocumentation(final CompilationUnit compilationUnit) {
     return compilationUnit
-      .getAllContainedComments()
-      .stream()
+      .getPackageDeclaration()
+      .flatMap(pkg -> pkg.getComment())
       .filter(comment -> comment instanceof JavadocComment)
       .map(comment -> documentationConverter.convertJavadoc((JavadocComment) comment))
-      .findFirst()
-      .orElse(null);
+      .orElseGet(() ->
+        definitions
+          .stream()
+          .map(Definition::documentation)
+          .filter(Objects::nonNull)
+          .min(Comparator.comparingInt(doc -> doc.position().line()))
+          .orElse(null)
+      );
   }
 
   private Map<String, Object> buildFileMetadata(final CompilationUnit compilationUnit) {
     Map<String, Object> metadata = new HashMap<>();
+    metadata.put("language", LANGUAGE);
+    metadata.put("path", filePath(compilationUnit));
     metadata.put(
       "packageName",
-      compilationUnit.getPackageDeclaration().map(pkg -> pkg.getNameAsString()).orElse("")
+      strings.intern(
+        compilationUnit.getPackageDeclaration().map(pkg -> pkg.getNameAsString()).orElse("")
+      )
     );
     metadata.put(
       "imports",
       compilationUnit
         .getImports()
         .stream()
-        .map(imp -> imp.getNameAsString())
-        .collect(Collectors.toList())
+        .map(imp -> strings.intern(imp.getNameAsString()))
+        .toList()
     );
     return metadata;
   }
@@ -123,14 +174,20 @@ public class JavaConverter {
     final Map<String, Object> metadata
   ) {
     return CodeUnit.builder()
-      .id(UUID.randomUUID().toString())
-      .name(
-        compilationUnit.getStorage().map(storage -> storage.getFileName()).orElse("unknown")
-      )
+      .id(StableId.of(UnitType.FILE.name(), (String) metadata.get("path")))
+      .name(fileName(compilationUnit))
       .type(UnitType.FILE)
       .metadata(metadata)
       .definitions(definitions)
       .documentation(documentation)
       .build();
   }
+
+  private String filePath(final CompilationUnit compilationUnit) {
+    return JavaQualifiedNames.filePath(compilationUnit, sourceRoot);
+  }
+
+  private String fileName(final CompilationUnit compilationUnit) {
+    return compilationUnit.getStorage().map(storage -> storage.getFileName()).orElse("unknown");
+  }
 }
@@ -0,0 +1,125 @@
+package com.code.analysis.java.converter;
+
+import com.code.analysis.core.model.Definition;
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.body.AnnotationDeclaration;
+import com.github.javaparser.ast.body.ClassOrInterfaceDeclaration;
+import com.github.javaparser.ast.body.ConstructorDeclaration;
+import com.github.javaparser.ast.body.EnumConstantDeclaration;
+import com.github.javaparser.ast.body.EnumDeclaration;
+import com.github.javaparser.ast.body.FieldDeclaration;
+import com.github.javaparser.ast.body.MethodDeclaration;
+import com.github.javaparser.ast.body.RecordDeclaration;
+import com.github.javaparser.ast.body.TypeDeclaration;
+import com.github.javaparser.ast.visitor.VoidVisitorAdapter;
+import java.util.List;
+
+/**
+ * Collects the definitions of a compilation unit in a single walk of its AST.
+ *
+ * Every type declaration is emitted wherever it appears - top-level, nested
+ * or local - followed by its members in source order. Members of anonymous
+ * classes and enum constant bodies are skipped: they have no name of their
+ * own to be qualified by. Once its members are converted, each type is given
+ * the rollup of their metrics. The visitor holds no state, so one instance can
+ * serve concurrent conversions.
+ */
+final class JavaDeclarationVisitor extends VoidVisitorAdapter<List<Definition>> {
+
+  private final JavaClassConverter classConverter;
+  private final JavaMethodConverter methodConverter;
+  private final JavaFieldConverter fieldConverter;
+
+  JavaDeclarationVisitor(
+    JavaClassConverter classConverter,
+    JavaMethodConverter methodConverter,
+    JavaFieldConverter fieldConverter
+  ) {
+    this.classConverter = classConverter;
+    this.methodConverter = methodConverter;
+    this.fieldConverter = fieldConverter;
+  }
+
+  @Override
+  public void visit(ClassOrInterfaceDeclaration declaration, List<Definition> definitions) {
+    int index = definitions.size();
+    definitions.add(classConverter.convert(declaration));
+    super.visit(declaration, definitions);
+    rollUp(definitions, index);
+  }
+
+  @Override
+  public void visit(EnumDeclaration declaration, List<Definition> definitions) {
+    int index = definitions.size();
+    definitions.add(classConverter.convertEnum(declaration));
+    super.visit(declaration, definitions);
+    rollUp(definitions, index);
+  }
+
+  @Override
+  public void visit(RecordDeclaration declaration, List<Definition> definitions) {
+    int index = definitions.size();
+    definitions.add(classConverter.convertRecord(declaration));
+    declaration
+      .getParameters()
+      .forEach(component ->
+        definitions.add(fieldConverter.convertRecordComponent(declaration, component))
+      );
+    super.visit(declaration, definitions);
+    rollUp(definitions, index);
+  }
+
+  @Override
+  public void visit(AnnotationDeclaration declaration, List<Definition> definitions) {
+    int index = definitions.size();
+    definitions.add(classConverter.convertAnnotation(declaration));
+    super.visit(declaration, definitions);
+    rollUp(definitions, index);
+  }
+
+  @Override
+  public void visit(EnumConstantDeclaration declaration, List<Definition> definitions) {
+    definitions.add(fieldConverter.convertEnumConstant(declaration));
+    super.visit(declaration, definitions);
+  }
+
+  @Override
+  public void visit(FieldDeclaration declaration, List<Definition> definitions) {
+    if (isNamedTypeMember(declaration)) {
+      definitions.addAll(fieldConverter.convertField(declaration));
+    }
+    super.visit(declaration, definitions);
+  }
+
+  @Override
+  public void visit(MethodDeclaration declaration, List<Definition> definitions) {
+    if (isNamedTypeMember(declaration)) {
+      definitions.add(methodConverter.convertMethod(declaration));
+    }
+    super.visit(declaration, definitions);
+  }
+
+  @Override
+  public void visit(ConstructorDeclaration declaration, List<Definition> definitions) {
+    if (isNamedTypeMember(declaration)) {
+      definitions.add(methodConverter.convertConstructor(declaration));
+    }
+    super.visit(declaration, definitions);
+  }
+
+  /**
+   * Replaces the type definition at the index, now that its members follow
+   * it, with one carrying the rollup of their metrics.
+   */
+  private static void rollUp(List<Definition> definitions, int index) {
+    Definition type = definitions.get(index);
+    definitions.set(
+      index,
+      JavaMetrics.rollUp(type, definitions.subList(index + 1, definitions.size()))
+    );
+  }
+
+  private static boolean isNamedTypeMember(Node member) {
+    return member.getParentNode().filter(TypeDeclaration.class::isInstance).isPresent();
+  }
+}
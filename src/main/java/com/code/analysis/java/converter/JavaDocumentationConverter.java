@@ -5,18 +5,52 @@ import com.code.analysis.core.model.DocumentationFormat;
 import com.code.analysis.core.model.DocumentationTag;
 import com.code.analysis.core.model.ModelValidator;
 import com.code.analysis.core.model.Position;
+import com.code.analysis.core.model.StableId;
+import com.code.analysis.core.model.StringPool;
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.body.CallableDeclaration;
+import com.github.javaparser.ast.body.TypeDeclaration;
 import com.github.javaparser.ast.comments.JavadocComment;
+import com.github.javaparser.ast.nodeTypes.NodeWithJavadoc;
 import com.github.javaparser.javadoc.JavadocBlockTag;
+import java.nio.file.Path;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.UUID;
+import java.util.Optional;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 /**
  * Converts Javadoc comments into language-agnostic documentation.
  */
 public class JavaDocumentationConverter {
 
+  private final StringPool strings;
+  private final Path sourceRoot;
+
+  public JavaDocumentationConverter() {
+    this(new StringPool());
+  }
+
+  /**
+   * @param strings Pool deduplicating tag names and the names they document
+   */
+  public JavaDocumentationConverter(StringPool strings) {
+    this(strings, null);
+  }
+
+  /**
+   * @param strings    Pool deduplicating tag names and the names they document
+   * @param sourceRoot The root files are analyzed under, or null; comments
+   *                   without an owning declaration are identified by the
+   *                   path of their file relative to it, like their unit
+   */
+  public JavaDocumentationConverter(StringPool strings, Path sourceRoot) {
+    this.strings = strings;
+    this.sourceRoot = sourceRoot != null ? sourceRoot.toAbsolutePath().normalize() : null;
+  }
+
   /**
    * Creates a position from a JavaParser node.
    */
@@ -28,10 +62,15 @@ public class JavaDocumentationConverter {
   public Documentation convertJavadoc(JavadocComment comment) {
     ModelValidator.validateNotNull(comment, "Javadoc comment");
     var javadoc = comment.parse();
-    var tags = javadoc.getBlockTags().stream().map(this::convertBlockTag).collect(Collectors.toList());
+    String id = StableId.of("DOC", ownerKey(comment));
+    List<JavadocBlockTag> blockTags = javadoc.getBlockTags();
+    var tags = IntStream
+      .range(0, blockTags.size())
+      .mapToObj(index -> convertBlockTag(id, index, blockTags.get(index)))
+      .collect(Collectors.toList());
 
     return Documentation.builder()
-      .id(UUID.randomUUID().toString())
+      .id(id)
       .description(javadoc.getDescription().toText())
       .format(DocumentationFormat.JAVADOC)
       .position(createPositionFromNode(comment))
@@ -39,15 +78,53 @@ public class JavaDocumentationConverter {
       .build();
   }
 
-  private DocumentationTag convertBlockTag(JavadocBlockTag tag) {
+  /**
+   * @return the documentation of the Javadoc comment attached to the
+   *         declaration, or null if it has none
+   */
+  public Documentation convertAttached(NodeWithJavadoc<?> declaration) {
+    return declaration.getJavadocComment().map(this::convertJavadoc).orElse(null);
+  }
+
+  private DocumentationTag convertBlockTag(String documentationId, int index, JavadocBlockTag tag) {
     Map<String, Object> metadata = new HashMap<>();
-    tag.getName().ifPresent(name -> metadata.put("name", name));
+    tag.getName().ifPresent(name -> metadata.put("name", strings.intern(name)));
 
     return DocumentationTag.builder()
-      .id(UUID.randomUUID().toString())
-      .name(tag.getTagName())
+      .id(StableId.of(documentationId, Integer.toString(index), tag.getTagName()))
+      .name(strings.intern(tag.getTagName()))
       .value(tag.getContent().toText())
       .metadata(metadata)
       .build();
   }
+
+  /**
+   * Identifies the element a comment documents: its qualified name when it is
+   * attached to a type or callable, otherwise the path of the file, as in the
+   * unit's {@code path} metadata, and the line the comment appears on.
+   */
+  private String ownerKey(JavadocComment comment) {
+    return comment
+      .getCommentedNode()
+      .flatMap(JavaDocumentationConverter::qualifiedNameOf)
+      .orElseGet(() -> filePath(comment) + ":" + comment.getBegin().map(p -> p.line).orElse(0));
+  }
+
+  private static Optional<String> qualifiedNameOf(Node node) {
+    if (node instanceof TypeDeclaration<?> type) {
+      return Optional.of(JavaQualifiedNames.of(type));
+    }
+    if (node instanceof CallableDeclaration<?> callable) {
+      return Optional.of(JavaQualifiedNames.of(callable));
+    }
+    return Optional.empty();
+  }
+
+  private String filePath(Node node) {
+    return node
+      .findCompilationUnit()
+      .filter(cu -> cu.getStorage().isPresent())
+      .map(cu -> JavaQualifiedNames.filePath(cu, sourceRoot))
+      .orElse("unknown");
+  }
 }
@@ -0,0 +1,115 @@
+package com.code.analysis.java.converter;
+
+import com.code.analysis.core.model.Definition;
+import com.code.analysis.core.model.DefinitionKind;
+import com.code.analysis.core.model.ModelValidator;
+import com.code.analysis.core.model.Position;
+import com.code.analysis.core.model.StableId;
+import com.code.analysis.core.model.StringPool;
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.body.EnumConstantDeclaration;
+import com.github.javaparser.ast.body.FieldDeclaration;
+import com.github.javaparser.ast.body.Parameter;
+import com.github.javaparser.ast.body.RecordDeclaration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Converts Java fields, enum constants and record components into
+ * language-agnostic definitions: fields and enum constants become variables,
+ * record components become properties.
+ */
+public class JavaFieldConverter {
+
+  private final StringPool strings;
+  private final JavaDocumentationConverter documentationConverter;
+
+  public JavaFieldConverter() {
+    this(new StringPool());
+  }
+
+  /**
+   * @param strings Pool deduplicating names and types
+   */
+  public JavaFieldConverter(StringPool strings) {
+    this(strings, new JavaDocumentationConverter(strings));
+  }
+
+  JavaFieldConverter(StringPool strings, JavaDocumentationConverter documentationConverter) {
+    this.strings = strings;
+    this.documentationConverter = documentationConverter;
+  }
+
+  /**
+   * @return one definition per variable declared by the field, e.g. two for
+   *         {@code int x, y;}
+   */
+  public List<Definition> convertField(FieldDeclaration declaration) {
+    ModelValidator.validateNotNull(declaration, "Field declaration");
+    String declaringType = strings.intern(JavaQualifiedNames.declaringTypeOf(declaration));
+    return declaration
+      .getVariables()
+      .stream()
+      .map(variable -> {
+        Map<String, Object> metadata = memberMetadata(declaringType, variable.getTypeAsString());
+        metadata.put("visibility", JavaModifiers.visibility(declaration));
+        metadata.put("isStatic", declaration.isStatic());
+        metadata.put("isFinal", declaration.isFinal());
+        return Definition.builder()
+          .id(StableId.of(DefinitionKind.VARIABLE.name(), declaringType, variable.getNameAsString()))
+          .name(strings.intern(variable.getNameAsString()))
+          .kind(DefinitionKind.VARIABLE)
+          .position(positionOf(variable))
+          .documentation(documentationConverter.convertAttached(declaration))
+          .metadata(metadata)
+          .build();
+      })
+      .toList();
+  }
+
+  public Definition convertEnumConstant(EnumConstantDeclaration declaration) {
+    ModelValidator.validateNotNull(declaration, "Enum constant declaration");
+    String declaringType = strings.intern(JavaQualifiedNames.declaringTypeOf(declaration));
+    Map<String, Object> metadata = memberMetadata(declaringType, declaringType);
+    metadata.put("visibility", "public");
+    metadata.put("isStatic", true);
+    metadata.put("isFinal", true);
+    metadata.put("isEnumConstant", true);
+    return Definition.builder()
+      .id(StableId.of(DefinitionKind.VARIABLE.name(), declaringType, declaration.getNameAsString()))
+      .name(strings.intern(declaration.getNameAsString()))
+      .kind(DefinitionKind.VARIABLE)
+      .position(positionOf(declaration))
+      .documentation(documentationConverter.convertAttached(declaration))
+      .metadata(metadata)
+      .build();
+  }
+
+  public Definition convertRecordComponent(RecordDeclaration record, Parameter component) {
+    ModelValidator.validateNotNull(record, "Record declaration");
+    ModelValidator.validateNotNull(component, "Record component");
+    String declaringType = strings.intern(JavaQualifiedNames.of(record));
+    return Definition.builder()
+      .id(StableId.of(DefinitionKind.PROPERTY.name(), declaringType, component.getNameAsString()))
+      .name(strings.intern(component.getNameAsString()))
+      .kind(DefinitionKind.PROPERTY)
+      .position(positionOf(component))
+      .metadata(memberMetadata(declaringType, component.getTypeAsString()))
+      .build();
+  }
+
+  private Map<String, Object> memberMetadata(String declaringType, String type) {
+    Map<String, Object> metadata = new HashMap<>();
+    metadata.put("declaringType", declaringType);
+    metadata.put("type", strings.intern(type));
+    return metadata;
+  }
+
+  private static Position positionOf(Node node) {
+    return node
+      .getBegin()
+      .map(begin -> Position.builder().line(begin.line).column(begin.column).build())
+      .orElse(null);
+  }
+}
@@ -6,19 +6,56 @@ import com.code.analysis.core.model.ModelValidator;
 import com.code.analysis.core.model.Position;
 import com.code.analysis.core.model.Scope;
 import com.code.analysis.core.model.ScopeLevel;
+import com.code.analysis.core.model.StableId;
+import com.code.analysis.core.model.StringPool;
 import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.body.CallableDeclaration;
 import com.github.javaparser.ast.body.ConstructorDeclaration;
 import com.github.javaparser.ast.body.MethodDeclaration;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.UUID;
-import java.util.stream.Collectors;
 
 /**
- * Converts Java method and constructor declarations into language-agnostic definitions.
+ * Converts Java method and constructor declarations into language-agnostic definitions,
+ * measuring their complexity, length and nesting depth and signing their bodies
+ * for duplicate detection as they are converted.
  */
 public class JavaMethodConverter {
 
+  private final StringPool strings;
+  private final JavaDocumentationConverter documentationConverter;
+  private final JavaCallExtractor callExtractor;
+
+  public JavaMethodConverter() {
+    this(new StringPool());
+  }
+
+  /**
+   * @param strings Pool deduplicating names, types and parameter names
+   */
+  public JavaMethodConverter(StringPool strings) {
+    this(strings, new JavaDocumentationConverter(strings));
+  }
+
+  JavaMethodConverter(StringPool strings, JavaDocumentationConverter documentationConverter) {
+    this(strings, documentationConverter, null);
+  }
+
+  /**
+   * @param callExtractor Extracts calls and field accesses from bodies, or null
+   *                      to skip them
+   */
+  JavaMethodConverter(
+    StringPool strings,
+    JavaDocumentationConverter documentationConverter,
+    JavaCallExtractor callExtractor
+  ) {
+    this.strings = strings;
+    this.documentationConverter = documentationConverter;
+    this.callExtractor = callExtractor;
+  }
+
   /**
    * Creates a scope from a JavaParser node.
    */
@@ -51,22 +88,32 @@ public class JavaMethodConverter {
       declaration.isPrivate()
     );
 
+    String signature = JavaQualifiedNames.of(declaration);
     Map<String, Object> metadata = new HashMap<>();
-    metadata.put("returnType", declaration.getType().asString());
+    metadata.put("signature", signature);
+    metadata.put(
+      "declaringType",
+      strings.intern(JavaQualifiedNames.declaringTypeOf(declaration))
+    );
+    metadata.put("returnType", strings.intern(declaration.getType().asString()));
     metadata.put(
       "parameters",
-      declaration.getParameters().stream().map(p -> p.getNameAsString()).collect(Collectors.toList())
+      parameterNames(declaration)
     );
     metadata.put("isStatic", declaration.isStatic());
+    JavaMetrics.of(declaration).addTo(metadata);
+    JavaTokens.addTo(declaration, metadata);
 
-    return Definition.builder()
-      .id(UUID.randomUUID().toString())
-      .name(declaration.getNameAsString())
+    var definition = Definition.builder()
+      .id(StableId.of(DefinitionKind.FUNCTION.name(), signature))
+      .name(strings.intern(declaration.getNameAsString()))
       .kind(DefinitionKind.FUNCTION)
       .scope(scope)
       .position(createPositionFromNode(declaration))
+      .documentation(documentationConverter.convertAttached(declaration))
       .metadata(metadata)
       .build();
+    return withCalls(declaration, definition);
   }
 
   public Definition convertConstructor(ConstructorDeclaration declaration) {
@@ -77,20 +124,45 @@ public class JavaMethodConverter {
       declaration.isPrivate()
     );
 
+    String signature = JavaQualifiedNames.of(declaration);
     Map<String, Object> metadata = new HashMap<>();
+    metadata.put("signature", signature);
+    metadata.put(
+      "declaringType",
+      strings.intern(JavaQualifiedNames.declaringTypeOf(declaration))
+    );
     metadata.put("isConstructor", true);
     metadata.put(
       "parameters",
-      declaration.getParameters().stream().map(p -> p.getNameAsString()).collect(Collectors.toList())
+      parameterNames(declaration)
     );
+    JavaMetrics.of(declaration).addTo(metadata);
+    JavaTokens.addTo(declaration, metadata);
 
-    return Definition.builder()
-      .id(UUID.randomUUID().toString())
-      .name(declaration.getNameAsString())
+    var definition = Definition.builder()
+      .id(StableId.of(DefinitionKind.FUNCTION.name(), signature))
+      .name(strings.intern(declaration.getNameAsString()))
       .kind(DefinitionKind.FUNCTION)
       .scope(scope)
       .position(createPositionFromNode(declaration))
+      .documentation(documentationConverter.convertAttached(declaration))
       .metadata(metadata)
       .build();
+    return withCalls(declaration, definition);
+  }
+
+  private Definition withCalls(CallableDeclaration<?> declaration, Definition definition) {
+    if (callExtractor != null) {
+      callExtractor.addReferences(declaration, definition);
+    }
+    return definition;
+  }
+
+  private List<String> parameterNames(CallableDeclaration<?> declaration) {
+    return declaration
+      .getParameters()
+      .stream()
+      .map(parameter -> strings.intern(parameter.getNameAsString()))
+      .toList();
   }
 }
@@ -0,0 +1,173 @@
+package com.code.analysis.java.converter;
+
+import com.code.analysis.core.model.Definition;
+import com.code.analysis.core.model.DefinitionKind;
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.expr.BinaryExpr;
+import com.github.javaparser.ast.expr.ConditionalExpr;
+import com.github.javaparser.ast.expr.SwitchExpr;
+import com.github.javaparser.ast.stmt.CatchClause;
+import com.github.javaparser.ast.stmt.DoStmt;
+import com.github.javaparser.ast.stmt.ForEachStmt;
+import com.github.javaparser.ast.stmt.ForStmt;
+import com.github.javaparser.ast.stmt.IfStmt;
+import com.github.javaparser.ast.stmt.LocalClassDeclarationStmt;
+import com.github.javaparser.ast.stmt.LocalRecordDeclarationStmt;
+import com.github.javaparser.ast.stmt.SwitchEntry;
+import com.github.javaparser.ast.stmt.SwitchStmt;
+import com.github.javaparser.ast.stmt.SynchronizedStmt;
+import com.github.javaparser.ast.stmt.TryStmt;
+import com.github.javaparser.ast.stmt.WhileStmt;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Size and complexity metrics of Java declarations, computed from the AST
+ * while the declarations are converted.
+ *
+ * <ul>
+ * <li>{@code complexity} - cyclomatic complexity: one plus the number of
+ *     branches, counting every {@code if}, loop, {@code catch}, {@code case}
+ *     label, {@code ?:} and short-circuit {@code &&}/{@code ||}. For a type it
+ *     is the sum over its methods and constructors.</li>
+ * <li>{@code maxComplexity} and {@code methodCount} - for a type, the most
+ *     complex of its methods and constructors and how many there are</li>
+ * <li>{@code lineCount} - lines spanned by the declaration</li>
+ * <li>{@code nestingDepth} - deepest nesting of control flow statements in a
+ *     method body; an {@code else if} does not nest</li>
+ * </ul>
+ * Local classes declared in a method body are measured as types of their own,
+ * not as part of the method.
+ *
+ * @param complexity   cyclomatic complexity
+ * @param lineCount    number of lines spanned
+ * @param nestingDepth deepest control flow nesting
+ */
+record JavaMetrics(int complexity, int lineCount, int nestingDepth) {
+  /**
+   * Measures a method or constructor, or any other node with a body.
+   */
+  static JavaMetrics of(Node declaration) {
+    var counter = new Counter();
+    measure(declaration, 0, counter);
+    return new JavaMetrics(counter.complexity, lineCount(declaration), counter.nestingDepth);
+  }
+
+  /**
+   * @return the number of lines a node spans, or 0 if it has no position
+   */
+  static int lineCount(Node node) {
+    return node.getRange().map(range -> range.end.line - range.begin.line + 1).orElse(0);
+  }
+
+  void addTo(Map<String, Object> metadata) {
+    metadata.put("complexity", complexity);
+    metadata.put("lineCount", lineCount);
+    metadata.put("nestingDepth", nestingDepth);
+  }
+
+  /**
+   * Adds the rollup of its methods' metrics to a type definition.
+   *
+   * @param type    The type definition
+   * @param members Definitions that may be members of the type; only functions
+   *                declared directly by it are counted
+   * @return a copy of the type definition with the rolled up metrics
+   */
+  static Definition rollUp(Definition type, List<Definition> members) {
+    Object qualifiedName = type.metadata().get("qualifiedName");
+    int total = 0;
+    int max = 0;
+    int count = 0;
+    for (Definition member : members) {
+      if (
+        member.kind() == DefinitionKind.FUNCTION &&
+        qualifiedName.equals(member.metadata().get("declaringType")) &&
+        member.metadata().get("complexity") instanceof Integer complexity
+      ) {
+        total += complexity;
+        max = Math.max(max, complexity);
+        count++;
+      }
+    }
+    Map<String, Object> metadata = new HashMap<>(type.metadata());
+    metadata.put("complexity", total);
+    metadata.put("maxComplexity", max);
+    metadata.put("methodCount", count);
+    var rolledUp = Definition.builder()
+      .id(type.id())
+      .name(type.name())
+      .kind(type.kind())
+      .scope(type.scope())
+      .position(type.position())
+      .documentation(type.documentation())
+      .metadata(metadata)
+      .build();
+    type.references().forEach(rolledUp::addReference);
+    return rolledUp;
+  }
+
+  private static void measure(Node node, int depth, Counter counter) {
+    for (Node child : node.getChildNodes()) {
+      if (child instanceof LocalClassDeclarationStmt || child instanceof LocalRecordDeclarationStmt) {
+        continue;
+      }
+      counter.complexity += branches(child);
+      int childDepth = depth;
+      if (nests(child)) {
+        childDepth++;
+        counter.nestingDepth = Math.max(counter.nestingDepth, childDepth);
+      }
+      measure(child, childDepth, counter);
+    }
+  }
+
+  private static int branches(Node node) {
+    if (
+      node instanceof IfStmt ||
+      node instanceof ForStmt ||
+      node instanceof ForEachStmt ||
+      node instanceof WhileStmt ||
+      node instanceof DoStmt ||
+      node instanceof CatchClause ||
+      node instanceof ConditionalExpr
+    ) {
+      return 1;
+    }
+    if (node instanceof SwitchEntry entry) {
+      return entry.getLabels().size();
+    }
+    if (node instanceof BinaryExpr binary) {
+      var operator = binary.getOperator();
+      return operator == BinaryExpr.Operator.AND || operator == BinaryExpr.Operator.OR ? 1 : 0;
+    }
+    return 0;
+  }
+
+  private static boolean nests(Node node) {
+    if (node instanceof IfStmt) {
+      // An else-if continues its parent's chain rather than nesting in it
+      return node
+        .getParentNode()
+        .filter(parent -> parent instanceof IfStmt ifStmt && ifStmt.getElseStmt().orElse(null) == node)
+        .isEmpty();
+    }
+    return (
+      node instanceof ForStmt ||
+      node instanceof ForEachStmt ||
+      node instanceof WhileStmt ||
+      node instanceof DoStmt ||
+      node instanceof SwitchStmt ||
+      node instanceof SwitchExpr ||
+      node instanceof TryStmt ||
+      node instanceof SynchronizedStmt
+    );
+  }
+
+  private static final class Counter {
+
+    private int complexity = 1;
+    private int nestingDepth;
+  }
+}
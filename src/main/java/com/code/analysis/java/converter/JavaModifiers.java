@@ -0,0 +1,26 @@
+package com.code.analysis.java.converter;
+
+import com.github.javaparser.ast.nodeTypes.modifiers.NodeWithAccessModifiers;
+
+/**
+ * Describes Java modifiers in the vocabulary used by definition metadata.
+ */
+final class JavaModifiers {
+
+  private JavaModifiers() {
+    // Prevent instantiation
+  }
+
+  /**
+   * @return {@code public}, {@code protected}, {@code private} or
+   *         {@code package-private}
+   */
+  static String visibility(NodeWithAccessModifiers<?> declaration) {
+    return switch (declaration.getAccessSpecifier()) {
+      case PUBLIC -> "public";
+      case PROTECTED -> "protected";
+      case PRIVATE -> "private";
+      case NONE -> "package-private";
+    };
+  }
+}
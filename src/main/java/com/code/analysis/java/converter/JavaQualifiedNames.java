@@ -0,0 +1,162 @@
+package com.code.analysis.java.converter;
+
+import com.github.javaparser.ast.CompilationUnit;
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.body.BodyDeclaration;
+import com.github.javaparser.ast.body.CallableDeclaration;
+import com.github.javaparser.ast.body.TypeDeclaration;
+import com.github.javaparser.ast.stmt.LocalClassDeclarationStmt;
+import com.github.javaparser.ast.stmt.LocalRecordDeclarationStmt;
+import com.github.javaparser.ast.type.ClassOrInterfaceType;
+import java.nio.file.Path;
+import java.util.Optional;
+
+/**
+ * Computes the qualified names that identify Java declarations, using only
+ * syntactic information so no symbol resolution is required. Only
+ * {@link #resolve(ClassOrInterfaceType)} consults the symbol resolver.
+ */
+final class JavaQualifiedNames {
+
+  private JavaQualifiedNames() {
+    // Prevent instantiation
+  }
+
+  /**
+   * Local types have no qualified name in the language, so they are named after
+   * the member declaring them and, like the binary names javac gives them,
+   * numbered among the local types of the same name in that member, e.g.
+   * {@code com.example.Outer.run(String)$1Helper}. This keeps them apart from
+   * each other and from types of the same simple name elsewhere.
+   *
+   * @return the fully qualified name of a type, e.g. {@code com.example.Outer.Inner}
+   */
+  static String of(TypeDeclaration<?> type) {
+    if (isLocal(type)) {
+      return localName(type);
+    }
+    if (type.isTopLevelType()) {
+      return type.getFullyQualifiedName().orElseGet(type::getNameAsString);
+    }
+    return enclosingType(type)
+      .map(outer -> of(outer) + "." + type.getNameAsString())
+      .orElseGet(type::getNameAsString);
+  }
+
+  /**
+   * @return the fully qualified signature of a method or constructor, e.g.
+   *         {@code com.example.Example.getName(String)}
+   */
+  static String of(CallableDeclaration<?> callable) {
+    return declaringTypeOf(callable) + "." + callable.getSignature().asString();
+  }
+
+  /**
+   * @return the fully qualified name of the type declaring a member, or an
+   *         empty string for a detached member
+   */
+  static String declaringTypeOf(Node member) {
+    return enclosingType(member).map(JavaQualifiedNames::of).orElse("");
+  }
+
+  /**
+   * @param sourceRoot The normalized absolute root files are analyzed under, or null
+   * @return the path of the file relative to the source root, as the indexers
+   *         and the index manifest key it, or derived from its package when it
+   *         lies outside the root or no root is given
+   */
+  static String filePath(CompilationUnit compilationUnit, Path sourceRoot) {
+    if (sourceRoot != null) {
+      var file = compilationUnit
+        .getStorage()
+        .map(storage -> storage.getPath().toAbsolutePath().normalize())
+        .filter(path -> path.startsWith(sourceRoot));
+      if (file.isPresent()) {
+        String relative = sourceRoot.relativize(file.get()).toString().replace('\\', '/');
+        if (!relative.isEmpty()) {
+          return relative;
+        }
+      }
+    }
+    return filePath(
+      compilationUnit,
+      compilationUnit.getStorage().map(storage -> storage.getFileName()).orElse("unknown")
+    );
+  }
+
+  /**
+   * @return the path of the file relative to its source root, derived from the
+   *         package declaration, e.g. {@code com/example/Example.java}
+   */
+  static String filePath(CompilationUnit compilationUnit, String fileName) {
+    return compilationUnit
+      .getPackageDeclaration()
+      .map(pkg -> pkg.getNameAsString().replace('.', '/') + "/" + fileName)
+      .orElse(fileName);
+  }
+
+  /**
+   * Resolves a type reference through the symbol resolver configured on its
+   * compilation unit.
+   *
+   * @return the qualified name of the referenced type, or empty if it cannot
+   *         be resolved
+   */
+  static Optional<String> resolve(ClassOrInterfaceType type) {
+    try {
+      var referenceType = type.resolve().asReferenceType();
+      // Types declared in the sources are named as their definitions are
+      Optional<String> declared = referenceType
+        .getTypeDeclaration()
+        .flatMap(declaration -> declaration.toAst())
+        .filter(node -> node instanceof TypeDeclaration<?>)
+        .map(node -> of((TypeDeclaration<?>) node));
+      return Optional.of(declared.orElseGet(referenceType::getQualifiedName));
+    } catch (RuntimeException e) {
+      // Unresolvable types (missing dependencies, no resolver) keep their written name
+      return Optional.empty();
+    }
+  }
+
+  private static boolean isLocal(TypeDeclaration<?> type) {
+    return type
+      .getParentNode()
+      .filter(parent ->
+        parent instanceof LocalClassDeclarationStmt || parent instanceof LocalRecordDeclarationStmt
+      )
+      .isPresent();
+  }
+
+  private static String localName(TypeDeclaration<?> type) {
+    String name = type.getNameAsString();
+    Optional<BodyDeclaration<?>> member = type
+      .getParentNode()
+      .flatMap(stmt -> stmt.findAncestor(BodyDeclaration.class, declaration -> true))
+      .map(declaration -> (BodyDeclaration<?>) declaration);
+    if (member.isEmpty()) {
+      return name;
+    }
+    String owner = member.get() instanceof CallableDeclaration<?> callable
+      ? of(callable)
+      : declaringTypeOf(member.get());
+    int ordinal = 1;
+    for (TypeDeclaration<?> namesake : member.get().findAll(TypeDeclaration.class)) {
+      if (namesake == type) {
+        break;
+      }
+      if (namesake.getNameAsString().equals(name) && isLocal(namesake)) {
+        ordinal++;
+      }
+    }
+    return owner + "$" + ordinal + name;
+  }
+
+  /**
+   * @return the nearest type declaration enclosing the node
+   */
+  private static Optional<TypeDeclaration<?>> enclosingType(Node node) {
+    return node
+      .findAncestor(TypeDeclaration.class, type -> true)
+      .map(type -> (TypeDeclaration<?>) type);
+  }
+}
@@ -0,0 +1,77 @@
+package com.code.analysis.java.converter;
+
+import com.code.analysis.duplication.MinHash;
+import com.github.javaparser.JavaToken;
+import com.github.javaparser.ast.Node;
+import com.github.javaparser.ast.body.CallableDeclaration;
+import com.github.javaparser.ast.body.ConstructorDeclaration;
+import com.github.javaparser.ast.body.MethodDeclaration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Tokenizes method and constructor bodies for duplicate detection, while the
+ * declarations are converted.
+ *
+ * Whitespace and comments are dropped and every literal is replaced by a
+ * placeholder, so bodies differing only in layout, comments or constants
+ * produce the same tokens. Identifiers, keywords, operators and separators
+ * are kept as written.
+ */
+final class JavaTokens {
+
+  private static final String LITERAL = "$literal";
+
+  private JavaTokens() {
+    // Prevent instantiation
+  }
+
+  /**
+   * Adds the token count and MinHash signature of a declaration's body to its
+   * metadata. Declarations without a body, or with too short a body to be
+   * signed, get neither.
+   */
+  static void addTo(CallableDeclaration<?> declaration, Map<String, Object> metadata) {
+    body(declaration)
+      .map(JavaTokens::of)
+      .ifPresent(tokens ->
+        MinHash.of(tokens).ifPresent(signature -> {
+          metadata.put(MinHash.TOKEN_COUNT_KEY, tokens.size());
+          metadata.put(MinHash.METADATA_KEY, signature);
+        })
+      );
+  }
+
+  /**
+   * @return the normalized tokens of a node, or an empty list if the parser
+   *         did not keep its tokens
+   */
+  static List<String> of(Node node) {
+    List<String> tokens = new ArrayList<>();
+    node
+      .getTokenRange()
+      .ifPresent(range -> {
+        for (JavaToken token : range) {
+          JavaToken.Category category = token.getCategory();
+          if (category.isLiteral()) {
+            tokens.add(LITERAL);
+          } else if (!category.isWhitespaceOrComment()) {
+            tokens.add(token.getText());
+          }
+        }
+      });
+    return tokens;
+  }
+
+  private static Optional<? extends Node> body(CallableDeclaration<?> declaration) {
+    if (declaration instanceof MethodDeclaration method) {
+      return method.getBody();
+    }
+    if (declaration instanceof ConstructorDeclaration constructor) {
+      return Optional.of(constructor.getBody());
+    }
+    return Optional.empty();
+  }
+}
@@ -0,0 +1,26 @@
+package com.code.analysis.metrics;
+
+/**
+ * Coupling and cohesion of a single type.
+ *
+ * @param name             qualified name of the type
+ * @param component        component the type belongs to
+ * @param afferentCoupling number of analyzed types that depend on this one
+ * @param efferentCoupling number of analyzed types this one depends on
+ * @param instability      efferent / (afferent + efferent) coupling, from 0 for
+ *                         a type nothing else needs to change for, to 1 for a
+ *                         type that depends on others but nothing depends on
+ * @param lcom             Henderson-Sellers lack of cohesion of methods, from 0
+ *                         when every method uses every field to 1 when each
+ *                         field is used by a single method
+ * @param cohesion         1 - lcom
+ */
+public record ClassMetrics(
+  String name,
+  String component,
+  int afferentCoupling,
+  int efferentCoupling,
+  double instability,
+  double lcom,
+  double cohesion
+) {}
@@ -0,0 +1,26 @@
+package com.code.analysis.metrics;
+
+/**
+ * Coupling and cohesion of a component, following Robert C. Martin's package
+ * metrics.
+ *
+ * @param name             name of the component
+ * @param classCount       number of types in the component
+ * @param afferentCoupling number of types outside the component that depend on
+ *                         types inside it
+ * @param efferentCoupling number of types inside the component that depend on
+ *                         types outside it
+ * @param instability      efferent / (afferent + efferent) coupling
+ * @param coupling         share of the dependencies of the component's types
+ *                         that cross its boundary
+ * @param cohesion         mean cohesion of the component's types
+ */
+public record ComponentMetrics(
+  String name,
+  int classCount,
+  int afferentCoupling,
+  int efferentCoupling,
+  double instability,
+  double coupling,
+  double cohesion
+) {}
@@ -0,0 +1,25 @@
+package com.code.analysis.metrics;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Result of a {@link DependencyMetricsEngine} run.
+ *
+ * @param components metrics of every component, in the order they were given
+ * @param classes    metrics of every type
+ */
+public record DependencyMetrics(List<ComponentMetrics> components, List<ClassMetrics> classes) {
+  public DependencyMetrics {
+    components = List.copyOf(components);
+    classes = List.copyOf(classes);
+  }
+
+  public Optional<ComponentMetrics> component(String name) {
+    return components.stream().filter(component -> component.name().equals(name)).findFirst();
+  }
+
+  public Optional<ClassMetrics> type(String name) {
+    return classes.stream().filter(type -> type.name().equals(name)).findFirst();
+  }
+}
@@ -0,0 +1,373 @@
+package com.code.analysis.metrics;
+
+import com.code.analysis.core.model.CodeUnit;
+import com.code.analysis.core.model.Definition;
+import com.code.analysis.core.model.DefinitionKind;
+import com.code.analysis.core.model.ModelValidator;
+import com.code.analysis.core.model.Reference;
+import com.code.analysis.core.model.ReferenceKind;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.function.IntConsumer;
+
+/**
+ * Derives coupling and cohesion metrics of components and their types from
+ * the references in converted code units.
+ *
+ * A type depends on every other analyzed type it extends, implements, imports,
+ * or whose members its methods call or use; references to library types are
+ * ignored. Cohesion is measured per type from the fields its methods use. See
+ * {@link ClassMetrics} and {@link ComponentMetrics} for the definitions.
+ *
+ * The units are first reduced to an in-memory view: every type gets an index,
+ * and its dependencies become a sorted array of indexes. Extracting the facts
+ * of each unit, resolving the dependencies and computing the metrics of each
+ * type all run in parallel on the caller-supplied executor, which is owned by
+ * the caller; the work is CPU-bound, so a {@code ForkJoinPool} suits it.
+ *
+ * Example usage:
+ *
+ * <pre>
+ * var engine = new DependencyMetricsEngine(ForkJoinPool.commonPool());
+ * DependencyMetrics metrics = engine.compute(Map.of("core", coreUnits, "web", webUnits));
+ * </pre>
+ */
+public class DependencyMetricsEngine {
+
+  private static final Set<DefinitionKind> TYPE_KINDS = EnumSet.of(
+    DefinitionKind.TYPE,
+    DefinitionKind.INTERFACE,
+    DefinitionKind.ENUM
+  );
+
+  private final Executor executor;
+  private final MetricsSettings settings;
+
+  public DependencyMetricsEngine(Executor executor, MetricsSettings settings) {
+    ModelValidator.validateNotNull(executor, "Executor");
+    ModelValidator.validateNotNull(settings, "Metrics settings");
+    this.executor = executor;
+    this.settings = settings;
+  }
+
+  public DependencyMetricsEngine(Executor executor) {
+    this(executor, MetricsSettings.defaults());
+  }
+
+  /**
+   * Computes the metrics of a set of components. A type declared in more than
+   * one component is counted in the first.
+   *
+   * @param unitsByComponent The units of each component, by component name
+   * @return The metrics of every component and type
+   */
+  public DependencyMetrics compute(Map<String, ? extends Collection<CodeUnit>> unitsByComponent) {
+    ModelValidator.validateNotNull(unitsByComponent, "Units by component");
+    List<String> components = List.copyOf(unitsByComponent.keySet());
+    List<CodeUnit> units = new ArrayList<>();
+    List<Integer> unitComponents = new ArrayList<>();
+    for (int c = 0; c < components.size(); c++) {
+      for (CodeUnit unit : unitsByComponent.get(components.get(c))) {
+        units.add(unit);
+        unitComponents.add(c);
+      }
+    }
+
+    @SuppressWarnings("unchecked")
+    List<TypeFacts>[] factsByUnit = new List[units.size()];
+    parallel(units.size(), u -> factsByUnit[u] = facts(units.get(u), unitComponents.get(u)));
+
+    List<TypeFacts> types = new ArrayList<>();
+    Map<String, Integer> ids = new HashMap<>();
+    for (List<TypeFacts> unitTypes : factsByUnit) {
+      for (TypeFacts type : unitTypes) {
+        if (ids.putIfAbsent(type.name(), types.size()) == null) {
+          types.add(type);
+        }
+      }
+    }
+    int typeCount = types.size();
+    int[][] dependencies = new int[typeCount][];
+    parallel(typeCount, t -> dependencies[t] = resolve(types.get(t).dependencies(), ids, t));
+
+    AtomicIntegerArray afferent = new AtomicIntegerArray(typeCount);
+    AtomicIntegerArray componentAfferent = new AtomicIntegerArray(components.size());
+    int[] crossing = new int[typeCount];
+    parallel(typeCount, t -> {
+      int own = types.get(t).component();
+      Set<Integer> dependedOn = new HashSet<>();
+      for (int dependency : dependencies[t]) {
+        afferent.incrementAndGet(dependency);
+        int other = types.get(dependency).component();
+        if (other != own) {
+          crossing[t]++;
+          dependedOn.add(other);
+        }
+      }
+      dependedOn.forEach(componentAfferent::incrementAndGet);
+    });
+
+    ClassMetrics[] classes = new ClassMetrics[typeCount];
+    parallel(typeCount, t -> {
+      TypeFacts type = types.get(t);
+      double lcom = type.lcom();
+      classes[t] = new ClassMetrics(
+        type.name(),
+        components.get(type.component()),
+        afferent.get(t),
+        dependencies[t].length,
+        instability(afferent.get(t), dependencies[t].length),
+        lcom,
+        1 - lcom
+      );
+    });
+
+    return new DependencyMetrics(
+      rollUp(components, types, dependencies, crossing, componentAfferent, classes),
+      Arrays.asList(classes)
+    );
+  }
+
+  private static List<ComponentMetrics> rollUp(
+    List<String> components,
+    List<TypeFacts> types,
+    int[][] dependencies,
+    int[] crossing,
+    AtomicIntegerArray componentAfferent,
+    ClassMetrics[] classes
+  ) {
+    int[] classCount = new int[components.size()];
+    int[] efferent = new int[components.size()];
+    long[] dependencyCount = new long[components.size()];
+    long[] crossingCount = new long[components.size()];
+    double[] cohesion = new double[components.size()];
+    for (int t = 0; t < types.size(); t++) {
+      int c = types.get(t).component();
+      classCount[c]++;
+      dependencyCount[c] += dependencies[t].length;
+      crossingCount[c] += crossing[t];
+      cohesion[c] += classes[t].cohesion();
+      if (crossing[t] > 0) {
+        efferent[c]++;
+      }
+    }
+    List<ComponentMetrics> metrics = new ArrayList<>(components.size());
+    for (int c = 0; c < components.size(); c++) {
+      metrics.add(
+        new ComponentMetrics(
+          components.get(c),
+          classCount[c],
+          componentAfferent.get(c),
+          efferent[c],
+          instability(componentAfferent.get(c), efferent[c]),
+          dependencyCount[c] == 0 ? 0 : (double) crossingCount[c] / dependencyCount[c],
+          classCount[c] == 0 ? 1 : cohesion[c] / classCount[c]
+        )
+      );
+    }
+    return metrics;
+  }
+
+  /**
+   * Extracts the types of a unit with the names of the types they depend on
+   * and the field usage of their methods.
+   */
+  private static List<TypeFacts> facts(CodeUnit unit, int component) {
+    Map<String, TypeFacts.Builder> types = new LinkedHashMap<>();
+    for (Definition definition : unit.definitions()) {
+      if (TYPE_KINDS.contains(definition.kind())) {
+        var type = types.computeIfAbsent(qualifiedName(definition), TypeFacts.Builder::new);
+        for (Reference reference : definition.references()) {
+          if (
+            reference.kind() == ReferenceKind.EXTEND || reference.kind() == ReferenceKind.IMPLEMENT
+          ) {
+            type.dependencies.add(reference.targetName());
+          }
+        }
+        if (definition.metadata().get("declaringType") == null) {
+          type.dependencies.addAll(imports(unit));
+        }
+      }
+    }
+    for (Definition definition : unit.definitions()) {
+      if (
+        definition.kind() == DefinitionKind.VARIABLE &&
+        types.get(definition.metadata().get("declaringType")) instanceof TypeFacts.Builder type
+      ) {
+        type.fields.add(definition.name());
+      }
+    }
+    for (Definition definition : unit.definitions()) {
+      if (
+        definition.kind() == DefinitionKind.FUNCTION &&
+        types.get(definition.metadata().get("declaringType")) instanceof TypeFacts.Builder type
+      ) {
+        type.addMethod(definition);
+      }
+    }
+    return types.values().stream().map(type -> type.build(component)).toList();
+  }
+
+  @SuppressWarnings("unchecked")
+  private static List<String> imports(CodeUnit unit) {
+    return unit.metadata().get("imports") instanceof List<?> imports
+      ? (List<String>) imports
+      : List.of();
+  }
+
+  /**
+   * Resolves dependency names to the indexes of analyzed types, dropping
+   * library types and the type itself. A name that is not a type may name a
+   * member of one, as in a static import.
+   */
+  private static int[] resolve(Set<String> names, Map<String, Integer> ids, int self) {
+    int[] resolved = new int[names.size()];
+    int count = 0;
+    for (String name : names) {
+      Integer id = ids.get(name);
+      if (id == null) {
+        int dot = name.lastIndexOf('.');
+        id = dot > 0 ? ids.get(name.substring(0, dot)) : null;
+      }
+      if (id != null && id != self) {
+        resolved[count++] = id;
+      }
+    }
+    int[] sorted = Arrays.copyOf(resolved, count);
+    Arrays.sort(sorted);
+    return Arrays.stream(sorted).distinct().toArray();
+  }
+
+  private static double instability(int afferent, int efferent) {
+    return afferent + efferent == 0 ? 0 : (double) efferent / (afferent + efferent);
+  }
+
+  private static String qualifiedName(Definition definition) {
+    return (String) definition.metadata().getOrDefault("qualifiedName", definition.name());
+  }
+
+  /**
+   * Runs an action for every index below size, split into chunks that run
+   * concurrently on the executor.
+   */
+  private void parallel(int size, IntConsumer action) {
+    if (size == 0) {
+      return;
+    }
+    int chunkSize = Math.max(1, Math.ceilDiv(size, settings.parallelism() * 4));
+    List<CompletableFuture<Void>> chunks = new ArrayList<>();
+    for (int start = 0; start < size; start += chunkSize) {
+      int from = start;
+      int to = Math.min(size, start + chunkSize);
+      chunks.add(
+        CompletableFuture.runAsync(
+          () -> {
+            for (int i = from; i < to; i++) {
+              action.accept(i);
+            }
+          },
+          executor
+        )
+      );
+    }
+    try {
+      CompletableFuture.allOf(chunks.toArray(CompletableFuture[]::new)).join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw new IllegalStateException("Failed to compute dependency metrics", e.getCause());
+    }
+  }
+
+  /**
+   * What the metrics need to know about a type.
+   *
+   * @param name          qualified name
+   * @param component     index of the component declaring it
+   * @param dependencies  names of the types it references
+   * @param methods       number of methods, not counting constructors
+   * @param fields        number of fields
+   * @param fieldAccesses sum over its methods of the number of its fields each
+   *                      method uses
+   */
+  private record TypeFacts(
+    String name,
+    int component,
+    Set<String> dependencies,
+    int methods,
+    int fields,
+    int fieldAccesses
+  ) {
+    /**
+     * Henderson-Sellers LCOM: (mean methods per field - methods) / (1 -
+     * methods), or 0 when there are fewer than two methods or no fields.
+     */
+    double lcom() {
+      if (methods < 2 || fields == 0) {
+        return 0;
+      }
+      double meanAccesses = (double) fieldAccesses / fields;
+      return Math.max(0, Math.min(1, (meanAccesses - methods) / (1 - methods)));
+    }
+
+    private static final class Builder {
+
+      private final String name;
+      private final Set<String> dependencies = new HashSet<>();
+      private final Set<String> fields = new HashSet<>();
+      private int methods;
+      private int fieldAccesses;
+
+      private Builder(String name) {
+        this.name = name;
+      }
+
+      private void addMethod(Definition method) {
+        Set<String> usedFields = new HashSet<>();
+        for (Reference reference : method.references()) {
+          if (reference.kind() != ReferenceKind.CALL && reference.kind() != ReferenceKind.USE) {
+            continue;
+          }
+          String target = reference.targetName();
+          int parameters = target.indexOf('(');
+          String member = parameters < 0 ? target : target.substring(0, parameters);
+          int dot = member.lastIndexOf('.');
+          if (dot < 0) {
+            // Unresolved calls are recorded by bare name
+            continue;
+          }
+          String owner = member.substring(0, dot);
+          dependencies.add(owner);
+          if (
+            reference.kind() == ReferenceKind.USE &&
+            owner.equals(name) &&
+            fields.contains(member.substring(dot + 1))
+          ) {
+            usedFields.add(member.substring(dot + 1));
+          }
+        }
+        if (!Boolean.TRUE.equals(method.metadata().get("isConstructor"))) {
+          methods++;
+          fieldAccesses += usedFields.size();
+        }
+      }
+
+      private TypeFacts build(int component) {
+        return new TypeFacts(name, component, dependencies, methods, fields.size(), fieldAccesses);
+      }
+    }
+  }
+}
@@ -0,0 +1,11 @@
+package com.code.analysis.metrics;
+
+/**
+ * A method ranked by a {@link HotspotMetric}.
+ *
+ * @param method    full signature of the method
+ * @param file      path of the file declaring it
+ * @param component component the file belongs to
+ * @param value     the method's value of the metric
+ */
+public record Hotspot(String method, String file, String component, long value) {}
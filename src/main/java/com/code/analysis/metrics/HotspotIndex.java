@@ -0,0 +1,252 @@
+package com.code.analysis.metrics;
+
+import com.code.analysis.core.model.CodeUnit;
+import com.code.analysis.core.model.Definition;
+import com.code.analysis.core.model.DefinitionKind;
+import com.code.analysis.core.model.ModelValidator;
+import com.code.analysis.core.model.Reference;
+import com.code.analysis.core.model.ReferenceKind;
+import com.code.analysis.index.IndexChangeListener;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeSet;
+
+/**
+ * In-process ranking of methods by complexity, line count and fan-in, kept up
+ * to date as files are indexed, so hotspots can be polled without querying the
+ * graph.
+ *
+ * Every method is ranked in four scopes - the whole code base, its component,
+ * its package and its file - by each {@link HotspotMetric}. A ranking is a
+ * sorted set, so re-indexing a file moves only its own methods and the methods
+ * it calls, in logarithmic time, and the top K of a scope are its first K
+ * entries. Fan-in counts the indexed methods calling a method, as the
+ * {@code CALLS} relationships of the graph do, whichever unit is indexed
+ * first.
+ *
+ * The index is thread-safe. Feed it from an indexer through
+ * {@link #listener(String)}, next to the listener writing to the graph. The
+ * index lives in memory only, while an incremental indexing run reports only
+ * the files that changed since the last run. A new index, for example after a
+ * restart, must therefore first be given every unit of the component through
+ * {@link #update(String, CodeUnit)}, e.g. from the unit cache or a full
+ * indexing run, before the listener is attached; otherwise it ranks only the
+ * files changed since.
+ *
+ * Example usage:
+ *
+ * <pre>
+ * var hotspots = new HotspotIndex();
+ * indexer.index(sourceRoot, hotspots.listener("core"));
+ * List&lt;Hotspot&gt; top = hotspots.top(
+ *     HotspotQuery.builder().limit(5).scope(HotspotScope.component("core")).build());
+ * </pre>
+ */
+public class HotspotIndex {
+
+  private static final Comparator<Ranked> RANKING = Comparator
+    .comparingLong(Ranked::value)
+    .reversed()
+    .thenComparing(Ranked::signature);
+
+  private final Map<String, IndexedUnit> units = new HashMap<>();
+  private final Map<String, IndexedMethod> methods = new HashMap<>();
+  private final Map<String, Integer> fanIn = new HashMap<>();
+  private final Map<HotspotScope, Map<HotspotMetric, TreeSet<Ranked>>> rankings = new HashMap<>();
+
+  /**
+   * @param component The component the indexed files belong to
+   * @return a listener applying the changes of an indexing run to this index,
+   *         which must already hold the units left unchanged by the run
+   */
+  public IndexChangeListener listener(String component) {
+    ModelValidator.validateNotEmpty(component, "Component");
+    return new IndexChangeListener() {
+      @Override
+      public void onChanged(String relativePath, CodeUnit unit, Optional<String> previousUnitId) {
+        previousUnitId.filter(id -> !id.equals(unit.id())).ifPresent(HotspotIndex.this::remove);
+        update(component, unit);
+      }
+
+      @Override
+      public void onDeleted(String relativePath, String unitId) {
+        remove(unitId);
+      }
+    };
+  }
+
+  /**
+   * Ranks the methods of a unit, replacing those of an earlier version of it.
+   *
+   * @param component The component the unit belongs to
+   * @param unit      The unit
+   */
+  public synchronized void update(String component, CodeUnit unit) {
+    ModelValidator.validateNotEmpty(component, "Component");
+    ModelValidator.validateNotNull(unit, "Code unit");
+    remove(unit.id());
+    String file = (String) unit.metadata().getOrDefault("path", unit.name());
+    String packageName = (String) unit.metadata().getOrDefault("packageName", "");
+    List<IndexedMethod> unitMethods = new ArrayList<>();
+    List<String> calls = new ArrayList<>();
+    for (Definition definition : unit.definitions()) {
+      if (
+        definition.kind() != DefinitionKind.FUNCTION ||
+        !(definition.metadata().get("signature") instanceof String signature)
+      ) {
+        continue;
+      }
+      var method = new IndexedMethod(
+        signature,
+        file,
+        component,
+        packageName,
+        intMetadata(definition, "complexity"),
+        intMetadata(definition, "lineCount")
+      );
+      unitMethods.add(method);
+      IndexedMethod replaced = methods.put(signature, method);
+      if (replaced != null) {
+        unrank(replaced);
+      }
+      rank(method);
+      definition
+        .references()
+        .stream()
+        .filter(reference -> reference.kind() == ReferenceKind.CALL)
+        .map(Reference::targetName)
+        .filter(target -> target.indexOf('(') > 0)
+        .distinct()
+        .forEach(calls::add);
+    }
+    calls.forEach(target -> adjustFanIn(target, 1));
+    units.put(unit.id(), new IndexedUnit(unitMethods, calls));
+  }
+
+  /**
+   * Drops the methods of a unit from the rankings.
+   *
+   * @param unitId The id of the unit
+   */
+  public synchronized void remove(String unitId) {
+    IndexedUnit unit = units.remove(unitId);
+    if (unit == null) {
+      return;
+    }
+    unit.calls().forEach(target -> adjustFanIn(target, -1));
+    for (IndexedMethod method : unit.methods()) {
+      if (methods.remove(method.signature(), method)) {
+        unrank(method);
+      }
+    }
+  }
+
+  /**
+   * @return the highest ranked methods of the query's scope, highest first
+   */
+  public synchronized List<Hotspot> top(HotspotQuery query) {
+    ModelValidator.validateNotNull(query, "Hotspot query");
+    TreeSet<Ranked> ranking = rankings
+      .getOrDefault(query.scope(), Map.of())
+      .get(query.metric());
+    if (ranking == null) {
+      return List.of();
+    }
+    return ranking
+      .stream()
+      .limit(query.limit())
+      .map(ranked -> {
+        IndexedMethod method = methods.get(ranked.signature());
+        return new Hotspot(method.signature(), method.file(), method.component(), ranked.value());
+      })
+      .toList();
+  }
+
+  private void adjustFanIn(String target, int delta) {
+    IndexedMethod method = methods.get(target);
+    if (method != null) {
+      unrank(method, HotspotMetric.FAN_IN);
+    }
+    fanIn.merge(target, delta, (current, change) ->
+      current + change == 0 ? null : current + change
+    );
+    if (method != null) {
+      rank(method, HotspotMetric.FAN_IN);
+    }
+  }
+
+  private void rank(IndexedMethod method) {
+    for (HotspotMetric metric : HotspotMetric.values()) {
+      rank(method, metric);
+    }
+  }
+
+  private void rank(IndexedMethod method, HotspotMetric metric) {
+    var ranked = new Ranked(value(method, metric), method.signature());
+    for (HotspotScope scope : method.scopes()) {
+      rankings
+        .computeIfAbsent(scope, key -> new EnumMap<>(HotspotMetric.class))
+        .computeIfAbsent(metric, key -> new TreeSet<>(RANKING))
+        .add(ranked);
+    }
+  }
+
+  private void unrank(IndexedMethod method) {
+    for (HotspotMetric metric : HotspotMetric.values()) {
+      unrank(method, metric);
+    }
+  }
+
+  private void unrank(IndexedMethod method, HotspotMetric metric) {
+    var ranked = new Ranked(value(method, metric), method.signature());
+    for (HotspotScope scope : method.scopes()) {
+      Map<HotspotMetric, TreeSet<Ranked>> byMetric = rankings.get(scope);
+      TreeSet<Ranked> ranking = byMetric == null ? null : byMetric.get(metric);
+      if (ranking != null && ranking.remove(ranked) && ranking.isEmpty()) {
+        byMetric.remove(metric);
+        if (byMetric.isEmpty()) {
+          rankings.remove(scope);
+        }
+      }
+    }
+  }
+
+  private long value(IndexedMethod method, HotspotMetric metric) {
+    return switch (metric) {
+      case COMPLEXITY -> method.complexity();
+      case LINE_COUNT -> method.lineCount();
+      case FAN_IN -> fanIn.getOrDefault(method.signature(), 0);
+    };
+  }
+
+  private static int intMetadata(Definition definition, String key) {
+    return definition.metadata().get(key) instanceof Integer value ? value : 0;
+  }
+
+  private record IndexedMethod(
+    String signature,
+    String file,
+    String component,
+    String packageName,
+    int complexity,
+    int lineCount
+  ) {
+    List<HotspotScope> scopes() {
+      return List.of(
+        HotspotScope.all(),
+        HotspotScope.component(component),
+        HotspotScope.packageName(packageName),
+        HotspotScope.file(file)
+      );
+    }
+  }
+
+  private record IndexedUnit(List<IndexedMethod> methods, List<String> calls) {}
+
+  private record Ranked(long value, String signature) {}
+}
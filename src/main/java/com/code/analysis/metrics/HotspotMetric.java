@@ -0,0 +1,15 @@
+package com.code.analysis.metrics;
+
+/**
+ * The measure methods are ranked by when looking for hotspots.
+ */
+public enum HotspotMetric {
+  /** Cyclomatic complexity */
+  COMPLEXITY,
+
+  /** Number of lines spanned */
+  LINE_COUNT,
+
+  /** Number of calls to the method from analyzed code */
+  FAN_IN,
+}
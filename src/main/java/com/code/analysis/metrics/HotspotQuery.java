@@ -0,0 +1,29 @@
+package com.code.analysis.metrics;
+
+import lombok.Builder;
+
+/**
+ * Which hotspots to look for: the top {@code limit} methods of a scope by a
+ * metric.
+ *
+ * @param limit  number of methods to return
+ * @param metric measure to rank methods by; complexity if not set
+ * @param scope  where to look; the whole code base if not set
+ */
+@Builder
+public record HotspotQuery(int limit, HotspotMetric metric, HotspotScope scope) {
+  private static final int DEFAULT_LIMIT = 10;
+
+  public HotspotQuery {
+    limit = limit > 0 ? limit : DEFAULT_LIMIT;
+    metric = metric != null ? metric : HotspotMetric.COMPLEXITY;
+    scope = scope != null ? scope : HotspotScope.all();
+  }
+
+  /**
+   * @return the ten most complex methods of the code base
+   */
+  public static HotspotQuery defaults() {
+    return HotspotQuery.builder().build();
+  }
+}
@@ -0,0 +1,48 @@
+package com.code.analysis.metrics;
+
+import com.code.analysis.core.model.ModelValidator;
+
+/**
+ * The part of the code base hotspots are looked for in.
+ *
+ * @param kind what the name refers to
+ * @param name name of the component or package, or path of the file; empty
+ *             for {@link Kind#ALL}
+ */
+public record HotspotScope(Kind kind, String name) {
+  private static final HotspotScope ALL = new HotspotScope(Kind.ALL, "");
+
+  public enum Kind {
+    ALL,
+    COMPONENT,
+    PACKAGE,
+    FILE,
+  }
+
+  public HotspotScope {
+    ModelValidator.validateNotNull(kind, "Scope kind");
+    ModelValidator.validateNotNull(name, "Scope name");
+  }
+
+  public static HotspotScope all() {
+    return ALL;
+  }
+
+  public static HotspotScope component(String name) {
+    ModelValidator.validateNotEmpty(name, "Component");
+    return new HotspotScope(Kind.COMPONENT, name);
+  }
+
+  /**
+   * @param name Fully qualified package name; types in subpackages are not
+   *             included
+   */
+  public static HotspotScope packageName(String name) {
+    return new HotspotScope(Kind.PACKAGE, name);
+  }
+
+  public static HotspotScope file(String path) {
+    ModelValidator.validateNotEmpty(path, "File path");
+    return new HotspotScope(Kind.FILE, path);
+  }
+}
@@ -0,0 +1,23 @@
+package com.code.analysis.metrics;
+
+import lombok.Builder;
+
+/**
+ * Tuning knobs for {@link DependencyMetricsEngine}.
+ *
+ * @param parallelism number of tasks each phase of the computation is split
+ *                    into, per executor thread expected to run them
+ */
+@Builder
+public record MetricsSettings(int parallelism) {
+  public MetricsSettings {
+    parallelism = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+  }
+
+  /**
+   * @return settings sized for the current machine
+   */
+  public static MetricsSettings defaults() {
+    return MetricsSettings.builder().build();
+  }
+}
@@ -0,0 +1,249 @@
+package com.code.analysis.neo4j;
+
+import com.code.analysis.core.model.CodeUnit;
+import com.code.analysis.core.model.ModelValidator;
+import com.code.analysis.neo4j.CsvTable.Column;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Streams code units into the CSV files consumed by
+ * {@code neo4j-admin database import}, for cold-starting the graph of a very
+ * large repository far faster than transactional writes allow.
+ *
+ * Every unit is written out as soon as it is added, so memory use does not
+ * grow with the repository. Nodes are keyed by the same properties the
+ * uniqueness constraints in {@code schema.cypher} use ({@code Component.name},
+ * {@code File.path}, {@code Class.fullName}, {@code Method.fullSignature}),
+ * each in its own id space, and are linked by {@code CONTAINS} relationships.
+ * Supertypes, calls and field uses become {@code EXTENDS}, {@code IMPLEMENTS},
+ * {@code CALLS} and {@code USES} relationships; those whose target is not part
+ * of the export, such as library supertypes, are skipped by the importer.
+ * Run {@code schema.cypher} after the import to create constraints and indexes.
+ *
+ * Example usage:
+ *
+ * <pre>
+ * try (var exporter = new BulkImportExporter(outputDir, "core")) {
+ *     indexer.index(sourceRoot, exporter::add);
+ *     List&lt;String&gt; command = exporter.importCommand("neo4j");
+ * }
+ * </pre>
+ */
+public class BulkImportExporter implements AutoCloseable {
+
+  private static final Column LABEL = new Column("label", ":LABEL");
+
+  private static final List<Column> COMPONENT_COLUMNS = List.of(
+    new Column("name", "name:ID(Component)"),
+    LABEL
+  );
+
+  private static final List<Column> FILE_COLUMNS = List.of(
+    new Column("path", "path:ID(File)"),
+    Column.of("unitId"),
+    Column.of("name"),
+    Column.of("language"),
+    Column.of("packageName"),
+    LABEL
+  );
+
+  private static final List<Column> CLASS_COLUMNS = List.of(
+    new Column("fullName", "fullName:ID(Class)"),
+    Column.of("id"),
+    Column.of("name"),
+    Column.of("kind"),
+    Column.of("visibility"),
+    Column.typed("isAbstract", "boolean"),
+    Column.typed("isInterface", "boolean"),
+    Column.typed("complexity", "int"),
+    Column.typed("maxComplexity", "int"),
+    Column.typed("methodCount", "int"),
+    Column.typed("lineCount", "int"),
+    LABEL
+  );
+
+  private static final List<Column> METHOD_COLUMNS = List.of(
+    new Column("fullSignature", "fullSignature:ID(Method)"),
+    Column.of("id"),
+    Column.of("name"),
+    Column.of("kind"),
+    Column.of("declaringType"),
+    Column.of("returnType"),
+    Column.typed("isStatic", "boolean"),
+    Column.typed("isConstructor", "boolean"),
+    Column.typed("parameters", "string[]"),
+    Column.typed("complexity", "int"),
+    Column.typed("lineCount", "int"),
+    Column.typed("nestingDepth", "int"),
+    LABEL
+  );
+
+  private static final List<Column> USES_COLUMNS = List.of(
+    new Column("start", ":START_ID(Method)"),
+    Column.of("field"),
+    new Column("end", ":END_ID(Class)")
+  );
+
+  private final CsvTable components;
+  private final CsvTable files;
+  private final CsvTable classes;
+  private final CsvTable methods;
+  private final CsvTable componentFiles;
+  private final CsvTable fileClasses;
+  private final CsvTable classMethods;
+  private final CsvTable classExtends;
+  private final CsvTable classImplements;
+  private final CsvTable methodCalls;
+  private final CsvTable methodUses;
+  private final List<CsvTable> tables = new ArrayList<>();
+  private final String component;
+
+  /**
+   * Creates the header files and opens the data files in the output directory.
+   *
+   * @param outputDir Directory to write the CSV files to; created if missing
+   * @param component Name of the component all exported files belong to
+   * @throws IOException if the files cannot be created
+   */
+  public BulkImportExporter(Path outputDir, String component) throws IOException {
+    ModelValidator.validateNotNull(outputDir, "Output directory");
+    ModelValidator.validateNotEmpty(component, "Component");
+    Files.createDirectories(outputDir);
+    this.component = component;
+    this.components = open(outputDir, "components", COMPONENT_COLUMNS);
+    this.files = open(outputDir, "files", FILE_COLUMNS);
+    this.classes = open(outputDir, "classes", CLASS_COLUMNS);
+    this.methods = open(outputDir, "methods", METHOD_COLUMNS);
+    this.componentFiles = open(outputDir, "component_files", relationship("Component", "File"));
+    this.fileClasses = open(outputDir, "file_classes", relationship("File", "Class"));
+    this.classMethods = open(outputDir, "class_methods", relationship("Class", "Method"));
+    this.classExtends = open(outputDir, "class_extends", relationship("Class", "Class"));
+    this.classImplements = open(outputDir, "class_implements", relationship("Class", "Class"));
+    this.methodCalls = open(outputDir, "method_calls", relationship("Method", "Method"));
+    this.methodUses = open(outputDir, "method_uses", USES_COLUMNS);
+    components.write(Map.of("name", component, "label", "Component"));
+  }
+
+  /**
+   * Writes a unit's file, class and method nodes and their relationships,
+   * including the supertypes of its classes and the calls and field uses of
+   * its methods.
+   *
+   * @param unit The unit to export
+   * @throws UncheckedIOException if the rows cannot be written
+   */
+  public synchronized void add(CodeUnit unit) {
+    ModelValidator.validateNotNull(unit, "Code unit");
+    var rows = new GraphBatch();
+    rows.add(unit);
+    rows.files().forEach(file -> {
+      files.write(node(file, "path", "File"));
+      componentFiles.write(Map.of("start", component, "end", file.get("path")));
+    });
+    rows.classes().forEach(cls -> {
+      classes.write(node(cls, "fullName", "Class"));
+      fileClasses.write(Map.of("start", cls.get("filePath"), "end", cls.get("fullName")));
+      ((List<?>) cls.get("extends")).forEach(supertype ->
+        classExtends.write(Map.of("start", cls.get("fullName"), "end", supertype))
+      );
+      ((List<?>) cls.get("implements")).forEach(supertype ->
+        classImplements.write(Map.of("start", cls.get("fullName"), "end", supertype))
+      );
+    });
+    rows.methods().forEach(method -> {
+      methods.write(node(method, "fullSignature", "Method"));
+      classMethods.write(
+        Map.of("start", method.get("declaringType"), "end", method.get("fullSignature"))
+      );
+      ((List<?>) method.get("calls")).forEach(call ->
+        methodCalls.write(Map.of("start", method.get("fullSignature"), "end", call))
+      );
+      ((List<?>) method.get("uses")).forEach(use -> {
+        var target = (Map<?, ?>) use;
+        methodUses.write(
+          Map.of(
+            "start", method.get("fullSignature"),
+            "field", target.get("field"),
+            "end", target.get("type")
+          )
+        );
+      });
+    });
+  }
+
+  /**
+   * Builds the offline import command for the exported files. Duplicate nodes
+   * (for example a class declared under two source roots) are skipped.
+   *
+   * @param database The name of the database to import into
+   * @return The command line, one argument per element
+   */
+  public List<String> importCommand(String database) {
+    ModelValidator.validateNotEmpty(database, "Database");
+    return List.of(
+      "neo4j-admin", "database", "import", "full", database,
+      "--overwrite-destination=true",
+      "--skip-duplicate-nodes=true",
+      "--skip-bad-relationships=true",
+      "--array-delimiter=" + CsvTable.ARRAY_DELIMITER,
+      "--nodes=Component=" + components.files(),
+      "--nodes=File=" + files.files(),
+      "--nodes=Class=" + classes.files(),
+      "--nodes=Method=" + methods.files(),
+      "--relationships=CONTAINS=" + componentFiles.files(),
+      "--relationships=CONTAINS=" + fileClasses.files(),
+      "--relationships=CONTAINS=" + classMethods.files(),
+      "--relationships=EXTENDS=" + classExtends.files(),
+      "--relationships=IMPLEMENTS=" + classImplements.files(),
+      "--relationships=CALLS=" + methodCalls.files(),
+      "--relationships=USES=" + methodUses.files()
+    );
+  }
+
+  @Override
+  public synchronized void close() throws IOException {
+    IOException failure = null;
+    for (CsvTable table : tables) {
+      try {
+        table.close();
+      } catch (IOException e) {
+        if (failure == null) {
+          failure = e;
+        } else {
+          failure.addSuppressed(e);
+        }
+      }
+    }
+    if (failure != null) {
+      throw failure;
+    }
+  }
+
+  private CsvTable open(Path outputDir, String name, List<Column> columns) throws IOException {
+    var table = new CsvTable(outputDir, name, columns);
+    tables.add(table);
+    return table;
+  }
+
+  private static Map<String, Object> node(Map<String, Object> row, String key, String label) {
+    @SuppressWarnings("unchecked")
+    Map<String, Object> values = new HashMap<>((Map<String, Object>) row.get("properties"));
+    values.put(key, row.get(key));
+    values.put("label", label);
+    return values;
+  }
+
+  private static List<Column> relationship(String startSpace, String endSpace) {
+    return List.of(
+      new Column("start", ":START_ID(" + startSpace + ")"),
+      new Column("end", ":END_ID(" + endSpace + ")")
+    );
+  }
+}
@@ -0,0 +1,355 @@
+package com.code.analysis.neo4j;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import org.neo4j.driver.Record;
+import org.neo4j.driver.TransactionContext;
+
+/**
+ * Counters of the code graph materialized at ingest time, so the summary of a
+ * graph of any size is read in constant time.
+ *
+ * A {@code CodeSummary} root node marks the counters as maintained, and one
+ * {@code LanguageSummary} node per language holds the number of files in that
+ * language and of the classes and methods they contain. A class declared in
+ * several files is one node, so it is counted once, for the language of the
+ * file with the smallest path among those containing it, and so are its
+ * methods. Each write transaction of {@link Neo4jGraphWriter} counts the files
+ * it touches and the classes it may add, remove or share before and after
+ * changing them, and adds the difference, so the graph is never recounted as
+ * a whole. Those transactions first write-lock the root, so they count and
+ * change their scopes one at a time: two batches sharing a class cannot both
+ * count it before either has written it. The first write transaction against
+ * a graph without the root - a new database, or one loaded by other means -
+ * creates it and counts the graph once; until then, readers fall back to
+ * counting.
+ */
+final class CodeSummary {
+
+  /**
+   * Counts, per language, the classes bound to {@code cls} by the preceding
+   * clauses that are contained by a file {@code owner}, and their methods.
+   */
+  private static final String COUNT_CLASSES =
+    """
+    WITH cls, owner
+    ORDER BY owner.path
+    WITH cls, head(collect(owner)) AS owner
+    RETURN coalesce(owner.language, 'unknown') AS language,
+        0 AS files,
+        count(cls) AS classes,
+        sum(count { (cls)-[:CONTAINS]->(:Method) }) AS methods
+    """;
+
+  /**
+   * Finds the files of the {@code $files} rows of a {@link GraphBatch} and the
+   * classes they contain.
+   */
+  static final String FIND_BATCH_SCOPE =
+    """
+    UNWIND $files AS file
+    MATCH (f:File {path: file.path})
+    RETURN f.path AS path, [(f)-[:CONTAINS]->(cls:Class) | cls.fullName] AS classNames
+    """;
+
+  /** Finds the files of the units in {@code $unitIds} and the classes they contain. */
+  static final String FIND_UNIT_SCOPE =
+    """
+    UNWIND $unitIds AS unitId
+    MATCH (f:File {unitId: unitId})
+    RETURN f.path AS path, [(f)-[:CONTAINS]->(cls:Class) | cls.fullName] AS classNames
+    """;
+
+  /**
+   * Counts the files in {@code $paths} and the classes in {@code $classNames},
+   * as built by {@link #scope}.
+   */
+  static final String COUNT_SCOPE =
+    """
+    UNWIND $paths AS path
+    MATCH (f:File {path: path})
+    RETURN coalesce(f.language, 'unknown') AS language,
+        count(f) AS files,
+        0 AS classes,
+        0 AS methods
+    UNION ALL
+    UNWIND $classNames AS name
+    MATCH (owner:File)-[:CONTAINS]->(cls:Class {fullName: name})
+    """ +
+    COUNT_CLASSES;
+
+  static final String COUNT_ALL_FILES =
+    """
+    MATCH (f:File)
+    RETURN coalesce(f.language, 'unknown') AS language,
+        count(f) AS files,
+        0 AS classes,
+        0 AS methods
+    UNION ALL
+    MATCH (owner:File)-[:CONTAINS]->(cls:Class)
+    """ +
+    COUNT_CLASSES;
+
+  static final String COUNT_COMPONENTS =
+    """
+    MATCH (c:Component)
+    RETURN count(c) AS components
+    """;
+
+  /**
+   * Reads the counters in constant time: the component count comes from the
+   * database's count store, the rest from the summary nodes.
+   */
+  static final String READ =
+    """
+    OPTIONAL MATCH (root:CodeSummary)
+    CALL {
+        MATCH (c:Component)
+        RETURN count(c) AS components
+    }
+    RETURN
+        root IS NOT NULL AS materialized,
+        components,
+        COLLECT {
+            MATCH (s:LanguageSummary)
+            WHERE s.files > 0
+            RETURN s {.language, .files, .classes, .methods}
+        } AS languages
+    """;
+
+  /**
+   * Finds the root and takes its write lock until the transaction ends; the
+   * property is removed again in the same statement.
+   */
+  private static final String LOCK_ROOT =
+    """
+    MATCH (root:CodeSummary)
+    SET root._lock = true
+    REMOVE root._lock
+    RETURN root.name
+    """;
+
+  /**
+   * Creates the root, returning a row only if this transaction created it.
+   * Concurrent transactions block on the root's uniqueness constraint until
+   * the creator has committed, so only the creator counts the graph.
+   */
+  private static final String CREATE_ROOT =
+    """
+    MERGE (root:CodeSummary {name: 'code'})
+    ON CREATE SET root.created = true
+    WITH root, root.created AS created
+    REMOVE root.created
+    WITH created
+    WHERE created
+    RETURN created
+    """;
+
+  private static final String DELETE_COUNTERS =
+    """
+    OPTIONAL MATCH (root:CodeSummary)
+    OPTIONAL MATCH (s:LanguageSummary)
+    DETACH DELETE root, s
+    """;
+
+  private static final String ADD_COUNTERS =
+    """
+    UNWIND $deltas AS delta
+    MERGE (s:LanguageSummary {language: delta.language})
+    SET s.files = coalesce(s.files, 0) + delta.files,
+        s.classes = coalesce(s.classes, 0) + delta.classes,
+        s.methods = coalesce(s.methods, 0) + delta.methods
+    """;
+
+  private CodeSummary() {}
+
+  /**
+   * Creates the summary by counting the whole graph if it does not exist yet,
+   * and locks its root for the rest of the transaction. Call it before
+   * collecting the {@link #scope} to count.
+   */
+  static void ensureMaintained(TransactionContext tx) {
+    if (!tx.run(LOCK_ROOT, Map.of()).list().isEmpty()) {
+      return;
+    }
+    if (!tx.run(CREATE_ROOT, Map.of()).list().isEmpty()) {
+      // The creator holds the lock of the node it created
+      add(tx, Map.of(), count(tx, COUNT_ALL_FILES, Map.of()));
+      return;
+    }
+    tx.run(LOCK_ROOT, Map.of()).consume();
+  }
+
+  /**
+   * Drops the summary, so the next write transaction counts the graph again.
+   */
+  static void reset(TransactionContext tx) {
+    tx.run(DELETE_COUNTERS, Map.of()).consume();
+  }
+
+  /**
+   * Collects what a write transaction may change the counts of: the files
+   * found by a {@code FIND_*_SCOPE} query and the classes they contain, plus
+   * the files and classes the transaction is about to write. Counting the
+   * same scope before and after the change gives its exact difference, also
+   * for classes shared with files outside the transaction.
+   *
+   * @return the parameters of {@link #COUNT_SCOPE}
+   */
+  static Map<String, Object> scope(
+    TransactionContext tx,
+    String query,
+    Map<String, Object> parameters,
+    Collection<String> paths,
+    Collection<String> classNames
+  ) {
+    Set<String> scopePaths = new HashSet<>(paths);
+    Set<String> scopeClassNames = new HashSet<>(classNames);
+    for (Record record : tx.run(query, parameters).list()) {
+      scopePaths.add(record.get("path").asString());
+      scopeClassNames.addAll(record.get("classNames").asList(value -> value.asString()));
+    }
+    return Map.of("paths", List.copyOf(scopePaths), "classNames", List.copyOf(scopeClassNames));
+  }
+
+  /**
+   * @return counts per language of the files and classes matched by
+   *         {@link #COUNT_SCOPE} or {@link #COUNT_ALL_FILES}
+   */
+  static Map<String, Counts> count(
+    TransactionContext tx,
+    String query,
+    Map<String, Object> parameters
+  ) {
+    Map<String, Counts> counts = new HashMap<>();
+    for (Record record : tx.run(query, parameters).list()) {
+      counts.merge(record.get("language").asString(), Counts.of(record), Counts::plus);
+    }
+    return counts;
+  }
+
+  /**
+   * Adds the change from one count of a set of files to another to the
+   * counters.
+   */
+  static void add(TransactionContext tx, Map<String, Counts> before, Map<String, Counts> after) {
+    Set<String> languages = new HashSet<>(before.keySet());
+    languages.addAll(after.keySet());
+    List<Map<String, Object>> deltas = new ArrayList<>();
+    for (String language : languages) {
+      Counts delta = after
+        .getOrDefault(language, Counts.NONE)
+        .minus(before.getOrDefault(language, Counts.NONE));
+      if (!delta.equals(Counts.NONE)) {
+        deltas.add(
+          Map.of(
+            "language",
+            language,
+            "files",
+            delta.files(),
+            "classes",
+            delta.classes(),
+            "methods",
+            delta.methods()
+          )
+        );
+      }
+    }
+    if (!deltas.isEmpty()) {
+      tx.run(ADD_COUNTERS, Map.of("deltas", deltas)).consume();
+    }
+  }
+
+  /**
+   * @param row The row returned by {@link #READ}
+   * @return the summary, or empty if the counters are not maintained yet
+   */
+  @SuppressWarnings("unchecked")
+  static Optional<Map<String, Object>> fromCounters(Map<String, Object> row) {
+    if (!Boolean.TRUE.equals(row.get("materialized"))) {
+      return Optional.empty();
+    }
+    return Optional.of(
+      summarize(
+        ((Number) row.get("components")).longValue(),
+        (List<Map<String, Object>>) row.get("languages")
+      )
+    );
+  }
+
+  /**
+   * Builds the result of {@link Neo4jService#getCodeSummary()}.
+   *
+   * @param components Number of components
+   * @param languages  Rows with the language and its file, class and method
+   *                   counts
+   */
+  static Map<String, Object> summarize(long components, List<Map<String, Object>> languages) {
+    Map<String, Counts> totals = new TreeMap<>();
+    for (Map<String, Object> row : languages) {
+      totals.merge((String) row.get("language"), Counts.of(row), Counts::plus);
+    }
+    long files = 0;
+    long classes = 0;
+    long methods = 0;
+    Map<String, Object> byLanguage = new TreeMap<>();
+    for (Map.Entry<String, Counts> entry : totals.entrySet()) {
+      Counts counts = entry.getValue();
+      files += counts.files();
+      classes += counts.classes();
+      methods += counts.methods();
+      byLanguage.put(
+        entry.getKey(),
+        Map.of("files", counts.files(), "classes", counts.classes(), "methods", counts.methods())
+      );
+    }
+    return Map.of(
+      "components",
+      components,
+      "files",
+      files,
+      "classes",
+      classes,
+      "methods",
+      methods,
+      "languages",
+      Collections.unmodifiableMap(byLanguage)
+    );
+  }
+
+  record Counts(long files, long classes, long methods) {
+    static final Counts NONE = new Counts(0, 0, 0);
+
+    Counts plus(Counts other) {
+      return new Counts(files + other.files, classes + other.classes, methods + other.methods);
+    }
+
+    Counts minus(Counts other) {
+      return new Counts(files - other.files, classes - other.classes, methods - other.methods);
+    }
+
+    static Counts of(Record record) {
+      return new Counts(
+        record.get("files").asLong(),
+        record.get("classes").asLong(),
+        record.get("methods").asLong()
+      );
+    }
+
+    static Counts of(Map<String, Object> row) {
+      return new Counts(
+        ((Number) row.get("files")).longValue(),
+        ((Number) row.get("classes")).longValue(),
+        ((Number) row.get("methods")).longValue()
+      );
+    }
+  }
+}
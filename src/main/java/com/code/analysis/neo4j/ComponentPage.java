@@ -0,0 +1,36 @@
+package com.code.analysis.neo4j;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * A page of component details, ordered by component name.
+ *
+ * @param components Details of the components on this page
+ * @param nextCursor Name to pass as {@code after} to read the next page, or
+ *                   null if this is the last page
+ */
+public record ComponentPage(List<Map<String, Object>> components, String nextCursor) {
+  public ComponentPage {
+    components = List.copyOf(components);
+  }
+
+  /**
+   * @return the cursor of the next page, or empty if this is the last page
+   */
+  public Optional<String> next() {
+    return Optional.ofNullable(nextCursor);
+  }
+
+  /**
+   * Builds a page from rows read with a limit of one more than the page size.
+   */
+  static ComponentPage of(List<Map<String, Object>> rows, int pageSize) {
+    if (rows.size() <= pageSize) {
+      return new ComponentPage(rows, null);
+    }
+    List<Map<String, Object>> page = rows.subList(0, pageSize);
+    return new ComponentPage(page, (String) page.get(pageSize - 1).get("name"));
+  }
+}
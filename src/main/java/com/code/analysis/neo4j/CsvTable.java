@@ -0,0 +1,101 @@
+package com.code.analysis.neo4j;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * One node or relationship file pair in the {@code neo4j-admin database import}
+ * format: a single-line header file and a data file that rows are streamed to.
+ * Strings are always quoted so separators and quotes in values are safe;
+ * missing values are written as empty fields, which the importer skips.
+ */
+class CsvTable implements AutoCloseable {
+
+  static final String ARRAY_DELIMITER = ";";
+
+  private final List<Column> columns;
+  private final Path headerFile;
+  private final Path dataFile;
+  private final BufferedWriter writer;
+
+  CsvTable(Path directory, String name, List<Column> columns) throws IOException {
+    this.columns = List.copyOf(columns);
+    this.headerFile = directory.resolve(name + "_header.csv");
+    this.dataFile = directory.resolve(name + ".csv");
+    Files.writeString(headerFile, header() + System.lineSeparator());
+    this.writer = Files.newBufferedWriter(dataFile);
+  }
+
+  /**
+   * Appends a row; values are looked up by column name.
+   */
+  void write(Map<String, Object> values) {
+    String row = columns
+      .stream()
+      .map(column -> format(values.get(column.key())))
+      .collect(Collectors.joining(","));
+    try {
+      writer.write(row);
+      writer.newLine();
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to write " + dataFile, e);
+    }
+  }
+
+  /**
+   * @return the importer argument value, e.g. {@code header.csv,data.csv}
+   */
+  String files() {
+    return headerFile + "," + dataFile;
+  }
+
+  @Override
+  public void close() throws IOException {
+    writer.close();
+  }
+
+  private String header() {
+    return columns.stream().map(Column::header).collect(Collectors.joining(","));
+  }
+
+  private static String format(Object value) {
+    if (value == null) {
+      return "";
+    }
+    if (value instanceof List<?> list) {
+      return quote(
+        list.stream().map(String::valueOf).collect(Collectors.joining(ARRAY_DELIMITER))
+      );
+    }
+    if (value instanceof String text) {
+      return quote(text);
+    }
+    return String.valueOf(value);
+  }
+
+  private static String quote(String text) {
+    return "\"" + text.replace("\"", "\"\"") + "\"";
+  }
+
+  /**
+   * A column of the table.
+   *
+   * @param key    the value key rows are looked up by
+   * @param header the importer header entry, e.g. {@code isStatic:boolean}
+   */
+  record Column(String key, String header) {
+    static Column of(String key) {
+      return new Column(key, key);
+    }
+
+    static Column typed(String key, String type) {
+      return new Column(key, key + ":" + type);
+    }
+  }
+}
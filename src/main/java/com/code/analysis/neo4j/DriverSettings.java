@@ -0,0 +1,59 @@
+package com.code.analysis.neo4j;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import lombok.Builder;
+import org.neo4j.driver.Config;
+
+/**
+ * Connection pool sizing of the {@link org.neo4j.driver.Driver} shared by the
+ * writers and services of a database. The pool belongs to the driver, so these
+ * settings are applied when it is created:
+ *
+ * <pre>
+ * var driver = GraphDatabase.driver(uri, auth, DriverSettings.defaults().toConfig());
+ * </pre>
+ *
+ * @param maxConnectionPoolSize        maximum number of connections per server
+ * @param connectionAcquisitionTimeout how long a session waits for a pooled
+ *                                     connection before failing
+ * @param maxConnectionLifetime        age after which pooled connections are
+ *                                     closed rather than reused
+ */
+@Builder
+public record DriverSettings(
+  int maxConnectionPoolSize,
+  Duration connectionAcquisitionTimeout,
+  Duration maxConnectionLifetime
+) {
+  private static final int DEFAULT_MAX_CONNECTION_POOL_SIZE = 100;
+  private static final Duration DEFAULT_CONNECTION_ACQUISITION_TIMEOUT = Duration.ofSeconds(60);
+  private static final Duration DEFAULT_MAX_CONNECTION_LIFETIME = Duration.ofHours(1);
+
+  public DriverSettings {
+    maxConnectionPoolSize = maxConnectionPoolSize > 0
+      ? maxConnectionPoolSize
+      : DEFAULT_MAX_CONNECTION_POOL_SIZE;
+    connectionAcquisitionTimeout = connectionAcquisitionTimeout != null
+      ? connectionAcquisitionTimeout
+      : DEFAULT_CONNECTION_ACQUISITION_TIMEOUT;
+    maxConnectionLifetime = maxConnectionLifetime != null
+      ? maxConnectionLifetime
+      : DEFAULT_MAX_CONNECTION_LIFETIME;
+  }
+
+  public static DriverSettings defaults() {
+    return DriverSettings.builder().build();
+  }
+
+  /**
+   * @return the driver configuration with these settings
+   */
+  public Config toConfig() {
+    return Config.builder()
+      .withMaxConnectionPoolSize(maxConnectionPoolSize)
+      .withConnectionAcquisitionTimeout(connectionAcquisitionTimeout.toMillis(), TimeUnit.MILLISECONDS)
+      .withMaxConnectionLifetime(maxConnectionLifetime.toMillis(), TimeUnit.MILLISECONDS)
+      .build();
+  }
+}
@@ -0,0 +1,214 @@
+package com.code.analysis.neo4j;
+
+import com.code.analysis.core.model.CodeUnit;
+import com.code.analysis.core.model.Definition;
+import com.code.analysis.core.model.DefinitionKind;
+import com.code.analysis.core.model.Reference;
+import com.code.analysis.core.model.ReferenceKind;
+import com.code.analysis.duplication.MinHash;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Accumulates code units as parameter rows for the UNWIND statements of
+ * {@link Neo4jGraphWriter}. Rows map onto the {@code File}, {@code Class} and
+ * {@code Method} nodes of the graph schema; only metadata values that Neo4j
+ * can store as properties are copied, except MinHash signatures, which are
+ * only needed to detect duplicates before writing. Class rows carry the
+ * supertypes they extend and implement, by name as written or resolved, as
+ * targets of {@code EXTENDS} and {@code IMPLEMENTS} relationships. Method rows
+ * also carry the targets of {@code CALLS} and {@code USES} relationships:
+ * calls to methods declared in the analyzed sources, identified by full
+ * signature, and uses of their fields, split into declaring type and field
+ * name. Calls to library methods and unresolved calls have no node to point
+ * to and are left out.
+ */
+class GraphBatch {
+
+  private static final Set<DefinitionKind> CLASS_KINDS = Set.of(
+    DefinitionKind.TYPE,
+    DefinitionKind.INTERFACE,
+    DefinitionKind.ENUM
+  );
+
+  private static final Set<String> UNSTORED_KEYS = Set.of(MinHash.METADATA_KEY);
+
+  private final List<Map<String, Object>> files = new ArrayList<>();
+  private final List<Map<String, Object>> classes = new ArrayList<>();
+  private final List<Map<String, Object>> methods = new ArrayList<>();
+
+  void add(CodeUnit unit) {
+    String path = (String) unit.metadata().getOrDefault("path", unit.name());
+    List<String> classNames = new ArrayList<>();
+    List<String> methodSignatures = new ArrayList<>();
+    for (Definition definition : unit.definitions()) {
+      if (CLASS_KINDS.contains(definition.kind())) {
+        classNames.add(addClass(path, definition));
+      } else if (definition.kind() == DefinitionKind.FUNCTION) {
+        addMethod(definition).ifPresent(methodSignatures::add);
+      }
+    }
+    files.add(
+      Map.of(
+        "path", path,
+        "properties", fileProperties(unit),
+        "classNames", classNames,
+        "methodSignatures", methodSignatures
+      )
+    );
+  }
+
+  int rowCount() {
+    return files.size() + classes.size() + methods.size();
+  }
+
+  boolean isEmpty() {
+    return files.isEmpty();
+  }
+
+  List<Map<String, Object>> files() {
+    return files;
+  }
+
+  List<Map<String, Object>> classes() {
+    return classes;
+  }
+
+  List<Map<String, Object>> methods() {
+    return methods;
+  }
+
+  /**
+   * @return the paths of the files in the batch
+   */
+  Set<String> paths() {
+    Set<String> paths = new HashSet<>();
+    files.forEach(file -> paths.add((String) file.get("path")));
+    return paths;
+  }
+
+  /**
+   * @return the names of the classes in the batch and of the types its methods
+   *         are declared in
+   */
+  Set<String> typeNames() {
+    Set<String> names = new HashSet<>();
+    classes.forEach(cls -> names.add((String) cls.get("fullName")));
+    methods.forEach(method -> names.add((String) method.get("declaringType")));
+    return names;
+  }
+
+  private String addClass(String filePath, Definition definition) {
+    String fullName = (String) definition
+      .metadata()
+      .getOrDefault("qualifiedName", definition.name());
+    classes.add(
+      Map.of(
+        "filePath", filePath,
+        "fullName", fullName,
+        "properties", definitionProperties(definition),
+        "extends", targets(definition, ReferenceKind.EXTEND),
+        "implements", targets(definition, ReferenceKind.IMPLEMENT)
+      )
+    );
+    return fullName;
+  }
+
+  private static List<String> targets(Definition definition, ReferenceKind kind) {
+    return definition
+      .references()
+      .stream()
+      .filter(reference -> reference.kind() == kind)
+      .map(Reference::targetName)
+      .distinct()
+      .toList();
+  }
+
+  private Optional<String> addMethod(Definition definition) {
+    Object declaringType = definition.metadata().get("declaringType");
+    Object signature = definition.metadata().get("signature");
+    if (!(declaringType instanceof String type) || !(signature instanceof String fullSignature)) {
+      return Optional.empty();
+    }
+    methods.add(
+      Map.of(
+        "declaringType", type,
+        "fullSignature", fullSignature,
+        "properties", definitionProperties(definition),
+        "calls", calls(definition),
+        "uses", uses(definition)
+      )
+    );
+    return Optional.of(fullSignature);
+  }
+
+  private static List<String> calls(Definition definition) {
+    return definition
+      .references()
+      .stream()
+      .filter(reference -> reference.kind() == ReferenceKind.CALL)
+      .map(Reference::targetName)
+      .filter(target -> target.indexOf('(') > 0)
+      .toList();
+  }
+
+  private static List<Map<String, Object>> uses(Definition definition) {
+    return definition
+      .references()
+      .stream()
+      .filter(reference -> reference.kind() == ReferenceKind.USE)
+      .map(Reference::targetName)
+      .filter(target -> target.lastIndexOf('.') > 0)
+      .map(target -> {
+        int separator = target.lastIndexOf('.');
+        return Map.<String, Object>of(
+          "type", target.substring(0, separator),
+          "field", target.substring(separator + 1)
+        );
+      })
+      .toList();
+  }
+
+  private static Map<String, Object> fileProperties(CodeUnit unit) {
+    Map<String, Object> properties = storableProperties(unit.metadata());
+    properties.put("unitId", unit.id());
+    properties.put("name", unit.name());
+    return properties;
+  }
+
+  private static Map<String, Object> definitionProperties(Definition definition) {
+    Map<String, Object> properties = storableProperties(definition.metadata());
+    if (definition.id() != null) {
+      properties.put("id", definition.id());
+    }
+    properties.put("name", definition.name());
+    properties.put("kind", definition.kind().name());
+    return properties;
+  }
+
+  private static Map<String, Object> storableProperties(Map<String, Object> metadata) {
+    Map<String, Object> properties = new HashMap<>();
+    metadata.forEach((key, value) -> {
+      if (!UNSTORED_KEYS.contains(key) && isStorable(value)) {
+        properties.put(key, value);
+      }
+    });
+    return properties;
+  }
+
+  private static boolean isStorable(Object value) {
+    if (value instanceof List<?> list) {
+      return list.stream().allMatch(GraphBatch::isScalar);
+    }
+    return isScalar(value);
+  }
+
+  private static boolean isScalar(Object value) {
+    return value instanceof String || value instanceof Number || value instanceof Boolean;
+  }
+}
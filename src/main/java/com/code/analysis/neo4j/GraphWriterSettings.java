@@ -0,0 +1,29 @@
+package com.code.analysis.neo4j;
+
+import lombok.Builder;
+
+/**
+ * Tuning knobs for {@link Neo4jGraphWriter}.
+ *
+ * @param batchSize               number of rows (files, classes and methods)
+ *                                sent per write transaction; whole files are
+ *                                never split across transactions
+ * @param maxInFlightTransactions maximum number of write transactions running
+ *                                concurrently; further batches block the caller
+ */
+@Builder
+public record GraphWriterSettings(int batchSize, int maxInFlightTransactions) {
+  private static final int DEFAULT_BATCH_SIZE = 5_000;
+  private static final int DEFAULT_MAX_IN_FLIGHT = 4;
+
+  public GraphWriterSettings {
+    batchSize = batchSize > 0 ? batchSize : DEFAULT_BATCH_SIZE;
+    maxInFlightTransactions = maxInFlightTransactions > 0
+      ? maxInFlightTransactions
+      : DEFAULT_MAX_IN_FLIGHT;
+  }
+
+  public static GraphWriterSettings defaults() {
+    return GraphWriterSettings.builder().build();
+  }
+}
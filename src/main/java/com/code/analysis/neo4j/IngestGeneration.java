@@ -0,0 +1,31 @@
+package com.code.analysis.neo4j;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counter of completed ingests into a graph. Writers advance it whenever they
+ * finish writing changes; anything derived from the graph - cached query
+ * results, in-memory snapshots - remembers the generation it was computed at
+ * and is stale once the counter has moved on. Share one instance between the
+ * writers and readers of the same database.
+ */
+public class IngestGeneration {
+
+  private final AtomicLong generation = new AtomicLong();
+
+  /**
+   * @return the current generation, starting at 0
+   */
+  public long current() {
+    return generation.get();
+  }
+
+  /**
+   * Marks the graph as changed.
+   *
+   * @return the new generation
+   */
+  public long advance() {
+    return generation.incrementAndGet();
+  }
+}
@@ -0,0 +1,112 @@
+package com.code.analysis.neo4j;
+
+import com.code.analysis.core.model.ModelValidator;
+import com.code.analysis.duplication.Duplicate;
+import com.code.analysis.duplication.DuplicateCluster;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.neo4j.driver.Session;
+
+/**
+ * Stores the clusters found by a
+ * {@link com.code.analysis.duplication.DuplicateDetector} run as
+ * {@code DUPLICATES} relationships between the {@code Method} nodes written
+ * by {@link Neo4jGraphWriter}, each with the {@code similarity} of the pair.
+ *
+ * Detection looks at the whole code base at once, so a write replaces every
+ * existing {@code DUPLICATES} relationship. The pairs are sent in UNWIND-driven
+ * batches of {@link GraphWriterSettings#batchSize()}, one write transaction
+ * each, pointing from the method ordered first to the other and stamped with
+ * an id of the write; pairs with a method without a node are skipped. Only
+ * then are the relationships without that stamp deleted, in batches of the
+ * same size, so readers see the old pairs until the new ones are in place
+ * rather than no duplicates at all. Once the stale pairs are gone the ingest
+ * generation is advanced, so cached query results are refreshed.
+ *
+ * Example usage:
+ *
+ * <pre>
+ * List&lt;DuplicateCluster&gt; clusters = new DuplicateDetector().detect(units);
+ * new Neo4jDuplicatesWriter(sessions, GraphWriterSettings.defaults(), generation).write(clusters);
+ * </pre>
+ */
+public class Neo4jDuplicatesWriter {
+
+  private static final String DELETE_STALE_DUPLICATES =
+    """
+    MATCH (:Method)-[d:DUPLICATES]->(:Method)
+    WHERE d.write IS NULL OR d.write <> $write
+    CALL { WITH d DELETE d } IN TRANSACTIONS OF $batchSize ROWS
+    """;
+
+  private static final String MERGE_DUPLICATES =
+    """
+    UNWIND $rows AS row
+    MATCH (a:Method {fullSignature: row.first})
+    MATCH (b:Method {fullSignature: row.second})
+    MERGE (a)-[d:DUPLICATES]->(b)
+    SET d.similarity = row.similarity, d.write = $write
+    """;
+
+  private final Neo4jSessions sessions;
+  private final GraphWriterSettings settings;
+  private final IngestGeneration generation;
+
+  public Neo4jDuplicatesWriter(
+    Neo4jSessions sessions,
+    GraphWriterSettings settings,
+    IngestGeneration generation
+  ) {
+    ModelValidator.validateNotNull(sessions, "Sessions");
+    ModelValidator.validateNotNull(settings, "Writer settings");
+    ModelValidator.validateNotNull(generation, "Ingest generation");
+    this.sessions = sessions;
+    this.settings = settings;
+    this.generation = generation;
+  }
+
+  /**
+   * Replaces the stored duplicates with those of the given clusters.
+   *
+   * @param clusters The clusters to store
+   */
+  public void write(List<DuplicateCluster> clusters) {
+    ModelValidator.validateNotNull(clusters, "Duplicate clusters");
+    List<Map<String, Object>> rows = clusters
+      .stream()
+      .flatMap(cluster -> cluster.duplicates().stream())
+      .map(Neo4jDuplicatesWriter::row)
+      .toList();
+    String write = UUID.randomUUID().toString();
+    for (int start = 0; start < rows.size(); start += settings.batchSize()) {
+      var batch = rows.subList(start, Math.min(rows.size(), start + settings.batchSize()));
+      try (Session session = sessions.write()) {
+        session.executeWrite(tx ->
+          tx.run(MERGE_DUPLICATES, Map.of("rows", batch, "write", write)).consume()
+        );
+      }
+    }
+    try (Session session = sessions.write()) {
+      // Batched deletes commit their own transactions, so they need an auto-commit one
+      session
+        .run(
+          DELETE_STALE_DUPLICATES,
+          Map.of("write", write, "batchSize", (long) settings.batchSize())
+        )
+        .consume();
+    }
+    generation.advance();
+  }
+
+  private static Map<String, Object> row(Duplicate duplicate) {
+    return Map.of(
+      "first",
+      duplicate.first(),
+      "second",
+      duplicate.second(),
+      "similarity",
+      duplicate.similarity()
+    );
+  }
+}
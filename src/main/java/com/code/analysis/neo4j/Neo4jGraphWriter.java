@@ -0,0 +1,481 @@
+package com.code.analysis.neo4j;
+
+import com.code.analysis.core.model.CodeUnit;
+import com.code.analysis.core.model.ModelValidator;
+import com.code.analysis.index.IndexChangeListener;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import org.neo4j.driver.Driver;
+import org.neo4j.driver.Session;
+import org.neo4j.driver.TransactionContext;
+
+/**
+ * Writes converted code units into the graph schema defined in
+ * {@code neo4j/scripts/schema.cypher}: one {@code File} per unit under a
+ * {@code Component}, with {@code Class} and {@code Method} nodes linked by
+ * {@code CONTAINS} relationships. Classes are linked to their supertypes by
+ * {@code EXTENDS} and {@code IMPLEMENTS} relationships, methods to the methods
+ * they call by {@code CALLS} relationships and to the classes whose fields
+ * they access by {@code USES} relationships carrying the field name; a target
+ * that has not been written yet is created by signature or name and filled in
+ * when its own file is written.
+ *
+ * Units are buffered and written in batches of UNWIND-driven, parameterized
+ * MERGE statements inside managed write transactions, so a batch costs a
+ * handful of round trips regardless of its size and transient failures are
+ * retried by the driver. Re-ingesting a unit is an idempotent upsert: classes
+ * and methods that no longer exist in the file are removed in the same
+ * transaction. Removing a class or method keeps the relationships other files
+ * point at it with, so their calls, uses and supertypes are found again once
+ * it is written back, and its node only goes once nothing points at it. Each
+ * transaction also updates the per-language counters that
+ * {@link Neo4jService#getCodeSummary()} reads, by the change it made to the
+ * counts of its files. Up to {@link GraphWriterSettings#maxInFlightTransactions()}
+ * batches are written concurrently on the supplied executor; when that limit
+ * is reached {@link #add(CodeUnit)} blocks, applying backpressure to the
+ * producer.
+ *
+ * The writer also acts as an {@link IndexChangeListener}, so it can apply the
+ * changes found by an incremental indexing run directly.
+ *
+ * Example usage:
+ *
+ * <pre>
+ * try (var writer = new Neo4jGraphWriter(driver, executor, "core", GraphWriterSettings.defaults())) {
+ *     indexer.index(sourceRoot, unit -> writer.add(unit));
+ * }
+ * </pre>
+ */
+public class Neo4jGraphWriter implements IndexChangeListener, AutoCloseable {
+
+  private static final String MERGE_FILES =
+    """
+    MERGE (component:Component {name: $component})
+    WITH component
+    UNWIND $files AS file
+    MERGE (f:File {path: file.path})
+    SET f += file.properties
+    MERGE (component)-[:CONTAINS]->(f)
+    """;
+
+  /**
+   * Removes the methods bound to {@code m} by the preceding clauses. A method
+   * that methods of other files still call is kept as the target of their
+   * {@code CALLS}, stripped of its properties and other relationships, just
+   * like a call target whose file has not been written yet.
+   */
+  private static final String REMOVE_METHODS =
+    """
+    WITH collect(DISTINCT m) AS removedMethods
+    CALL {
+      WITH removedMethods
+      UNWIND removedMethods AS m
+      MATCH (m)-[r]-()
+      WHERE NOT (type(r) = 'CALLS' AND endNode(r) = m AND startNode(r) <> m)
+      WITH DISTINCT r
+      DELETE r
+    }
+    UNWIND removedMethods AS m
+    SET m = {fullSignature: m.fullSignature}
+    WITH m
+    WHERE NOT EXISTS { (m)<-[:CALLS]-() }
+    DELETE m
+    """;
+
+  /**
+   * Removes the classes bound to {@code cls} by the preceding clauses that no
+   * file contains any more, together with their methods. A class that other
+   * classes extend or implement, or whose fields other methods use, is kept
+   * as the target of those relationships, like the methods still called.
+   */
+  private static final String REMOVE_CLASSES =
+    """
+    WITH collect(DISTINCT cls) AS candidates
+    WITH [cls IN candidates WHERE NOT EXISTS { (cls)<-[:CONTAINS]-(:File) }] AS removedClasses
+    CALL {
+      WITH removedClasses
+      UNWIND removedClasses AS cls
+      MATCH (cls)-[:CONTAINS]->(m:Method)
+    """ +
+    REMOVE_METHODS +
+    """
+    }
+    CALL {
+      WITH removedClasses
+      UNWIND removedClasses AS cls
+      MATCH (cls)-[r]-()
+      WHERE NOT (
+        type(r) IN ['EXTENDS', 'IMPLEMENTS', 'USES'] AND endNode(r) = cls AND startNode(r) <> cls
+      )
+      WITH DISTINCT r
+      DELETE r
+    }
+    UNWIND removedClasses AS cls
+    SET cls = {fullName: cls.fullName}
+    WITH cls
+    WHERE NOT EXISTS { (cls)<--() }
+    DELETE cls
+    """;
+
+  private static final String PRUNE_METHODS =
+    """
+    UNWIND $files AS file
+    MATCH (:File {path: file.path})-[:CONTAINS]->(:Class)-[:CONTAINS]->(m:Method)
+    WHERE NOT m.fullSignature IN file.methodSignatures
+    """ +
+    REMOVE_METHODS;
+
+  private static final String PRUNE_CLASSES =
+    """
+    UNWIND $files AS file
+    MATCH (:File {path: file.path})-[contains:CONTAINS]->(cls:Class)
+    WHERE NOT cls.fullName IN file.classNames
+    DELETE contains
+    """ +
+    REMOVE_CLASSES;
+
+  private static final String MERGE_CLASSES =
+    """
+    UNWIND $classes AS row
+    MATCH (f:File {path: row.filePath})
+    MERGE (cls:Class {fullName: row.fullName})
+    SET cls += row.properties
+    MERGE (f)-[:CONTAINS]->(cls)
+    """;
+
+  private static final String PRUNE_SUPERTYPES =
+    """
+    UNWIND $classes AS row
+    MATCH (:Class {fullName: row.fullName})-[r:EXTENDS|IMPLEMENTS]->()
+    DELETE r
+    """;
+
+  private static final String MERGE_SUPERTYPES =
+    """
+    UNWIND $classes AS row
+    MATCH (cls:Class {fullName: row.fullName})
+    CALL {
+      WITH cls, row
+      UNWIND row.extends AS name
+      MERGE (supertype:Class {fullName: name})
+      MERGE (cls)-[:EXTENDS]->(supertype)
+    }
+    CALL {
+      WITH cls, row
+      UNWIND row.implements AS name
+      MERGE (supertype:Class {fullName: name})
+      MERGE (cls)-[:IMPLEMENTS]->(supertype)
+    }
+    """;
+
+  private static final String MERGE_METHODS =
+    """
+    UNWIND $methods AS row
+    MATCH (cls:Class {fullName: row.declaringType})
+    MERGE (m:Method {fullSignature: row.fullSignature})
+    SET m += row.properties
+    MERGE (cls)-[:CONTAINS]->(m)
+    """;
+
+  private static final String PRUNE_REFERENCES =
+    """
+    UNWIND $methods AS row
+    MATCH (:Method {fullSignature: row.fullSignature})-[r:CALLS|USES]->()
+    DELETE r
+    """;
+
+  private static final String MERGE_CALLS =
+    """
+    UNWIND $methods AS row
+    MATCH (m:Method {fullSignature: row.fullSignature})
+    UNWIND row.calls AS call
+    MERGE (target:Method {fullSignature: call})
+    MERGE (m)-[:CALLS]->(target)
+    """;
+
+  private static final String MERGE_USES =
+    """
+    UNWIND $methods AS row
+    MATCH (m:Method {fullSignature: row.fullSignature})
+    UNWIND row.uses AS use
+    MERGE (cls:Class {fullName: use.type})
+    MERGE (m)-[:USES {field: use.field}]->(cls)
+    """;
+
+  private static final String DELETE_UNITS =
+    """
+    UNWIND $unitIds AS unitId
+    MATCH (f:File {unitId: unitId})
+    OPTIONAL MATCH (f)-[:CONTAINS]->(cls:Class)
+    WITH f, collect(cls) AS classes
+    DETACH DELETE f
+    WITH classes
+    UNWIND classes AS cls
+    """ +
+    REMOVE_CLASSES;
+
+  private final Neo4jSessions sessions;
+  private final Executor executor;
+  private final String component;
+  private final GraphWriterSettings settings;
+  private final Semaphore inFlight;
+  private final AtomicReference<Throwable> failure = new AtomicReference<>();
+  private final IngestGeneration generation;
+  private boolean changedSinceFlush;
+  private final Set<String> writtenUnitIds = new HashSet<>();
+  private final List<String> pendingDeletes = new ArrayList<>();
+  private GraphBatch batch = new GraphBatch();
+
+  public Neo4jGraphWriter(
+    Driver driver,
+    Executor executor,
+    String component,
+    GraphWriterSettings settings
+  ) {
+    this(driver, executor, component, settings, new IngestGeneration());
+  }
+
+  /**
+   * Creates a writer with sessions of its own. Services and loaders reading
+   * through other sessions are not chained to its bookmarks; use the
+   * constructor taking {@link Neo4jSessions} to share them.
+   *
+   * @param generation Advanced by every flush that wrote changes; share it with
+   *                   the services reading the same database so their caches
+   *                   are invalidated
+   */
+  public Neo4jGraphWriter(
+    Driver driver,
+    Executor executor,
+    String component,
+    GraphWriterSettings settings,
+    IngestGeneration generation
+  ) {
+    this(new Neo4jSessions(driver), executor, component, settings, generation);
+  }
+
+  /**
+   * @param sessions   Opens the write sessions; share it with the services
+   *                   reading the same database so they see the written changes
+   * @param generation Advanced by every flush that wrote changes
+   */
+  public Neo4jGraphWriter(
+    Neo4jSessions sessions,
+    Executor executor,
+    String component,
+    GraphWriterSettings settings,
+    IngestGeneration generation
+  ) {
+    ModelValidator.validateNotNull(sessions, "Sessions");
+    ModelValidator.validateNotNull(executor, "Executor");
+    ModelValidator.validateNotEmpty(component, "Component");
+    ModelValidator.validateNotNull(settings, "Writer settings");
+    ModelValidator.validateNotNull(generation, "Ingest generation");
+    this.sessions = sessions;
+    this.executor = executor;
+    this.component = component;
+    this.settings = settings;
+    this.generation = generation;
+    this.inFlight = new Semaphore(settings.maxInFlightTransactions());
+  }
+
+  /**
+   * Queues a unit for writing, sending the current batch once it is full.
+   * Blocks while the maximum number of transactions is in flight.
+   *
+   * @param unit The unit to upsert
+   * @throws IllegalStateException if an earlier batch failed to write
+   */
+  public synchronized void add(CodeUnit unit) {
+    ModelValidator.validateNotNull(unit, "Code unit");
+    rethrowFailure();
+    batch.add(unit);
+    changedSinceFlush = true;
+    writtenUnitIds.add(unit.id());
+    pendingDeletes.remove(unit.id());
+    if (batch.rowCount() >= settings.batchSize()) {
+      submit(batch);
+      batch = new GraphBatch();
+    }
+  }
+
+  /**
+   * Queues the removal of a unit and everything it contains for the next
+   * {@link #flush()}. Units written through this writer since the last flush
+   * are not removed by it, so a file that moved within the tree and kept its
+   * id survives the deletion of its old location, whichever of the two is
+   * reported first by the same indexing run.
+   *
+   * @param unitId The id of the unit to remove
+   */
+  public synchronized void delete(String unitId) {
+    ModelValidator.validateNotEmpty(unitId, "Unit id");
+    if (!writtenUnitIds.contains(unitId)) {
+      pendingDeletes.add(unitId);
+      changedSinceFlush = true;
+    }
+  }
+
+  @Override
+  public void onChanged(String relativePath, CodeUnit unit, Optional<String> previousUnitId) {
+    previousUnitId.filter(id -> !id.equals(unit.id())).ifPresent(this::delete);
+    add(unit);
+  }
+
+  @Override
+  public void onDeleted(String relativePath, String unitId) {
+    delete(unitId);
+  }
+
+  /**
+   * Writes all buffered units and deletions and waits for every in-flight
+   * transaction to finish.
+   *
+   * @throws IllegalStateException if any batch failed to write
+   */
+  public synchronized void flush() {
+    if (!batch.isEmpty()) {
+      submit(batch);
+      batch = new GraphBatch();
+    }
+    awaitInFlight();
+    if (!pendingDeletes.isEmpty()) {
+      var parameters = Map.<String, Object>of("unitIds", List.copyOf(pendingDeletes));
+      writeInTransaction(tx -> {
+        CodeSummary.ensureMaintained(tx);
+        var scope = CodeSummary.scope(
+          tx,
+          CodeSummary.FIND_UNIT_SCOPE,
+          parameters,
+          List.of(),
+          List.of()
+        );
+        var before = CodeSummary.count(tx, CodeSummary.COUNT_SCOPE, scope);
+        run(tx, DELETE_UNITS, parameters);
+        CodeSummary.add(tx, before, CodeSummary.count(tx, CodeSummary.COUNT_SCOPE, scope));
+      });
+      pendingDeletes.clear();
+    }
+    writtenUnitIds.clear();
+    rethrowFailure();
+    if (changedSinceFlush) {
+      changedSinceFlush = false;
+      generation.advance();
+    }
+  }
+
+  /**
+   * Flushes pending writes, then recounts the summary counters of the graph
+   * from scratch, e.g. after it was changed other than through a writer.
+   */
+  public synchronized void rebuildSummary() {
+    flush();
+    writeInTransaction(tx -> {
+      CodeSummary.reset(tx);
+      CodeSummary.ensureMaintained(tx);
+    });
+    generation.advance();
+  }
+
+  /**
+   * The ingest generation, advanced by every {@link #flush()} that wrote
+   * changes. Caches derived from the graph compare it to tell whether they
+   * are stale.
+   *
+   * @return the current generation
+   */
+  public long generation() {
+    return generation.current();
+  }
+
+  @Override
+  public void close() {
+    flush();
+  }
+
+  private void submit(GraphBatch pending) {
+    acquire(1);
+    try {
+      executor.execute(() -> writeBatch(pending));
+    } catch (RuntimeException e) {
+      inFlight.release();
+      throw e;
+    }
+  }
+
+  private void writeBatch(GraphBatch pending) {
+    try {
+      writeInTransaction(tx -> {
+        Map<String, Object> fileParams = Map.of("component", component, "files", pending.files());
+        CodeSummary.ensureMaintained(tx);
+        var scope = CodeSummary.scope(
+          tx,
+          CodeSummary.FIND_BATCH_SCOPE,
+          fileParams,
+          pending.paths(),
+          pending.typeNames()
+        );
+        var before = CodeSummary.count(tx, CodeSummary.COUNT_SCOPE, scope);
+        Map<String, Object> methodParams = Map.of("methods", pending.methods());
+        run(tx, MERGE_FILES, fileParams);
+        run(tx, PRUNE_REFERENCES, methodParams);
+        run(tx, PRUNE_METHODS, fileParams);
+        run(tx, PRUNE_CLASSES, fileParams);
+        Map<String, Object> classParams = Map.of("classes", pending.classes());
+        run(tx, MERGE_CLASSES, classParams);
+        run(tx, PRUNE_SUPERTYPES, classParams);
+        run(tx, MERGE_SUPERTYPES, classParams);
+        run(tx, MERGE_METHODS, methodParams);
+        run(tx, MERGE_CALLS, methodParams);
+        run(tx, MERGE_USES, methodParams);
+        CodeSummary.add(tx, before, CodeSummary.count(tx, CodeSummary.COUNT_SCOPE, scope));
+      });
+    } catch (Throwable t) {
+      failure.compareAndSet(null, t);
+    } finally {
+      inFlight.release();
+    }
+  }
+
+  private void writeInTransaction(Consumer<TransactionContext> work) {
+    try (Session session = sessions.write()) {
+      session.executeWrite(tx -> {
+        work.accept(tx);
+        return null;
+      });
+    }
+  }
+
+  private static void run(TransactionContext tx, String query, Map<String, Object> parameters) {
+    tx.run(query, parameters).consume();
+  }
+
+  private void awaitInFlight() {
+    acquire(settings.maxInFlightTransactions());
+    inFlight.release(settings.maxInFlightTransactions());
+  }
+
+  private void acquire(int permits) {
+    try {
+      inFlight.acquire(permits);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IllegalStateException("Interrupted while waiting for graph writes", e);
+    }
+  }
+
+  private void rethrowFailure() {
+    Throwable cause = failure.get();
+    if (cause != null) {
+      throw new IllegalStateException("Failed to write code units to Neo4j", cause);
+    }
+  }
+}
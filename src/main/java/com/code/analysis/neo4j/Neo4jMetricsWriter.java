@@ -0,0 +1,129 @@
+package com.code.analysis.neo4j;
+
+import com.code.analysis.core.model.ModelValidator;
+import com.code.analysis.metrics.ClassMetrics;
+import com.code.analysis.metrics.ComponentMetrics;
+import com.code.analysis.metrics.DependencyMetrics;
+import java.util.List;
+import java.util.Map;
+import org.neo4j.driver.Session;
+
+/**
+ * Stores the results of a
+ * {@link com.code.analysis.metrics.DependencyMetricsEngine} run on the
+ * {@code Class} and {@code Component} nodes written by
+ * {@link Neo4jGraphWriter}, including the {@code cohesion} and
+ * {@code coupling} of components that {@link Neo4jService} reports.
+ *
+ * Rows are sent in UNWIND-driven batches of
+ * {@link GraphWriterSettings#batchSize()}, one write transaction each. Types
+ * and components without a node are skipped. Once every batch is written the
+ * ingest generation is advanced, so cached query results are refreshed.
+ *
+ * Example usage:
+ *
+ * <pre>
+ * var metrics = new DependencyMetricsEngine(ForkJoinPool.commonPool()).compute(unitsByComponent);
+ * new Neo4jMetricsWriter(sessions, GraphWriterSettings.defaults(), generation).write(metrics);
+ * </pre>
+ */
+public class Neo4jMetricsWriter {
+
+  private static final String SET_CLASS_METRICS =
+    """
+    UNWIND $rows AS row
+    MATCH (c:Class {fullName: row.name})
+    SET c += row.metrics
+    """;
+
+  private static final String SET_COMPONENT_METRICS =
+    """
+    UNWIND $rows AS row
+    MATCH (c:Component {name: row.name})
+    SET c += row.metrics
+    """;
+
+  private final Neo4jSessions sessions;
+  private final GraphWriterSettings settings;
+  private final IngestGeneration generation;
+
+  public Neo4jMetricsWriter(
+    Neo4jSessions sessions,
+    GraphWriterSettings settings,
+    IngestGeneration generation
+  ) {
+    ModelValidator.validateNotNull(sessions, "Sessions");
+    ModelValidator.validateNotNull(settings, "Writer settings");
+    ModelValidator.validateNotNull(generation, "Ingest generation");
+    this.sessions = sessions;
+    this.settings = settings;
+    this.generation = generation;
+  }
+
+  /**
+   * Writes the metrics of every type and component.
+   *
+   * @param metrics The metrics to store
+   */
+  public void write(DependencyMetrics metrics) {
+    ModelValidator.validateNotNull(metrics, "Metrics");
+    writeInBatches(
+      SET_CLASS_METRICS,
+      metrics.classes().stream().map(Neo4jMetricsWriter::row).toList()
+    );
+    writeInBatches(
+      SET_COMPONENT_METRICS,
+      metrics.components().stream().map(Neo4jMetricsWriter::row).toList()
+    );
+    generation.advance();
+  }
+
+  private void writeInBatches(String query, List<Map<String, Object>> rows) {
+    for (int start = 0; start < rows.size(); start += settings.batchSize()) {
+      var batch = rows.subList(start, Math.min(rows.size(), start + settings.batchSize()));
+      try (Session session = sessions.write()) {
+        session.executeWrite(tx -> tx.run(query, Map.of("rows", batch)).consume());
+      }
+    }
+  }
+
+  private static Map<String, Object> row(ClassMetrics metrics) {
+    return Map.of(
+      "name",
+      metrics.name(),
+      "metrics",
+      Map.of(
+        "afferentCoupling",
+        metrics.afferentCoupling(),
+        "efferentCoupling",
+        metrics.efferentCoupling(),
+        "instability",
+        metrics.instability(),
+        "lcom",
+        metrics.lcom(),
+        "cohesion",
+        metrics.cohesion()
+      )
+    );
+  }
+
+  private static Map<String, Object> row(ComponentMetrics metrics) {
+    return Map.of(
+      "name",
+      metrics.name(),
+      "metrics",
+      Map.of(
+        "afferentCoupling",
+        metrics.afferentCoupling(),
+        "efferentCoupling",
+        metrics.efferentCoupling(),
+        "instability",
+        metrics.instability(),
+        "coupling",
+        metrics.coupling(),
+        "cohesion",
+        metrics.cohesion()
+      )
+    );
+  }
+}
@@ -1,9 +1,27 @@
 package com.code.analysis.neo4j;
 
+import com.code.analysis.core.model.ModelValidator;
+import com.code.analysis.metrics.Hotspot;
+import com.code.analysis.metrics.HotspotMetric;
+import com.code.analysis.metrics.HotspotQuery;
+import com.code.analysis.metrics.HotspotScope;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Flow;
+import java.util.function.Function;
+import java.util.function.Supplier;
 import org.neo4j.driver.*;
+import org.neo4j.driver.async.AsyncSession;
+import org.neo4j.driver.async.AsyncTransactionCallback;
+import org.neo4j.driver.async.AsyncTransactionContext;
+import org.neo4j.driver.async.ResultCursor;
+import org.neo4j.driver.reactive.ReactiveSession;
+import reactor.adapter.JdkFlowAdapter;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
 /**
  * Service class for interacting with a Neo4j graph database to analyze code
@@ -15,15 +33,24 @@ import org.neo4j.driver.*;
  * - Analyze relationships between code elements
  *
  * The service uses the Neo4j Java driver to execute Cypher queries and process
- * results.
- * All database operations are performed within a session scope to ensure proper
- * resource
- * management and transaction handling.
+ * results. Given the {@link IngestGeneration} its writers advance, it caches
+ * query results until the next ingest, so repeated questions about an
+ * unchanged graph are answered from memory.
+ *
+ * Every query is also available as a {@code CompletionStage} built on the
+ * driver's async session, so several can be run at once without holding a
+ * thread each, and the row-returning queries as {@code Flow.Publisher}
+ * streams built on its reactive session, which deliver rows as they arrive.
+ * All queries run in managed read transactions of sessions opened by
+ * {@link Neo4jSessions}, so in a cluster they are spread over the followers
+ * and retried on transient failures; sharing the sessions with the writers
+ * makes every query see their completed writes. The driver is not owned by
+ * the service, so one driver can be shared by several services.
  *
  * Example usage:
  *
  * <pre>
- * try (Neo4jService service = new Neo4jService(driver)) {
+ * try (Neo4jService service = new Neo4jService(sessions)) {
  *     if (service.verifyConnection()) {
  *         Map<String, Object> summary = service.getCodeSummary();
  *         List<Map<String, Object>> metrics = service.getComplexityMetrics();
@@ -33,10 +60,138 @@ import org.neo4j.driver.*;
  */
 public class Neo4jService implements AutoCloseable {
 
-  private final Driver driver;
+  /**
+   * Projection of a component {@code c}. The contents are counted by
+   * subqueries, which stream over them instead of collecting them.
+   */
+  private static final String COMPONENT_PROJECTION =
+    """
+    RETURN {
+        name: c.name,
+        cohesion: c.cohesion,
+        coupling: c.coupling,
+        fileCount: count { (c)-[:CONTAINS]->(:File) },
+        classCount: count {
+            MATCH (c)-[:CONTAINS]->(:File)-[:CONTAINS]->(cls:Class)
+            RETURN DISTINCT cls
+        }
+    } as component
+    """;
+
+  private static final String COMPONENT_DETAILS =
+    """
+    MATCH (c:Component)
+    """ +
+    COMPONENT_PROJECTION;
+
+  /**
+   * Keyset pagination over the unique component names: the page starts after
+   * the last name of the previous one, so no rows are skipped on the server
+   * however deep the page. One row more than the page size is read to tell
+   * whether another page follows.
+   */
+  private static final String COMPONENT_DETAILS_PAGE =
+    """
+    MATCH (c:Component)
+    WHERE c.name > $after
+    WITH c
+    ORDER BY c.name
+    LIMIT $limit
+    """ +
+    COMPONENT_PROJECTION +
+    """
+    ORDER BY component.name
+    """;
+
+  private static final String COMPLEXITY_METRICS =
+    """
+    MATCH (m:Method)
+    WHERE m.complexity > 0
+    RETURN {
+        method: m.fullSignature,
+        complexity: m.complexity
+    } as metrics
+    ORDER BY m.complexity DESC
+    LIMIT 10
+    """;
+
+  /**
+   * Hotspots of one scope, ranked by {@code value}. The {@code %s} in the
+   * scope's match is replaced by the value of the metric; in the whole code
+   * base ordering by an indexed property lets the planner read the top of
+   * its index instead of sorting every method. A method of a class declared
+   * in several files is reported once, under the file with the smallest path.
+   */
+  private static final String HOTSPOTS =
+    """
+    MATCH %s
+    WITH m, %s AS value
+    ORDER BY value DESC, m.fullSignature
+    LIMIT $limit
+    CALL {
+        WITH m
+        OPTIONAL MATCH (component:Component)-[:CONTAINS]->(file:File)
+            -[:CONTAINS]->(:Class)-[:CONTAINS]->(m)
+        RETURN file, component
+        ORDER BY file.path
+        LIMIT 1
+    }
+    RETURN m.fullSignature AS method, file.path AS file, component.name AS component, value
+    ORDER BY value DESC, method
+    """;
+
+  private static final String SCOPED_METHODS =
+    "%s-[:CONTAINS]->(:Class)-[:CONTAINS]->(m:Method) WHERE %s IS NOT NULL WITH DISTINCT m";
+
+  private final Neo4jSessions sessions;
+  private final QueryCache cache;
 
+  /**
+   * Creates a service that runs every query against the database, in sessions
+   * with the default settings. The service gets a bookmark manager of its own,
+   * so its reads do not wait for the writes of a {@link Neo4jGraphWriter}; use
+   * {@link #Neo4jService(Neo4jSessions)} with the writer's sessions for that.
+   */
   public Neo4jService(Driver driver) {
-    this.driver = driver;
+    this(new Neo4jSessions(driver));
+  }
+
+  /**
+   * Creates a service that runs every query against the database.
+   */
+  public Neo4jService(Neo4jSessions sessions) {
+    ModelValidator.validateNotNull(sessions, "Sessions");
+    this.sessions = sessions;
+    this.cache = null;
+  }
+
+  /**
+   * Creates a service that caches query results until the graph changes, in
+   * sessions with the default settings. Like {@link #Neo4jService(Driver)},
+   * its reads are not chained to the bookmarks of any writer.
+   */
+  public Neo4jService(Driver driver, IngestGeneration generation, QueryCacheSettings settings) {
+    this(new Neo4jSessions(driver), generation, settings);
+  }
+
+  /**
+   * Creates a service that caches query results until the graph changes.
+   *
+   * @param sessions   The sessions to query through
+   * @param generation The generation the {@link Neo4jGraphWriter}s of the
+   *                   database advance
+   * @param settings   Size limits of the cache
+   */
+  public Neo4jService(
+    Neo4jSessions sessions,
+    IngestGeneration generation,
+    QueryCacheSettings settings
+  ) {
+    ModelValidator.validateNotNull(sessions, "Sessions");
+    ModelValidator.validateNotNull(generation, "Ingest generation");
+    ModelValidator.validateNotNull(settings, "Cache settings");
+    this.sessions = sessions;
+    this.cache = new QueryCache(generation, settings);
   }
 
   /**
@@ -45,7 +200,7 @@ public class Neo4jService implements AutoCloseable {
    * @return true if the connection is successful, false otherwise
    */
   public boolean verifyConnection() {
-    try (Session session = driver.session()) {
+    try (Session session = sessions.read()) {
       session.run("RETURN 1");
       return true;
     } catch (Exception e) {
@@ -57,29 +212,29 @@ public class Neo4jService implements AutoCloseable {
    * Retrieves a summary of the codebase structure including counts of components,
    * files, classes, and methods.
    *
+   * The counts are read from counters maintained by {@link Neo4jGraphWriter},
+   * so the call takes the same time however large the graph is. A graph that
+   * has not been written to since the counters were introduced is counted
+   * instead.
+   *
    * @return A map containing counts of different code elements:
    *         - components: number of distinct components
    *         - files: number of source files
    *         - classes: number of classes
    *         - methods: number of methods
+   *         - languages: the files, classes and methods counts per language
    */
   public Map<String, Object> getCodeSummary() {
-    try (Session session = driver.session()) {
-      Result result = session.run(
-        """
-        MATCH (c:Component)
-        OPTIONAL MATCH (c)-[:CONTAINS]->(f:File)
-        OPTIONAL MATCH (f)-[:CONTAINS]->(cls:Class)
-        OPTIONAL MATCH (cls)-[:CONTAINS]->(m:Method)
-        RETURN
-            count(DISTINCT c) as components,
-            count(DISTINCT f) as files,
-            count(DISTINCT cls) as classes,
-            count(DISTINCT m) as methods
-        """
-      );
-      return result.list().get(0).asMap();
-    }
+    return cached(CodeSummary.READ, () ->
+      inReadTransaction(tx ->
+        CodeSummary.fromCounters(tx.run(CodeSummary.READ).list().get(0).asMap()).orElseGet(() ->
+          CodeSummary.summarize(
+            tx.run(CodeSummary.COUNT_COMPONENTS).single().get("components").asLong(),
+            tx.run(CodeSummary.COUNT_ALL_FILES).list(record -> record.asMap())
+          )
+        )
+      )
+    );
   }
 
   /**
@@ -92,28 +247,33 @@ public class Neo4jService implements AutoCloseable {
    * @return List of component details as maps
    */
   public List<Map<String, Object>> getComponentDetails() {
-    try (Session session = driver.session()) {
-      Result result = session.run(
-        """
-        MATCH (c:Component)
-        OPTIONAL MATCH (c)-[:CONTAINS]->(f:File)
-        OPTIONAL MATCH (f)-[:CONTAINS]->(cls:Class)
-        WITH c, collect(DISTINCT f) as files, collect(DISTINCT cls) as classes
-        RETURN {
-            name: c.name,
-            cohesion: c.cohesion,
-            coupling: c.coupling,
-            fileCount: size(files),
-            classCount: size(classes)
-        } as component
-        """
-      );
-      return result
-        .list()
-        .stream()
-        .map(record -> record.get("component").asMap())
-        .collect(Collectors.toList());
+    return cached(COMPONENT_DETAILS, () -> read(COMPONENT_DETAILS, result -> list(result, "component")));
+  }
+
+  /**
+   * Retrieves the details of a page of components, ordered by name. Unlike
+   * {@link #getComponentDetails()}, the memory and time a call takes are
+   * bounded by the page size, however many components there are.
+   *
+   * @param after    Name of the last component of the previous page, or null
+   *                 for the first page
+   * @param pageSize Maximum number of components to return
+   * @return The page, with the cursor of the next one if there are more
+   */
+  public ComponentPage getComponentDetailsPage(String after, int pageSize) {
+    if (pageSize <= 0) {
+      throw new IllegalArgumentException("Page size must be positive");
     }
+    Map<String, Object> parameters = Map.of(
+      "after",
+      after == null ? "" : after,
+      "limit",
+      pageSize + 1
+    );
+    List<Map<String, Object>> rows = cached(COMPONENT_DETAILS_PAGE, parameters, () ->
+      read(COMPONENT_DETAILS_PAGE, parameters, result -> list(result, "component"))
+    );
+    return ComponentPage.of(rows, pageSize);
   }
 
   /**
@@ -124,29 +284,243 @@ public class Neo4jService implements AutoCloseable {
    *         complexity score
    */
   public List<Map<String, Object>> getComplexityMetrics() {
-    try (Session session = driver.session()) {
-      Result result = session.run(
-        """
-        MATCH (m:Method)
-        WHERE m.complexity > 0
-        RETURN {
-            method: m.fullSignature,
-            complexity: m.complexity
-        } as metrics
-        ORDER BY m.complexity DESC
-        LIMIT 10
-        """
+    return cached(COMPLEXITY_METRICS, () -> read(COMPLEXITY_METRICS, result -> list(result, "metrics")));
+  }
+
+  /**
+   * Retrieves the methods ranking highest by a metric within a scope. Unlike
+   * {@link #getComplexityMetrics()}, the number of methods, the metric and
+   * the component, package or file they are taken from are chosen by the
+   * caller. Results are cached per query until the next ingest.
+   *
+   * @param query The number of methods, metric and scope
+   * @return The hotspots, highest first
+   */
+  public List<Hotspot> getHotspots(HotspotQuery query) {
+    ModelValidator.validateNotNull(query, "Hotspot query");
+    String cypher = hotspotsQuery(query.metric(), query.scope().kind());
+    Map<String, Object> parameters = Map.of("limit", query.limit(), "scope", query.scope().name());
+    return cached(cypher, parameters, () ->
+      read(cypher, parameters, result ->
+        result.list(row ->
+          new Hotspot(
+            row.get("method").asString(),
+            row.get("file").asString(null),
+            row.get("component").asString(null),
+            row.get("value").asLong()
+          )
+        )
+      )
+    );
+  }
+
+  private static String hotspotsQuery(HotspotMetric metric, HotspotScope.Kind scope) {
+    String value = switch (metric) {
+      case COMPLEXITY -> "m.complexity";
+      case LINE_COUNT -> "m.lineCount";
+      case FAN_IN -> "count { (:Method)-[:CALLS]->(m) }";
+    };
+    String methods = switch (scope) {
+      case ALL -> "(m:Method) WHERE %s IS NOT NULL".formatted(value);
+      case COMPONENT -> SCOPED_METHODS.formatted(
+        "(:Component {name: $scope})-[:CONTAINS]->(:File)",
+        value
       );
-      return result
-        .list()
-        .stream()
-        .map(record -> record.get("metrics").asMap())
-        .collect(Collectors.toList());
+      case PACKAGE -> SCOPED_METHODS.formatted("(:File {packageName: $scope})", value);
+      case FILE -> SCOPED_METHODS.formatted("(:File {path: $scope})", value);
+    };
+    return HOTSPOTS.formatted(methods, value);
+  }
+
+  /**
+   * Asynchronous variant of {@link #getCodeSummary()}, which does not block
+   * the calling thread.
+   *
+   * @return A stage completing with the summary
+   */
+  public CompletionStage<Map<String, Object>> getCodeSummaryAsync() {
+    return cachedAsync(CodeSummary.READ, () ->
+      inReadTransactionAsync(tx ->
+        tx
+          .runAsync(CodeSummary.READ)
+          .thenCompose(ResultCursor::singleAsync)
+          .thenCompose(row ->
+            CodeSummary.fromCounters(row.asMap())
+              .<CompletionStage<Map<String, Object>>>map(CompletableFuture::completedStage)
+              .orElseGet(() -> countSummaryAsync(tx))
+          )
+      )
+    );
+  }
+
+  /**
+   * Asynchronous variant of {@link #getComponentDetails()}.
+   *
+   * @return A stage completing with the component details
+   */
+  public CompletionStage<List<Map<String, Object>>> getComponentDetailsAsync() {
+    return cachedAsync(COMPONENT_DETAILS, () ->
+      readAsync(COMPONENT_DETAILS, cursor -> listAsync(cursor, "component"))
+    );
+  }
+
+  /**
+   * Asynchronous variant of {@link #getComplexityMetrics()}.
+   *
+   * @return A stage completing with the method complexity details
+   */
+  public CompletionStage<List<Map<String, Object>>> getComplexityMetricsAsync() {
+    return cachedAsync(COMPLEXITY_METRICS, () ->
+      readAsync(COMPLEXITY_METRICS, cursor -> listAsync(cursor, "metrics"))
+    );
+  }
+
+  /**
+   * Streams the component details as they arrive from the database. Nothing
+   * runs until a subscriber requests rows, the session is released when the
+   * stream completes, fails or is cancelled, and streamed rows bypass the
+   * result cache.
+   *
+   * @return A publisher of component details
+   */
+  public Flow.Publisher<Map<String, Object>> streamComponentDetails() {
+    return stream(COMPONENT_DETAILS, "component");
+  }
+
+  /**
+   * Streams the method complexity details as they arrive from the database,
+   * like {@link #streamComponentDetails()}.
+   *
+   * @return A publisher of method complexity details
+   */
+  public Flow.Publisher<Map<String, Object>> streamComplexityMetrics() {
+    return stream(COMPLEXITY_METRICS, "metrics");
+  }
+
+  /**
+   * @return statistics of the query result cache, or empty if caching is off
+   */
+  public Optional<QueryCacheStats> getCacheStats() {
+    return Optional.ofNullable(cache).map(QueryCache::stats);
+  }
+
+  private <T> T cached(String query, Supplier<T> loader) {
+    return cached(query, Map.of(), loader);
+  }
+
+  private <T> T cached(String query, Map<String, Object> parameters, Supplier<T> loader) {
+    return cache == null ? loader.get() : cache.get(query, parameters, loader);
+  }
+
+  private <T> CompletionStage<T> cachedAsync(String query, Supplier<CompletionStage<T>> loader) {
+    return cache == null ? loader.get() : cache.getAsync(query, Map.of(), loader);
+  }
+
+  /**
+   * Runs a query in a managed read transaction, reading its result before the
+   * transaction ends.
+   */
+  private <T> T read(String query, Function<Result, T> reader) {
+    return inReadTransaction(tx -> reader.apply(tx.run(query)));
+  }
+
+  private <T> T read(String query, Map<String, Object> parameters, Function<Result, T> reader) {
+    return inReadTransaction(tx -> reader.apply(tx.run(query, parameters)));
+  }
+
+  private <T> T inReadTransaction(TransactionCallback<T> work) {
+    try (Session session = sessions.read()) {
+      return session.executeRead(work, sessions.readTransactionConfig());
     }
   }
 
+  private static List<Map<String, Object>> list(Result result, String column) {
+    return result.list().stream().map(record -> record.get(column).asMap()).toList();
+  }
+
+  /**
+   * Runs a query in a managed read transaction of an async session, closing
+   * the session once the result has been read.
+   */
+  private <T> CompletionStage<T> readAsync(
+    String query,
+    Function<ResultCursor, CompletionStage<T>> reader
+  ) {
+    return inReadTransactionAsync(tx -> tx.runAsync(query).thenCompose(reader));
+  }
+
+  private <T> CompletionStage<T> inReadTransactionAsync(
+    AsyncTransactionCallback<CompletionStage<T>> work
+  ) {
+    AsyncSession session = sessions.readAsync();
+    return session
+      .executeReadAsync(work, sessions.readTransactionConfig())
+      .handle((value, error) ->
+        session
+          .closeAsync()
+          .thenCompose(closed ->
+            error == null
+              ? CompletableFuture.completedStage(value)
+              : CompletableFuture.<T>failedStage(error)
+          )
+      )
+      .thenCompose(Function.identity());
+  }
+
+  /**
+   * Counts the graph for the summary when the counters are not maintained.
+   */
+  private static CompletionStage<Map<String, Object>> countSummaryAsync(
+    AsyncTransactionContext tx
+  ) {
+    return tx
+      .runAsync(CodeSummary.COUNT_COMPONENTS)
+      .thenCompose(ResultCursor::singleAsync)
+      .thenCompose(components ->
+        tx
+          .runAsync(CodeSummary.COUNT_ALL_FILES)
+          .thenCompose(cursor -> cursor.listAsync(record -> record.asMap()))
+          .thenApply(languages ->
+            CodeSummary.summarize(components.get("components").asLong(), languages)
+          )
+      );
+  }
+
+  private static CompletionStage<List<Map<String, Object>>> listAsync(
+    ResultCursor cursor,
+    String column
+  ) {
+    return cursor.listAsync(record -> record.get(column).asMap()).thenApply(List::copyOf);
+  }
+
+  private Flow.Publisher<Map<String, Object>> stream(String query, String column) {
+    Flux<Map<String, Object>> rows = Flux.usingWhen(
+      Mono.fromSupplier(sessions::readReactive),
+      session ->
+        JdkFlowAdapter.flowPublisherToFlux(
+          session.executeRead(tx ->
+            JdkFlowAdapter.publisherToFlowPublisher(
+              JdkFlowAdapter
+                .flowPublisherToFlux(tx.run(query))
+                .concatMap(result -> JdkFlowAdapter.flowPublisherToFlux(result.records()))
+                .map(record -> record.get(column).asMap())
+            ),
+            sessions.readTransactionConfig()
+          )
+        ),
+      session -> JdkFlowAdapter.flowPublisherToFlux(session.close())
+    );
+    return JdkFlowAdapter.publisherToFlowPublisher(rows);
+  }
+
+  /**
+   * Drops the cached query results. The driver is left open for the other
+   * users sharing it.
+   */
   @Override
   public void close() {
-    driver.close();
+    if (cache != null) {
+      cache.clear();
+    }
   }
 }
@@ -0,0 +1,125 @@
+package com.code.analysis.neo4j;
+
+import com.code.analysis.core.model.ModelValidator;
+import java.util.Set;
+import org.neo4j.driver.AccessMode;
+import org.neo4j.driver.Bookmark;
+import org.neo4j.driver.BookmarkManager;
+import org.neo4j.driver.BookmarkManagerConfig;
+import org.neo4j.driver.BookmarkManagers;
+import org.neo4j.driver.Driver;
+import org.neo4j.driver.Session;
+import org.neo4j.driver.SessionConfig;
+import org.neo4j.driver.TransactionConfig;
+import org.neo4j.driver.async.AsyncSession;
+import org.neo4j.driver.reactive.ReactiveSession;
+
+/**
+ * Opens the sessions through which the writers and services of a database
+ * talk to it.
+ *
+ * Read sessions are opened in {@link AccessMode#READ} mode, so in a cluster
+ * their transactions are routed to followers and read replicas, and write
+ * sessions in {@link AccessMode#WRITE} mode, which are routed to the leader.
+ * All sessions share one bookmark manager: a read waits until the server it
+ * runs on has caught up with every write completed through the same instance,
+ * so a {@link Neo4jService} sharing it with a {@link Neo4jGraphWriter} always
+ * sees the writer's flushed changes. Readers in another process get the same
+ * guarantee by passing the writer's {@link #bookmarks()} as
+ * {@link SessionSettings#initialBookmarks()}. Writers, services and loaders
+ * created from a bare {@link Driver} open sessions of their own and are not
+ * chained this way.
+ *
+ * The driver is not owned: closing sessions leaves it open, and whoever created
+ * it closes it once every writer and service using it is done.
+ *
+ * Example usage:
+ *
+ * <pre>
+ * var sessions = new Neo4jSessions(driver, SessionSettings.builder().database("code").build());
+ * var writer = new Neo4jGraphWriter(sessions, executor, "core", GraphWriterSettings.defaults(), generation);
+ * var service = new Neo4jService(sessions, generation, QueryCacheSettings.defaults());
+ * </pre>
+ */
+public class Neo4jSessions {
+
+  private final Driver driver;
+  private final BookmarkManager bookmarkManager;
+  private final SessionConfig readConfig;
+  private final SessionConfig writeConfig;
+  private final TransactionConfig readTransactionConfig;
+
+  public Neo4jSessions(Driver driver) {
+    this(driver, SessionSettings.defaults());
+  }
+
+  public Neo4jSessions(Driver driver, SessionSettings settings) {
+    ModelValidator.validateNotNull(driver, "Driver");
+    ModelValidator.validateNotNull(settings, "Session settings");
+    this.driver = driver;
+    this.bookmarkManager = BookmarkManagers.defaultManager(
+      BookmarkManagerConfig.builder().withInitialBookmarks(settings.initialBookmarks()).build()
+    );
+    this.readConfig = sessionConfig(AccessMode.READ, settings);
+    this.writeConfig = sessionConfig(AccessMode.WRITE, settings);
+    this.readTransactionConfig = settings.readTimeout() == null
+      ? TransactionConfig.empty()
+      : TransactionConfig.builder().withTimeout(settings.readTimeout()).build();
+  }
+
+  /**
+   * @return a new session for reading
+   */
+  public Session read() {
+    return driver.session(readConfig);
+  }
+
+  /**
+   * @return a new async session for reading
+   */
+  public AsyncSession readAsync() {
+    return driver.session(AsyncSession.class, readConfig);
+  }
+
+  /**
+   * @return a new reactive session for reading
+   */
+  public ReactiveSession readReactive() {
+    return driver.session(ReactiveSession.class, readConfig);
+  }
+
+  /**
+   * @return a new session for writing
+   */
+  public Session write() {
+    return driver.session(writeConfig);
+  }
+
+  /**
+   * @return the configuration to run read transactions with
+   */
+  public TransactionConfig readTransactionConfig() {
+    return readTransactionConfig;
+  }
+
+  /**
+   * @return the bookmarks of the writes completed through these sessions, to
+   *         hand to readers in other processes
+   */
+  public Set<Bookmark> bookmarks() {
+    return bookmarkManager.getBookmarks();
+  }
+
+  private SessionConfig sessionConfig(AccessMode mode, SessionSettings settings) {
+    var builder = SessionConfig.builder()
+      .withDefaultAccessMode(mode)
+      .withBookmarkManager(bookmarkManager);
+    if (settings.database() != null) {
+      builder.withDatabase(settings.database());
+    }
+    if (settings.fetchSize() > 0) {
+      builder.withFetchSize(settings.fetchSize());
+    }
+    return builder.build();
+  }
+}
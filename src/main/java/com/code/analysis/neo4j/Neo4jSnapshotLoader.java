@@ -0,0 +1,118 @@
+package com.code.analysis.neo4j;
+
+import com.code.analysis.core.model.ModelValidator;
+import com.code.analysis.graph.GraphSnapshot;
+import com.code.analysis.graph.GraphSnapshot.EdgeType;
+import com.code.analysis.graph.GraphSnapshot.Label;
+import org.neo4j.driver.Driver;
+import org.neo4j.driver.Record;
+import org.neo4j.driver.Result;
+import org.neo4j.driver.Session;
+import org.neo4j.driver.TransactionContext;
+
+/**
+ * Exports the structure of the code graph from Neo4j into a
+ * {@link GraphSnapshot}: {@code Component}, {@code File}, {@code Class} and
+ * {@code Method} nodes with their {@code CONTAINS}, {@code EXTENDS},
+ * {@code IMPLEMENTS} and {@code CALLS} relationships. Nodes and relationships
+ * are read in one read transaction, so the snapshot reflects a single state
+ * of the graph and the read timeout of the sessions applies. Results are
+ * streamed into the snapshot builder, so only the snapshot itself is held in
+ * memory.
+ *
+ * Example usage:
+ *
+ * <pre>
+ * var loader = new Neo4jSnapshotLoader(driver);
+ * var snapshots = new RefreshingSnapshot(writer::generation, loader::load);
+ * </pre>
+ */
+public class Neo4jSnapshotLoader {
+
+  private static final String LABEL =
+    """
+    CASE WHEN %1$s:Component THEN 'COMPONENT' WHEN %1$s:File THEN 'FILE' \
+    WHEN %1$s:Class THEN 'CLASS' ELSE 'METHOD' END""";
+
+  private static final String KEY =
+    """
+    CASE WHEN %1$s:Component THEN %1$s.name WHEN %1$s:File THEN %1$s.path \
+    WHEN %1$s:Class THEN %1$s.fullName ELSE %1$s.fullSignature END""";
+
+  private static final String NODES =
+    """
+    MATCH (n)
+    WHERE n:Component OR n:File OR n:Class OR n:Method
+    RETURN %s AS label, %s AS key
+    """.formatted(LABEL.formatted("n"), KEY.formatted("n"));
+
+  private static final String RELATIONSHIPS =
+    """
+    MATCH (a)-[r:CONTAINS|EXTENDS|IMPLEMENTS|CALLS]->(b)
+    WHERE (a:Component OR a:File OR a:Class OR a:Method)
+      AND (b:Component OR b:File OR b:Class OR b:Method)
+    RETURN %s AS fromLabel, %s AS fromKey, type(r) AS type, %s AS toLabel, %s AS toKey
+    """.formatted(LABEL.formatted("a"), KEY.formatted("a"), LABEL.formatted("b"), KEY.formatted("b"));
+
+  private final Neo4jSessions sessions;
+
+  /**
+   * Creates a loader reading in sessions with the default settings and a
+   * bookmark manager of their own, so it may not see writes that have not
+   * reached the server it reads from yet. Pass the writer's
+   * {@link Neo4jSessions} instead to load a snapshot including them.
+   */
+  public Neo4jSnapshotLoader(Driver driver) {
+    this(new Neo4jSessions(driver));
+  }
+
+  /**
+   * @param sessions Opens the read sessions; share them with the writers of
+   *                 the database to load a snapshot including their changes
+   */
+  public Neo4jSnapshotLoader(Neo4jSessions sessions) {
+    ModelValidator.validateNotNull(sessions, "Sessions");
+    this.sessions = sessions;
+  }
+
+  /**
+   * Reads the current graph into a new snapshot. Nodes without a key are
+   * skipped.
+   *
+   * @return the snapshot
+   */
+  public GraphSnapshot load() {
+    try (Session session = sessions.read()) {
+      return session.executeRead(Neo4jSnapshotLoader::load, sessions.readTransactionConfig());
+    }
+  }
+
+  private static GraphSnapshot load(TransactionContext tx) {
+    // A retried transaction starts over with a new builder
+    var builder = GraphSnapshot.builder();
+    Result nodes = tx.run(NODES);
+    nodes.forEachRemaining(record -> {
+      if (!record.get("key").isNull()) {
+        builder.node(Label.valueOf(record.get("label").asString()), record.get("key").asString());
+      }
+    });
+    Result relationships = tx.run(RELATIONSHIPS);
+    relationships.forEachRemaining(record -> addRelationship(builder, record));
+    return builder.build();
+  }
+
+  private static void addRelationship(GraphSnapshot.Builder builder, Record record) {
+    if (record.get("fromKey").isNull() || record.get("toKey").isNull()) {
+      return;
+    }
+    int from = builder.node(
+      Label.valueOf(record.get("fromLabel").asString()),
+      record.get("fromKey").asString()
+    );
+    int to = builder.node(
+      Label.valueOf(record.get("toLabel").asString()),
+      record.get("toKey").asString()
+    );
+    builder.edge(EdgeType.valueOf(record.get("type").asString()), from, to);
+  }
+}
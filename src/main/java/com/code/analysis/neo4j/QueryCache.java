@@ -0,0 +1,198 @@
+package com.code.analysis.neo4j;
+
+import java.lang.reflect.RecordComponent;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Supplier;
+
+/**
+ * Bounded, size-aware cache of query results for {@link Neo4jService}, keyed
+ * by query text and parameters.
+ *
+ * Results are only valid for the ingest generation they were read at: the
+ * first lookup after the generation advances clears the cache, and a result
+ * whose query overlapped a generation change is not stored. Each result is
+ * weighed by an estimate of the memory its strings, numbers, lists, maps and
+ * records occupy; the least recently used results are evicted to keep the total and
+ * the number of entries within the configured limits. Cached results are
+ * shared between callers, so they must be immutable.
+ */
+class QueryCache {
+
+  private static final long ENTRY_OVERHEAD = 64;
+  private static final long OBJECT_OVERHEAD = 16;
+  private static final long REFERENCE = 8;
+
+  private final IngestGeneration generation;
+  private final QueryCacheSettings settings;
+  private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+  private long cachedGeneration;
+  private long bytes;
+  private long hits;
+  private long misses;
+  private long evictions;
+  private long invalidations;
+
+  QueryCache(IngestGeneration generation, QueryCacheSettings settings) {
+    this.generation = generation;
+    this.settings = settings;
+    this.cachedGeneration = generation.current();
+  }
+
+  /**
+   * @return the cached result of the query, or the result of the loader,
+   *         which is cached if it is small enough
+   */
+  <T> T get(String query, Map<String, Object> parameters, Supplier<T> loader) {
+    var key = new Key(query, parameters);
+    long readAt = generation.current();
+    Entry entry = lookup(key, readAt);
+    if (entry != null) {
+      return cast(entry);
+    }
+    T value = loader.get();
+    offer(key, readAt, value);
+    return value;
+  }
+
+  /**
+   * Like {@link #get}, for a loader that completes asynchronously; the result
+   * is cached once the loader completes successfully.
+   */
+  <T> CompletionStage<T> getAsync(
+    String query,
+    Map<String, Object> parameters,
+    Supplier<CompletionStage<T>> loader
+  ) {
+    var key = new Key(query, parameters);
+    long readAt = generation.current();
+    Entry entry = lookup(key, readAt);
+    if (entry != null) {
+      return CompletableFuture.completedStage(cast(entry));
+    }
+    return loader
+      .get()
+      .thenApply(value -> {
+        offer(key, readAt, value);
+        return value;
+      });
+  }
+
+  synchronized QueryCacheStats stats() {
+    return new QueryCacheStats(hits, misses, evictions, invalidations, entries.size(), bytes);
+  }
+
+  synchronized void clear() {
+    entries.clear();
+    bytes = 0;
+  }
+
+  private synchronized Entry lookup(Key key, long readAt) {
+    invalidateIfStale(readAt);
+    Entry entry = entries.get(key);
+    if (entry != null) {
+      hits++;
+    } else {
+      misses++;
+    }
+    return entry;
+  }
+
+  private void offer(Key key, long readAt, Object value) {
+    long weight = ENTRY_OVERHEAD + weigh(key.query()) + weigh(key.parameters()) + weigh(value);
+    synchronized (this) {
+      if (generation.current() == readAt && readAt == cachedGeneration) {
+        store(key, new Entry(value, weight));
+      }
+    }
+  }
+
+  private void invalidateIfStale(long current) {
+    if (current != cachedGeneration) {
+      if (!entries.isEmpty()) {
+        invalidations++;
+      }
+      clear();
+      cachedGeneration = current;
+    }
+  }
+
+  private void store(Key key, Entry entry) {
+    if (entry.weight() > settings.maxBytes()) {
+      return;
+    }
+    Entry previous = entries.put(key, entry);
+    if (previous != null) {
+      bytes -= previous.weight();
+    }
+    bytes += entry.weight();
+    Iterator<Entry> eldest = entries.values().iterator();
+    while (bytes > settings.maxBytes() || entries.size() > settings.maxEntries()) {
+      bytes -= eldest.next().weight();
+      eldest.remove();
+      evictions++;
+    }
+  }
+
+  /**
+   * Estimates the memory held by a result on a 64-bit JVM.
+   */
+  private static long weigh(Object value) {
+    if (value == null) {
+      return 0;
+    }
+    if (value instanceof String text) {
+      return 2 * OBJECT_OVERHEAD + text.length();
+    }
+    if (value instanceof Map<?, ?> map) {
+      long weight = OBJECT_OVERHEAD + map.size() * 2 * REFERENCE;
+      for (Map.Entry<?, ?> entry : map.entrySet()) {
+        weight += OBJECT_OVERHEAD + weigh(entry.getKey()) + weigh(entry.getValue());
+      }
+      return weight;
+    }
+    if (value instanceof List<?> list) {
+      long weight = OBJECT_OVERHEAD + list.size() * REFERENCE;
+      for (Object element : list) {
+        weight += weigh(element);
+      }
+      return weight;
+    }
+    if (value instanceof Record record) {
+      return weighRecord(record);
+    }
+    return OBJECT_OVERHEAD + REFERENCE;
+  }
+
+  /**
+   * Weighs a record, such as a {@code Hotspot}, by its components: primitive
+   * components are stored inline, the others are weighed like any value.
+   */
+  private static long weighRecord(Record record) {
+    long weight = OBJECT_OVERHEAD;
+    for (RecordComponent component : record.getClass().getRecordComponents()) {
+      weight += REFERENCE;
+      if (!component.getType().isPrimitive()) {
+        try {
+          weight += weigh(component.getAccessor().invoke(record));
+        } catch (ReflectiveOperationException e) {
+          weight += OBJECT_OVERHEAD;
+        }
+      }
+    }
+    return weight;
+  }
+
+  private record Key(String query, Map<String, Object> parameters) {}
+
+  @SuppressWarnings("unchecked")
+  private static <T> T cast(Entry entry) {
+    return (T) entry.value();
+  }
+
+  private record Entry(Object value, long weight) {}
+}
@@ -0,0 +1,25 @@
+package com.code.analysis.neo4j;
+
+import lombok.Builder;
+
+/**
+ * Tuning knobs for the query result cache of {@link Neo4jService}.
+ *
+ * @param maxBytes   estimated memory the cached results may occupy; the least
+ *                   recently used results are evicted beyond it
+ * @param maxEntries maximum number of cached results
+ */
+@Builder
+public record QueryCacheSettings(long maxBytes, int maxEntries) {
+  private static final long DEFAULT_MAX_BYTES = 32L * 1024 * 1024;
+  private static final int DEFAULT_MAX_ENTRIES = 1_000;
+
+  public QueryCacheSettings {
+    maxBytes = maxBytes > 0 ? maxBytes : DEFAULT_MAX_BYTES;
+    maxEntries = maxEntries > 0 ? maxEntries : DEFAULT_MAX_ENTRIES;
+  }
+
+  public static QueryCacheSettings defaults() {
+    return QueryCacheSettings.builder().build();
+  }
+}
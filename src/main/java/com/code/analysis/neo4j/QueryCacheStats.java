@@ -0,0 +1,30 @@
+package com.code.analysis.neo4j;
+
+/**
+ * Point-in-time statistics of the query result cache of {@link Neo4jService}.
+ *
+ * @param hits          lookups answered from the cache
+ * @param misses        lookups that ran the query
+ * @param evictions     results dropped to stay within the size limits
+ * @param invalidations times the cache was cleared because a new ingest
+ *                      generation landed
+ * @param entries       results currently cached
+ * @param bytes         estimated memory held by the cached results
+ */
+public record QueryCacheStats(
+  long hits,
+  long misses,
+  long evictions,
+  long invalidations,
+  int entries,
+  long bytes
+) {
+  /**
+   * @return the fraction of lookups answered from the cache, or 0 if there
+   *         were none
+   */
+  public double hitRate() {
+    long lookups = hits + misses;
+    return lookups == 0 ? 0 : (double) hits / lookups;
+  }
+}
@@ -0,0 +1,35 @@
+package com.code.analysis.neo4j;
+
+import java.time.Duration;
+import java.util.Set;
+import lombok.Builder;
+import org.neo4j.driver.Bookmark;
+
+/**
+ * Tuning knobs for the sessions {@link Neo4jSessions} opens.
+ *
+ * @param database         name of the database to use; the server's default
+ *                         database if not set
+ * @param fetchSize        number of records pulled from the server at a time;
+ *                         the driver's default if not positive
+ * @param readTimeout      timeout of read transactions; the server's
+ *                         configured timeout if not set
+ * @param initialBookmarks bookmarks the first transactions wait for, such as
+ *                         {@link Neo4jSessions#bookmarks()} of a writer in
+ *                         another process; none if not set
+ */
+@Builder
+public record SessionSettings(
+  String database,
+  long fetchSize,
+  Duration readTimeout,
+  Set<Bookmark> initialBookmarks
+) {
+  public SessionSettings {
+    initialBookmarks = initialBookmarks == null ? Set.of() : Set.copyOf(initialBookmarks);
+  }
+
+  public static SessionSettings defaults() {
+    return SessionSettings.builder().build();
+  }
+}
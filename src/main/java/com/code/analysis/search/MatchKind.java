@@ -0,0 +1,23 @@
+package com.code.analysis.search;
+
+/**
+ * How a symbol matched a search, from the strongest match to the weakest.
+ * Results are ranked in this order.
+ */
+public enum MatchKind {
+  /** The name equals the query, ignoring case. */
+  EXACT,
+  /** The name starts with the query, ignoring case. */
+  PREFIX,
+  /**
+   * Each hump of the query starts the corresponding hump of the name, as
+   * {@code NPE} or {@code NulPoEx} match {@code NullPointerException}.
+   */
+  CAMEL_CASE,
+  /** The name contains the query, ignoring case. */
+  SUBSTRING,
+  /** The qualified name or signature contains the query, ignoring case. */
+  QUALIFIED_NAME,
+  /** The documentation description contains the query, ignoring case. */
+  DOCUMENTATION,
+}
@@ -0,0 +1,102 @@
+package com.code.analysis.search;
+
+import com.code.analysis.core.model.Definition;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.function.LongConsumer;
+
+/**
+ * What is stored and indexed of a definition. A record in the index file is
+ * its five fields in order, each a length followed by UTF-8 bytes.
+ */
+record Symbol(String name, String qualifiedName, String kind, String file, String documentation) {
+  static final int NAME = 0;
+  static final int QUALIFIED_NAME = 1;
+  static final int DOCUMENTATION = 4;
+
+  static Symbol of(Definition definition, String file) {
+    Map<String, Object> metadata = definition.metadata();
+    String qualifiedName;
+    if (metadata.get("signature") instanceof String signature) {
+      qualifiedName = signature;
+    } else if (metadata.get("qualifiedName") instanceof String name) {
+      qualifiedName = name;
+    } else if (metadata.get("declaringType") instanceof String type) {
+      qualifiedName = type + "." + definition.name();
+    } else {
+      qualifiedName = definition.name();
+    }
+    String documentation = definition.documentation() == null ||
+      definition.documentation().description() == null
+      ? ""
+      : definition.documentation().description();
+    return new Symbol(
+      definition.name(),
+      qualifiedName,
+      definition.kind().name(),
+      file,
+      documentation
+    );
+  }
+
+  /**
+   * Reads the record starting at an absolute offset, without moving the
+   * buffer's position.
+   */
+  static Symbol decode(ByteBuffer buffer, int offset) {
+    String[] fields = new String[5];
+    int position = offset;
+    for (int i = 0; i < fields.length; i++) {
+      byte[] bytes = new byte[buffer.getInt(position)];
+      buffer.get(position + Integer.BYTES, bytes);
+      fields[i] = new String(bytes, StandardCharsets.UTF_8);
+      position += Integer.BYTES + bytes.length;
+    }
+    return new Symbol(fields[0], fields[1], fields[2], fields[3], fields[4]);
+  }
+
+  /**
+   * Reads a single field of the record starting at an absolute offset,
+   * skipping the fields before it without decoding them.
+   */
+  static String decodeField(ByteBuffer buffer, int offset, int field) {
+    int position = offset;
+    for (int i = 0; i < field; i++) {
+      position += Integer.BYTES + buffer.getInt(position);
+    }
+    byte[] bytes = new byte[buffer.getInt(position)];
+    buffer.get(position + Integer.BYTES, bytes);
+    return new String(bytes, StandardCharsets.UTF_8);
+  }
+
+  byte[] encode() {
+    byte[][] fields = {
+      name.getBytes(StandardCharsets.UTF_8),
+      qualifiedName.getBytes(StandardCharsets.UTF_8),
+      kind.getBytes(StandardCharsets.UTF_8),
+      file.getBytes(StandardCharsets.UTF_8),
+      documentation.getBytes(StandardCharsets.UTF_8),
+    };
+    int length = 0;
+    for (byte[] field : fields) {
+      length += Integer.BYTES + field.length;
+    }
+    ByteBuffer record = ByteBuffer.allocate(length);
+    for (byte[] field : fields) {
+      record.putInt(field.length).put(field);
+    }
+    return record.array();
+  }
+
+  void forEachKey(LongConsumer keys) {
+    Trigrams.forEach(Trigrams.NAME, Trigrams.lower(qualifiedName), keys);
+    Trigrams.forEachAnchored(Trigrams.NAME, Trigrams.lower(name), keys);
+    Trigrams.forEachAnchored(Trigrams.HUMPS, Trigrams.initials(Trigrams.humps(name)), keys);
+    Trigrams.forEach(Trigrams.DOCUMENTATION, Trigrams.lower(documentation), keys);
+  }
+
+  SymbolMatch toMatch(MatchKind match) {
+    return new SymbolMatch(name, qualifiedName, kind, file, match);
+  }
+}
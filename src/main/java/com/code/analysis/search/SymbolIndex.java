@@ -0,0 +1,367 @@
+package com.code.analysis.search;
+
+import com.code.analysis.core.model.ModelValidator;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+
+/**
+ * Searches definitions by partial name, qualified name or documentation text,
+ * through the trigram index written by {@link SymbolIndexWriter}.
+ *
+ * The index file is memory-mapped read-only and nothing is loaded up front: a
+ * search binary-searches the sorted trigram dictionary for the trigrams of
+ * the query, intersects their posting lists starting from the shortest, and
+ * decodes only the one field of each remaining symbol needed to confirm the
+ * match. Matches are ranked on what that yields and the symbol number, which
+ * follows the order of qualified names, and only the symbols returned are
+ * decoded in full. A query is matched
+ * <ul>
+ * <li>as a prefix of names, through the anchored trigrams of names, when it is
+ *     shorter than three characters;</li>
+ * <li>as a substring of names and qualified names, and of documentation
+ *     descriptions, when it is longer;</li>
+ * <li>by camel-case humps, through the initials of the humps of names, when it
+ *     has two or more humps: {@code NPE}, {@code NulPoEx} and
+ *     {@code getCN} are hump queries.</li>
+ * </ul>
+ * Results are ranked by {@link MatchKind}, then by the length of what
+ * matched, shortest first. All
+ * matching is case-insensitive. Searches may run concurrently.
+ *
+ * Example usage:
+ *
+ * <pre>
+ * try (var symbols = SymbolIndex.open(indexDir.resolve("symbols.idx"))) {
+ *     List&lt;SymbolMatch&gt; matches = symbols.search("NPE", 20);
+ * }
+ * </pre>
+ */
+public class SymbolIndex implements AutoCloseable {
+
+  private static final Comparator<Candidate> RANKING = Comparator
+    .comparing(Candidate::match)
+    .thenComparingInt(Candidate::matchedLength)
+    .thenComparingInt(Candidate::number);
+
+  private final FileChannel channel;
+  private final int symbolCount;
+  private final int keyCount;
+  private final int keysOffset;
+  private final int startsOffset;
+  private final int postingsOffset;
+  private final int unitsOffset;
+  private volatile MappedByteBuffer mapped;
+
+  private SymbolIndex(FileChannel channel, MappedByteBuffer mapped) {
+    this.channel = channel;
+    this.mapped = mapped;
+    this.symbolCount = mapped.getInt(2 * Integer.BYTES);
+    this.keyCount = mapped.getInt(3 * Integer.BYTES);
+    this.keysOffset = SymbolIndexWriter.HEADER_SIZE + Integer.BYTES * symbolCount;
+    this.startsOffset = keysOffset + Long.BYTES * keyCount;
+    this.postingsOffset = startsOffset + Integer.BYTES * (keyCount + 1);
+    this.unitsOffset = mapped.getInt(4 * Integer.BYTES);
+  }
+
+  /**
+   * Opens an index file.
+   *
+   * @param file The index file
+   * @return The opened index
+   * @throws IOException if the file cannot be read or is not a symbol index
+   */
+  public static SymbolIndex open(Path file) throws IOException {
+    ModelValidator.validateNotNull(file, "Index file");
+    FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+    try {
+      long size = channel.size();
+      if (size < SymbolIndexWriter.HEADER_SIZE || size > Integer.MAX_VALUE) {
+        throw new IOException("Not a symbol index: " + file);
+      }
+      MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+      if (
+        mapped.getInt(0) != SymbolIndexWriter.MAGIC ||
+        mapped.getInt(Integer.BYTES) != SymbolIndexWriter.VERSION
+      ) {
+        throw new IOException("Not a symbol index, or an unsupported version: " + file);
+      }
+      return new SymbolIndex(channel, mapped);
+    } catch (IOException | RuntimeException e) {
+      channel.close();
+      throw e;
+    }
+  }
+
+  /**
+   * @return the number of indexed symbols
+   */
+  public int size() {
+    return symbolCount;
+  }
+
+  /**
+   * Finds the symbols matching a query, best matches first.
+   *
+   * @param query Part of a name, qualified name or documentation description,
+   *              or camel-case humps of a name
+   * @param limit Maximum number of matches to return
+   * @return The matches
+   */
+  public List<SymbolMatch> search(String query, int limit) {
+    ModelValidator.validateNotEmpty(query, "Query");
+    if (limit <= 0) {
+      throw new IllegalArgumentException("Limit must be positive");
+    }
+    MappedByteBuffer buffer = mapped;
+    if (buffer == null) {
+      throw new IllegalStateException("Symbol index is closed");
+    }
+    String text = query.strip();
+    String lower = Trigrams.lower(text);
+    Map<Integer, Candidate> candidates = new HashMap<>();
+    Consumer<Candidate> keepBest = candidate ->
+      candidates.merge(candidate.number(), candidate, (current, found) ->
+        RANKING.compare(found, current) < 0 ? found : current
+      );
+
+    if (lower.length() < 3) {
+      int[] prefixed = lookup(buffer, keys -> Trigrams.forEachAnchored(Trigrams.NAME, lower, keys));
+      for (int number : prefixed) {
+        String name = field(buffer, number, Symbol.NAME);
+        if (Trigrams.lower(name).startsWith(lower)) {
+          keepBest.accept(new Candidate(number, nameMatch(name, lower), name.length()));
+        }
+      }
+    } else {
+      int[] named = lookup(buffer, keys -> Trigrams.forEach(Trigrams.NAME, lower, keys));
+      for (int number : named) {
+        String name = field(buffer, number, Symbol.NAME);
+        if (Trigrams.lower(name).contains(lower)) {
+          keepBest.accept(new Candidate(number, nameMatch(name, lower), name.length()));
+          continue;
+        }
+        String qualifiedName = field(buffer, number, Symbol.QUALIFIED_NAME);
+        if (Trigrams.lower(qualifiedName).contains(lower)) {
+          keepBest.accept(
+            new Candidate(number, MatchKind.QUALIFIED_NAME, qualifiedName.length())
+          );
+        }
+      }
+      int[] documented = lookup(buffer, keys ->
+        Trigrams.forEach(Trigrams.DOCUMENTATION, lower, keys)
+      );
+      for (int number : documented) {
+        String documentation = field(buffer, number, Symbol.DOCUMENTATION);
+        if (Trigrams.lower(documentation).contains(lower)) {
+          keepBest.accept(
+            new Candidate(number, MatchKind.DOCUMENTATION, documentation.length())
+          );
+        }
+      }
+    }
+
+    List<String> humps = Trigrams.queryHumps(text);
+    if (humps.size() > 1) {
+      String initials = Trigrams.initials(humps);
+      int[] humped = lookup(buffer, keys ->
+        Trigrams.forEachAnchored(Trigrams.HUMPS, initials, keys)
+      );
+      for (int number : humped) {
+        String name = field(buffer, number, Symbol.NAME);
+        if (matchesHumps(humps, Trigrams.humps(name))) {
+          keepBest.accept(new Candidate(number, MatchKind.CAMEL_CASE, name.length()));
+        }
+      }
+    }
+
+    List<SymbolMatch> matches = new ArrayList<>(Math.min(limit, candidates.size()));
+    for (Candidate candidate : best(candidates.values(), limit)) {
+      matches.add(symbol(buffer, candidate.number()).toMatch(candidate.match()));
+    }
+    return matches;
+  }
+
+  /**
+   * Reads the symbols of every unit, in the order they were added to the
+   * writer.
+   */
+  Map<String, List<Symbol>> symbolsByUnit() {
+    MappedByteBuffer buffer = mapped;
+    if (buffer == null) {
+      throw new IllegalStateException("Symbol index is closed");
+    }
+    Map<String, List<Symbol>> units = new LinkedHashMap<>();
+    int position = unitsOffset;
+    int unitCount = buffer.getInt(position);
+    position += Integer.BYTES;
+    for (int u = 0; u < unitCount; u++) {
+      byte[] id = new byte[buffer.getInt(position)];
+      buffer.get(position + Integer.BYTES, id);
+      position += Integer.BYTES + id.length;
+      int count = buffer.getInt(position);
+      position += Integer.BYTES;
+      List<Symbol> symbols = new ArrayList<>(count);
+      for (int i = 0; i < count; i++) {
+        symbols.add(symbol(buffer, buffer.getInt(position)));
+        position += Integer.BYTES;
+      }
+      units.put(new String(id, StandardCharsets.UTF_8), symbols);
+    }
+    return units;
+  }
+
+  @Override
+  public synchronized void close() throws IOException {
+    mapped = null;
+    channel.close();
+  }
+
+  private static MatchKind nameMatch(String name, String lower) {
+    String lowerName = Trigrams.lower(name);
+    if (lowerName.equals(lower)) {
+      return MatchKind.EXACT;
+    }
+    return lowerName.startsWith(lower) ? MatchKind.PREFIX : MatchKind.SUBSTRING;
+  }
+
+  /**
+   * @return true if each query hump starts the name hump at the same position
+   */
+  private static boolean matchesHumps(List<String> query, List<String> name) {
+    if (query.size() > name.size()) {
+      return false;
+    }
+    for (int i = 0; i < query.size(); i++) {
+      if (!name.get(i).startsWith(query.get(i))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * @return the symbols listed under every key, ascending
+   */
+  private int[] lookup(MappedByteBuffer buffer, Consumer<LongConsumer> keys) {
+    List<int[]> ranges = new ArrayList<>();
+    boolean[] missing = { false };
+    keys.accept(key -> {
+      int slot = find(buffer, key);
+      if (slot < 0) {
+        missing[0] = true;
+      } else {
+        int start = buffer.getInt(startsOffset + Integer.BYTES * slot);
+        int end = buffer.getInt(startsOffset + Integer.BYTES * (slot + 1));
+        ranges.add(new int[] { start, end });
+      }
+    });
+    if (missing[0] || ranges.isEmpty()) {
+      return new int[0];
+    }
+    ranges.sort(Comparator.comparingInt(range -> range[1] - range[0]));
+    int[] shortest = ranges.get(0);
+    int[] result = new int[shortest[1] - shortest[0]];
+    int count = 0;
+    for (int i = shortest[0]; i < shortest[1]; i++) {
+      int number = posting(buffer, i);
+      boolean inAll = true;
+      for (int r = 1; r < ranges.size() && inAll; r++) {
+        inAll = contains(buffer, ranges.get(r), number);
+      }
+      if (inAll) {
+        result[count++] = number;
+      }
+    }
+    return Arrays.copyOf(result, count);
+  }
+
+  private int find(MappedByteBuffer buffer, long key) {
+    int low = 0;
+    int high = keyCount - 1;
+    while (low <= high) {
+      int middle = (low + high) >>> 1;
+      long current = buffer.getLong(keysOffset + Long.BYTES * middle);
+      if (current < key) {
+        low = middle + 1;
+      } else if (current > key) {
+        high = middle - 1;
+      } else {
+        return middle;
+      }
+    }
+    return -1;
+  }
+
+  private boolean contains(MappedByteBuffer buffer, int[] range, int number) {
+    int low = range[0];
+    int high = range[1] - 1;
+    while (low <= high) {
+      int middle = (low + high) >>> 1;
+      int current = posting(buffer, middle);
+      if (current < number) {
+        low = middle + 1;
+      } else if (current > number) {
+        high = middle - 1;
+      } else {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  private int posting(MappedByteBuffer buffer, int index) {
+    return buffer.getInt(postingsOffset + Integer.BYTES * index);
+  }
+
+  private Symbol symbol(MappedByteBuffer buffer, int number) {
+    return Symbol.decode(buffer, recordOffset(buffer, number));
+  }
+
+  private String field(MappedByteBuffer buffer, int number, int field) {
+    return Symbol.decodeField(buffer, recordOffset(buffer, number), field);
+  }
+
+  private static int recordOffset(MappedByteBuffer buffer, int number) {
+    return buffer.getInt(SymbolIndexWriter.HEADER_SIZE + Integer.BYTES * number);
+  }
+
+  /**
+   * @return the best candidates in ranking order, selected without sorting
+   *         all of them
+   */
+  private static List<Candidate> best(Collection<Candidate> candidates, int limit) {
+    PriorityQueue<Candidate> worstFirst = new PriorityQueue<>(RANKING.reversed());
+    for (Candidate candidate : candidates) {
+      if (worstFirst.size() < limit) {
+        worstFirst.add(candidate);
+      } else if (RANKING.compare(candidate, worstFirst.peek()) < 0) {
+        worstFirst.poll();
+        worstFirst.add(candidate);
+      }
+    }
+    List<Candidate> best = new ArrayList<>(worstFirst);
+    best.sort(RANKING);
+    return best;
+  }
+
+  /**
+   * @param matchedLength The length of what matched; a shorter one is a closer
+   *                      match
+   */
+  private record Candidate(int number, MatchKind match, int matchedLength) {}
+}
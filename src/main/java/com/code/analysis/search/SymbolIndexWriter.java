@@ -0,0 +1,291 @@
+package com.code.analysis.search;
+
+import com.code.analysis.core.model.CodeUnit;
+import com.code.analysis.core.model.Definition;
+import com.code.analysis.core.model.ModelValidator;
+import com.code.analysis.index.IndexChangeListener;
+import com.code.analysis.index.IndexSink;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+
+/**
+ * Collects the definitions of converted units during ingest and writes them
+ * as a trigram index that {@link SymbolIndex} opens.
+ *
+ * Every definition becomes a symbol, indexed by the trigrams of its name and
+ * qualified name, the initials of the humps of its name, and the trigrams of
+ * its documentation description. Symbols are kept per unit, so an
+ * incremental run can replace or drop the symbols of changed files through
+ * {@link #listener()} before the index is written again. The listener only
+ * knows about the files of the run, so the writer must already hold every
+ * other symbol: either it collected a full run through {@link #sink()}, or it
+ * was seeded from the index written last time with {@link #load(Path)}.
+ *
+ * The file holds a sorted dictionary of trigram keys, the posting list of
+ * symbol numbers of each key, the symbols themselves, numbered in order of
+ * qualified name, and the symbol numbers of each unit; see
+ * {@link SymbolIndex} for how it is read. It is written to a temporary file
+ * and moved into place, so an index being searched is never seen half
+ * written.
+ *
+ * Example usage:
+ *
+ * <pre>
+ * var symbols = new SymbolIndexWriter();
+ * indexer.index(sourceRoot, path -&gt; true, symbols.sink());
+ * symbols.write(indexDir.resolve("symbols.idx"));
+ *
+ * // Later, in another process
+ * var symbols = SymbolIndexWriter.load(indexDir.resolve("symbols.idx"));
+ * incrementalIndexer.index(sourceRoot, manifest, symbols.listener());
+ * symbols.write(indexDir.resolve("symbols.idx"));
+ * </pre>
+ */
+public class SymbolIndexWriter {
+
+  static final int MAGIC = 0x434D5358; // "CMSX"
+  static final int VERSION = 2;
+  static final int HEADER_SIZE = 5 * Integer.BYTES;
+
+  private static final Comparator<Symbol> NUMBERING = Comparator
+    .comparing(Symbol::qualifiedName)
+    .thenComparing(Symbol::name)
+    .thenComparing(Symbol::file);
+
+  private final Map<String, List<Symbol>> symbolsByUnit = new LinkedHashMap<>();
+  private boolean complete;
+
+  /**
+   * Creates a writer holding the symbols of an existing index, so that an
+   * incremental run in a new process only replaces those of changed files.
+   *
+   * @param file The index file; if it does not exist the writer starts empty
+   * @return The seeded writer
+   * @throws IOException if the file cannot be read or is not a symbol index of
+   *                     the current version, in which case a full run is needed
+   */
+  public static SymbolIndexWriter load(Path file) throws IOException {
+    ModelValidator.validateNotNull(file, "Index file");
+    var writer = new SymbolIndexWriter();
+    if (Files.exists(file)) {
+      try (var index = SymbolIndex.open(file)) {
+        writer.symbolsByUnit.putAll(index.symbolsByUnit());
+      }
+    }
+    writer.complete = true;
+    return writer;
+  }
+
+  /**
+   * @return a sink adding every unit an indexer converts
+   */
+  public synchronized IndexSink sink() {
+    complete = true;
+    return (file, unit) -> add(unit);
+  }
+
+  /**
+   * @return a listener applying the changes of an incremental indexing run
+   * @throws IllegalStateException if the writer neither collects a full run
+   *                               nor was loaded from an existing index, since
+   *                               writing it would drop unchanged files
+   */
+  public synchronized IndexChangeListener listener() {
+    if (!complete) {
+      throw new IllegalStateException(
+        "Load the existing index or collect a full run before applying changes"
+      );
+    }
+    return new IndexChangeListener() {
+      @Override
+      public void onChanged(String relativePath, CodeUnit unit, Optional<String> previousUnitId) {
+        previousUnitId.ifPresent(SymbolIndexWriter.this::remove);
+        add(unit);
+      }
+
+      @Override
+      public void onDeleted(String relativePath, String unitId) {
+        remove(unitId);
+      }
+    };
+  }
+
+  /**
+   * Adds the definitions of a unit, replacing those of an earlier version of
+   * it.
+   *
+   * @param unit The unit
+   */
+  public synchronized void add(CodeUnit unit) {
+    ModelValidator.validateNotNull(unit, "Code unit");
+    String file = (String) unit.metadata().getOrDefault("path", unit.name());
+    List<Symbol> symbols = new ArrayList<>(unit.definitions().size());
+    for (Definition definition : unit.definitions()) {
+      symbols.add(Symbol.of(definition, file));
+    }
+    symbolsByUnit.put(unit.id(), symbols);
+  }
+
+  /**
+   * Drops the definitions of a unit.
+   *
+   * @param unitId The id of the unit
+   */
+  public synchronized void remove(String unitId) {
+    symbolsByUnit.remove(unitId);
+  }
+
+  /**
+   * @return the number of symbols collected
+   */
+  public synchronized int size() {
+    return symbolsByUnit.values().stream().mapToInt(List::size).sum();
+  }
+
+  /**
+   * Writes the index of every collected symbol, replacing the file if it
+   * exists.
+   *
+   * @param file The index file
+   * @throws IOException if the file cannot be written
+   */
+  public synchronized void write(Path file) throws IOException {
+    ModelValidator.validateNotNull(file, "Index file");
+    List<Symbol> symbols = symbolsByUnit
+      .values()
+      .stream()
+      .flatMap(List::stream)
+      .sorted(NUMBERING)
+      .toList();
+    Map<Symbol, Postings> numbers = new HashMap<>();
+    Map<Long, Postings> postings = new TreeMap<>();
+    List<byte[]> records = new ArrayList<>(symbols.size());
+    for (int number = 0; number < symbols.size(); number++) {
+      Symbol symbol = symbols.get(number);
+      int symbolNumber = number;
+      numbers.computeIfAbsent(symbol, k -> new Postings()).add(symbolNumber);
+      symbol.forEachKey(key ->
+        postings.computeIfAbsent(key, k -> new Postings()).add(symbolNumber)
+      );
+      records.add(symbol.encode());
+    }
+    List<byte[]> units = new ArrayList<>(symbolsByUnit.size());
+    Map<Symbol, Integer> taken = new HashMap<>();
+    symbolsByUnit.forEach((unitId, unitSymbols) ->
+      units.add(encodeUnit(unitId, unitSymbols, numbers, taken))
+    );
+
+    long postingCount = postings.values().stream().mapToLong(list -> list.size).sum();
+    long recordsOffset =
+      HEADER_SIZE +
+      (long) Integer.BYTES * symbols.size() +
+      (long) Long.BYTES * postings.size() +
+      (long) Integer.BYTES * (postings.size() + 1) +
+      Integer.BYTES * postingCount;
+    long unitsOffset = recordsOffset + records.stream().mapToLong(record -> record.length).sum();
+    long size =
+      unitsOffset + Integer.BYTES + units.stream().mapToLong(unit -> unit.length).sum();
+    if (size > Integer.MAX_VALUE) {
+      throw new IllegalStateException("Symbol index would exceed 2 GB: " + file);
+    }
+
+    Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+    try (
+      var out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))
+    ) {
+      out.writeInt(MAGIC);
+      out.writeInt(VERSION);
+      out.writeInt(symbols.size());
+      out.writeInt(postings.size());
+      out.writeInt((int) unitsOffset);
+      long offset = recordsOffset;
+      for (byte[] record : records) {
+        out.writeInt((int) offset);
+        offset += record.length;
+      }
+      for (long key : postings.keySet()) {
+        out.writeLong(key);
+      }
+      int start = 0;
+      for (Postings list : postings.values()) {
+        out.writeInt(start);
+        start += list.size;
+      }
+      out.writeInt(start);
+      for (Postings list : postings.values()) {
+        for (int i = 0; i < list.size; i++) {
+          out.writeInt(list.numbers[i]);
+        }
+      }
+      for (byte[] record : records) {
+        out.write(record);
+      }
+      out.writeInt(units.size());
+      for (byte[] unit : units) {
+        out.write(unit);
+      }
+    }
+    Files.move(
+      temporary,
+      file,
+      StandardCopyOption.REPLACE_EXISTING,
+      StandardCopyOption.ATOMIC_MOVE
+    );
+  }
+
+  /**
+   * Encodes the id of a unit followed by the numbers of its symbols. Equal
+   * symbols, such as overloads without a signature, share a list of numbers
+   * and take them in turn.
+   */
+  private static byte[] encodeUnit(
+    String unitId,
+    List<Symbol> symbols,
+    Map<Symbol, Postings> numbers,
+    Map<Symbol, Integer> taken
+  ) {
+    byte[] id = unitId.getBytes(StandardCharsets.UTF_8);
+    ByteBuffer unit = ByteBuffer.allocate(Integer.BYTES * (2 + symbols.size()) + id.length);
+    unit.putInt(id.length).put(id).putInt(symbols.size());
+    for (Symbol symbol : symbols) {
+      int next = taken.merge(symbol, 1, Integer::sum) - 1;
+      unit.putInt(numbers.get(symbol).numbers[next]);
+    }
+    return unit.array();
+  }
+
+  /**
+   * Growable, ascending list of symbol numbers. Numbers are added in order,
+   * so a symbol with a trigram occurring several times is listed once.
+   */
+  private static final class Postings {
+
+    private int[] numbers = new int[4];
+    private int size;
+
+    void add(int number) {
+      if (size > 0 && numbers[size - 1] == number) {
+        return;
+      }
+      if (size == numbers.length) {
+        numbers = Arrays.copyOf(numbers, size * 2);
+      }
+      numbers[size++] = number;
+    }
+  }
+}
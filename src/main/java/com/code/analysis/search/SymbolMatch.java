@@ -0,0 +1,20 @@
+package com.code.analysis.search;
+
+/**
+ * A definition found by a {@link SymbolIndex} search.
+ *
+ * @param name          simple name of the definition
+ * @param qualifiedName fully qualified name of a type or field, or full
+ *                      signature of a method
+ * @param kind          name of the definition's
+ *                      {@link com.code.analysis.core.model.DefinitionKind}
+ * @param file          path of the file declaring it
+ * @param match         how the definition matched
+ */
+public record SymbolMatch(
+  String name,
+  String qualifiedName,
+  String kind,
+  String file,
+  MatchKind match
+) {}
@@ -0,0 +1,124 @@
+package com.code.analysis.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.LongConsumer;
+
+/**
+ * Trigram keys shared by {@link SymbolIndexWriter} and {@link SymbolIndex}.
+ *
+ * A key packs the field a trigram was taken from into its top bits and the
+ * three lowercased characters into the low 48, so the keys of every field
+ * sort into one dictionary. Anchored trigrams are taken from the text with
+ * two {@link #ANCHOR} characters in front, so its first one or two
+ * characters form a trigram of their own and prefixes of any length can be
+ * looked up.
+ */
+final class Trigrams {
+
+  /** Trigrams of lowercased qualified names, and anchored ones of names. */
+  static final int NAME = 0;
+
+  /** Anchored trigrams of the initials of the humps of names. */
+  static final int HUMPS = 1;
+
+  /** Trigrams of lowercased documentation descriptions. */
+  static final int DOCUMENTATION = 2;
+
+  private static final char ANCHOR = '\u0002';
+
+  private Trigrams() {
+    // Prevent instantiation
+  }
+
+  static void forEach(int field, String text, LongConsumer keys) {
+    for (int i = 0; i + 3 <= text.length(); i++) {
+      keys.accept(key(field, text.charAt(i), text.charAt(i + 1), text.charAt(i + 2)));
+    }
+  }
+
+  static void forEachAnchored(int field, String text, LongConsumer keys) {
+    forEach(field, "" + ANCHOR + ANCHOR + text, keys);
+  }
+
+  static String lower(String text) {
+    return text.toLowerCase(Locale.ROOT);
+  }
+
+  /**
+   * Splits an identifier into its humps: a new hump starts at an uppercase
+   * letter following a lowercase letter or digit, at the last uppercase
+   * letter of a run followed by a lowercase one, and after an underscore or
+   * dollar sign, so {@code XMLHttpRequest_v2} has the humps {@code xml},
+   * {@code http}, {@code request} and {@code v2}.
+   *
+   * @return the lowercased humps
+   */
+  static List<String> humps(String identifier) {
+    List<String> humps = new ArrayList<>();
+    int start = 0;
+    for (int i = 0; i <= identifier.length(); i++) {
+      boolean boundary =
+        i == identifier.length() ||
+        identifier.charAt(i) == '_' ||
+        identifier.charAt(i) == '$' ||
+        (i > start && startsHump(identifier, i));
+      if (!boundary) {
+        continue;
+      }
+      if (i > start) {
+        humps.add(lower(identifier.substring(start, i)));
+      }
+      start = i < identifier.length() && !Character.isUpperCase(identifier.charAt(i)) ? i + 1 : i;
+    }
+    return humps;
+  }
+
+  /**
+   * Splits a query into humps at every uppercase letter, so each capital
+   * starts a hump of its own: {@code NPE} has the humps {@code n}, {@code p}
+   * and {@code e}, and {@code getCN} has {@code get}, {@code c} and
+   * {@code n}.
+   *
+   * @return the lowercased humps
+   */
+  static List<String> queryHumps(String query) {
+    List<String> humps = new ArrayList<>();
+    int start = 0;
+    for (int i = 1; i <= query.length(); i++) {
+      if (i == query.length() || Character.isUpperCase(query.charAt(i))) {
+        humps.add(lower(query.substring(start, i)));
+        start = i;
+      }
+    }
+    return humps;
+  }
+
+  static String initials(List<String> humps) {
+    var initials = new StringBuilder(humps.size());
+    humps.forEach(hump -> initials.append(hump.charAt(0)));
+    return initials.toString();
+  }
+
+  private static boolean startsHump(String identifier, int i) {
+    char current = identifier.charAt(i);
+    char previous = identifier.charAt(i - 1);
+    if (!Character.isUpperCase(current)) {
+      return false;
+    }
+    return (
+      !Character.isUpperCase(previous) ||
+      (i + 1 < identifier.length() && Character.isLowerCase(identifier.charAt(i + 1)))
+    );
+  }
+
+  private static long key(int field, char first, char second, char third) {
+    return (
+      ((long) field << 48) |
+      ((long) Character.toLowerCase(first) << 32) |
+      ((long) Character.toLowerCase(second) << 16) |
+      Character.toLowerCase(third)
+    );
+  }
+}
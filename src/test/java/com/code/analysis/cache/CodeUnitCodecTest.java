@@ -0,0 +1,141 @@
+package com.code.analysis.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.code.analysis.core.model.CodeUnit;
+import com.code.analysis.core.model.Definition;
+import com.code.analysis.core.model.DefinitionKind;
+import com.code.analysis.core.model.IntArrayList;
+import com.code.analysis.core.model.Position;
+import com.code.analysis.core.model.Scope;
+import com.code.analysis.core.model.ScopeLevel;
+import com.code.analysis.core.model.UnitType;
+import com.code.analysis.java.JavaAnalyzer;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class CodeUnitCodecTest {
+
+  @TempDir
+  Path tempDir;
+
+  @Test
+  void shouldRoundTripAnalyzedUnit() throws IOException {
+    // Given
+    var path = tempDir.resolve("Example.java");
+    Files.writeString(
+      path,
+      """
+      package com.example;
+
+      import java.util.List;
+
+      /**
+       * Example class.
+       * @author someone
+       */
+      public class Example implements Runnable {
+          /**
+           * Runs the example.
+           * @param times how often
+           */
+          public static int run(int times, List<String> names) {
+              return times;
+          }
+
+          public void run() {}
+      }
+      """
+    );
+    CodeUnit unit = new JavaAnalyzer().parseFile(path);
+
+    // When
+    CodeUnit decoded = CodeUnitCodec.decode(ByteBuffer.wrap(CodeUnitCodec.encode(unit)));
+
+    // Then
+    assertThat(decoded).isEqualTo(unit);
+  }
+
+  @Test
+  void shouldRoundTripScopesAndTypedMetadata() {
+    // Given
+    var scope = Scope.builder()
+      .level(ScopeLevel.TYPE)
+      .start(new Position(1, 0, 0))
+      .end(new Position(-1, 4, 20))
+      .children(List.of(Scope.builder().level(ScopeLevel.BLOCK).build()))
+      .build();
+    var definition = Definition.builder()
+      .name("value")
+      .kind(DefinitionKind.VARIABLE)
+      .scope(scope)
+      .metadata(
+        Map.of(
+          "count", 42,
+          "total", 1L << 40,
+          "ratio", 0.25,
+          "nested", Map.of("flags", List.of(true, false)),
+          "hashes", IntArrayList.of(-1, 0, Integer.MAX_VALUE)
+        )
+      )
+      .build();
+    var unit = CodeUnit.builder()
+      .id("unit")
+      .name("Example.java")
+      .type(UnitType.FILE)
+      .definitions(List.of(definition))
+      .build();
+
+    // When
+    CodeUnit decoded = CodeUnitCodec.decode(ByteBuffer.wrap(CodeUnitCodec.encode(unit)));
+
+    // Then
+    assertThat(decoded).isEqualTo(unit);
+    assertThat(decoded.definitions().get(0).metadata().get("hashes"))
+      .isInstanceOf(IntArrayList.class);
+  }
+
+  @Test
+  void shouldStoreRepeatedStringsOnce() {
+    // Given
+    String longName = "com.example.SomeRatherLongQualifiedTypeName";
+    var definitions = IntStream.range(0, 50)
+      .mapToObj(i ->
+        Definition.builder()
+          .name("m" + i)
+          .kind(DefinitionKind.FUNCTION)
+          .metadata(Map.of("declaringType", longName))
+          .build()
+      )
+      .toList();
+    var unit = CodeUnit.builder().name("Example.java").definitions(definitions).build();
+
+    // When
+    byte[] encoded = CodeUnitCodec.encode(unit);
+
+    // Then
+    assertThat(encoded.length).isLessThan(definitions.size() * longName.length() / 2);
+  }
+
+  @Test
+  void shouldRejectUnsupportedMetadata() {
+    // Given
+    var unit = CodeUnit.builder()
+      .name("Example.java")
+      .metadata(Map.of("path", Path.of("x")))
+      .build();
+
+    // When / Then
+    assertThatThrownBy(() -> CodeUnitCodec.encode(unit))
+      .isInstanceOf(IllegalArgumentException.class)
+      .hasMessageContaining("Unsupported metadata value type");
+  }
+}
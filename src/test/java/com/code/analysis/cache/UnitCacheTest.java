@@ -0,0 +1,205 @@
+package com.code.analysis.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.code.analysis.core.AnalysisLevel;
+import com.code.analysis.core.CodeAnalyzer;
+import com.code.analysis.core.model.CodeUnit;
+import com.code.analysis.core.model.UnitType;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class UnitCacheTest {
+
+  @TempDir
+  Path tempDir;
+
+  @Test
+  void shouldReloadUnitsAfterReopening() throws IOException {
+    // Given
+    Path segment = tempDir.resolve("units.seg");
+    try (var cache = UnitCache.open(segment)) {
+      cache.put("hash-a", unit("A.java"));
+      cache.put("hash-b", unit("B.java"));
+    }
+
+    // When
+    try (var cache = UnitCache.open(segment)) {
+      // Then
+      assertThat(cache.size()).isEqualTo(2);
+      assertThat(cache.get("hash-a")).contains(unit("A.java"));
+      assertThat(cache.get("hash-b")).contains(unit("B.java"));
+      assertThat(cache.get("hash-c")).isEmpty();
+    }
+  }
+
+  @Test
+  void shouldReadUnitsAppendedAfterOpening() throws IOException {
+    try (var cache = UnitCache.open(tempDir.resolve("units.seg"))) {
+      // Given
+      cache.put("hash-a", unit("A.java"));
+      assertThat(cache.get("hash-a")).isPresent();
+
+      // When
+      cache.put("hash-b", unit("B.java"));
+
+      // Then
+      assertThat(cache.get("hash-b")).contains(unit("B.java"));
+    }
+  }
+
+  @Test
+  void shouldDropPartiallyWrittenEntry() throws IOException {
+    // Given
+    Path segment = tempDir.resolve("units.seg");
+    try (var cache = UnitCache.open(segment)) {
+      cache.put("hash-a", unit("A.java"));
+    }
+    long completeSize = Files.size(segment);
+    Files.write(segment, new byte[] { 0, 0, 0, 6, 'h', 'a' }, StandardOpenOption.APPEND);
+
+    // When
+    try (var cache = UnitCache.open(segment)) {
+      // Then
+      assertThat(cache.get("hash-a")).contains(unit("A.java"));
+      assertThat(Files.size(segment)).isEqualTo(completeSize);
+    }
+  }
+
+  @Test
+  void shouldServeRepeatedContentFromCache() throws IOException {
+    // Given
+    Path file = tempDir.resolve("Example.java");
+    Files.writeString(file, "public class Example {}");
+    CodeAnalyzer delegate = mock(CodeAnalyzer.class);
+    when(delegate.parseFile(any())).thenReturn(unit("Example.java"));
+
+    try (var cache = UnitCache.open(tempDir.resolve("units.seg"))) {
+      var analyzer = new CachedAnalyzer(delegate, cache, AnalysisLevel.SYNTAX_ONLY);
+
+      // When
+      CodeUnit first = analyzer.parseFile(file);
+      CodeUnit second = analyzer.parseFile(file);
+
+      // Then
+      assertThat(second).isEqualTo(first);
+      verify(delegate, times(1)).parseFile(file);
+    }
+  }
+
+  @Test
+  void shouldRollOverWhenFull() throws IOException {
+    // Given: a segment with room for a few entries
+    Path segment = tempDir.resolve("units.seg");
+    long entrySize;
+    try (var cache = UnitCache.open(segment)) {
+      cache.put("hash-0", unit("A0.java"));
+      entrySize = Files.size(segment) - 8;
+    }
+    try (var cache = UnitCache.open(segment, 8 + 3 * entrySize)) {
+      cache.put("hash-1", unit("A1.java"));
+      cache.put("hash-2", unit("A2.java"));
+      assertThat(cache.size()).isEqualTo(3);
+
+      // When
+      cache.put("hash-3", unit("A3.java"));
+
+      // Then
+      assertThat(cache.size()).isEqualTo(1);
+      assertThat(cache.get("hash-3")).contains(unit("A3.java"));
+      assertThat(cache.get("hash-0")).isEmpty();
+    }
+    try (var cache = UnitCache.open(segment)) {
+      assertThat(cache.size()).isEqualTo(1);
+      assertThat(cache.get("hash-3")).contains(unit("A3.java"));
+    }
+  }
+
+  @Test
+  void shouldGrowMappingAheadOfAppendedEntries() throws IOException {
+    // Given
+    Path segment = tempDir.resolve("units.seg");
+    long mappedSize;
+    try (var cache = UnitCache.open(segment)) {
+      // When: reads interleaved with appends remap at doubling sizes
+      for (int i = 0; i < 100; i++) {
+        cache.put("hash-" + i, unit("A" + i + ".java"));
+        assertThat(cache.get("hash-" + i)).contains(unit("A" + i + ".java"));
+      }
+      mappedSize = Files.size(segment);
+    }
+
+    // Then: the zeroed tail is gone and every entry survives reopening
+    assertThat(Files.size(segment)).isLessThan(mappedSize);
+    try (var cache = UnitCache.open(segment)) {
+      assertThat(cache.size()).isEqualTo(100);
+      assertThat(cache.get("hash-99")).contains(unit("A99.java"));
+    }
+  }
+
+  @Test
+  void shouldKeyCachedUnitsByAnalysisLevel() throws IOException {
+    // Given
+    Path file = tempDir.resolve("Example.java");
+    Files.writeString(file, "public class Example {}");
+    CodeAnalyzer delegate = mock(CodeAnalyzer.class);
+    when(delegate.parseFile(any())).thenReturn(unit("Example.java"));
+
+    try (var cache = UnitCache.open(tempDir.resolve("units.seg"))) {
+      // When
+      new CachedAnalyzer(delegate, cache, AnalysisLevel.SYNTAX_ONLY).parseFile(file);
+      new CachedAnalyzer(delegate, cache, AnalysisLevel.RESOLVED).parseFile(file);
+
+      // Then
+      verify(delegate, times(2)).parseFile(file);
+      assertThat(cache.size()).isEqualTo(2);
+    }
+  }
+
+  @Test
+  void shouldKeyCachedUnitsByPathBelowSourceRoot() throws IOException {
+    // Given: identical files with the same name in two directories
+    Path first = tempDir.resolve("a/Example.java");
+    Path second = tempDir.resolve("b/Example.java");
+    Files.createDirectories(first.getParent());
+    Files.createDirectories(second.getParent());
+    Files.writeString(first, "public class Example {}");
+    Files.writeString(second, "public class Example {}");
+    CodeAnalyzer delegate = mock(CodeAnalyzer.class);
+    when(delegate.parseFile(first)).thenReturn(unit("a/Example.java"));
+    when(delegate.parseFile(second)).thenReturn(unit("b/Example.java"));
+
+    try (var cache = UnitCache.open(tempDir.resolve("units.seg"))) {
+      var analyzer = new CachedAnalyzer(delegate, cache, AnalysisLevel.SYNTAX_ONLY, tempDir);
+
+      // When
+      CodeUnit firstUnit = analyzer.parseFile(first);
+      CodeUnit secondUnit = analyzer.parseFile(second);
+
+      // Then
+      assertThat(firstUnit).isEqualTo(unit("a/Example.java"));
+      assertThat(secondUnit).isEqualTo(unit("b/Example.java"));
+      assertThat(analyzer.parseFile(second)).isEqualTo(secondUnit);
+      verify(delegate, times(1)).parseFile(second);
+    }
+  }
+
+  private static CodeUnit unit(String name) {
+    return CodeUnit.builder()
+      .id("id-" + name)
+      .name(name)
+      .type(UnitType.FILE)
+      .metadata(Map.of("path", "com/example/" + name))
+      .build();
+  }
+}
@@ -0,0 +1,77 @@
+package com.code.analysis.core.model;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class ModelCollectionsTest {
+
+  @Test
+  void shouldShareEmptyAndImmutableInputs() {
+    // Given
+    List<String> immutable = List.of("a", "b");
+    Map<String, Object> compact = ModelCollections.map(Map.of("key", "value"));
+
+    // When / Then
+    assertThat(ModelCollections.list(immutable)).isSameAs(immutable);
+    assertThat(ModelCollections.list(null)).isSameAs(List.of());
+    assertThat(ModelCollections.map(compact)).isSameAs(compact);
+    assertThat(ModelCollections.map(new HashMap<>())).isSameAs(ModelCollections.map(null));
+  }
+
+  @Test
+  void shouldNotShareMutableInputs() {
+    // Given
+    List<String> source = new ArrayList<>(List.of("a"));
+    Map<String, Object> metadata = new HashMap<>(Map.of("isStatic", true));
+
+    // When
+    List<String> list = ModelCollections.list(source);
+    Map<String, Object> map = ModelCollections.map(metadata);
+    source.add("b");
+    metadata.put("visibility", "public");
+
+    // Then
+    assertThat(list).containsExactly("a");
+    assertThat(map).containsExactly(Map.entry("isStatic", true));
+    assertThatThrownBy(() -> map.put("other", 1)).isInstanceOf(UnsupportedOperationException.class);
+  }
+
+  @Test
+  void shouldBehaveLikeAnyOtherMap() {
+    // Given
+    Map<String, Object> source = new HashMap<>();
+    source.put("returnType", "int");
+    source.put("isStatic", false);
+    source.put("defaultValue", null);
+
+    // When
+    Map<String, Object> map = ModelCollections.map(source);
+
+    // Then
+    assertThat(map).isEqualTo(source).hasSameHashCodeAs(source).hasSize(3);
+    assertThat(map.get("returnType")).isEqualTo("int");
+    assertThat(map.containsKey("defaultValue")).isTrue();
+    assertThat(map.get("missing")).isNull();
+  }
+
+  @Test
+  void shouldAllocateReferencesOnlyWhenAdded() {
+    // Given
+    var first = new Definition("first", DefinitionKind.TYPE, null);
+    var second = new Definition("second", DefinitionKind.TYPE, null);
+
+    // When
+    second.addReference(new Reference(ReferenceKind.EXTEND, "Base"));
+
+    // Then
+    assertThat(first.references()).isSameAs(List.of());
+    assertThat(first.metadata()).isSameAs(second.metadata());
+    assertThat(second.references()).containsExactly(new Reference(ReferenceKind.EXTEND, "Base"));
+  }
+}
@@ -0,0 +1,39 @@
+package com.code.analysis.core.model;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+
+class StableIdTest {
+
+  @Test
+  void shouldProduceSameIdForSameParts() {
+    assertThat(StableId.of("FUNCTION", "com.example.Example.getName()"))
+      .isEqualTo(StableId.of("FUNCTION", "com.example.Example.getName()"));
+  }
+
+  @Test
+  void shouldProduceDifferentIdsForDifferentParts() {
+    assertThat(StableId.of("FUNCTION", "com.example.Example.getName()"))
+      .isNotEqualTo(StableId.of("FUNCTION", "com.example.Example.setName(String)"));
+    assertThat(StableId.of("a.b", "c")).isNotEqualTo(StableId.of("a", "b.c"));
+  }
+
+  @Test
+  void shouldProduceUuidFormattedIds() {
+    String id = StableId.of("FILE", "com/example/Example.java");
+
+    assertThat(UUID.fromString(id).toString()).isEqualTo(id);
+  }
+
+  @Test
+  void shouldRejectMissingParts() {
+    assertThatThrownBy(() -> StableId.of())
+      .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> StableId.of("FILE", null))
+      .isInstanceOf(IllegalArgumentException.class)
+      .hasMessageContaining("Id part cannot be null");
+  }
+}
@@ -0,0 +1,112 @@
+package com.code.analysis.core.model;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.Test;
+
+class StringPoolTest {
+
+  @Test
+  void shouldReturnSameInstanceForEqualStrings() {
+    // Given
+    var pool = new StringPool();
+    String first = new String("java.util.List");
+    String second = new String("java.util.List");
+
+    // When
+    String pooledFirst = pool.intern(first);
+    String pooledSecond = pool.intern(second);
+
+    // Then
+    assertThat(pooledFirst).isSameAs(first);
+    assertThat(pooledSecond).isSameAs(first);
+    assertThat(pool.hitCount()).isEqualTo(1);
+    assertThat(pool.missCount()).isEqualTo(1);
+    assertThat(pool.hitRate()).isEqualTo(0.5);
+    assertThat(pool.intern(null)).isNull();
+  }
+
+  @Test
+  void shouldStayWithinBound() {
+    // Given
+    var pool = new StringPool(10);
+
+    // When
+    for (int i = 0; i < 100; i++) {
+      pool.intern("name" + i);
+    }
+
+    // Then
+    assertThat(pool.size()).isLessThanOrEqualTo(10);
+    assertThat(pool.intern("name99")).isEqualTo("name99");
+  }
+
+  @Test
+  void shouldKeepRecentlyUsedStringsWhenFull() {
+    // Given
+    var pool = new StringPool(100);
+    String hot = pool.intern(new String("java.lang.String"));
+
+    // When
+    for (int i = 0; i < 1_000; i++) {
+      pool.intern("name" + i);
+      pool.intern(new String("java.lang.String"));
+    }
+
+    // Then
+    assertThat(pool.intern(new String("java.lang.String"))).isSameAs(hot);
+    assertThat(pool.size()).isLessThanOrEqualTo(100);
+  }
+
+  @Test
+  void shouldMissInConstantTimeWhenFull() {
+    // Given: a full pool, so that every further miss evicts
+    var pool = new StringPool(10_000);
+    for (int i = 0; i < 10_000; i++) {
+      pool.intern("warm" + i);
+    }
+
+    // When / Then: evicting by scanning for a victim made these quadratic,
+    // taking several seconds
+    assertTimeoutPreemptively(
+      Duration.ofSeconds(2),
+      () -> {
+        for (int i = 0; i < 500_000; i++) {
+          pool.intern("miss" + i);
+        }
+      }
+    );
+    assertThat(pool.missCount()).isEqualTo(510_000);
+    assertThat(pool.size()).isLessThanOrEqualTo(10_000);
+  }
+
+  @Test
+  void shouldConvergeOnOneInstanceAcrossThreads() throws Exception {
+    // Given
+    var pool = new StringPool();
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+    List<Future<String>> results = new ArrayList<>();
+
+    // When
+    try {
+      for (int i = 0; i < 64; i++) {
+        results.add(executor.submit(() -> pool.intern(new String("shared"))));
+      }
+      String expected = pool.intern("shared");
+
+      // Then
+      for (Future<String> result : results) {
+        assertThat(result.get()).isSameAs(expected);
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+}
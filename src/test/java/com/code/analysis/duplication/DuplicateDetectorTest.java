@@ -0,0 +1,196 @@
+package com.code.analysis.duplication;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.code.analysis.core.model.CodeUnit;
+import com.code.analysis.core.model.Definition;
+import com.code.analysis.core.model.DefinitionKind;
+import com.code.analysis.core.model.IntArrayList;
+import com.code.analysis.core.model.UnitType;
+import com.code.analysis.java.JavaAnalyzer;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class DuplicateDetectorTest {
+
+  @TempDir
+  Path sourceRoot;
+
+  private final DuplicateDetector detector = new DuplicateDetector(
+    DuplicationSettings.builder().minTokens(20).build()
+  );
+
+  @Test
+  void shouldClusterMethodsDifferingInLayoutCommentsAndLiterals() throws IOException {
+    // Given
+    var analyzer = new JavaAnalyzer(sourceRoot);
+    CodeUnit orders = parse(
+      analyzer,
+      "Orders",
+      """
+      public int total(int[] prices, int discount) {
+          int sum = 0;
+          for (int price : prices) {
+              if (price > 100) { sum += price - discount; } else { sum += price; }
+          }
+          return sum;
+      }
+
+      public String label() { return "orders"; }
+      """
+    );
+    CodeUnit invoices = parse(
+      analyzer,
+      "Invoices",
+      """
+      // Copied from Orders
+      public int total(int[] prices, int discount) {
+          int sum = 0;
+          for (int price : prices) {
+              if (price > 250) {
+                  sum += price - discount;
+              } else {
+                  sum += price;
+              }
+          }
+          return sum;
+      }
+
+      public void audit(java.util.List<String> entries, StringBuilder log) {
+          for (String entry : entries) {
+              if (!entry.isBlank()) { log.append(entry.trim()).append('\\n'); }
+          }
+      }
+      """
+    );
+
+    // When
+    List<DuplicateCluster> clusters = detector.detect(List.of(orders, invoices));
+
+    // Then
+    assertThat(clusters)
+      .singleElement()
+      .satisfies(cluster -> {
+        assertThat(cluster.methods())
+          .containsExactly(
+            "com.example.Invoices.total(int[], int)",
+            "com.example.Orders.total(int[], int)"
+          );
+        assertThat(cluster.duplicates())
+          .singleElement()
+          .satisfies(duplicate -> assertThat(duplicate.similarity()).isEqualTo(1.0));
+      });
+    assertThat(orders.definitions())
+      .filteredOn(definition -> definition.name().equals("label"))
+      .singleElement()
+      .satisfies(label -> assertThat(label.metadata()).containsKey(MinHash.METADATA_KEY));
+  }
+
+  @Test
+  void shouldFindCopiesAmongManyDistinctMethods() {
+    // Given: distinct random bodies, one of which is copied three times with a
+    // token changed in each copy
+    var random = new Random(42);
+    List<List<String>> bodies = new ArrayList<>();
+    IntStream.range(0, 10_000).forEach(i -> bodies.add(randomTokens(random, 60)));
+    List<String> original = bodies.get(0);
+    for (int copy = 1; copy <= 3; copy++) {
+      List<String> tokens = new ArrayList<>(original);
+      tokens.set(copy * 10, "changed");
+      bodies.add(tokens);
+    }
+    List<CodeUnit> units = IntStream
+      .range(0, bodies.size())
+      .mapToObj(i -> unit("m" + i, bodies.get(i)))
+      .toList();
+
+    // When
+    List<DuplicateCluster> clusters = new DuplicateDetector(
+      DuplicationSettings.builder().threshold(0.7).minTokens(20).build()
+    ).detect(units);
+
+    // Then
+    assertThat(clusters)
+      .singleElement()
+      .satisfies(cluster -> {
+        assertThat(cluster.methods()).containsExactly("m0", "m10000", "m10001", "m10002");
+        assertThat(cluster.duplicates()).hasSizeBetween(3, 6);
+      });
+  }
+
+  @Test
+  void shouldCompareEveryMemberOfSmallBucket() {
+    // Given: three methods sharing only the first band, where the second and
+    // third are alike but neither is alike to the first
+    int[] first = new int[MinHash.SIGNATURE_LENGTH];
+    int[] second = new int[MinHash.SIGNATURE_LENGTH];
+    for (int i = 4; i < MinHash.SIGNATURE_LENGTH; i++) {
+      first[i] = 1000 + i;
+      second[i] = i;
+    }
+    int[] third = second.clone();
+    for (int i = 4; i < MinHash.SIGNATURE_LENGTH; i += 4) {
+      third[i] = -i;
+    }
+
+    // When
+    List<DuplicateCluster> clusters = new DuplicateDetector(
+      DuplicationSettings.builder().threshold(0.7).minTokens(20).build()
+    ).detect(
+      List.of(
+        unit("a", 60, IntArrayList.of(first)),
+        unit("b", 60, IntArrayList.of(second)),
+        unit("c", 60, IntArrayList.of(third))
+      )
+    );
+
+    // Then
+    assertThat(clusters)
+      .singleElement()
+      .satisfies(cluster -> assertThat(cluster.methods()).containsExactly("b", "c"));
+  }
+
+  private CodeUnit parse(JavaAnalyzer analyzer, String className, String body)
+    throws IOException {
+    Path file = sourceRoot.resolve("com/example/" + className + ".java");
+    Files.createDirectories(file.getParent());
+    Files.writeString(file, "package com.example;\npublic class " + className + " {" + body + "}\n");
+    return analyzer.parseFile(file);
+  }
+
+  private static List<String> randomTokens(Random random, int count) {
+    return IntStream.range(0, count).mapToObj(i -> "t" + random.nextInt(500)).toList();
+  }
+
+  private static CodeUnit unit(String signature, List<String> tokens) {
+    return unit(signature, tokens.size(), MinHash.of(tokens).orElseThrow());
+  }
+
+  private static CodeUnit unit(String signature, int tokenCount, IntArrayList hashes) {
+    Map<String, Object> metadata = new HashMap<>();
+    metadata.put("signature", signature);
+    metadata.put(MinHash.TOKEN_COUNT_KEY, tokenCount);
+    metadata.put(MinHash.METADATA_KEY, hashes);
+    var method = Definition.builder()
+      .id("id-" + signature)
+      .name(signature)
+      .kind(DefinitionKind.FUNCTION)
+      .metadata(metadata)
+      .build();
+    return CodeUnit.builder()
+      .id("unit-" + signature)
+      .name(signature + ".java")
+      .type(UnitType.FILE)
+      .definitions(List.of(method))
+      .build();
+  }
+}
@@ -0,0 +1,147 @@
+package com.code.analysis.graph;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.code.analysis.core.model.CodeUnit;
+import com.code.analysis.core.model.Definition;
+import com.code.analysis.core.model.DefinitionKind;
+import com.code.analysis.core.model.Reference;
+import com.code.analysis.core.model.ReferenceKind;
+import com.code.analysis.core.model.UnitType;
+import com.code.analysis.graph.GraphSnapshot.Direction;
+import com.code.analysis.graph.GraphSnapshot.EdgeType;
+import com.code.analysis.graph.GraphSnapshot.Label;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class GraphSnapshotTest {
+
+  private static final EnumSet<EdgeType> HIERARCHY = EnumSet.of(
+    EdgeType.EXTENDS,
+    EdgeType.IMPLEMENTS
+  );
+
+  @Test
+  void shouldBuildSnapshotFromUnits() {
+    // Given
+    var builder = GraphSnapshot.builder();
+
+    // When
+    builder.add(unit("Base", null, "run()"));
+    builder.add(unit("Child", "Base", "start()", "com.example.Base.run()"));
+    var snapshot = builder.build();
+
+    // Then
+    int child = snapshot.find(Label.CLASS, "com.example.Child").orElseThrow();
+    int start = snapshot.find(Label.METHOD, "com.example.Child.start()").orElseThrow();
+    assertThat(snapshot.nodeCount()).isEqualTo(6);
+    assertThat(snapshot.keys(snapshot.neighbours(child, EdgeType.CONTAINS, Direction.OUTGOING)))
+      .containsExactly("com.example.Child.start()");
+    assertThat(snapshot.keys(snapshot.neighbours(start, EdgeType.CALLS, Direction.OUTGOING)))
+      .containsExactly("com.example.Base.run()");
+    assertThat(snapshot.label(start)).isEqualTo(Label.METHOD);
+  }
+
+  @Test
+  void shouldTraverseHierarchyInBothDirections() {
+    // Given
+    var builder = GraphSnapshot.builder();
+    builder.add(unit("Base", null));
+    builder.add(unit("Middle", "Base"));
+    builder.add(unit("Leaf", "Middle"));
+    var snapshot = builder.build();
+    int base = snapshot.find(Label.CLASS, "com.example.Base").orElseThrow();
+    int leaf = snapshot.find(Label.CLASS, "com.example.Leaf").orElseThrow();
+
+    // When
+    var subtypes = snapshot.reachable(base, Direction.INCOMING, HIERARCHY);
+    var supertypes = snapshot.reachable(leaf, Direction.OUTGOING, HIERARCHY);
+    var direct = snapshot.reachable(base, Direction.INCOMING, HIERARCHY, 1);
+
+    // Then
+    assertThat(snapshot.keys(subtypes)).containsExactly("com.example.Middle", "com.example.Leaf");
+    assertThat(snapshot.keys(supertypes)).containsExactly("com.example.Middle", "com.example.Base");
+    assertThat(snapshot.keys(direct)).containsExactly("com.example.Middle");
+    assertThat(snapshot.isReachable(leaf, base, Direction.OUTGOING, HIERARCHY)).isTrue();
+    assertThat(snapshot.isReachable(base, leaf, Direction.OUTGOING, HIERARCHY)).isFalse();
+  }
+
+  @Test
+  void shouldStopDepthFirstSearchWhenVisitorDeclines() {
+    // Given
+    var builder = GraphSnapshot.builder();
+    int root = builder.node(Label.METHOD, "root");
+    int previous = root;
+    for (int i = 0; i < 100; i++) {
+      int next = builder.node(Label.METHOD, "m" + i);
+      builder.edge(EdgeType.CALLS, previous, next);
+      builder.edge(EdgeType.CALLS, next, root); // cycles back to the root
+      previous = next;
+    }
+    var snapshot = builder.build();
+    List<String> visited = new ArrayList<>();
+
+    // When
+    snapshot.depthFirst(root, Direction.OUTGOING, EnumSet.of(EdgeType.CALLS), node -> {
+      visited.add(snapshot.key(node));
+      return visited.size() < 3;
+    });
+
+    // Then
+    assertThat(visited).containsExactly("m0", "m1", "m2");
+    assertThat(snapshot.reachable(root, Direction.OUTGOING, EnumSet.of(EdgeType.CALLS)))
+      .hasSize(100);
+  }
+
+  @Test
+  void shouldRejectUnknownNodes() {
+    // Given
+    var builder = GraphSnapshot.builder();
+    int only = builder.node(Label.FILE, "Example.java");
+
+    // When/Then
+    assertThatThrownBy(() -> builder.edge(EdgeType.CONTAINS, only, 1))
+      .isInstanceOf(IllegalArgumentException.class);
+    assertThatThrownBy(() -> builder.build().reachable(5, Direction.OUTGOING, HIERARCHY))
+      .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  private static CodeUnit unit(String className, String superClass, String... methodsAndCalls) {
+    var type = Definition.builder()
+      .name(className)
+      .kind(DefinitionKind.TYPE)
+      .metadata(Map.of("qualifiedName", "com.example." + className))
+      .build();
+    if (superClass != null) {
+      type.addReference(new Reference(ReferenceKind.EXTEND, "com.example." + superClass));
+    }
+    List<Definition> definitions = new ArrayList<>(List.of(type));
+    if (methodsAndCalls.length > 0) {
+      var method = Definition.builder()
+        .name(methodsAndCalls[0])
+        .kind(DefinitionKind.FUNCTION)
+        .metadata(
+          Map.of(
+            "declaringType", "com.example." + className,
+            "signature", "com.example." + className + "." + methodsAndCalls[0]
+          )
+        )
+        .build();
+      for (int i = 1; i < methodsAndCalls.length; i++) {
+        method.addReference(new Reference(ReferenceKind.CALL, methodsAndCalls[i]));
+      }
+      definitions.add(method);
+    }
+    return CodeUnit.builder()
+      .id(className + "-unit")
+      .name(className + ".java")
+      .type(UnitType.FILE)
+      .definitions(definitions)
+      .metadata(Map.of("path", "com/example/" + className + ".java"))
+      .build();
+  }
+}
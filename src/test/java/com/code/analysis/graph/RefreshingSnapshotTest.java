@@ -0,0 +1,36 @@
+package com.code.analysis.graph;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.code.analysis.graph.GraphSnapshot.Label;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+
+class RefreshingSnapshotTest {
+
+  @Test
+  void shouldReloadOnlyWhenGenerationChanges() {
+    // Given
+    var generation = new AtomicLong();
+    var loads = new AtomicInteger();
+    var snapshots = new RefreshingSnapshot(generation::get, () -> {
+      var builder = GraphSnapshot.builder();
+      builder.node(Label.FILE, "File" + loads.incrementAndGet() + ".java");
+      return builder.build();
+    });
+
+    // When
+    var first = snapshots.get();
+    var same = snapshots.get();
+    generation.incrementAndGet();
+    var refreshed = snapshots.get();
+
+    // Then
+    assertThat(same).isSameAs(first);
+    assertThat(refreshed).isNotSameAs(first);
+    assertThat(refreshed.key(0)).isEqualTo("File2.java");
+    assertThat(loads).hasValue(2);
+    assertThat(snapshots.generation()).isEqualTo(1);
+  }
+}
@@ -0,0 +1,166 @@
+package com.code.analysis.index;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.code.analysis.core.LanguageConverterFactory;
+import com.code.analysis.core.model.CodeUnit;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class IncrementalIndexerTest {
+
+  @TempDir
+  Path sourceRoot;
+
+  @TempDir
+  Path stateDir;
+
+  private ExecutorService executor;
+  private IncrementalIndexer indexer;
+  private IndexManifest manifest;
+  private RecordingListener listener;
+
+  @BeforeEach
+  void setUp() {
+    executor = Executors.newFixedThreadPool(2);
+    indexer = new IncrementalIndexer(
+      new RepositoryIndexer(new LanguageConverterFactory(), executor)
+    );
+    manifest = new IndexManifest();
+    listener = new RecordingListener();
+  }
+
+  @AfterEach
+  void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  void shouldIndexEverythingOnFirstRun() throws IOException {
+    // Given
+    writeClass("First", "");
+    writeClass("Second", "");
+
+    // When
+    IncrementalSummary summary = indexer.index(sourceRoot, manifest, listener);
+
+    // Then
+    assertThat(listener.changed).containsExactlyInAnyOrder("First.java", "Second.java");
+    assertThat(summary.unchanged()).isZero();
+    assertThat(manifest.paths()).containsExactlyInAnyOrder("First.java", "Second.java");
+  }
+
+  @Test
+  void shouldSkipUnchangedFiles() throws IOException {
+    // Given
+    writeClass("First", "");
+    indexer.index(sourceRoot, manifest, listener);
+    listener.changed.clear();
+
+    // When
+    IncrementalSummary summary = indexer.index(sourceRoot, manifest, listener);
+
+    // Then
+    assertThat(listener.changed).isEmpty();
+    assertThat(summary.unchanged()).isEqualTo(1);
+  }
+
+  @Test
+  void shouldSkipTouchedButUnmodifiedFiles() throws IOException {
+    // Given
+    Path file = writeClass("First", "");
+    indexer.index(sourceRoot, manifest, listener);
+    listener.changed.clear();
+    Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis() + 60_000));
+
+    // When
+    IncrementalSummary summary = indexer.index(sourceRoot, manifest, listener);
+
+    // Then
+    assertThat(listener.changed).isEmpty();
+    assertThat(summary.unchanged()).isEqualTo(1);
+  }
+
+  @Test
+  void shouldReportModifiedFileWithPreviousUnitId() throws IOException {
+    // Given
+    writeClass("First", "");
+    indexer.index(sourceRoot, manifest, listener);
+    String previousId = manifest.get("First.java").orElseThrow().unitId();
+    listener.changed.clear();
+    writeClass("First", "void run() {}");
+
+    // When
+    indexer.index(sourceRoot, manifest, listener);
+
+    // Then
+    assertThat(listener.changed).containsExactly("First.java");
+    assertThat(listener.previousIds).contains(Optional.of(previousId));
+  }
+
+  @Test
+  void shouldReportDeletedFiles() throws IOException {
+    // Given
+    Path file = writeClass("First", "");
+    indexer.index(sourceRoot, manifest, listener);
+    Files.delete(file);
+
+    // When
+    IncrementalSummary summary = indexer.index(sourceRoot, manifest, listener);
+
+    // Then
+    assertThat(summary.deleted()).containsExactly("First.java");
+    assertThat(listener.deleted).containsExactly("First.java");
+    assertThat(manifest.size()).isZero();
+  }
+
+  @Test
+  void shouldRoundTripManifestThroughDisk() throws IOException {
+    // Given
+    writeClass("First", "");
+    indexer.index(sourceRoot, manifest, listener);
+    Path manifestFile = stateDir.resolve("manifest.tsv");
+
+    // When
+    manifest.save(manifestFile);
+    IndexManifest reloaded = IndexManifest.load(manifestFile);
+
+    // Then
+    assertThat(reloaded.get("First.java")).isEqualTo(manifest.get("First.java"));
+  }
+
+  private Path writeClass(String className, String body) throws IOException {
+    Path file = sourceRoot.resolve(className + ".java");
+    Files.writeString(file, "public class " + className + " {" + body + "}\n");
+    return file;
+  }
+
+  private static final class RecordingListener implements IndexChangeListener {
+
+    private final List<String> changed = new ArrayList<>();
+    private final List<Optional<String>> previousIds = new ArrayList<>();
+    private final List<String> deleted = new ArrayList<>();
+
+    @Override
+    public void onChanged(String relativePath, CodeUnit unit, Optional<String> previousUnitId) {
+      changed.add(relativePath);
+      previousIds.add(previousUnitId);
+    }
+
+    @Override
+    public void onDeleted(String relativePath, String unitId) {
+      deleted.add(relativePath);
+    }
+  }
+}
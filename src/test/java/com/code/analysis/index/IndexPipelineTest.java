@@ -0,0 +1,201 @@
+package com.code.analysis.index;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+import com.code.analysis.core.LanguageConverterFactory;
+import com.code.analysis.core.model.CodeUnit;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.assertj.core.groups.Tuple;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class IndexPipelineTest {
+
+  private static final int QUEUE_CAPACITY = 2;
+
+  @TempDir
+  Path sourceRoot;
+
+  private IndexPipeline pipeline;
+
+  @BeforeEach
+  void setUp() {
+    var settings = PipelineSettings.builder()
+      .parseWorkers(3)
+      .convertWorkers(2)
+      .persistWorkers(1)
+      .queueCapacity(QUEUE_CAPACITY)
+      .build();
+    pipeline = new IndexPipeline(new LanguageConverterFactory(), settings);
+  }
+
+  @Test
+  void shouldStreamEverySupportedFileToSink() throws IOException {
+    // Given
+    for (int i = 0; i < 20; i++) {
+      writeClass("com/example/pkg" + (i % 4), "Example" + i);
+    }
+    Files.writeString(sourceRoot.resolve("README.md"), "# not java");
+
+    // When
+    Queue<CodeUnit> units = new ConcurrentLinkedQueue<>();
+    PipelineSummary summary = pipeline.index(sourceRoot, (file, unit) -> units.add(unit));
+
+    // Then
+    assertThat(units).hasSize(20);
+    assertThat(units).extracting(CodeUnit::name).contains("Example0.java", "Example19.java");
+    assertThat(summary.failures()).isEmpty();
+    assertThat(summary.stages())
+      .extracting(StageMetrics::stage, StageMetrics::processed)
+      .containsExactly(
+        Tuple.tuple("parse", 20L),
+        Tuple.tuple("convert", 20L),
+        Tuple.tuple("persist", 20L)
+      );
+  }
+
+  @Test
+  void shouldRecordParseFailuresWithoutAbortingRun() throws IOException {
+    // Given
+    writeClass("com/example", "Valid");
+    Path invalid = sourceRoot.resolve("Broken.java");
+    Files.writeString(invalid, "this is not valid java code");
+
+    // When
+    Queue<CodeUnit> units = new ConcurrentLinkedQueue<>();
+    PipelineSummary summary = pipeline.index(sourceRoot, (file, unit) -> units.add(unit));
+
+    // Then
+    assertThat(units).hasSize(1);
+    assertThat(summary.failures()).extracting(IndexFailure::path).containsExactly(invalid);
+    assertThat(summary.stages().get(0).failed()).isEqualTo(1);
+  }
+
+  @Test
+  void shouldBoundQueuesWhileSinkIsSlow() throws IOException {
+    // Given
+    for (int i = 0; i < 12; i++) {
+      writeClass("com/example", "Slow" + i);
+    }
+    AtomicInteger deepestQueue = new AtomicInteger();
+
+    // When
+    pipeline.index(
+      sourceRoot,
+      (file, unit) -> {
+        for (StageMetrics stage : pipeline.metrics()) {
+          deepestQueue.accumulateAndGet(stage.queueDepth(), Math::max);
+        }
+        sleep(20);
+      }
+    );
+
+    // Then
+    assertThat(deepestQueue.get()).isPositive().isLessThanOrEqualTo(QUEUE_CAPACITY);
+  }
+
+  @Test
+  void shouldAbortWhenSinkFails() throws IOException {
+    // Given
+    for (int i = 0; i < 5; i++) {
+      writeClass("com/example", "Failing" + i);
+    }
+
+    // When / Then
+    assertThatThrownBy(() ->
+      pipeline.index(
+        sourceRoot,
+        (file, unit) -> {
+          throw new IllegalStateException("database unavailable");
+        }
+      )
+    )
+      .isInstanceOf(IllegalStateException.class)
+      .hasRootCauseMessage("database unavailable");
+    List<StageMetrics> stages = pipeline.metrics();
+    assertThat(stages.get(2).failed()).isEqualTo(1);
+  }
+
+  @Test
+  void shouldRecordErrorsWithoutStallingRun() throws IOException {
+    // Given: a single worker per stage, so a dead worker would stall the run
+    var settings = PipelineSettings.builder()
+      .parseWorkers(1)
+      .convertWorkers(1)
+      .persistWorkers(1)
+      .queueCapacity(1)
+      .build();
+    var singleWorkers = new IndexPipeline(new LanguageConverterFactory(), settings);
+    for (int i = 0; i < 3; i++) {
+      writeClass("com/example", "Shallow" + i);
+    }
+    Path deep = sourceRoot.resolve("Deep.java");
+    Files.writeString(
+      deep,
+      "class Deep { int value = " + "(".repeat(100_000) + "1" + ")".repeat(100_000) + "; }"
+    );
+
+    // When
+    PipelineSummary summary = assertTimeoutPreemptively(
+      Duration.ofSeconds(30),
+      () -> singleWorkers.index(sourceRoot, (file, unit) -> {})
+    );
+
+    // Then
+    assertThat(summary.failures())
+      .singleElement()
+      .satisfies(failure -> {
+        assertThat(failure.path()).isEqualTo(deep);
+        assertThat(failure.cause()).isInstanceOf(StackOverflowError.class);
+      });
+    assertThat(summary.stages().get(2).processed()).isEqualTo(3);
+  }
+
+  @Test
+  void shouldCompleteWhenSinkThrowsError() throws IOException {
+    // Given
+    writeClass("com/example", "Fatal");
+
+    // When / Then
+    assertThatThrownBy(() ->
+      assertTimeoutPreemptively(
+        Duration.ofSeconds(10),
+        () ->
+          pipeline.index(
+            sourceRoot,
+            (file, unit) -> {
+              throw new StackOverflowError();
+            }
+          )
+      )
+    )
+      .isInstanceOf(IllegalStateException.class)
+      .hasCauseInstanceOf(StackOverflowError.class);
+  }
+
+  private static void sleep(long millis) {
+    try {
+      Thread.sleep(millis);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private void writeClass(String packagePath, String className) throws IOException {
+    Path dir = Files.createDirectories(sourceRoot.resolve(packagePath));
+    Files.writeString(
+      dir.resolve(className + ".java"),
+      "package " + packagePath.replace('/', '.') + ";\n\npublic class " + className + " {}\n"
+    );
+  }
+}
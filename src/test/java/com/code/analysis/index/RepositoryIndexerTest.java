@@ -0,0 +1,121 @@
+package com.code.analysis.index;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.code.analysis.core.LanguageConverterFactory;
+import com.code.analysis.core.model.CodeUnit;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class RepositoryIndexerTest {
+
+  @TempDir
+  Path sourceRoot;
+
+  private ExecutorService executor;
+  private final List<IndexProgress> reports = new ArrayList<>();
+  private RepositoryIndexer indexer;
+
+  @BeforeEach
+  void setUp() {
+    executor = Executors.newFixedThreadPool(4);
+    var settings = IndexerSettings.builder().maxInFlight(2).progressInterval(1).build();
+    indexer = new RepositoryIndexer(new LanguageConverterFactory(), executor, settings, reports::add);
+  }
+
+  @AfterEach
+  void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  void shouldIndexEverySupportedFileBelowRoot() throws IOException {
+    // Given
+    for (int i = 0; i < 10; i++) {
+      writeClass("com/example/pkg" + (i % 3), "Example" + i);
+    }
+    Files.writeString(sourceRoot.resolve("README.md"), "# not java");
+
+    // When
+    List<CodeUnit> units = new ArrayList<>();
+    IndexSummary summary = indexer.index(sourceRoot, units::add);
+
+    // Then
+    assertThat(units).hasSize(10);
+    assertThat(units).extracting(CodeUnit::name).contains("Example0.java", "Example9.java");
+    assertThat(summary.failures()).isEmpty();
+    assertThat(summary.progress().filesIndexed()).isEqualTo(10);
+  }
+
+  @Test
+  void shouldRecordFailuresWithoutAbortingRun() throws IOException {
+    // Given
+    writeClass("com/example", "Valid");
+    Path invalid = sourceRoot.resolve("Broken.java");
+    Files.writeString(invalid, "this is not valid java code");
+
+    // When
+    List<CodeUnit> units = new ArrayList<>();
+    IndexSummary summary = indexer.index(sourceRoot, units::add);
+
+    // Then
+    assertThat(units).hasSize(1);
+    assertThat(summary.failures()).extracting(IndexFailure::path).containsExactly(invalid);
+    assertThat(summary.progress().filesFailed()).isEqualTo(1);
+  }
+
+  @Test
+  void shouldRecordStackOverflowAsFailure() throws IOException {
+    // Given
+    writeClass("com/example", "Valid");
+    Path deep = sourceRoot.resolve("Deep.java");
+    Files.writeString(
+      deep,
+      "class Deep { int value = " + "(".repeat(100_000) + "1" + ")".repeat(100_000) + "; }"
+    );
+
+    // When
+    List<CodeUnit> units = new ArrayList<>();
+    IndexSummary summary = indexer.index(sourceRoot, units::add);
+
+    // Then
+    assertThat(units).hasSize(1);
+    assertThat(summary.failures())
+      .singleElement()
+      .satisfies(failure -> {
+        assertThat(failure.path()).isEqualTo(deep);
+        assertThat(failure.cause()).isInstanceOf(StackOverflowError.class);
+      });
+  }
+
+  @Test
+  void shouldReportProgress() throws IOException {
+    // Given
+    writeClass("com/example", "First");
+    writeClass("com/example", "Second");
+
+    // When
+    indexer.index(sourceRoot, unit -> {});
+
+    // Then
+    assertThat(reports).isNotEmpty();
+    assertThat(reports.get(reports.size() - 1).filesProcessed()).isEqualTo(2);
+  }
+
+  private void writeClass(String packagePath, String className) throws IOException {
+    Path dir = Files.createDirectories(sourceRoot.resolve(packagePath));
+    Files.writeString(
+      dir.resolve(className + ".java"),
+      "package " + packagePath.replace('/', '.') + ";\n\npublic class " + className + " {}\n"
+    );
+  }
+}
@@ -0,0 +1,199 @@
+package com.code.analysis.java;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.code.analysis.core.LanguageConverterFactory;
+import com.code.analysis.core.model.CodeUnit;
+import com.code.analysis.core.model.Reference;
+import com.github.javaparser.resolution.TypeSolver;
+import com.github.javaparser.resolution.model.SymbolReference;
+import com.github.javaparser.symbolsolver.resolution.typesolvers.ReflectionTypeSolver;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ConcurrentTypeSolverTest {
+
+  @TempDir
+  Path sourceRoot;
+
+  @Test
+  void shouldResolveHotTypeOnceAcrossThreads() throws InterruptedException {
+    // Given
+    var solver = new ConcurrentTypeSolver(new ReflectionTypeSolver(), 100);
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+
+    // When
+    for (int i = 0; i < 200; i++) {
+      executor.submit(() -> solver.tryToSolveType("java.lang.String"));
+    }
+    executor.shutdown();
+    executor.awaitTermination(10, TimeUnit.SECONDS);
+
+    // Then
+    assertThat(solver.tryToSolveType("java.lang.String").isSolved()).isTrue();
+    assertThat(solver.size()).isEqualTo(1);
+    assertThat(solver.hitCount() + solver.missCount()).isEqualTo(201);
+    assertThat(solver.hitCount()).isGreaterThan(solver.missCount());
+  }
+
+  @Test
+  void shouldStayWithinBound() {
+    // Given
+    var solver = new ConcurrentTypeSolver(new ReflectionTypeSolver(), 2);
+
+    // When
+    solver.tryToSolveType("java.lang.String");
+    solver.tryToSolveType("java.lang.Integer");
+    solver.tryToSolveType("java.lang.Long");
+
+    // Then
+    assertThat(solver.size()).isEqualTo(2);
+  }
+
+  @Test
+  void shouldKeepHotTypesAndMissInConstantTimeWhenFull() {
+    // Given
+    TypeSolver delegate = mock(TypeSolver.class);
+    when(delegate.tryToSolveType(anyString())).thenReturn(SymbolReference.unsolved());
+    var solver = new ConcurrentTypeSolver(delegate, 1_000);
+
+    // When: each cold name is a miss that has to evict
+    assertTimeoutPreemptively(
+      Duration.ofSeconds(5),
+      () -> {
+        for (int i = 0; i < 50_000; i++) {
+          solver.tryToSolveType("com.example.Cold" + i);
+          solver.tryToSolveType("java.lang.String");
+        }
+      }
+    );
+
+    // Then
+    verify(delegate, times(1)).tryToSolveType("java.lang.String");
+    assertThat(solver.missCount()).isEqualTo(50_001);
+    assertThat(solver.size()).isLessThanOrEqualTo(1_000);
+  }
+
+  @Test
+  void shouldCacheUnsolvedTypes() {
+    // Given
+    var solver = new ConcurrentTypeSolver(new ReflectionTypeSolver(), 10);
+
+    // When
+    solver.tryToSolveType("com.example.DoesNotExist");
+    var result = solver.tryToSolveType("com.example.DoesNotExist");
+
+    // Then
+    assertThat(result.isSolved()).isFalse();
+    assertThat(solver.hitCount()).isEqualTo(1);
+  }
+
+  @Test
+  void shouldShareAnalyzerPerSourceRoot() {
+    // Given
+    var factory = new LanguageConverterFactory();
+
+    // When
+    var first = factory.getConverter(sourceRoot.resolve("A.java"), sourceRoot).orElseThrow();
+    var second = factory.getConverter(sourceRoot.resolve("pkg/B.java"), sourceRoot).orElseThrow();
+
+    // Then
+    assertThat(first).isSameAs(second);
+  }
+
+  @Test
+  void shouldResolveProjectTypesFromSeveralThreads() throws Exception {
+    // Given
+    var pkg = Files.createDirectories(sourceRoot.resolve("com/example"));
+    Files.writeString(
+      pkg.resolve("Repository.java"),
+      """
+      package com.example;
+
+      public class Repository {
+          public String find(String key) { return key; }
+      }
+      """
+    );
+    Files.writeString(
+      pkg.resolve("Base.java"),
+      """
+      package com.example;
+
+      public abstract class Base {
+          protected final Repository repository = new Repository();
+          protected String load(String key) { return repository.find(key); }
+      }
+      """
+    );
+    List<Path> services = new ArrayList<>();
+    for (int i = 0; i < 8; i++) {
+      var service = pkg.resolve("Service" + i + ".java");
+      Files.writeString(
+        service,
+        """
+        package com.example;
+
+        public class Service%d extends Base {
+            public String lookup(String key) {
+                return load(key) + repository.find(key);
+            }
+        }
+        """.formatted(i)
+      );
+      services.add(service);
+    }
+    var analyzer = new JavaAnalyzer(sourceRoot);
+    List<Callable<List<String>>> tasks = new ArrayList<>();
+    for (int round = 0; round < 4; round++) {
+      for (var service : services) {
+        tasks.add(() -> referenceTargets(analyzer.parseFile(service)));
+      }
+    }
+    ExecutorService executor = Executors.newFixedThreadPool(8);
+
+    // When
+    List<Future<List<String>>> results;
+    try {
+      results = executor.invokeAll(tasks);
+    } finally {
+      executor.shutdown();
+    }
+
+    // Then
+    for (var result : results) {
+      assertThat(result.get())
+        .containsExactlyInAnyOrder(
+          "com.example.Base",
+          "com.example.Base.load(String)",
+          "com.example.Repository.find(String)"
+        );
+    }
+  }
+
+  private static List<String> referenceTargets(CodeUnit unit) {
+    return unit
+      .definitions()
+      .stream()
+      .flatMap(definition -> definition.references().stream())
+      .map(Reference::targetName)
+      .distinct()
+      .toList();
+  }
+}
@@ -3,7 +3,11 @@ package com.code.analysis.java;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
+import com.code.analysis.core.AnalysisLevel;
+import com.code.analysis.core.model.CodeUnit;
 import com.code.analysis.core.model.DefinitionKind;
+import com.code.analysis.core.model.Reference;
+import com.code.analysis.core.model.ReferenceKind;
 import com.code.analysis.core.model.UnitType;
 import java.io.IOException;
 import java.nio.file.Path;
@@ -55,7 +59,7 @@ class JavaAnalyzerTest {
     assertThat(unit.metadata()).containsEntry("packageName", "com.example");
 
     var definitions = unit.definitions();
-    assertThat(definitions).hasSize(3); // class, constructor, method
+    assertThat(definitions).hasSize(4); // class, field, constructor, method
 
     var classDefinition = definitions
       .stream()
@@ -116,6 +120,376 @@ class JavaAnalyzerTest {
     assertThat(doc.description()).contains("Example class demonstrating documentation extraction");
   }
 
+  @Test
+  void shouldProduceStableIdsAcrossRuns() throws IOException {
+    // Given
+    var javaCode =
+      """
+      package com.example;
+
+      /** Example class. */
+      public class Example {
+          public String getName() {
+              return "name";
+          }
+      }
+      """;
+    var path = tempDir.resolve("Example.java");
+    java.nio.file.Files.writeString(path, javaCode);
+
+    // When
+    var first = analyzer.parseFile(path);
+    var second = new JavaAnalyzer().parseFile(path);
+
+    // Then
+    assertThat(second.id()).isEqualTo(first.id());
+    assertThat(second.definitions())
+      .extracting(d -> d.id())
+      .containsExactlyElementsOf(first.definitions().stream().map(d -> d.id()).toList())
+      .doesNotHaveDuplicates();
+    assertThat(second.documentation().id()).isEqualTo(first.documentation().id());
+  }
+
+  @Test
+  void shouldResolveSupertypesOnlyWhenRequested() throws IOException {
+    // Given
+    var base = tempDir.resolve("com/example/base/Base.java");
+    java.nio.file.Files.createDirectories(base.getParent());
+    java.nio.file.Files.writeString(base, "package com.example.base;\n\npublic class Base {}\n");
+    var child = tempDir.resolve("com/example/Child.java");
+    java.nio.file.Files.writeString(
+      child,
+      """
+      package com.example;
+
+      import com.example.base.Base;
+
+      public class Child extends Base implements Runnable {
+          public void run() {}
+      }
+      """
+    );
+
+    // When
+    var resolved = new JavaAnalyzer(tempDir, AnalysisLevel.RESOLVED).parseFile(child);
+    var syntaxOnly = new JavaAnalyzer(tempDir, AnalysisLevel.SYNTAX_ONLY).parseFile(child);
+
+    // Then
+    assertThat(referenceTargets(resolved))
+      .containsExactly("com.example.base.Base", "java.lang.Runnable");
+    assertThat(referenceTargets(syntaxOnly)).containsExactly("Base", "Runnable");
+    assertThat(syntaxOnly.definitions())
+      .extracting(d -> d.id())
+      .containsExactlyElementsOf(resolved.definitions().stream().map(d -> d.id()).toList());
+  }
+
+  @Test
+  void shouldShareStringsAcrossFiles() throws IOException {
+    // Given
+    var first = tempDir.resolve("First.java");
+    var second = tempDir.resolve("Second.java");
+    java.nio.file.Files.writeString(
+      first,
+      "package com.example;\nimport java.util.List;\npublic class First { List<String> names() { return null; } }\n"
+    );
+    java.nio.file.Files.writeString(
+      second,
+      "package com.example;\nimport java.util.List;\npublic class Second { List<String> names() { return null; } }\n"
+    );
+
+    // When
+    var firstUnit = analyzer.parseFile(first);
+    var secondUnit = analyzer.parseFile(second);
+
+    // Then
+    assertThat(secondUnit.metadata().get("packageName"))
+      .isSameAs(firstUnit.metadata().get("packageName"));
+    assertThat(returnTypeOf(secondUnit)).isSameAs(returnTypeOf(firstUnit));
+    assertThat(analyzer.stringPool().hitRate()).isPositive();
+  }
+
+  @Test
+  void shouldExtractCallsAndFieldUses() throws IOException {
+    // Given
+    var repository = tempDir.resolve("com/example/Repository.java");
+    java.nio.file.Files.createDirectories(repository.getParent());
+    java.nio.file.Files.writeString(
+      repository,
+      """
+      package com.example;
+
+      public class Repository {
+          public String find(String key) { return key; }
+      }
+      """
+    );
+    var service = tempDir.resolve("com/example/Service.java");
+    java.nio.file.Files.writeString(
+      service,
+      """
+      package com.example;
+
+      public class Service {
+          private final Repository repository = new Repository();
+          private int lookups;
+
+          public String lookup(String key) {
+              lookups++;
+              System.out.println(key);
+              Missing.call();
+              return repository.find(key);
+          }
+      }
+      """
+    );
+
+    // When
+    var resolved = new JavaAnalyzer(tempDir, AnalysisLevel.RESOLVED).parseFile(service);
+    var syntaxOnly = new JavaAnalyzer(tempDir, AnalysisLevel.SYNTAX_ONLY).parseFile(service);
+
+    // Then
+    assertThat(methodReferences(resolved, "lookup"))
+      .containsExactlyInAnyOrder(
+        new Reference(ReferenceKind.USE, "com.example.Service.lookups"),
+        new Reference(ReferenceKind.CALL, "java.io.PrintStream.println"),
+        new Reference(ReferenceKind.CALL, "call"),
+        new Reference(ReferenceKind.USE, "com.example.Service.repository"),
+        new Reference(ReferenceKind.CALL, "com.example.Repository.find(String)")
+      );
+    assertThat(methodReferences(syntaxOnly, "lookup")).isEmpty();
+  }
+
+  @Test
+  void shouldQualifyLocalTypesByDeclaringMember() throws IOException {
+    // Given
+    var path = tempDir.resolve("com/example/Jobs.java");
+    java.nio.file.Files.createDirectories(path.getParent());
+    java.nio.file.Files.writeString(
+      path,
+      """
+      package com.example;
+
+      public class Jobs {
+          public void first() {
+              class Helper { void help() {} }
+              new Helper().help();
+          }
+
+          public void second(String name) {
+              class Helper { void help() {} }
+              record Helper2(String value) {}
+              if (name != null) {
+                  class Helper { void help() {} }
+              }
+          }
+      }
+      """
+    );
+
+    // When
+    var unit = new JavaAnalyzer(tempDir, AnalysisLevel.RESOLVED).parseFile(path);
+
+    // Then
+    assertThat(unit.definitions())
+      .filteredOn(d -> d.kind() == DefinitionKind.TYPE)
+      .extracting(d -> d.metadata().get("qualifiedName"))
+      .containsExactly(
+        "com.example.Jobs",
+        "com.example.Jobs.first()$1Helper",
+        "com.example.Jobs.second(String)$1Helper",
+        "com.example.Jobs.second(String)$1Helper2",
+        "com.example.Jobs.second(String)$2Helper"
+      );
+    assertThat(unit.definitions()).extracting(d -> d.id()).doesNotHaveDuplicates();
+    assertThat(methodReferences(unit, "first"))
+      .contains(new Reference(ReferenceKind.CALL, "com.example.Jobs.first()$1Helper.help()"));
+  }
+
+  @Test
+  void shouldIdentifyFilesByPathBelowSourceRoot() throws IOException {
+    // Given: the same class in two modules of one source root
+    var source = "package com.example;\n\npublic class Foo {\n  /** Shared. */\n  int count;\n}\n";
+    var first = tempDir.resolve("api/src/com/example/Foo.java");
+    var second = tempDir.resolve("impl/src/com/example/Foo.java");
+    for (var path : java.util.List.of(first, second)) {
+      java.nio.file.Files.createDirectories(path.getParent());
+      java.nio.file.Files.writeString(path, source);
+    }
+    var analyzer = new JavaAnalyzer(tempDir, AnalysisLevel.SYNTAX_ONLY);
+
+    // When
+    var firstUnit = analyzer.parseFile(first);
+    var secondUnit = analyzer.parseFile(second);
+
+    // Then
+    assertThat(firstUnit.metadata())
+      .containsEntry("path", "api/src/com/example/Foo.java")
+      .containsEntry("packageName", "com.example");
+    assertThat(secondUnit.metadata()).containsEntry("path", "impl/src/com/example/Foo.java");
+    assertThat(secondUnit.id()).isNotEqualTo(firstUnit.id());
+    assertThat(fieldDocumentationId(secondUnit)).isNotEqualTo(fieldDocumentationId(firstUnit));
+  }
+
+  private static String fieldDocumentationId(CodeUnit unit) {
+    return unit
+      .definitions()
+      .stream()
+      .filter(d -> d.name().equals("count"))
+      .findFirst()
+      .orElseThrow()
+      .documentation()
+      .id();
+  }
+
+  @Test
+  void shouldMeasureComplexity() throws IOException {
+    // Given
+    var file = tempDir.resolve("Branches.java");
+    java.nio.file.Files.writeString(
+      file,
+      """
+      public class Branches {
+          public int classify(int value, boolean strict) {
+              if (value < 0 && strict) {
+                  for (int i = 0; i < value; i++) {
+                      if (i % 2 == 0) {
+                          return -1;
+                      }
+                  }
+              } else if (value == 0) {
+                  return 0;
+              }
+              return switch (value) {
+                  case 1, 2 -> 1;
+                  default -> value > 10 ? 3 : 2;
+              };
+          }
+
+          public void empty() {}
+      }
+      """
+    );
+
+    // When
+    var unit = analyzer.parseFile(file);
+
+    // Then
+    var classify = unit
+      .definitions()
+      .stream()
+      .filter(d -> d.name().equals("classify"))
+      .findFirst()
+      .orElseThrow();
+    assertThat(classify.metadata())
+      .containsEntry("complexity", 9)
+      .containsEntry("lineCount", 15)
+      .containsEntry("nestingDepth", 3);
+    assertThat(unit.definitions().get(0).metadata())
+      .containsEntry("complexity", 10)
+      .containsEntry("maxComplexity", 9)
+      .containsEntry("methodCount", 2)
+      .containsEntry("lineCount", 19);
+  }
+
+  private static java.util.List<Reference> methodReferences(CodeUnit unit, String name) {
+    return unit
+      .definitions()
+      .stream()
+      .filter(d -> d.kind() == DefinitionKind.FUNCTION && d.name().equals(name))
+      .findFirst()
+      .orElseThrow()
+      .references();
+  }
+
+  private static Object returnTypeOf(CodeUnit unit) {
+    return unit
+      .definitions()
+      .stream()
+      .filter(d -> d.kind() == DefinitionKind.FUNCTION)
+      .findFirst()
+      .orElseThrow()
+      .metadata()
+      .get("returnType");
+  }
+
+  private static java.util.List<String> referenceTargets(CodeUnit unit) {
+    return unit
+      .definitions()
+      .stream()
+      .filter(d -> d.kind() == DefinitionKind.TYPE)
+      .flatMap(d -> d.references().stream())
+      .map(Reference::targetName)
+      .toList();
+  }
+
+  @Test
+  void shouldConvertEveryDeclarationKind() throws IOException {
+    // Given
+    var javaCode =
+      """
+      package com.example;
+
+      public class Outer {
+          /** Maximum size. */
+          public static final int MAX = 10, MIN = 0;
+
+          /** Colours. */
+          enum Colour implements Runnable {
+              RED, GREEN;
+
+              public void run() {}
+          }
+
+          record Point(int x, int y) {}
+
+          @interface Marker {}
+
+          class Inner {
+              void work() {
+                  Runnable task = new Runnable() {
+                      public void run() {}
+                  };
+              }
+          }
+      }
+      """;
+    var path = tempDir.resolve("Outer.java");
+    java.nio.file.Files.writeString(path, javaCode);
+
+    // When
+    var unit = analyzer.parseFile(path);
+
+    // Then
+    assertThat(unit.definitions())
+      .extracting(d -> d.kind() + " " + d.name())
+      .containsExactly(
+        "TYPE Outer",
+        "VARIABLE MAX",
+        "VARIABLE MIN",
+        "ENUM Colour",
+        "VARIABLE RED",
+        "VARIABLE GREEN",
+        "FUNCTION run",
+        "TYPE Point",
+        "PROPERTY x",
+        "PROPERTY y",
+        "INTERFACE Marker",
+        "TYPE Inner",
+        "FUNCTION work"
+      );
+    var colour = unit.definitions().get(3);
+    assertThat(colour.metadata())
+      .containsEntry("qualifiedName", "com.example.Outer.Colour")
+      .containsEntry("declaringType", "com.example.Outer");
+    assertThat(colour.documentation().description()).isEqualTo("Colours.");
+    assertThat(unit.definitions().get(1).metadata())
+      .containsEntry("type", "int")
+      .containsEntry("isStatic", true)
+      .containsEntry("isFinal", true);
+    assertThat(unit.definitions()).extracting(d -> d.id()).doesNotHaveDuplicates();
+    assertThat(unit.documentation().description()).isEqualTo("Maximum size.");
+  }
+
   @Test
   void shouldHandleInvalidJavaFile() {
     // Given
@@ -49,7 +49,7 @@ class JavaClassConverterTest {
     assertThat(classDef.references()).hasSize(1);
     Reference superRef = classDef.references().get(0);
     assertThat(superRef.kind()).isEqualTo(ReferenceKind.EXTEND);
-    assertThat(superRef.target().name()).isEqualTo("BaseClass");
+    assertThat(superRef.targetName()).isEqualTo("BaseClass");
   }
 
   @Test
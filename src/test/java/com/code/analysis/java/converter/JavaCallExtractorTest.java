@@ -0,0 +1,217 @@
+package com.code.analysis.java.converter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.code.analysis.core.model.Definition;
+import com.code.analysis.core.model.DefinitionKind;
+import com.code.analysis.core.model.Reference;
+import com.code.analysis.core.model.ReferenceKind;
+import com.code.analysis.core.model.StringPool;
+import com.github.javaparser.JavaParser;
+import com.github.javaparser.ParserConfiguration;
+import com.github.javaparser.ast.body.MethodDeclaration;
+import com.github.javaparser.symbolsolver.JavaSymbolSolver;
+import com.github.javaparser.symbolsolver.resolution.typesolvers.ReflectionTypeSolver;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class JavaCallExtractorTest {
+
+  private static final String SOURCE =
+    """
+    package com.example;
+
+    import java.util.List;
+
+    public class Audit {
+        private static final java.io.PrintStream LOG = System.out;
+
+        public void first(List<String> items) {
+            LOG.println("first");
+            LOG.println(items.size());
+            helper(1);
+        }
+
+        public void second(StringBuilder LOG) {
+            LOG.append("shadowed");
+            Audit.LOG.println("second");
+        }
+
+        private void helper(int count) {}
+    }
+    """;
+
+  @Test
+  void shouldMemoizeScopesSharedAcrossMembers() {
+    // Given
+    var extractor = new JavaCallExtractor(new StringPool());
+    var methods = parse(SOURCE);
+
+    // When
+    var first = extract(extractor, methods.get(0));
+    var second = extract(extractor, methods.get(1));
+
+    // Then
+    assertThat(first)
+      .contains(
+        new Reference(ReferenceKind.CALL, "java.io.PrintStream.println"),
+        new Reference(ReferenceKind.CALL, "java.util.List.size"),
+        new Reference(ReferenceKind.CALL, "com.example.Audit.helper(int)"),
+        new Reference(ReferenceKind.USE, "com.example.Audit.LOG")
+      );
+    assertThat(second)
+      .contains(
+        new Reference(ReferenceKind.CALL, "java.lang.StringBuilder.append"),
+        new Reference(ReferenceKind.CALL, "java.io.PrintStream.println"),
+        new Reference(ReferenceKind.USE, "com.example.Audit.LOG")
+      );
+    assertThat(extractor.hitCount()).isPositive();
+  }
+
+  @Test
+  void shouldNotMemoizeNamesDeclaredInTheMember() {
+    // Given
+    var extractor = new JavaCallExtractor(new StringPool());
+    var methods = parse(
+      """
+      package com.example;
+
+      import java.util.List;
+
+      public class Report {
+          private final StringBuilder out = new StringBuilder();
+
+          public void first() {
+              out.append("first");
+          }
+
+          public void second(Object value) {
+              if (value instanceof java.io.PrintStream out) {
+                  out.println("pattern");
+              }
+          }
+
+          public void third(Object value, List<String> lines) {
+              lines.forEach(out -> out.length());
+              try {
+                  value.wait();
+              } catch (InterruptedException out) {
+                  out.getCause();
+              }
+          }
+      }
+      """
+    );
+
+    // When
+    extract(extractor, methods.get(0));
+    var second = extract(extractor, methods.get(1));
+    var third = extract(extractor, methods.get(2));
+
+    // Then
+    assertThat(second)
+      .contains(new Reference(ReferenceKind.CALL, "java.io.PrintStream.println"))
+      .doesNotContain(new Reference(ReferenceKind.USE, "com.example.Report.out"));
+    assertThat(third)
+      .contains(
+        new Reference(ReferenceKind.CALL, "java.lang.String.length"),
+        new Reference(ReferenceKind.CALL, "java.lang.Throwable.getCause")
+      )
+      .doesNotContain(new Reference(ReferenceKind.USE, "com.example.Report.out"));
+  }
+
+  @Test
+  void shouldMemoizeImportedScopesAndSourceTargetsAcrossTypes() {
+    // Given
+    var extractor = new JavaCallExtractor(new StringPool());
+    var methods = parse(
+      """
+      package com.example;
+
+      import java.io.PrintStream;
+
+      public class Jobs {
+          static class First {
+              private final PrintStream log = System.out;
+              private final Store store = new Store();
+
+              void run() {
+                  log.println("first");
+                  store.save("first");
+              }
+          }
+
+          static class Second {
+              private final PrintStream log = System.out;
+              private final Store store = new Store();
+
+              void run() {
+                  log.println("second");
+                  store.save("second");
+              }
+          }
+
+          static class Store {
+              void save(String value) {}
+          }
+      }
+      """
+    );
+
+    // When
+    var first = extract(extractor, methods.get(0));
+    var second = extract(extractor, methods.get(1));
+
+    // Then: only the store field of the second class is resolved again
+    assertThat(second).isEqualTo(
+      first
+        .stream()
+        .map(reference ->
+          new Reference(
+            reference.kind(),
+            reference.targetName().replace("Jobs.First.", "Jobs.Second.")
+          )
+        )
+        .toList()
+    );
+    assertThat(second)
+      .contains(
+        new Reference(ReferenceKind.CALL, "java.io.PrintStream.println"),
+        new Reference(ReferenceKind.CALL, "com.example.Jobs.Store.save(String)")
+      );
+    assertThat(extractor.hitCount()).isEqualTo(2);
+    assertThat(extractor.missCount()).isEqualTo(4);
+  }
+
+  @Test
+  void shouldEvictWhenFull() {
+    // Given
+    var extractor = new JavaCallExtractor(new StringPool(), 1);
+
+    // When
+    parse(SOURCE).forEach(method -> extract(extractor, method));
+
+    // Then
+    assertThat(extractor.missCount()).isGreaterThan(1);
+  }
+
+  private static List<MethodDeclaration> parse(String source) {
+    var configuration = new ParserConfiguration()
+      .setLanguageLevel(ParserConfiguration.LanguageLevel.JAVA_17)
+      .setSymbolResolver(new JavaSymbolSolver(new ReflectionTypeSolver()));
+    return new JavaParser(configuration)
+      .parse(source)
+      .getResult()
+      .orElseThrow()
+      .findAll(MethodDeclaration.class);
+  }
+
+  private static List<Reference> extract(JavaCallExtractor extractor, MethodDeclaration method) {
+    var definition = Definition.builder()
+      .name(method.getNameAsString())
+      .kind(DefinitionKind.FUNCTION)
+      .build();
+    extractor.addReferences(method, definition);
+    return definition.references();
+  }
+}
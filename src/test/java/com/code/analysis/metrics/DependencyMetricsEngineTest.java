@@ -0,0 +1,168 @@
+package com.code.analysis.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import com.code.analysis.core.model.CodeUnit;
+import com.code.analysis.core.model.Definition;
+import com.code.analysis.core.model.DefinitionKind;
+import com.code.analysis.core.model.Reference;
+import com.code.analysis.core.model.ReferenceKind;
+import com.code.analysis.core.model.UnitType;
+import com.code.analysis.java.JavaAnalyzer;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class DependencyMetricsEngineTest {
+
+  @TempDir
+  Path sourceRoot;
+
+  private final DependencyMetricsEngine engine = new DependencyMetricsEngine(
+    ForkJoinPool.commonPool(),
+    MetricsSettings.builder().parallelism(2).build()
+  );
+
+  @Test
+  void shouldMeasureCouplingAndCohesion() throws IOException {
+    // Given
+    var analyzer = new JavaAnalyzer(sourceRoot);
+    CodeUnit repository = parse(
+      analyzer,
+      "com/example/core/Repository.java",
+      """
+      package com.example.core;
+
+      public class Repository {
+          private int count;
+          private String name;
+
+          public void add() { count++; name = "added"; }
+
+          public int size() { return count + name.length(); }
+      }
+      """
+    );
+    CodeUnit split = parse(
+      analyzer,
+      "com/example/core/Split.java",
+      """
+      package com.example.core;
+
+      public class Split {
+          private int first;
+          private int second;
+
+          public int one() { return first; }
+
+          public int two() { return second; }
+      }
+      """
+    );
+    CodeUnit controller = parse(
+      analyzer,
+      "com/example/web/Controller.java",
+      """
+      package com.example.web;
+
+      import com.example.core.Repository;
+
+      public class Controller {
+          public void handle() { new Repository().add(); }
+      }
+      """
+    );
+
+    // When
+    DependencyMetrics metrics = engine.compute(
+      Map.of("core", List.of(repository, split), "web", List.of(controller))
+    );
+
+    // Then
+    assertThat(metrics.type("com.example.core.Repository"))
+      .hasValueSatisfying(type -> {
+        assertThat(type.afferentCoupling()).isEqualTo(1);
+        assertThat(type.efferentCoupling()).isZero();
+        assertThat(type.cohesion()).isEqualTo(1.0);
+      });
+    assertThat(metrics.type("com.example.core.Split"))
+      .hasValueSatisfying(type -> assertThat(type.lcom()).isEqualTo(1.0));
+    assertThat(metrics.type("com.example.web.Controller"))
+      .hasValueSatisfying(type -> assertThat(type.instability()).isEqualTo(1.0));
+    assertThat(metrics.component("core"))
+      .hasValueSatisfying(core -> {
+        assertThat(core.classCount()).isEqualTo(2);
+        assertThat(core.afferentCoupling()).isEqualTo(1);
+        assertThat(core.efferentCoupling()).isZero();
+        assertThat(core.instability()).isZero();
+        assertThat(core.cohesion()).isCloseTo(0.5, within(1e-9));
+      });
+    assertThat(metrics.component("web"))
+      .hasValueSatisfying(web -> {
+        assertThat(web.efferentCoupling()).isEqualTo(1);
+        assertThat(web.coupling()).isEqualTo(1.0);
+      });
+  }
+
+  @Test
+  void shouldResolveDependenciesAcrossManyTypes() {
+    // Given: every type extends the previous one and its component alternates
+    int typeCount = 20_000;
+    List<CodeUnit> even = IntStream
+      .range(0, typeCount)
+      .filter(i -> i % 2 == 0)
+      .mapToObj(DependencyMetricsEngineTest::chainedUnit)
+      .toList();
+    List<CodeUnit> odd = IntStream
+      .range(0, typeCount)
+      .filter(i -> i % 2 == 1)
+      .mapToObj(DependencyMetricsEngineTest::chainedUnit)
+      .toList();
+
+    // When
+    DependencyMetrics metrics = engine.compute(Map.of("even", even, "odd", odd));
+
+    // Then
+    assertThat(metrics.classes()).hasSize(typeCount);
+    assertThat(metrics.classes())
+      .filteredOn(type -> type.afferentCoupling() == 1 && type.efferentCoupling() == 1)
+      .hasSize(typeCount - 2);
+    assertThat(metrics.component("odd"))
+      .hasValueSatisfying(component -> {
+        assertThat(component.efferentCoupling()).isEqualTo(typeCount / 2);
+        assertThat(component.coupling()).isEqualTo(1.0);
+      });
+  }
+
+  private CodeUnit parse(JavaAnalyzer analyzer, String path, String source) throws IOException {
+    Path file = sourceRoot.resolve(path);
+    Files.createDirectories(file.getParent());
+    Files.writeString(file, source);
+    return analyzer.parseFile(file);
+  }
+
+  private static CodeUnit chainedUnit(int index) {
+    var type = Definition.builder()
+      .id("type-" + index)
+      .name("Type" + index)
+      .kind(DefinitionKind.TYPE)
+      .metadata(Map.of("qualifiedName", "com.example.Type" + index))
+      .build();
+    if (index > 0) {
+      type.addReference(new Reference(ReferenceKind.EXTEND, "com.example.Type" + (index - 1)));
+    }
+    return CodeUnit.builder()
+      .id("unit-" + index)
+      .name("Type" + index + ".java")
+      .type(UnitType.FILE)
+      .definitions(List.of(type))
+      .build();
+  }
+}
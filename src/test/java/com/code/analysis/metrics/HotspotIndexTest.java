@@ -0,0 +1,153 @@
+package com.code.analysis.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import com.code.analysis.core.model.CodeUnit;
+import com.code.analysis.java.JavaAnalyzer;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class HotspotIndexTest {
+
+  @TempDir
+  Path sourceRoot;
+
+  private final HotspotIndex index = new HotspotIndex();
+
+  @Test
+  void shouldRankMethodsWithinEachScope() throws IOException {
+    // Given
+    var analyzer = new JavaAnalyzer(sourceRoot);
+    CodeUnit parser = parse(
+      analyzer,
+      "com/example/core/Parser.java",
+      """
+      package com.example.core;
+
+      public class Parser {
+          public int sign(int x) { return x < 0 ? -1 : x > 0 ? 1 : 0; }
+
+          public int plain() { return 0; }
+      }
+      """
+    );
+    CodeUnit handler = parse(
+      analyzer,
+      "com/example/web/Handler.java",
+      """
+      package com.example.web;
+
+      public class Handler {
+          public int handle(int x) {
+              if (x > 0) { return 1; }
+              if (x < 0) { return -1; }
+              if (x == 0) { return 0; }
+              return x;
+          }
+      }
+      """
+    );
+
+    // When
+    index.update("core", parser);
+    index.update("web", handler);
+
+    // Then
+    assertThat(index.top(HotspotQuery.builder().limit(1).build()))
+      .extracting(Hotspot::method)
+      .containsExactly("com.example.web.Handler.handle(int)");
+    assertThat(index.top(HotspotQuery.builder().scope(HotspotScope.component("core")).build()))
+      .extracting(Hotspot::method, Hotspot::value)
+      .containsExactly(
+        tuple("com.example.core.Parser.sign(int)", 3L),
+        tuple("com.example.core.Parser.plain()", 1L)
+      );
+    assertThat(
+      index.top(HotspotQuery.builder().scope(HotspotScope.packageName("com.example.web")).build())
+    )
+      .singleElement()
+      .satisfies(hotspot -> assertThat(hotspot.component()).isEqualTo("web"));
+    assertThat(index.top(HotspotQuery.builder().scope(HotspotScope.component("missing")).build()))
+      .isEmpty();
+  }
+
+  @Test
+  void shouldRepositionMethodsWhenFilesAreReindexed() throws IOException {
+    // Given
+    var analyzer = new JavaAnalyzer(sourceRoot);
+    CodeUnit target = parse(
+      analyzer,
+      "com/example/Target.java",
+      """
+      package com.example;
+
+      public class Target {
+          public static void popular() {}
+
+          public static void lonely() {}
+      }
+      """
+    );
+    var listener = index.listener("core");
+    listener.onChanged("com/example/Target.java", target, Optional.empty());
+    CodeUnit callers = parse(
+      analyzer,
+      "com/example/Callers.java",
+      """
+      package com.example;
+
+      public class Callers {
+          public void first() { Target.popular(); Target.popular(); }
+
+          public void second() { Target.popular(); Target.lonely(); }
+      }
+      """
+    );
+    listener.onChanged("com/example/Callers.java", callers, Optional.empty());
+    var byFanIn = HotspotQuery.builder().limit(2).metric(HotspotMetric.FAN_IN).build();
+    assertThat(index.top(byFanIn))
+      .extracting(Hotspot::method, Hotspot::value)
+      .containsExactly(
+        tuple("com.example.Target.popular()", 2L),
+        tuple("com.example.Target.lonely()", 1L)
+      );
+
+    // When
+    CodeUnit reindexed = parse(
+      analyzer,
+      "com/example/Callers.java",
+      """
+      package com.example;
+
+      public class Callers {
+          public void first() { Target.lonely(); }
+      }
+      """
+    );
+    listener.onChanged("com/example/Callers.java", reindexed, Optional.of(callers.id()));
+
+    // Then
+    assertThat(index.top(byFanIn))
+      .extracting(Hotspot::method, Hotspot::value)
+      .containsExactly(
+        tuple("com.example.Target.lonely()", 1L),
+        tuple("com.example.Callers.first()", 0L)
+      );
+    listener.onDeleted("com/example/Callers.java", reindexed.id());
+    assertThat(index.top(byFanIn)).allSatisfy(hotspot -> assertThat(hotspot.value()).isZero());
+    var callersFile = HotspotQuery.builder().scope(HotspotScope.file("com/example/Callers.java"));
+    assertThat(index.top(callersFile.build())).isEmpty();
+  }
+
+  private CodeUnit parse(JavaAnalyzer analyzer, String path, String source) throws IOException {
+    Path file = sourceRoot.resolve(path);
+    Files.createDirectories(file.getParent());
+    Files.writeString(file, source);
+    return analyzer.parseFile(file);
+  }
+}
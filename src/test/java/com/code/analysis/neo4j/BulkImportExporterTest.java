@@ -0,0 +1,139 @@
+package com.code.analysis.neo4j;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.code.analysis.core.model.CodeUnit;
+import com.code.analysis.core.model.Definition;
+import com.code.analysis.core.model.DefinitionKind;
+import com.code.analysis.core.model.Reference;
+import com.code.analysis.core.model.ReferenceKind;
+import com.code.analysis.core.model.UnitType;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class BulkImportExporterTest {
+
+  @TempDir
+  Path outputDir;
+
+  @Test
+  void shouldWriteHeadersMatchingSchemaKeys() throws IOException {
+    // When
+    try (var exporter = new BulkImportExporter(outputDir, "core")) {
+      exporter.add(exampleUnit());
+    }
+
+    // Then
+    assertThat(firstLine("files_header.csv")).startsWith("path:ID(File),");
+    assertThat(firstLine("classes_header.csv")).startsWith("fullName:ID(Class),");
+    assertThat(firstLine("methods_header.csv"))
+      .startsWith("fullSignature:ID(Method),")
+      .contains("parameters:string[]");
+    assertThat(firstLine("class_methods_header.csv")).isEqualTo(":START_ID(Class),:END_ID(Method)");
+  }
+
+  @Test
+  void shouldStreamNodesAndRelationships() throws IOException {
+    // When
+    try (var exporter = new BulkImportExporter(outputDir, "core")) {
+      exporter.add(exampleUnit());
+    }
+
+    // Then
+    assertThat(lines("components.csv")).containsExactly("\"core\",\"Component\"");
+    assertThat(lines("files.csv")).singleElement().asString().startsWith("\"com/example/Example.java\",");
+    assertThat(lines("methods.csv"))
+      .singleElement()
+      .asString()
+      .contains("\"com.example.Example.say(String)\"", "\"message;loud\"", "true");
+    assertThat(lines("class_methods.csv"))
+      .containsExactly("\"com.example.Example\",\"com.example.Example.say(String)\"");
+    assertThat(lines("component_files.csv")).containsExactly("\"core\",\"com/example/Example.java\"");
+    assertThat(lines("class_extends.csv"))
+      .containsExactly("\"com.example.Example\",\"com.example.Base\"");
+    assertThat(lines("class_implements.csv"))
+      .containsExactly("\"com.example.Example\",\"java.lang.Runnable\"");
+  }
+
+  @Test
+  void shouldEscapeQuotesInValues() throws IOException {
+    // Given
+    var unit = CodeUnit.builder()
+      .id("unit")
+      .name("Odd.java")
+      .type(UnitType.FILE)
+      .metadata(Map.of("path", "odd/\"quoted\".java"))
+      .build();
+
+    // When
+    try (var exporter = new BulkImportExporter(outputDir, "core")) {
+      exporter.add(unit);
+    }
+
+    // Then
+    assertThat(lines("files.csv")).singleElement().asString().startsWith("\"odd/\"\"quoted\"\".java\"");
+  }
+
+  @Test
+  void shouldBuildImportCommandForAllFiles() throws IOException {
+    // When
+    List<String> command;
+    try (var exporter = new BulkImportExporter(outputDir, "core")) {
+      command = exporter.importCommand("neo4j");
+    }
+
+    // Then
+    assertThat(command).startsWith("neo4j-admin", "database", "import", "full", "neo4j");
+    assertThat(command).filteredOn(arg -> arg.startsWith("--nodes=")).hasSize(4);
+    assertThat(command).filteredOn(arg -> arg.startsWith("--relationships=CONTAINS=")).hasSize(3);
+    assertThat(command)
+      .anyMatch(arg -> arg.startsWith("--relationships=EXTENDS="))
+      .anyMatch(arg -> arg.startsWith("--relationships=IMPLEMENTS="))
+      .anyMatch(arg -> arg.startsWith("--relationships=CALLS="))
+      .anyMatch(arg -> arg.startsWith("--relationships=USES="));
+  }
+
+  private String firstLine(String file) throws IOException {
+    return lines(file).get(0);
+  }
+
+  private List<String> lines(String file) throws IOException {
+    return Files.readAllLines(outputDir.resolve(file));
+  }
+
+  private static CodeUnit exampleUnit() {
+    var classDef = Definition.builder()
+      .id("class-id")
+      .name("Example")
+      .kind(DefinitionKind.TYPE)
+      .metadata(Map.of("qualifiedName", "com.example.Example", "isAbstract", false))
+      .build();
+    classDef.addReference(new Reference(ReferenceKind.EXTEND, "com.example.Base"));
+    classDef.addReference(new Reference(ReferenceKind.IMPLEMENT, "java.lang.Runnable"));
+    var methodDef = Definition.builder()
+      .id("method-id")
+      .name("say")
+      .kind(DefinitionKind.FUNCTION)
+      .metadata(
+        Map.of(
+          "declaringType", "com.example.Example",
+          "signature", "com.example.Example.say(String)",
+          "parameters", List.of("message", "loud"),
+          "isStatic", true
+        )
+      )
+      .build();
+    return CodeUnit.builder()
+      .id("unit-id")
+      .name("Example.java")
+      .type(UnitType.FILE)
+      .definitions(List.of(classDef, methodDef))
+      .metadata(Map.of("path", "com/example/Example.java", "language", "Java"))
+      .build();
+  }
+}
@@ -0,0 +1,533 @@
+package com.code.analysis.neo4j;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.code.analysis.core.model.CodeUnit;
+import com.code.analysis.graph.GraphSnapshot;
+import com.code.analysis.java.JavaAnalyzer;
+import com.code.analysis.duplication.DuplicateDetector;
+import com.code.analysis.duplication.DuplicationSettings;
+import com.code.analysis.metrics.DependencyMetricsEngine;
+import com.code.analysis.metrics.Hotspot;
+import com.code.analysis.metrics.HotspotMetric;
+import com.code.analysis.metrics.HotspotQuery;
+import com.code.analysis.metrics.HotspotScope;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.neo4j.driver.*;
+import org.neo4j.harness.Neo4j;
+import org.neo4j.harness.Neo4jBuilders;
+
+class Neo4jGraphWriterIT {
+
+  private static Neo4j embeddedDatabaseServer;
+  private static Driver driver;
+
+  @TempDir
+  Path sourceRoot;
+
+  private final JavaAnalyzer analyzer = new JavaAnalyzer();
+  private Neo4jService service;
+
+  @BeforeAll
+  static void startNeo4j() throws IOException {
+    embeddedDatabaseServer = Neo4jBuilders.newInProcessBuilder().withDisabledServer().build();
+    driver = GraphDatabase.driver(embeddedDatabaseServer.boltURI());
+
+    String schema = Files.readString(Path.of("neo4j/scripts/schema.cypher"));
+    try (Session session = driver.session()) {
+      Arrays.stream(schema.split(";"))
+        .map(String::trim)
+        .filter(stmt -> !stmt.isEmpty())
+        .forEach(stmt -> session.run(stmt + ";"));
+    }
+  }
+
+  @AfterAll
+  static void stopNeo4j() {
+    if (driver != null) {
+      driver.close();
+    }
+    if (embeddedDatabaseServer != null) {
+      embeddedDatabaseServer.close();
+    }
+  }
+
+  @BeforeEach
+  void setUp() {
+    try (Session session = driver.session()) {
+      session.run("MATCH (n) DETACH DELETE n");
+    }
+    service = new Neo4jService(driver);
+  }
+
+  @Test
+  void shouldWriteUnitsIntoSchema() throws IOException {
+    // Given
+    CodeUnit unit = parse("Example", "public Example() {} public String getName() { return null; }");
+
+    // When
+    write(unit);
+
+    // Then
+    assertThat(service.getCodeSummary())
+      .containsEntry("components", 1L)
+      .containsEntry("files", 1L)
+      .containsEntry("classes", 1L)
+      .containsEntry("methods", 2L);
+  }
+
+  @Test
+  void shouldPruneRemovedMethodsOnReingest() throws IOException {
+    // Given
+    write(parse("Example", "public void first() {} public void second() {}"));
+
+    // When
+    write(parse("Example", "public void first() {}"));
+
+    // Then
+    assertThat(service.getCodeSummary()).containsEntry("methods", 1L);
+  }
+
+  @Test
+  void shouldWriteCallsAndFieldUses() throws IOException {
+    // Given
+    CodeUnit unit = parse(
+      "Example",
+      "private int count; public void first() { second(); } public void second() { count++; }"
+    );
+
+    // When
+    write(unit);
+    write(unit);
+
+    // Then
+    try (Session session = driver.session()) {
+      var calls = session
+        .run("MATCH (a:Method)-[:CALLS]->(b:Method) RETURN a.name AS caller, b.name AS callee")
+        .list(record -> record.get("caller").asString() + "->" + record.get("callee").asString());
+      var uses = session
+        .run("MATCH (m:Method)-[u:USES]->(:Class {fullName: 'com.example.Example'}) RETURN u.field")
+        .list(record -> record.get(0).asString());
+      assertThat(calls).containsExactly("first->second");
+      assertThat(uses).containsExactly("count");
+    }
+  }
+
+  @Test
+  void shouldKeepCallsIntoRemovedMethodsOfOtherFiles() throws IOException {
+    // Given
+    var resolving = new JavaAnalyzer(sourceRoot);
+    Path callee = sourceRoot.resolve("com/example/Callee.java");
+    Files.createDirectories(callee.getParent());
+    Files.writeString(
+      callee,
+      "package com.example;\npublic class Callee { static void target() {} }\n"
+    );
+    Path caller = sourceRoot.resolve("com/example/Caller.java");
+    Files.writeString(
+      caller,
+      "package com.example;\npublic class Caller { void run() { Callee.target(); } }\n"
+    );
+    CodeUnit calleeUnit = resolving.parseFile(callee);
+    write(calleeUnit);
+    write(resolving.parseFile(caller));
+
+    // When: the callee is deleted, then written back
+    try (var writer = newWriter()) {
+      writer.delete(calleeUnit.id());
+    }
+    List<String> dangling = calls();
+    write(calleeUnit);
+
+    // Then
+    assertThat(dangling).containsExactly("run->null");
+    assertThat(calls()).containsExactly("run->target");
+    assertThat(service.getCodeSummary()).containsEntry("classes", 2L).containsEntry("methods", 2L);
+  }
+
+  @Test
+  void shouldWriteComplexityMetrics() throws IOException {
+    // Given
+    CodeUnit unit = parse("Example", "public int sign(int x) { return x < 0 ? -1 : x > 0 ? 1 : 0; }");
+
+    // When
+    write(unit);
+
+    // Then
+    assertThat(service.getComplexityMetrics())
+      .singleElement()
+      .satisfies(metrics -> assertThat(metrics).containsEntry("complexity", 3L));
+  }
+
+  @Test
+  void shouldLoadSnapshotOfWrittenGraph() throws IOException {
+    // Given
+    var writer = newWriter();
+    writer.add(parse("Example", "public void first() { second(); } public void second() {}"));
+    writer.flush();
+
+    // When
+    var snapshot = new Neo4jSnapshotLoader(driver).load();
+
+    // Then
+    int component = snapshot.find(GraphSnapshot.Label.COMPONENT, "core").orElseThrow();
+    var contained = snapshot.reachable(
+      component,
+      GraphSnapshot.Direction.OUTGOING,
+      EnumSet.of(GraphSnapshot.EdgeType.CONTAINS)
+    );
+    assertThat(snapshot.keys(contained))
+      .contains("com.example.Example", "com.example.Example.first()");
+    assertThat(snapshot.edgeCount(GraphSnapshot.EdgeType.CALLS)).isEqualTo(1);
+    assertThat(writer.generation()).isEqualTo(1);
+  }
+
+  @Test
+  void shouldLoadSupertypesOfWrittenGraph() throws IOException {
+    // Given
+    Path parent = sourceRoot.resolve("Base.java");
+    Files.writeString(parent, "package com.example;\npublic class Base {}\n");
+    Path child = sourceRoot.resolve("Child.java");
+    Files.writeString(
+      child,
+      "package com.example;\npublic class Child extends Base implements Runnable {"
+        + " public void run() {} }\n"
+    );
+    CodeUnit base = analyzer.parseFile(parent);
+    CodeUnit derived = analyzer.parseFile(child);
+    try (var writer = newWriter()) {
+      writer.add(base);
+      writer.add(derived);
+    }
+    var expected = GraphSnapshot.builder().add(base).add(derived).build();
+
+    // When
+    var snapshot = new Neo4jSnapshotLoader(driver).load();
+
+    // Then
+    var types = EnumSet.of(GraphSnapshot.EdgeType.EXTENDS, GraphSnapshot.EdgeType.IMPLEMENTS);
+    for (var type : types) {
+      assertThat(snapshot.edgeCount(type)).isEqualTo(1);
+      assertThat(supertypes(snapshot, type)).isEqualTo(supertypes(expected, type));
+    }
+  }
+
+  @Test
+  void shouldReadWritesThroughSharedSessions() throws IOException {
+    // Given
+    var sessions = new Neo4jSessions(driver, SessionSettings.builder().fetchSize(100).build());
+    var generation = new IngestGeneration();
+    var sharedService = new Neo4jService(sessions, generation, QueryCacheSettings.defaults());
+    assertThat(sharedService.getCodeSummary()).containsEntry("files", 0L);
+
+    // When
+    try (
+      var writer = new Neo4jGraphWriter(
+        sessions,
+        Runnable::run,
+        "core",
+        GraphWriterSettings.defaults(),
+        generation
+      )
+    ) {
+      writer.add(parse("Example", "public void first() {}"));
+    }
+
+    // Then
+    assertThat(sessions.bookmarks()).isNotEmpty();
+    assertThat(sharedService.getCodeSummary()).containsEntry("files", 1L);
+    sharedService.close();
+    assertThat(new Neo4jService(sessions).verifyConnection()).isTrue();
+  }
+
+  @Test
+  void shouldMaintainSummaryCountersAcrossWrites() throws IOException {
+    // Given
+    write(parse("First", "public void a() {} public void b() {}"));
+    CodeUnit second = parse("Second", "public void c() {}");
+    write(second);
+
+    // When
+    write(parse("First", "public void a() {}"));
+    try (var writer = newWriter()) {
+      writer.delete(second.id());
+    }
+
+    // Then
+    Map<String, Object> maintained = service.getCodeSummary();
+    assertThat(maintained)
+      .containsEntry("components", 1L)
+      .containsEntry("files", 1L)
+      .containsEntry("classes", 1L)
+      .containsEntry("methods", 1L);
+    try (var writer = newWriter()) {
+      writer.rebuildSummary();
+    }
+    assertThat(service.getCodeSummary()).isEqualTo(maintained);
+  }
+
+  @Test
+  void shouldCountClassesSharedByFilesOnce() throws IOException {
+    // Given: two files declaring the same class
+    CodeUnit first = parse("First", "} class Shared { public void a() {}");
+    write(first);
+    write(parse("Second", "} class Shared { public void a() {}"));
+    assertThat(service.getCodeSummary())
+      .containsEntry("files", 2L)
+      .containsEntry("classes", 3L)
+      .containsEntry("methods", 1L);
+
+    // When
+    try (var writer = newWriter()) {
+      writer.delete(first.id());
+    }
+
+    // Then
+    Map<String, Object> maintained = service.getCodeSummary();
+    try (var writer = newWriter()) {
+      writer.rebuildSummary();
+    }
+    assertThat(service.getCodeSummary()).isEqualTo(maintained);
+  }
+
+  @Test
+  void shouldKeepSummaryExactUnderConcurrentWrites() throws Exception {
+    // Given: files sharing a class, written by concurrent writers
+    write(parse("Seed", "public void seed() {}"));
+    List<CodeUnit> units = new ArrayList<>();
+    for (int i = 0; i < 8; i++) {
+      units.add(parse("File" + i, "} class Shared { public void a() {}"));
+    }
+    ExecutorService executor = Executors.newFixedThreadPool(units.size());
+
+    // When
+    try {
+      List<Future<?>> writes = new ArrayList<>();
+      for (CodeUnit unit : units) {
+        writes.add(executor.submit(() -> write(unit)));
+      }
+      for (Future<?> write : writes) {
+        write.get();
+      }
+    } finally {
+      executor.shutdown();
+    }
+
+    // Then
+    Map<String, Object> maintained = service.getCodeSummary();
+    assertThat(maintained).containsEntry("files", 9L).containsEntry("classes", 10L);
+    try (var writer = newWriter()) {
+      writer.rebuildSummary();
+    }
+    assertThat(service.getCodeSummary()).isEqualTo(maintained);
+  }
+
+  @Test
+  void shouldWriteDependencyMetrics() throws IOException {
+    // Given
+    CodeUnit unit = parse(
+      "Example",
+      "private int count; public int next() { return count++; } public int peek() { return count; }"
+    );
+    write(unit);
+    var metrics = new DependencyMetricsEngine(Runnable::run).compute(Map.of("core", List.of(unit)));
+    var settings = GraphWriterSettings.builder().batchSize(1).build();
+
+    // When
+    new Neo4jMetricsWriter(new Neo4jSessions(driver), settings, new IngestGeneration()).write(metrics);
+
+    // Then
+    assertThat(service.getComponentDetails())
+      .singleElement()
+      .satisfies(component ->
+        assertThat(component).containsEntry("cohesion", 1.0).containsEntry("coupling", 0.0)
+      );
+    try (Session session = driver.session()) {
+      var type = session
+        .run("MATCH (c:Class {fullName: 'com.example.Example'}) RETURN c")
+        .single()
+        .get("c")
+        .asMap();
+      assertThat(type).containsEntry("lcom", 0.0).containsEntry("afferentCoupling", 0L);
+    }
+  }
+
+  @Test
+  void shouldRankHotspotsWithinScope() throws IOException {
+    // Given
+    write(
+      parse(
+        "Example",
+        "public int sign(int x) { return x < 0 ? -1 : x > 0 ? 1 : 0; }" +
+        "public void first() { second(); } public void second() {}"
+      )
+    );
+
+    // When
+    List<Hotspot> complex = service.getHotspots(
+      HotspotQuery.builder().limit(1).scope(HotspotScope.component("core")).build()
+    );
+    List<Hotspot> called = service.getHotspots(
+      HotspotQuery.builder().limit(1).metric(HotspotMetric.FAN_IN).build()
+    );
+    List<Hotspot> elsewhere = service.getHotspots(
+      HotspotQuery.builder().scope(HotspotScope.packageName("com.other")).build()
+    );
+
+    // Then
+    assertThat(complex)
+      .containsExactly(
+        new Hotspot("com.example.Example.sign(int)", "com/example/Example.java", "core", 3L)
+      );
+    assertThat(called)
+      .singleElement()
+      .satisfies(hotspot -> {
+        assertThat(hotspot.method()).isEqualTo("com.example.Example.second()");
+        assertThat(hotspot.value()).isEqualTo(1L);
+      });
+    assertThat(elsewhere).isEmpty();
+  }
+
+  @Test
+  void shouldReportHotspotsOfSharedClassesOnce() throws IOException {
+    // Given: two files declaring the same class
+    String shared =
+      "} class Shared { public int sign(int x) { return x < 0 ? -1 : x > 0 ? 1 : 0; }";
+    write(parse("Second", shared));
+    write(parse("First", shared));
+
+    // When
+    List<Hotspot> hotspots = service.getHotspots(HotspotQuery.builder().limit(1).build());
+
+    // Then
+    assertThat(hotspots)
+      .containsExactly(
+        new Hotspot("com.example.Shared.sign(int)", "com/example/First.java", "core", 3L)
+      );
+  }
+
+  @Test
+  void shouldWriteDuplicates() throws IOException {
+    // Given
+    String body = "int sum = 0; for (int value : values) { if (value > 0) { sum += value; } } return sum;";
+    CodeUnit unit = parse(
+      "Example",
+      "public int first(int[] values) {" + body + "} public int second(int[] values) {" + body + "}"
+    );
+    write(unit);
+    var detector = new DuplicateDetector(DuplicationSettings.builder().minTokens(10).build());
+    var writer = new Neo4jDuplicatesWriter(
+      new Neo4jSessions(driver),
+      GraphWriterSettings.defaults(),
+      new IngestGeneration()
+    );
+
+    // When
+    writer.write(detector.detect(List.of(unit)));
+    writer.write(detector.detect(List.of(unit)));
+
+    // Then
+    try (Session session = driver.session()) {
+      var duplicates = session
+        .run(
+          "MATCH (a:Method)-[d:DUPLICATES]->(b:Method) RETURN a.name AS first, b.name AS second, d.similarity AS similarity"
+        )
+        .list(record -> record.asMap());
+      assertThat(duplicates)
+        .containsExactly(Map.of("first", "first", "second", "second", "similarity", 1.0));
+      var stored = session.run("MATCH (m:Method {name: 'first'}) RETURN m").single().get("m").asMap();
+      assertThat(stored).containsKey("tokenCount").doesNotContainKey("minHash");
+    }
+  }
+
+  @Test
+  void shouldDeleteDuplicatesNoLongerFound() throws IOException {
+    // Given
+    String body = "int sum = 0; for (int value : values) { if (value > 0) { sum += value; } } return sum;";
+    CodeUnit unit = parse(
+      "Example",
+      "public int first(int[] values) {" + body + "} public int second(int[] values) {" + body + "}"
+    );
+    write(unit);
+    var detector = new DuplicateDetector(DuplicationSettings.builder().minTokens(10).build());
+    var writer = new Neo4jDuplicatesWriter(
+      new Neo4jSessions(driver),
+      GraphWriterSettings.defaults(),
+      new IngestGeneration()
+    );
+    writer.write(detector.detect(List.of(unit)));
+
+    // When
+    writer.write(List.of());
+
+    // Then
+    try (Session session = driver.session()) {
+      long duplicates = session
+        .run("MATCH (:Method)-[d:DUPLICATES]->(:Method) RETURN count(d) AS duplicates")
+        .single()
+        .get("duplicates")
+        .asLong();
+      assertThat(duplicates).isZero();
+    }
+  }
+
+  @Test
+  void shouldDeleteUnits() throws IOException {
+    // Given
+    CodeUnit unit = parse("Example", "public void first() {}");
+    write(unit);
+
+    // When
+    try (var writer = newWriter()) {
+      writer.delete(unit.id());
+    }
+
+    // Then
+    Map<String, Object> summary = service.getCodeSummary();
+    assertThat(summary).containsEntry("files", 0L).containsEntry("methods", 0L);
+  }
+
+  private static List<String> supertypes(GraphSnapshot snapshot, GraphSnapshot.EdgeType type) {
+    int child = snapshot.find(GraphSnapshot.Label.CLASS, "com.example.Child").orElseThrow();
+    return snapshot.keys(snapshot.neighbours(child, type, GraphSnapshot.Direction.OUTGOING));
+  }
+
+  private static List<String> calls() {
+    try (Session session = driver.session()) {
+      return session
+        .run("MATCH (a:Method)-[:CALLS]->(b:Method) RETURN a.name AS caller, b.name AS callee")
+        .list(record -> record.get("caller").asString() + "->" + record.get("callee").asString());
+    }
+  }
+
+  private void write(CodeUnit unit) {
+    try (var writer = newWriter()) {
+      writer.add(unit);
+    }
+  }
+
+  private Neo4jGraphWriter newWriter() {
+    return new Neo4jGraphWriter(driver, Runnable::run, "core", GraphWriterSettings.defaults());
+  }
+
+  private CodeUnit parse(String className, String body) throws IOException {
+    Path file = sourceRoot.resolve(className + ".java");
+    Files.writeString(file, "package com.example;\npublic class " + className + " {" + body + "}\n");
+    return analyzer.parseFile(file);
+  }
+}
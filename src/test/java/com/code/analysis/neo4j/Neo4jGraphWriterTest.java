@@ -0,0 +1,156 @@
+package com.code.analysis.neo4j;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.code.analysis.core.model.CodeUnit;
+import com.code.analysis.core.model.Definition;
+import com.code.analysis.core.model.DefinitionKind;
+import com.code.analysis.core.model.UnitType;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.neo4j.driver.Driver;
+import org.neo4j.driver.Result;
+import org.neo4j.driver.Session;
+import org.neo4j.driver.SessionConfig;
+import org.neo4j.driver.TransactionCallback;
+import org.neo4j.driver.TransactionContext;
+
+@ExtendWith(MockitoExtension.class)
+class Neo4jGraphWriterTest {
+
+  @Mock
+  private Driver mockDriver;
+
+  @Mock
+  private Session mockSession;
+
+  @Mock
+  private TransactionContext mockTx;
+
+  private final List<String> statements = new ArrayList<>();
+  private int transactions;
+
+  @BeforeEach
+  void setUp() {
+    when(mockDriver.session(any(SessionConfig.class))).thenReturn(mockSession);
+    lenient().when(mockSession.executeWrite(any())).thenAnswer(invocation -> {
+      transactions++;
+      TransactionCallback<?> callback = invocation.getArgument(0);
+      return callback.execute(mockTx);
+    });
+    lenient()
+      .when(mockTx.run(anyString(), anyMap()))
+      .thenAnswer(invocation -> {
+        statements.add(invocation.getArgument(0));
+        return mock(Result.class);
+      });
+  }
+
+  @Test
+  void shouldWriteUnitsInBatches() {
+    // Given
+    var settings = GraphWriterSettings.builder().batchSize(4).maxInFlightTransactions(1).build();
+
+    // When
+    try (var writer = new Neo4jGraphWriter(mockDriver, Runnable::run, "core", settings)) {
+      for (int i = 0; i < 5; i++) {
+        writer.add(unitWithMethod("Example" + i)); // file + class + method = 3 rows
+      }
+    }
+
+    // Then
+    assertThat(transactions).isEqualTo(3);
+    assertThat(statements).anyMatch(statement -> statement.contains("UNWIND $methods"));
+  }
+
+  @Test
+  void shouldWriteDeletionsOnFlush() {
+    // Given
+    var writer = new Neo4jGraphWriter(mockDriver, Runnable::run, "core", GraphWriterSettings.defaults());
+    writer.onDeleted("com/example/Gone.java", "gone-id");
+
+    // When
+    writer.flush();
+
+    // Then
+    assertThat(transactions).isEqualTo(1);
+    assertThat(statements)
+      .filteredOn(statement -> statement.contains("$unitIds"))
+      .satisfiesExactly(
+        scoped -> assertThat(scoped).contains("classNames"),
+        deleted -> assertThat(deleted).contains("DETACH DELETE")
+      );
+  }
+
+  @Test
+  void shouldDeleteUnitsWrittenBeforeLastFlush() {
+    // Given
+    var writer = new Neo4jGraphWriter(mockDriver, Runnable::run, "core", GraphWriterSettings.defaults());
+    CodeUnit unit = unitWithMethod("Example");
+    writer.add(unit);
+    writer.delete(unit.id());
+    writer.flush();
+    assertThat(statements).noneMatch(statement -> statement.contains("DETACH DELETE f"));
+
+    // When
+    writer.delete(unit.id());
+    writer.flush();
+
+    // Then
+    assertThat(statements).anyMatch(statement -> statement.contains("DETACH DELETE f"));
+  }
+
+  @Test
+  void shouldSurfaceFailedBatches() {
+    // Given
+    doThrow(new RuntimeException("Write failed")).when(mockSession).executeWrite(any());
+    var writer = new Neo4jGraphWriter(mockDriver, Runnable::run, "core", GraphWriterSettings.defaults());
+    writer.add(unitWithMethod("Example"));
+
+    // When/Then
+    assertThatThrownBy(writer::flush)
+      .isInstanceOf(IllegalStateException.class)
+      .hasRootCauseMessage("Write failed");
+  }
+
+  private static CodeUnit unitWithMethod(String className) {
+    var classDef = Definition.builder()
+      .id(className + "-class")
+      .name(className)
+      .kind(DefinitionKind.TYPE)
+      .metadata(Map.of("qualifiedName", "com.example." + className))
+      .build();
+    var methodDef = Definition.builder()
+      .id(className + "-run")
+      .name("run")
+      .kind(DefinitionKind.FUNCTION)
+      .metadata(
+        Map.of(
+          "declaringType", "com.example." + className,
+          "signature", "com.example." + className + ".run()"
+        )
+      )
+      .build();
+    return CodeUnit.builder()
+      .id(className + "-unit")
+      .name(className + ".java")
+      .type(UnitType.FILE)
+      .definitions(List.of(classDef, methodDef))
+      .metadata(Map.of("path", "com/example/" + className + ".java", "language", "Java"))
+      .build();
+  }
+}
@@ -5,6 +5,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
@@ -16,6 +17,7 @@ import org.junit.jupiter.api.Test;
 import org.neo4j.driver.*;
 import org.neo4j.harness.Neo4j;
 import org.neo4j.harness.Neo4jBuilders;
+import reactor.adapter.JdkFlowAdapter;
 
 class Neo4jServiceIT {
 
@@ -91,6 +93,25 @@ class Neo4jServiceIT {
       .containsEntry("classCount", 1L);
   }
 
+  @Test
+  void shouldPageThroughComponentDetails() {
+    // When
+    ComponentPage first = service.getComponentDetailsPage(null, 1);
+    ComponentPage after = service.getComponentDetailsPage("TestComponent", 1);
+
+    // Then
+    assertThat(first.components())
+      .singleElement()
+      .satisfies(component ->
+        assertThat(component)
+          .containsEntry("name", "TestComponent")
+          .containsEntry("fileCount", 1L)
+          .containsEntry("classCount", 1L)
+      );
+    assertThat(first.next()).isEmpty();
+    assertThat(after.components()).isEmpty();
+  }
+
   @Test
   void shouldReturnComplexityMetrics() {
     List<Map<String, Object>> metrics = service.getComplexityMetrics();
@@ -100,4 +121,35 @@ class Neo4jServiceIT {
       .containsEntry("method", "com.test.Main.main(String[])")
       .containsEntry("complexity", 2L);
   }
+
+  @Test
+  void shouldRunQueriesConcurrentlyWithoutBlocking() {
+    // When
+    var summary = service.getCodeSummaryAsync().toCompletableFuture();
+    var details = service.getComponentDetailsAsync().toCompletableFuture();
+    var metrics = service.getComplexityMetricsAsync().toCompletableFuture();
+
+    // Then
+    assertThat(summary.join()).containsEntry("methods", 1L);
+    assertThat(details.join()).singleElement().satisfies(component ->
+      assertThat(component).containsEntry("name", "TestComponent")
+    );
+    assertThat(metrics.join()).singleElement().satisfies(method ->
+      assertThat(method).containsEntry("complexity", 2L)
+    );
+  }
+
+  @Test
+  void shouldStreamRowsAsTheyArrive() {
+    // When
+    List<Map<String, Object>> metrics = JdkFlowAdapter
+      .flowPublisherToFlux(service.streamComplexityMetrics())
+      .collectList()
+      .block(Duration.ofSeconds(30));
+
+    // Then
+    assertThat(metrics)
+      .singleElement()
+      .satisfies(method -> assertThat(method).containsEntry("method", "com.test.Main.main(String[])"));
+  }
 }
@@ -1,24 +1,43 @@
 package com.code.analysis.neo4j;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.contains;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import com.code.analysis.metrics.Hotspot;
+import com.code.analysis.metrics.HotspotQuery;
+import java.time.Duration;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.neo4j.driver.AccessMode;
+import org.neo4j.driver.Bookmark;
 import org.neo4j.driver.Driver;
 import org.neo4j.driver.Record;
 import org.neo4j.driver.Result;
 import org.neo4j.driver.Session;
+import org.neo4j.driver.SessionConfig;
+import org.neo4j.driver.TransactionCallback;
+import org.neo4j.driver.TransactionConfig;
+import org.neo4j.driver.TransactionContext;
 import org.neo4j.driver.Value;
+import org.neo4j.driver.Values;
+import org.neo4j.driver.async.AsyncSession;
 
 @ExtendWith(MockitoExtension.class)
 class Neo4jServiceTest {
@@ -29,6 +48,9 @@ class Neo4jServiceTest {
   @Mock
   private Session mockSession;
 
+  @Mock
+  private TransactionContext mockTx;
+
   private Neo4jService service;
 
   @BeforeEach
@@ -39,7 +61,7 @@ class Neo4jServiceTest {
   @Test
   void shouldReturnTrueWhenConnectionIsSuccessful() {
     // Given
-    when(mockDriver.session()).thenReturn(mockSession);
+    when(mockDriver.session(any(SessionConfig.class))).thenReturn(mockSession);
     Result mockResult = mock(Result.class);
     when(mockSession.run("RETURN 1")).thenReturn(mockResult);
 
@@ -54,7 +76,7 @@ class Neo4jServiceTest {
   @Test
   void shouldReturnFalseWhenConnectionFails() {
     // Given
-    when(mockDriver.session()).thenReturn(mockSession);
+    when(mockDriver.session(any(SessionConfig.class))).thenReturn(mockSession);
     when(mockSession.run("RETURN 1")).thenThrow(new RuntimeException("Connection failed"));
 
     // When
@@ -66,33 +88,115 @@ class Neo4jServiceTest {
   }
 
   @Test
-  void shouldCloseDriverWhenServiceIsClosed() throws Exception {
+  void shouldLeaveSharedDriverOpenWhenServiceIsClosed() throws Exception {
     // When
     service.close();
 
     // Then
-    verify(mockDriver).close();
+    verify(mockDriver, never()).close();
+  }
+
+  @Test
+  void shouldReadThroughConfiguredReadSessions() {
+    // Given
+    var settings = SessionSettings.builder()
+      .database("code")
+      .fetchSize(500)
+      .readTimeout(Duration.ofSeconds(5))
+      .build();
+    var configuredService = new Neo4jService(new Neo4jSessions(mockDriver, settings));
+    stubSummary();
+
+    // When
+    configuredService.getCodeSummary();
+
+    // Then
+    var sessionConfig = ArgumentCaptor.forClass(SessionConfig.class);
+    verify(mockDriver).session(sessionConfig.capture());
+    assertThat(sessionConfig.getValue().defaultAccessMode()).isEqualTo(AccessMode.READ);
+    assertThat(sessionConfig.getValue().database()).hasValue("code");
+    assertThat(sessionConfig.getValue().fetchSize()).hasValue(500L);
+    assertThat(sessionConfig.getValue().bookmarkManager()).isPresent();
+    var transactionConfig = ArgumentCaptor.forClass(TransactionConfig.class);
+    verify(mockSession).executeRead(any(), transactionConfig.capture());
+    assertThat(transactionConfig.getValue().timeout()).isEqualTo(Duration.ofSeconds(5));
+  }
+
+  @Test
+  void shouldStartFromInitialBookmarks() {
+    // Given
+    Bookmark written = Bookmark.from("writer:42");
+    var settings = SessionSettings.builder().initialBookmarks(Set.of(written)).build();
+
+    // When
+    var sessions = new Neo4jSessions(mockDriver, settings);
+
+    // Then
+    assertThat(sessions.bookmarks()).containsExactly(written);
+    assertThat(new Neo4jSessions(mockDriver).bookmarks()).isEmpty();
   }
 
   @Test
   void shouldReturnCodeSummary() {
     // Given
-    when(mockDriver.session()).thenReturn(mockSession);
+    stubReadTransaction();
     Result mockResult = mock(Result.class);
     Record mockRecord = mock(Record.class);
-    Map<String, Object> expectedSummary = Map.of(
+    Map<String, Object> counters = Map.of(
+      "materialized",
+      true,
       "components",
       1L,
-      "files",
-      2L,
-      "classes",
-      3L,
-      "methods",
-      4L
+      "languages",
+      List.of(
+        Map.of("language", "Java", "files", 1L, "classes", 2L, "methods", 3L),
+        Map.of("language", "Python", "files", 1L, "classes", 1L, "methods", 1L)
+      )
     );
     when(mockResult.list()).thenReturn(List.of(mockRecord));
-    when(mockRecord.asMap()).thenReturn(expectedSummary);
-    when(mockSession.run(anyString())).thenReturn(mockResult);
+    when(mockRecord.asMap()).thenReturn(counters);
+    when(mockTx.run(anyString())).thenReturn(mockResult);
+
+    // When
+    Map<String, Object> summary = service.getCodeSummary();
+
+    // Then
+    assertThat(summary)
+      .containsEntry("components", 1L)
+      .containsEntry("files", 2L)
+      .containsEntry("classes", 3L)
+      .containsEntry("methods", 4L)
+      .containsEntry(
+        "languages",
+        Map.of(
+          "Java",
+          Map.of("files", 1L, "classes", 2L, "methods", 3L),
+          "Python",
+          Map.of("files", 1L, "classes", 1L, "methods", 1L)
+        )
+      );
+    verify(mockTx).run(contains("MATCH (c:Component)"));
+    verify(mockTx, never()).run(contains("MATCH (f:File)"));
+  }
+
+  @Test
+  void shouldCountSummaryWhenCountersAreNotMaintained() {
+    // Given
+    stubReadTransaction();
+    Result componentsResult = mock(Result.class);
+    Record componentsRecord = mock(Record.class);
+    when(componentsResult.single()).thenReturn(componentsRecord);
+    when(componentsRecord.get("components")).thenReturn(Values.value(1L));
+    when(mockTx.run(contains("RETURN count(c) AS components"))).thenReturn(componentsResult);
+    Result filesResult = mock(Result.class);
+    when(filesResult.<Map<String, Object>>list(any()))
+      .thenReturn(List.of(Map.of("language", "Java", "files", 2L, "classes", 3L, "methods", 4L)));
+    when(mockTx.run(contains("MATCH (f:File)"))).thenReturn(filesResult);
+    Result countersResult = mock(Result.class);
+    Record countersRecord = mock(Record.class);
+    when(countersResult.list()).thenReturn(List.of(countersRecord));
+    when(countersRecord.asMap()).thenReturn(Map.of("materialized", false));
+    when(mockTx.run(contains("CodeSummary"))).thenReturn(countersResult);
 
     // When
     Map<String, Object> summary = service.getCodeSummary();
@@ -103,13 +207,12 @@ class Neo4jServiceTest {
       .containsEntry("files", 2L)
       .containsEntry("classes", 3L)
       .containsEntry("methods", 4L);
-    verify(mockSession).run(contains("MATCH (c:Component)"));
   }
 
   @Test
   void shouldReturnComponentDetails() {
     // Given
-    when(mockDriver.session()).thenReturn(mockSession);
+    stubReadTransaction();
     Result mockResult = mock(Result.class);
     Record mockRecord = mock(Record.class);
     Value mockValue = mock(Value.class);
@@ -128,7 +231,7 @@ class Neo4jServiceTest {
     when(mockResult.list()).thenReturn(List.of(mockRecord));
     when(mockRecord.get("component")).thenReturn(mockValue);
     when(mockValue.asMap()).thenReturn(componentDetails);
-    when(mockSession.run(anyString())).thenReturn(mockResult);
+    when(mockTx.run(anyString())).thenReturn(mockResult);
 
     // When
     List<Map<String, Object>> details = service.getComponentDetails();
@@ -141,13 +244,41 @@ class Neo4jServiceTest {
       .containsEntry("coupling", 0.2)
       .containsEntry("fileCount", 2L)
       .containsEntry("classCount", 3L);
-    verify(mockSession).run(contains("MATCH (c:Component)"));
+    verify(mockTx).run(contains("MATCH (c:Component)"));
+  }
+
+  @Test
+  void shouldReturnPageOfComponentDetailsWithNextCursor() {
+    // Given
+    stubReadTransaction();
+    Result mockResult = mock(Result.class);
+    List<Record> rows = Stream.of("alpha", "beta", "gamma")
+      .map(name -> {
+        Record mockRecord = mock(Record.class);
+        Value mockValue = mock(Value.class);
+        when(mockRecord.get("component")).thenReturn(mockValue);
+        when(mockValue.asMap()).thenReturn(Map.of("name", name));
+        return mockRecord;
+      })
+      .toList();
+    when(mockResult.list()).thenReturn(rows);
+    when(mockTx.run(contains("c.name > $after"), anyMap())).thenReturn(mockResult);
+
+    // When
+    ComponentPage page = service.getComponentDetailsPage(null, 2);
+
+    // Then
+    assertThat(page.components())
+      .extracting(component -> component.get("name"))
+      .containsExactly("alpha", "beta");
+    assertThat(page.next()).hasValue("beta");
+    verify(mockTx).run(contains("ORDER BY component.name"), eq(Map.of("after", "", "limit", 3)));
   }
 
   @Test
   void shouldReturnComplexityMetrics() {
     // Given
-    when(mockDriver.session()).thenReturn(mockSession);
+    stubReadTransaction();
     Result mockResult = mock(Result.class);
     Record mockRecord = mock(Record.class);
     Value mockValue = mock(Value.class);
@@ -160,7 +291,7 @@ class Neo4jServiceTest {
     when(mockResult.list()).thenReturn(List.of(mockRecord));
     when(mockRecord.get("metrics")).thenReturn(mockValue);
     when(mockValue.asMap()).thenReturn(methodMetrics);
-    when(mockSession.run(anyString())).thenReturn(mockResult);
+    when(mockTx.run(anyString())).thenReturn(mockResult);
 
     // When
     List<Map<String, Object>> metrics = service.getComplexityMetrics();
@@ -170,6 +301,120 @@ class Neo4jServiceTest {
     assertThat(metrics.get(0))
       .containsEntry("method", "com.test.Main.complexMethod()")
       .containsEntry("complexity", 10);
-    verify(mockSession).run(contains("MATCH (m:Method)"));
+    verify(mockTx).run(contains("MATCH (m:Method)"));
+  }
+
+  @Test
+  void shouldCacheResultsUntilGenerationAdvances() {
+    // Given
+    var generation = new IngestGeneration();
+    var cachingService = new Neo4jService(mockDriver, generation, QueryCacheSettings.defaults());
+    stubSummary();
+
+    // When
+    cachingService.getCodeSummary();
+    cachingService.getCodeSummary();
+    generation.advance();
+    Map<String, Object> summary = cachingService.getCodeSummary();
+
+    // Then
+    assertThat(summary).containsEntry("files", 2L);
+    verify(mockTx, times(2)).run(contains("MATCH (c:Component)"));
+    assertThat(cachingService.getCacheStats())
+      .hasValueSatisfying(stats -> {
+        assertThat(stats.hits()).isEqualTo(1);
+        assertThat(stats.misses()).isEqualTo(2);
+        assertThat(stats.invalidations()).isEqualTo(1);
+        assertThat(stats.entries()).isEqualTo(1);
+      });
+  }
+
+  @Test
+  void shouldEvictResultsBeyondSizeLimit() {
+    // Given
+    var settings = QueryCacheSettings.builder().maxEntries(1).build();
+    var cachingService = new Neo4jService(mockDriver, new IngestGeneration(), settings);
+    stubSummary();
+    Result metricsResult = mock(Result.class);
+    when(metricsResult.list()).thenReturn(List.of());
+    when(mockTx.run(contains("MATCH (m:Method)"))).thenReturn(metricsResult);
+
+    // When
+    cachingService.getCodeSummary();
+    cachingService.getComplexityMetrics();
+    cachingService.getCodeSummary();
+
+    // Then
+    verify(mockTx, times(2)).run(contains("MATCH (c:Component)"));
+    assertThat(cachingService.getCacheStats())
+      .hasValueSatisfying(stats -> assertThat(stats.evictions()).isEqualTo(2));
+    assertThat(service.getCacheStats()).isEmpty();
+  }
+
+  @Test
+  void shouldWeighCachedRecordsByTheirComponents() {
+    // Given: a cache smaller than one hotspot's method signature
+    var settings = QueryCacheSettings.builder().maxBytes(4_096).build();
+    var cachingService = new Neo4jService(mockDriver, new IngestGeneration(), settings);
+    stubReadTransaction();
+    var hotspot = new Hotspot("com.test.Main.m(" + "x".repeat(8_192) + ")", "Main.java", "core", 7);
+    Result hotspotsResult = mock(Result.class);
+    when(hotspotsResult.<Hotspot>list(any())).thenReturn(List.of(hotspot));
+    when(mockTx.run(anyString(), anyMap())).thenReturn(hotspotsResult);
+    var query = HotspotQuery.builder().limit(1).build();
+
+    // When
+    cachingService.getHotspots(query);
+    List<Hotspot> hotspots = cachingService.getHotspots(query);
+
+    // Then
+    assertThat(hotspots).containsExactly(hotspot);
+    verify(mockTx, times(2)).run(anyString(), anyMap());
+    assertThat(cachingService.getCacheStats())
+      .hasValueSatisfying(stats -> assertThat(stats.entries()).isZero());
+  }
+
+  @Test
+  void shouldAnswerAsyncQueriesFromCache() {
+    // Given
+    var cachingService = new Neo4jService(
+      mockDriver,
+      new IngestGeneration(),
+      QueryCacheSettings.defaults()
+    );
+    stubSummary();
+    cachingService.getCodeSummary();
+
+    // When
+    var summary = cachingService.getCodeSummaryAsync().toCompletableFuture();
+
+    // Then
+    assertThat(summary).isCompletedWithValueMatching(result -> result.get("files").equals(2L));
+    verify(mockDriver, never()).session(eq(AsyncSession.class), any(SessionConfig.class));
+  }
+
+  private void stubReadTransaction() {
+    when(mockDriver.session(any(SessionConfig.class))).thenReturn(mockSession);
+    when(mockSession.executeRead(any(), any(TransactionConfig.class)))
+      .thenAnswer(invocation -> invocation.<TransactionCallback<?>>getArgument(0).execute(mockTx));
+  }
+
+  private void stubSummary() {
+    stubReadTransaction();
+    Result mockResult = mock(Result.class);
+    Record mockRecord = mock(Record.class);
+    when(mockResult.list()).thenReturn(List.of(mockRecord));
+    when(mockRecord.asMap())
+      .thenReturn(
+        Map.of(
+          "materialized",
+          true,
+          "components",
+          1L,
+          "languages",
+          List.of(Map.of("language", "Java", "files", 2L, "classes", 1L, "methods", 1L))
+        )
+      );
+    when(mockTx.run(contains("MATCH (c:Component)"))).thenReturn(mockResult);
   }
 }
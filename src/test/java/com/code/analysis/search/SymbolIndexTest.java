@@ -0,0 +1,169 @@
+package com.code.analysis.search;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+import com.code.analysis.core.model.CodeUnit;
+import com.code.analysis.java.JavaAnalyzer;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class SymbolIndexTest {
+
+  @TempDir
+  Path tempDir;
+
+  private final JavaAnalyzer analyzer = new JavaAnalyzer();
+
+  @Test
+  void shouldRankPrefixSubstringCamelCaseAndDocumentationMatches() throws IOException {
+    // Given
+    var writer = new SymbolIndexWriter();
+    writer.add(
+      parse(
+        "DocumentParser",
+        """
+        /** Reads invoices from the billing feed. */
+        public class DocumentParser {
+            /** Turns raw text into a tree. */
+            public Object parseDocument(String text) { return null; }
+
+            public void parse() {}
+        }
+        """
+      )
+    );
+    writer.add(parse("XmlHttpRequest", "public class XmlHttpRequest { public void send() {} }"));
+    Path file = tempDir.resolve("symbols.idx");
+
+    // When
+    writer.write(file);
+
+    // Then
+    try (var symbols = SymbolIndex.open(file)) {
+      assertThat(symbols.size()).isEqualTo(writer.size());
+      assertThat(symbols.search("parse", 10))
+        .extracting(SymbolMatch::name, SymbolMatch::match)
+        .containsExactly(
+          tuple("parse", MatchKind.EXACT),
+          tuple("parseDocument", MatchKind.PREFIX),
+          tuple("DocumentParser", MatchKind.SUBSTRING)
+        );
+      assertThat(symbols.search("XHR", 10))
+        .singleElement()
+        .satisfies(match -> {
+          assertThat(match.name()).isEqualTo("XmlHttpRequest");
+          assertThat(match.match()).isEqualTo(MatchKind.CAMEL_CASE);
+          assertThat(match.kind()).isEqualTo("TYPE");
+          assertThat(match.file()).isEqualTo("com/example/XmlHttpRequest.java");
+        });
+      assertThat(symbols.search("DoPa", 10))
+        .extracting(SymbolMatch::name)
+        .containsExactly("DocumentParser");
+      assertThat(symbols.search("xm", 10))
+        .extracting(SymbolMatch::name, SymbolMatch::match)
+        .containsExactly(tuple("XmlHttpRequest", MatchKind.PREFIX));
+      assertThat(symbols.search("example.xml", 1))
+        .extracting(SymbolMatch::qualifiedName, SymbolMatch::match)
+        .containsExactly(tuple("com.example.XmlHttpRequest", MatchKind.QUALIFIED_NAME));
+      assertThat(symbols.search("BILLING", 10))
+        .extracting(SymbolMatch::name, SymbolMatch::match)
+        .containsExactly(tuple("DocumentParser", MatchKind.DOCUMENTATION));
+      assertThat(symbols.search("zzz", 10)).isEmpty();
+    }
+  }
+
+  @Test
+  void shouldReplaceSymbolsOfChangedFilesInIndexLoadedFromDisk() throws IOException {
+    // Given: a full run written by one writer
+    var fullRun = new SymbolIndexWriter();
+    CodeUnit first = parse("Service", "public class Service { public void start() {} }");
+    fullRun.sink().accept(Path.of("com/example/Service.java"), first);
+    fullRun.add(parse("Client", "public class Client { public void connect() {} }"));
+    Path file = tempDir.resolve("symbols.idx");
+    fullRun.write(file);
+    CodeUnit changed = parse("Service", "public class Service { public void restart() {} }");
+
+    // When: an incremental run in a new writer, as in a new process
+    var incremental = SymbolIndexWriter.load(file);
+    incremental
+      .listener()
+      .onChanged("com/example/Service.java", changed, Optional.of(first.id()));
+    incremental.write(file);
+
+    // Then
+    try (var symbols = SymbolIndex.open(file)) {
+      assertThat(symbols.size()).isEqualTo(fullRun.size());
+      assertThat(symbols.search("start", 10))
+        .extracting(SymbolMatch::name)
+        .containsExactly("restart");
+      assertThat(symbols.search("connect", 10))
+        .extracting(SymbolMatch::name)
+        .containsExactly("connect");
+    }
+    var next = SymbolIndexWriter.load(file);
+    next.listener().onDeleted("com/example/Service.java", changed.id());
+    next.write(file);
+    try (var symbols = SymbolIndex.open(file)) {
+      assertThat(symbols.search("Service", 10)).isEmpty();
+      assertThat(symbols.search("Client", 10)).isNotEmpty();
+    }
+  }
+
+  @Test
+  void shouldRefuseIncrementalChangesWithoutExistingSymbols() {
+    // Given
+    var writer = new SymbolIndexWriter();
+
+    // When / Then
+    assertThatThrownBy(writer::listener).isInstanceOf(IllegalStateException.class);
+  }
+
+  @Test
+  void shouldDecodeOnlyReturnedSymbolsInRankingOrder() throws IOException {
+    // Given
+    var writer = new SymbolIndexWriter();
+    StringBuilder methods = new StringBuilder();
+    for (int i = 0; i < 50; i++) {
+      methods.append("public void handle").append(i).append("() {}\n");
+    }
+    writer.add(parse("Handlers", "public class Handlers {\n" + methods + "}"));
+    Path file = tempDir.resolve("symbols.idx");
+    writer.write(file);
+
+    // When
+    try (var symbols = SymbolIndex.open(file)) {
+      var matches = symbols.search("handle", 3);
+
+      // Then: equally ranked matches come in order of qualified name
+      assertThat(matches)
+        .extracting(SymbolMatch::qualifiedName)
+        .containsExactly(
+          "com.example.Handlers.handle0()",
+          "com.example.Handlers.handle1()",
+          "com.example.Handlers.handle2()"
+        );
+    }
+  }
+
+  @Test
+  void shouldRejectFilesThatAreNotSymbolIndexes() throws IOException {
+    // Given
+    Path file = Files.writeString(tempDir.resolve("other.idx"), "not an index at all");
+
+    // When / Then
+    assertThatThrownBy(() -> SymbolIndex.open(file)).isInstanceOf(IOException.class);
+  }
+
+  private CodeUnit parse(String className, String source) throws IOException {
+    Path file = tempDir.resolve("com/example/" + className + ".java");
+    Files.createDirectories(file.getParent());
+    Files.writeString(file, "package com.example;\n" + source);
+    return analyzer.parseFile(file);
+  }
+}